@@ -1,6 +1,9 @@
 // Run main file, this will start a game of Uno Flip.
 public class Main {
     public static void main(String[] args) {
+        // Bots play small endgames from the precomputed table if one has been generated
+        UnoEndgameTable endgames = UnoEndgameTable.loadIfPresent(new java.io.File(UnoEndgameTable.DEFAULT_FILE));
+        if (endgames != null) UnoModel.setDefaultStrategy(endgames.asStrategy(UnoStrategy.GREEDY));
         new UnoFrame("Uno (M3)");
     }
 }
\ No newline at end of file
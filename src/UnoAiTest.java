@@ -52,4 +52,77 @@ public class UnoAiTest {
         assertTrue("AI should have either played a card (-1) or drew a card (+1). New Size: " + newHandSize, playedCard || drewCard);
         assertTrue("Model should wait for Next after AI move", stub.lastEvent.isMustPressNext());
     }
-}
\ No newline at end of file
+
+    /**
+     * Counts updates so a test can check a batch sends only one.
+     */
+    static class CountingView extends UnoViewStub {
+        int updates;
+        int updatesAtRoundEnd = -1;
+
+        @Override
+        public void handleUpdate(UnoEvent e) {
+            super.handleUpdate(e);
+            updates++;
+        }
+
+        @Override
+        public void handleRoundEnd(String message) {
+            super.handleRoundEnd(message);
+            updatesAtRoundEnd = updates;
+        }
+    }
+
+    /**
+     * A run of bot turns stops at the human, sends one update and undoes in one step.
+     */
+    @Test
+    public void testRunAITurnsStopsAtHuman() {
+        UnoModel m = new UnoModel(3, Arrays.asList("Human", "Bot1", "Bot2"), Arrays.asList(false, true, true), UnoRules.standard(), 11);
+        CountingView view = new CountingView();
+        m.addView(view);
+        m.draw(); // Human draws, then it's the bots' turn
+        UnoCard top = m.getDiscardTop();
+        int[] sizes = {8, 7, 7};
+
+        view.updates = 0;
+        UnoModel.AiRun run = m.runAITurns();
+        assertEquals(1, view.updates);
+        assertTrue(run.turns() >= 1);
+        assertEquals(run.turns(), run.played + run.drew);
+        // Both bots start with 7 cards, so they can't go out before it's the human's turn again
+        assertFalse(run.roundEnded);
+        assertEquals(0, m.getCurrentPlayerIndex());
+        assertEquals("Human", view.lastEvent.getCurrentPlayerName());
+        assertFalse(view.lastEvent.isMustPressNext());
+
+        // Nothing to do on the human's turn
+        assertEquals(0, m.runAITurns().turns());
+
+        // One undo goes back to right before the run
+        m.undo();
+        assertEquals(0, m.getCurrentPlayerIndex());
+        assertTrue(m.isMustPressNext());
+        assertEquals(top.toCode(), m.getDiscardTop().toCode());
+        for (int i = 0; i < sizes.length; i++) assertEquals(sizes[i], m.getPlayer(i).hand.size());
+    }
+
+    /**
+     * An all-bot table plays to the end of the round in one batch, with the popup after the update.
+     */
+    @Test
+    public void testRunAITurnsToRoundEnd() {
+        UnoModel m = new UnoModel(2, Arrays.asList("Bot1", "Bot2"), Arrays.asList(true, true), UnoRules.standard(), 3);
+        CountingView view = new CountingView();
+        m.addView(view);
+        view.updates = 0;
+
+        UnoModel.AiRun run = m.runAITurns();
+        assertTrue(run.roundEnded);
+        assertEquals(1, m.getRoundsPlayed());
+        assertEquals(1, view.updates);
+        assertEquals("Round popup comes after the update", 1, view.updatesAtRoundEnd);
+        assertTrue(view.lastEvent.getInfo(), view.lastEvent.getInfo().startsWith(run.summary()));
+        assertTrue(run.moves.get(run.turns() - 1).endsWith("went out."));
+    }
+}
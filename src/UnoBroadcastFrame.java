@@ -0,0 +1,188 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One state change of a table, encoded once and shared by every spectator and player watching it.
+ * A frame never changes after it is built, so any number of threads can read it.
+ * <p>
+ * It has two parts: the public part that anybody may see (whose turn it is, the top card, scores, how many
+ * cards everyone holds) and a private part per seat holding that seat's hand, which only goes to that seat.
+ * Every frame carries the whole public state, so a watcher who missed some frames is back in sync
+ * as soon as they get the next one.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public final class UnoBroadcastFrame {
+    /** A normal move or turn change. */
+    public static final int UPDATE = 0;
+    /** A round was won (the message has the scores). */
+    public static final int ROUND_END = 1;
+    /** The game is over. */
+    public static final int GAME_END = 2;
+
+    private static final int NO_CARD = 0xFFFF;
+    private static final byte[] NO_HAND = {0, 0};
+
+    private final int kind;
+    private final long sequence;
+    private final byte[] publicPart;
+    private final byte[][] privateParts;
+
+    private UnoBroadcastFrame(int kind, long sequence, byte[] publicPart, byte[][] privateParts) {
+        this.kind = kind;
+        this.sequence = sequence;
+        this.publicPart = publicPart;
+        this.privateParts = privateParts;
+    }
+
+    /**
+     * Encodes the current state of a game.
+     * @param kind     UPDATE, ROUND_END or GAME_END.
+     * @param sequence Frame number, counting up from 0 for each table.
+     * @param m        The game.
+     * @param info     The status line (what just happened).
+     * @param message  The round/game end message (empty for updates).
+     * @return The frame.
+     */
+    public static UnoBroadcastFrame capture(int kind, long sequence, UnoModel m, String info, String message) {
+        int n = m.getPlayerCount();
+        byte[] infoBytes = info.getBytes(StandardCharsets.UTF_8);
+        byte[] messageBytes = message.getBytes(StandardCharsets.UTF_8);
+        byte[][] names = new byte[n][];
+        int size = 1 + 8 + 1 + 1 + 1 + 1 + 1 + 2 + 2 + 2 + 4 + 2 + infoBytes.length + 2 + messageBytes.length;
+        for (int i = 0; i < n; i++) {
+            names[i] = m.getPlayer(i).name.getBytes(StandardCharsets.UTF_8);
+            size += 2 + names[i].length + 4 + 2;
+        }
+
+        ByteBuffer b = ByteBuffer.allocate(size);
+        b.put((byte) kind).putLong(sequence);
+        b.put((byte) n).put((byte) m.getCurrentPlayerIndex()).put((byte) m.getGameDirection());
+        int flags = (m.isDark() ? 1 : 0) | (m.isMustPressNext() ? 2 : 0) | (m.isGameOver() ? 4 : 0);
+        b.put((byte) flags).put((byte) m.getActiveColor().ordinal());
+        UnoCard top = m.getDiscardTop();
+        b.putChar((char) (top == null ? NO_CARD : top.toCode()));
+        b.putShort((short) m.getPendingDraw()).putShort((short) m.getDrawPileSize()).putInt(m.getRoundsPlayed());
+        for (int i = 0; i < n; i++) {
+            UnoPlayer p = m.getPlayer(i);
+            b.putShort((short) names[i].length).put(names[i]).putInt(p.getScore()).putShort((short) p.hand.size());
+        }
+        b.putShort((short) infoBytes.length).put(infoBytes);
+        b.putShort((short) messageBytes.length).put(messageBytes);
+
+        byte[][] hands = new byte[n][];
+        for (int i = 0; i < n; i++) {
+            List<UnoCard> hand = m.getPlayer(i).hand;
+            ByteBuffer h = ByteBuffer.allocate(2 + 2 * hand.size());
+            h.putShort((short) hand.size());
+            for (UnoCard c : hand) h.putChar((char) c.toCode());
+            hands[i] = h.array();
+        }
+        return new UnoBroadcastFrame(kind, sequence, b.array(), hands);
+    }
+
+    public int getKind() { return kind; }
+    public long getSequence() { return sequence; }
+
+    /**
+     * @return The public part, ready to send (a read-only view, the frame itself stays untouched).
+     */
+    public ByteBuffer getPublicPayload() {
+        return ByteBuffer.wrap(publicPart).asReadOnlyBuffer();
+    }
+
+    /**
+     * Gets the hand of one seat. Spectators (or a bad seat number) get an empty hand.
+     * @param seat The seat.
+     * @return The private part for that seat, read-only.
+     */
+    public ByteBuffer getPrivatePayload(int seat) {
+        byte[] part = seat >= 0 && seat < privateParts.length ? privateParts[seat] : NO_HAND;
+        return ByteBuffer.wrap(part).asReadOnlyBuffer();
+    }
+
+    /**
+     * @return Size of the public part in bytes.
+     */
+    public int getPublicSize() {
+        return publicPart.length;
+    }
+
+    /**
+     * Decodes a private payload back into cards.
+     * @param payload A buffer from {@link #getPrivatePayload(int)} (or the same bytes received elsewhere).
+     * @return The hand.
+     */
+    public static List<UnoCard> readHand(ByteBuffer payload) {
+        int count = payload.getShort();
+        List<UnoCard> hand = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) hand.add(UnoCard.fromCode(payload.getChar()));
+        return hand;
+    }
+
+    /**
+     * The public part of a frame, decoded. This is what a client does with the bytes it receives.
+     */
+    public static final class Table {
+        public final int kind;
+        public final long sequence;
+        public final int currentPlayer;
+        public final int direction;
+        public final boolean dark;
+        public final boolean mustPressNext;
+        public final boolean gameOver;
+        public final UnoColor activeColor;
+        public final UnoCard top;
+        public final int pendingDraw;
+        public final int drawPileSize;
+        public final int roundsPlayed;
+        public final List<String> names;
+        public final int[] scores;
+        public final int[] handSizes;
+        public final String info;
+        public final String message;
+
+        /**
+         * Decodes a public payload.
+         * @param b A buffer from {@link #getPublicPayload()} (or the same bytes received elsewhere).
+         */
+        public Table(ByteBuffer b) {
+            kind = b.get();
+            sequence = b.getLong();
+            int n = b.get();
+            currentPlayer = b.get();
+            direction = b.get();
+            int flags = b.get();
+            dark = (flags & 1) != 0;
+            mustPressNext = (flags & 2) != 0;
+            gameOver = (flags & 4) != 0;
+            activeColor = UnoColor.values()[b.get()];
+            int topCode = b.getChar();
+            top = topCode == NO_CARD ? null : UnoCard.fromCode(topCode);
+            pendingDraw = b.getShort();
+            drawPileSize = b.getShort();
+            roundsPlayed = b.getInt();
+            List<String> names = new ArrayList<>(n);
+            scores = new int[n];
+            handSizes = new int[n];
+            for (int i = 0; i < n; i++) {
+                names.add(readString(b));
+                scores[i] = b.getInt();
+                handSizes[i] = b.getShort();
+            }
+            this.names = Collections.unmodifiableList(names);
+            info = readString(b);
+            message = readString(b);
+        }
+
+        private static String readString(ByteBuffer b) {
+            byte[] bytes = new byte[b.getShort()];
+            b.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Streams a table to any number of watchers. It plugs into the model like any other view, turns each
+ * state change into one shared {@link UnoBroadcastFrame}, and hands that frame to every subscriber.
+ * <p>
+ * Each subscriber has its own small ring buffer, so publishing never waits on a watcher. When a watcher falls
+ * so far behind that its buffer is full, it either skips ahead to the newest frame (which has the whole
+ * public state, so nothing is lost but the in-between moves) or gets disconnected, depending on the policy.
+ * Spectators only get the public part; a subscriber for a seat also gets that seat's hand.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoBroadcaster implements UnoView {
+    /** The seat number to subscribe with to watch without seeing any hand. */
+    public static final int SPECTATOR = -1;
+    /** Default number of frames a subscriber can fall behind. */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * What to do with a subscriber whose buffer is full.
+     */
+    public enum SlowPolicy {
+        /** Throw away its backlog and give it just the newest frame. */
+        SNAPSHOT,
+        /** Close the subscription. */
+        DISCONNECT
+    }
+
+    private final int capacity;
+    private final SlowPolicy policy;
+    private final CopyOnWriteArrayList<Subscription> subscribers = new CopyOnWriteArrayList<>();
+
+    private UnoModel model;
+    private long nextSequence = 0;
+    private volatile UnoBroadcastFrame latest;
+
+    /**
+     * Creates a broadcaster that snapshots slow subscribers.
+     */
+    public UnoBroadcaster() {
+        this(DEFAULT_CAPACITY, SlowPolicy.SNAPSHOT);
+    }
+
+    /**
+     * Creates a broadcaster.
+     * @param capacity How many frames a subscriber can fall behind before the policy kicks in.
+     * @param policy   What to do with subscribers that fall behind.
+     */
+    public UnoBroadcaster(int capacity, SlowPolicy policy) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be at least 1.");
+        this.capacity = capacity;
+        this.policy = policy;
+    }
+
+    /**
+     * Starts watching the table. The newest frame (if any) is queued right away so the watcher starts in sync.
+     * Safe to call from any thread.
+     * @param seat The seat whose hand should be included, or {@link #SPECTATOR}.
+     * @return The subscription to poll frames from.
+     */
+    public Subscription subscribe(int seat) {
+        Subscription s = new Subscription(seat, capacity, policy);
+        // Queue the newest frame before joining so frames never arrive out of order
+        UnoBroadcastFrame now = latest;
+        if (now != null) s.offer(now);
+        subscribers.add(s);
+        return s;
+    }
+
+    /**
+     * @return How many subscriptions are open.
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * @return The newest frame, or null if nothing has happened yet.
+     */
+    public UnoBroadcastFrame getLatest() {
+        return latest;
+    }
+
+    /**
+     * Sends a frame to every subscriber and drops the ones that closed.
+     */
+    private void publish(UnoBroadcastFrame frame) {
+        latest = frame;
+        for (Subscription s : subscribers) {
+            if (!s.offer(frame)) subscribers.remove(s);
+        }
+    }
+
+    private void capture(int kind, UnoModel m, String info, String message) {
+        if (m == null) return;
+        publish(UnoBroadcastFrame.capture(kind, nextSequence++, m, info, message));
+    }
+
+    // UnoView: called by the model on the game thread
+
+    @Override
+    public void handleUpdate(UnoEvent e) {
+        if (e.getSource() instanceof UnoModel) model = (UnoModel) e.getSource();
+        capture(UnoBroadcastFrame.UPDATE, model, e.getInfo(), "");
+    }
+
+    @Override
+    public void handleRoundEnd(String message) {
+        capture(UnoBroadcastFrame.ROUND_END, model, message, message);
+    }
+
+    @Override
+    public void handleEnd(String message) {
+        capture(UnoBroadcastFrame.GAME_END, model, message, message);
+    }
+
+    /**
+     * Watchers never pick colors.
+     */
+    @Override
+    public UnoColor promptForWildColor() {
+        return UnoColor.NONE;
+    }
+
+    /**
+     * Popups are for the local player only, so watchers don't get them.
+     */
+    @Override
+    public void showInfo(String message) {
+    }
+
+    /**
+     * One watcher's queue of frames. The game thread adds frames and the watcher's thread polls them.
+     */
+    public static final class Subscription implements AutoCloseable {
+        private final int seat;
+        private final SlowPolicy policy;
+        private final UnoBroadcastFrame[] ring;
+        private long head = 0; // next frame to poll
+        private long tail = 0; // next free spot
+        private long dropped = 0;
+        private boolean closed = false;
+        private volatile Runnable readyListener;
+
+        Subscription(int seat, int capacity, SlowPolicy policy) {
+            this.seat = seat;
+            this.policy = policy;
+            this.ring = new UnoBroadcastFrame[capacity];
+        }
+
+        public int getSeat() { return seat; }
+
+        /**
+         * Sets something to run when a frame arrives and the queue was empty, e.g. waking up a network thread.
+         * It runs on the game thread, so it should be quick.
+         * @param listener The callback (null to remove).
+         */
+        public void setReadyListener(Runnable listener) {
+            this.readyListener = listener;
+        }
+
+        /**
+         * @return false if the subscription is closed and should be removed.
+         */
+        boolean offer(UnoBroadcastFrame frame) {
+            boolean wasEmpty;
+            synchronized (this) {
+                if (closed) return false;
+                if (tail - head == ring.length) {
+                    if (policy == SlowPolicy.DISCONNECT) {
+                        closeLocked();
+                        return false;
+                    }
+                    // Skip ahead: the new frame has the full public state anyway
+                    dropped += tail - head;
+                    while (head < tail) ring[(int) (head++ % ring.length)] = null;
+                }
+                wasEmpty = head == tail;
+                ring[(int) (tail++ % ring.length)] = frame;
+            }
+            Runnable r = readyListener;
+            if (wasEmpty && r != null) r.run();
+            return true;
+        }
+
+        /**
+         * Takes the next frame.
+         * @return The frame, or null if there is nothing new (or the subscription is closed).
+         */
+        public synchronized UnoBroadcastFrame poll() {
+            if (head == tail) return null;
+            int i = (int) (head++ % ring.length);
+            UnoBroadcastFrame f = ring[i];
+            ring[i] = null;
+            return f;
+        }
+
+        /**
+         * @return How many frames are waiting.
+         */
+        public synchronized int size() {
+            return (int) (tail - head);
+        }
+
+        /**
+         * @return How many frames this watcher skipped because it was too slow.
+         */
+        public synchronized long getDroppedCount() {
+            return dropped;
+        }
+
+        public synchronized boolean isClosed() {
+            return closed;
+        }
+
+        /**
+         * Stops the subscription. The broadcaster forgets it on the next frame.
+         */
+        @Override
+        public synchronized void close() {
+            closeLocked();
+        }
+
+        private void closeLocked() {
+            closed = true;
+            while (head < tail) ring[(int) (head++ % ring.length)] = null;
+        }
+    }
+}
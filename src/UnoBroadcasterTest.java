@@ -0,0 +1,120 @@
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Test class for streaming a table to spectators.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoBroadcasterTest {
+    private UnoModel model;
+
+    @Before
+    public void setUp() {
+        model = new UnoModel(3, Arrays.asList("Ann", "Bob", "Cy"), Arrays.asList(false, false, false), UnoRules.standard(), 21);
+    }
+
+    /**
+     * Every watcher gets the very same frame object, and the public part matches the table.
+     */
+    @Test
+    public void testFramesAreSharedAndPublicStateMatches() {
+        UnoBroadcaster b = new UnoBroadcaster();
+        UnoBroadcaster.Subscription s1 = b.subscribe(UnoBroadcaster.SPECTATOR);
+        UnoBroadcaster.Subscription s2 = b.subscribe(UnoBroadcaster.SPECTATOR);
+        model.addView(b);
+        model.draw();
+
+        s1.poll(); // The frame from addView
+        s2.poll();
+        UnoBroadcastFrame f1 = s1.poll();
+        UnoBroadcastFrame f2 = s2.poll();
+        assertNotNull(f1);
+        assertSame(f1, f2);
+
+        UnoBroadcastFrame.Table t = new UnoBroadcastFrame.Table(f1.getPublicPayload());
+        assertEquals(UnoBroadcastFrame.UPDATE, t.kind);
+        assertEquals(f1.getSequence(), t.sequence);
+        assertEquals(Arrays.asList("Ann", "Bob", "Cy"), t.names);
+        assertEquals(model.getCurrentPlayerIndex(), t.currentPlayer);
+        assertEquals(model.getDiscardTop(), t.top);
+        assertEquals(model.getActiveColor(), t.activeColor);
+        for (int i = 0; i < 3; i++) assertEquals(model.getPlayer(i).hand.size(), t.handSizes[i]);
+        assertTrue(t.mustPressNext);
+    }
+
+    /**
+     * Seats only see their own hand and spectators see none.
+     */
+    @Test
+    public void testPrivateHands() {
+        UnoBroadcaster b = new UnoBroadcaster();
+        model.addView(b);
+        UnoBroadcastFrame f = b.getLatest();
+
+        for (int seat = 0; seat < 3; seat++) {
+            List<UnoCard> hand = UnoBroadcastFrame.readHand(f.getPrivatePayload(seat));
+            assertEquals(model.getPlayer(seat).hand, hand);
+        }
+        assertTrue(UnoBroadcastFrame.readHand(f.getPrivatePayload(UnoBroadcaster.SPECTATOR)).isEmpty());
+    }
+
+    /**
+     * A watcher who stops reading skips ahead to the newest frame instead of holding up the game.
+     */
+    @Test
+    public void testSlowSubscriberIsSnapshotted() {
+        UnoBroadcaster b = new UnoBroadcaster(4, UnoBroadcaster.SlowPolicy.SNAPSHOT);
+        UnoBroadcaster.Subscription slow = b.subscribe(0);
+        model.addView(b);
+        for (int i = 0; i < 10; i++) model.addView(new UnoViewStub()); // Each one re-notifies every view
+
+        assertTrue(slow.size() <= 4);
+        assertTrue(slow.getDroppedCount() > 0);
+        UnoBroadcastFrame last = null;
+        for (UnoBroadcastFrame f; (f = slow.poll()) != null; ) {
+            if (last != null) assertTrue(f.getSequence() > last.getSequence());
+            last = f;
+        }
+        assertSame(b.getLatest(), last);
+    }
+
+    /**
+     * With the disconnect policy a slow watcher is closed and forgotten.
+     */
+    @Test
+    public void testSlowSubscriberIsDisconnected() {
+        UnoBroadcaster b = new UnoBroadcaster(2, UnoBroadcaster.SlowPolicy.DISCONNECT);
+        UnoBroadcaster.Subscription slow = b.subscribe(UnoBroadcaster.SPECTATOR);
+        UnoBroadcaster.Subscription fast = b.subscribe(UnoBroadcaster.SPECTATOR);
+        int[] wakeUps = {0};
+        fast.setReadyListener(() -> wakeUps[0]++);
+        model.addView(b);
+        while (fast.poll() != null) { }
+        for (int i = 0; i < 5; i++) {
+            model.addView(new UnoViewStub());
+            while (fast.poll() != null) { }
+        }
+        assertTrue(slow.isClosed());
+        assertNull(slow.poll());
+        assertFalse(fast.isClosed());
+        assertEquals(1, b.getSubscriberCount());
+        assertEquals(6, wakeUps[0]);
+    }
+
+    /**
+     * Someone who starts watching mid-game gets the current state right away.
+     */
+    @Test
+    public void testLateJoinerGetsLatest() {
+        UnoBroadcaster b = new UnoBroadcaster();
+        model.addView(b);
+        model.draw();
+        UnoBroadcaster.Subscription late = b.subscribe(1);
+        assertSame(b.getLatest(), late.poll());
+        assertNull(late.poll());
+    }
+}
@@ -1,5 +1,6 @@
 import java.io.Serial;
 import java.io.Serializable;
+import java.util.Arrays;
 
 /**
  * Defines a single Uno card that has two sides: Light and Dark.
@@ -16,6 +17,9 @@ public class UnoCard implements Serializable {
     private final UnoColor darkColor;
     private final UnoRank darkRank;
 
+    private static final int RANKS = UnoRank.values().length;
+    private static final int SIDES = UnoColor.values().length * RANKS; // possible color/rank combos on one side
+
     /**
      * Creates a new card with specific colors and ranks for both the Light and Dark sides.
      * @param lightColor Color for the light side.
@@ -81,6 +85,34 @@ public class UnoCard implements Serializable {
         return getColor(isDark) + "-" + getRank(isDark);
     }
 
+    /**
+     * Packs both sides of the card into one small number (it fits in 16 bits).
+     * Used by the compact binary formats, e.g. when tables are parked off-heap.
+     * @return The card code.
+     */
+    public int toCode() {
+        int light = lightColor.ordinal() * RANKS + lightRank.ordinal();
+        int dark = darkColor.ordinal() * RANKS + darkRank.ordinal();
+        return light * SIDES + dark;
+    }
+
+    /**
+     * Turns a code from {@link #toCode()} back into a card.
+     * Cards from the standard deck come back as the shared deck objects instead of new copies.
+     * @param code The card code.
+     * @return The card.
+     */
+    public static UnoCard fromCode(int code) {
+        int idx = Arrays.binarySearch(Canonical.CODES, code);
+        if (idx >= 0) return Canonical.CARDS[idx];
+        if (code < 0 || code >= SIDES * SIDES) throw new IllegalArgumentException("Bad card code: " + code);
+        UnoColor[] colors = UnoColor.values();
+        UnoRank[] ranks = UnoRank.values();
+        int light = code / SIDES;
+        int dark = code % SIDES;
+        return new UnoCard(colors[light / RANKS], ranks[light % RANKS], colors[dark / RANKS], ranks[dark % RANKS]);
+    }
+
     /**
      * Shows both sides of the card, useful for debugging logs.
      * Example: "RED-FIVE / TEAL-FIVE"
@@ -89,4 +121,22 @@ public class UnoCard implements Serializable {
     public String toString() {
         return toText(false) + " / " + toText(true);
     }
-}
\ No newline at end of file
+
+    /**
+     * Lookup from code to the shared deck cards, sorted by code. Kept in its own class so it's only built when needed.
+     */
+    private static final class Canonical {
+        static final int[] CODES;
+        static final UnoCard[] CARDS;
+
+        static {
+            UnoDeck deck = UnoDeck.FLIP;
+            UnoCard[] cards = new UnoCard[deck.size()];
+            for (int i = 0; i < cards.length; i++) cards[i] = deck.get(i);
+            Arrays.sort(cards, (a, b) -> Integer.compare(a.toCode(), b.toCode()));
+            CODES = new int[cards.length];
+            for (int i = 0; i < cards.length; i++) CODES[i] = cards[i].toCode();
+            CARDS = cards;
+        }
+    }
+}
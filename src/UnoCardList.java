@@ -0,0 +1,319 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/**
+ * A list of cards that never changes. Adding, removing or replacing a card gives back a new list that shares
+ * everything but a few nodes with the old one, so keeping an old version around (for undo, a checkpoint or a
+ * branch of a search) costs nothing until something changes, and then only the changed path.
+ * <p>
+ * Big lists are a balanced (AVL) tree ordered by position, so getting, adding or removing any card takes O(log n)
+ * and copies O(log n) nodes. Every node also keeps the points and hash of the cards below it, so the totals
+ * ({@link #getPoints}, {@link #getHash}) are ready right away, even for an old version. Lists of up to
+ * {@link #SMALL} cards (almost every hand) are just a copied array instead: for so few cards one small copy is
+ * faster than walking and rebuilding tree nodes, and reading a card is a plain array access.
+ * <p>
+ * Hands use it; the piles only change at the top, so they use the simpler {@link UnoCardStack}.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public final class UnoCardList extends AbstractList<UnoCard> implements RandomAccess {
+    /** Lists up to this size are kept as an array. */
+    public static final int SMALL = 32;
+    /** The empty list. */
+    public static final UnoCardList EMPTY = new UnoCardList(new UnoCard[0], 0, 0, 0);
+
+    // Exactly one of these is set
+    private final UnoCard[] small;
+    private final Node root;
+    // Totals of a small list (a tree keeps them in its root)
+    private final int lightPoints, darkPoints;
+    private final long hash;
+
+    private UnoCardList(UnoCard[] small, int lightPoints, int darkPoints, long hash) {
+        this.small = small;
+        this.root = null;
+        this.lightPoints = lightPoints;
+        this.darkPoints = darkPoints;
+        this.hash = hash;
+    }
+
+    private UnoCardList(Node root) {
+        this.small = null;
+        this.root = root;
+        this.lightPoints = root.lightPoints;
+        this.darkPoints = root.darkPoints;
+        this.hash = root.hash;
+    }
+
+    // A tree node: one card plus the totals of its whole subtree. Never changed once made.
+    private static final class Node {
+        final UnoCard card;
+        final Node left, right;
+        final int size, height;
+        final int lightPoints, darkPoints;
+        final long hash;
+
+        Node(UnoCard card, Node left, Node right) {
+            this.card = card;
+            this.left = left;
+            this.right = right;
+            size = size(left) + 1 + size(right);
+            height = Math.max(height(left), height(right)) + 1;
+            lightPoints = card.getRank(false).getPoints() + (left == null ? 0 : left.lightPoints) + (right == null ? 0 : right.lightPoints);
+            darkPoints = card.getRank(true).getPoints() + (left == null ? 0 : left.darkPoints) + (right == null ? 0 : right.darkPoints);
+            hash = UnoZobrist.card(card) + (left == null ? 0 : left.hash) + (right == null ? 0 : right.hash);
+        }
+    }
+
+    /**
+     * @param cards The cards, in order.
+     * @return A list of them.
+     */
+    public static UnoCardList of(Collection<UnoCard> cards) {
+        return of(cards.toArray(new UnoCard[0]), 0, cards.size());
+    }
+
+    /**
+     * Builds a list from part of an array in O(n), already balanced.
+     * @param cards The array.
+     * @param from  First card (inclusive).
+     * @param to    Last card (exclusive).
+     * @return A list of them.
+     */
+    public static UnoCardList of(UnoCard[] cards, int from, int to) {
+        if (from >= to) return EMPTY;
+        if (to - from > SMALL) return new UnoCardList(build(cards, from, to));
+        UnoCard[] a = Arrays.copyOfRange(cards, from, to);
+        int light = 0, dark = 0;
+        long h = 0;
+        for (UnoCard c : a) {
+            if (c == null) throw new NullPointerException("No card.");
+            light += c.getRank(false).getPoints();
+            dark += c.getRank(true).getPoints();
+            h += UnoZobrist.card(c);
+        }
+        return new UnoCardList(a, light, dark, h);
+    }
+
+    private static Node build(UnoCard[] cards, int from, int to) {
+        if (from >= to) return null;
+        int mid = (from + to) >>> 1;
+        return new Node(cards[mid], build(cards, from, mid), build(cards, mid + 1, to));
+    }
+
+    @Override
+    public int size() {
+        return small != null ? small.length : root.size;
+    }
+
+    @Override
+    public UnoCard get(int index) {
+        if (small != null) return small[index];
+        if (index < 0 || index >= root.size) throw new IndexOutOfBoundsException("Index " + index + ", size " + root.size);
+        Node n = root;
+        while (true) {
+            int left = size(n.left);
+            if (index < left) {
+                n = n.left;
+            } else if (index > left) {
+                index -= left + 1;
+                n = n.right;
+            } else {
+                return n.card;
+            }
+        }
+    }
+
+    /**
+     * @return The first card (index 0), or null if the list is empty.
+     */
+    public UnoCard first() {
+        if (small != null) return small.length == 0 ? null : small[0];
+        Node n = root;
+        while (n.left != null) n = n.left;
+        return n.card;
+    }
+
+    /**
+     * @return A list with the card added at the given position; this one doesn't change.
+     */
+    public UnoCardList insert(int index, UnoCard card) {
+        int size = size();
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        if (card == null) throw new NullPointerException("No card.");
+        if (small != null && size < SMALL) {
+            UnoCard[] a = new UnoCard[size + 1];
+            System.arraycopy(small, 0, a, 0, index);
+            a[index] = card;
+            System.arraycopy(small, index, a, index + 1, size - index);
+            return new UnoCardList(a, lightPoints + card.getRank(false).getPoints(),
+                    darkPoints + card.getRank(true).getPoints(), hash + UnoZobrist.card(card));
+        }
+        Node r = small != null ? build(small, 0, size) : root; // Too big for an array from here on
+        return new UnoCardList(insert(r, index, card));
+    }
+
+    /**
+     * @return A list without the card at the given position; this one doesn't change.
+     */
+    public UnoCardList delete(int index) {
+        int size = size();
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        if (small != null) {
+            UnoCard c = small[index];
+            UnoCard[] a = new UnoCard[size - 1];
+            System.arraycopy(small, 0, a, 0, index);
+            System.arraycopy(small, index + 1, a, index, size - index - 1);
+            return new UnoCardList(a, lightPoints - c.getRank(false).getPoints(),
+                    darkPoints - c.getRank(true).getPoints(), hash - UnoZobrist.card(c));
+        }
+        Node r = delete(root, index);
+        // Back to an array once it's well under the limit (not right at it, so it doesn't flip back and forth)
+        if (size - 1 <= SMALL / 2) return of(toArray(r, size - 1), 0, size - 1);
+        return new UnoCardList(r);
+    }
+
+    /**
+     * @return A list with the card at the given position swapped for another; this one doesn't change.
+     */
+    public UnoCardList replace(int index, UnoCard card) {
+        int size = size();
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        if (card == null) throw new NullPointerException("No card.");
+        if (small != null) {
+            UnoCard c = small[index];
+            UnoCard[] a = small.clone();
+            a[index] = card;
+            return new UnoCardList(a, lightPoints - c.getRank(false).getPoints() + card.getRank(false).getPoints(),
+                    darkPoints - c.getRank(true).getPoints() + card.getRank(true).getPoints(),
+                    hash - UnoZobrist.card(c) + UnoZobrist.card(card));
+        }
+        return new UnoCardList(replace(root, index, card));
+    }
+
+    /** @return A list with the card added at the front. */
+    public UnoCardList push(UnoCard card) {
+        return insert(0, card);
+    }
+
+    /** @return A list without its first card. */
+    public UnoCardList pop() {
+        return delete(0);
+    }
+
+    /**
+     * @param isDark true to count the Dark side of the cards.
+     * @return What the cards are worth.
+     */
+    public int getPoints(boolean isDark) {
+        return isDark ? darkPoints : lightPoints;
+    }
+
+    /**
+     * @return The sum of the cards' Zobrist keys: the same for the same cards in any order.
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * @return The cards in a new array, in order.
+     */
+    @Override
+    public UnoCard[] toArray() {
+        return small != null ? small.clone() : toArray(root, root.size);
+    }
+
+    private static UnoCard[] toArray(Node n, int size) {
+        UnoCard[] out = new UnoCard[size];
+        fill(n, out, 0);
+        return out;
+    }
+
+    private static int fill(Node n, UnoCard[] out, int at) {
+        while (n != null) {
+            at = fill(n.left, out, at);
+            out[at++] = n.card;
+            n = n.right;
+        }
+        return at;
+    }
+
+    // In order, without looking each card up from the root again
+    @Override
+    public void forEach(Consumer<? super UnoCard> action) {
+        if (small != null) {
+            for (UnoCard c : small) action.accept(c);
+        } else {
+            forEach(root, action);
+        }
+    }
+
+    private static void forEach(Node n, Consumer<? super UnoCard> action) {
+        while (n != null) {
+            forEach(n.left, action);
+            action.accept(n.card);
+            n = n.right;
+        }
+    }
+
+    // TREE OPERATIONS (each copies only the nodes on the path it walks)
+
+    private static int size(Node n) {
+        return n == null ? 0 : n.size;
+    }
+
+    private static int height(Node n) {
+        return n == null ? 0 : n.height;
+    }
+
+    private static Node insert(Node n, int index, UnoCard card) {
+        if (n == null) return new Node(card, null, null);
+        int left = size(n.left);
+        if (index <= left) return balance(n.card, insert(n.left, index, card), n.right);
+        return balance(n.card, n.left, insert(n.right, index - left - 1, card));
+    }
+
+    private static Node delete(Node n, int index) {
+        int left = size(n.left);
+        if (index < left) return balance(n.card, delete(n.left, index), n.right);
+        if (index > left) return balance(n.card, n.left, delete(n.right, index - left - 1));
+        if (n.left == null) return n.right;
+        if (n.right == null) return n.left;
+        // Put the next card in this one's place
+        Node next = n.right;
+        while (next.left != null) next = next.left;
+        return balance(next.card, n.left, delete(n.right, 0));
+    }
+
+    private static Node replace(Node n, int index, UnoCard card) {
+        int left = size(n.left);
+        if (index < left) return new Node(n.card, replace(n.left, index, card), n.right);
+        if (index > left) return new Node(n.card, n.left, replace(n.right, index - left - 1, card));
+        return new Node(card, n.left, n.right);
+    }
+
+    // Makes a node from its parts, rotating if one side got more than one level taller than the other
+    private static Node balance(UnoCard card, Node left, Node right) {
+        int diff = height(left) - height(right);
+        if (diff > 1) {
+            if (height(left.left) >= height(left.right)) {
+                return new Node(left.card, left.left, new Node(card, left.right, right));
+            }
+            Node lr = left.right;
+            return new Node(lr.card, new Node(left.card, left.left, lr.left), new Node(card, lr.right, right));
+        }
+        if (diff < -1) {
+            if (height(right.right) >= height(right.left)) {
+                return new Node(right.card, new Node(card, left, right.left), right.right);
+            }
+            Node rl = right.left;
+            return new Node(rl.card, new Node(card, left, rl.left), new Node(right.card, rl.right, right.right));
+        }
+        return new Node(card, left, right);
+    }
+}
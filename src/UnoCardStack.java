@@ -0,0 +1,96 @@
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A pile of cards that never changes: pushing a card gives back a new pile whose rest is the old one, and popping
+ * gives back the rest. Both take O(1), popping makes nothing new at all, and an old version of the pile stays
+ * valid for as long as someone keeps it. The draw and discard piles only ever change at the top, so they use this
+ * instead of a {@link UnoCardList}.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public final class UnoCardStack extends AbstractCollection<UnoCard> {
+    /** The empty pile. */
+    public static final UnoCardStack EMPTY = new UnoCardStack(null, null, 0);
+
+    private final UnoCard top;
+    private final UnoCardStack rest;
+    private final int size;
+
+    private UnoCardStack(UnoCard top, UnoCardStack rest, int size) {
+        this.top = top;
+        this.rest = rest;
+        this.size = size;
+    }
+
+    /**
+     * @param cards The cards, top first.
+     * @return A pile of them.
+     */
+    public static UnoCardStack of(Collection<UnoCard> cards) {
+        return of(cards.toArray(new UnoCard[0]), 0, cards.size());
+    }
+
+    /**
+     * @param cards An array of cards.
+     * @param from  The top card (inclusive).
+     * @param to    End of the pile (exclusive).
+     * @return A pile of them, cards[from] on top.
+     */
+    public static UnoCardStack of(UnoCard[] cards, int from, int to) {
+        UnoCardStack s = EMPTY;
+        for (int i = to - 1; i >= from; i--) s = s.push(cards[i]);
+        return s;
+    }
+
+    /**
+     * @return A pile with the card on top; this one doesn't change.
+     */
+    public UnoCardStack push(UnoCard card) {
+        if (card == null) throw new NullPointerException("No card.");
+        return new UnoCardStack(card, this, size + 1);
+    }
+
+    /**
+     * @return The pile under the top card (empty stays empty).
+     */
+    public UnoCardStack pop() {
+        return size == 0 ? this : rest;
+    }
+
+    /**
+     * @return The top card, or null if the pile is empty.
+     */
+    public UnoCard first() {
+        return top;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // From the top down
+    @Override
+    public Iterator<UnoCard> iterator() {
+        return new Iterator<>() {
+            private UnoCardStack next = UnoCardStack.this;
+
+            @Override
+            public boolean hasNext() {
+                return next.size > 0;
+            }
+
+            @Override
+            public UnoCard next() {
+                if (next.size == 0) throw new NoSuchElementException();
+                UnoCard c = next.top;
+                next = next.rest;
+                return c;
+            }
+        };
+    }
+}
@@ -0,0 +1,412 @@
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Differential fuzzer that checks a (faster) engine against the reference UnoModel.
+ * Both engines are started from the same seed and fed the same random moves, legal and illegal,
+ * including undo and redo. After every move they have to agree on whether the move was rejected and
+ * write exactly the same state bytes (whose turn, direction, skips, side, active color, scores, hands and piles).
+ * <p>
+ * When they don't, the move list is shrunk (delta debugging) down to a short list that still shows the difference,
+ * and the report says which field differs.
+ * <p>
+ * Undo snapshots cost far more than the moves themselves, so by default only every 16th game keeps undo turned on
+ * and mixes in undo/redo moves; the rest run with undo off. That keeps the fuzzer at tens of thousands of games
+ * a minute while still covering undo. Run it from the command line to gate a change:
+ * <pre>
+ * java UnoConformance [games] [threads] [firstSeed]
+ * </pre>
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoConformance {
+
+    /**
+     * Creates an engine for one fuzzed game. All seats are human so the fuzzer makes every move.
+     */
+    @FunctionalInterface
+    public interface EngineFactory {
+        /**
+         * @param undo False if the game won't use undo, so the engine can skip keeping snapshots.
+         */
+        UnoEngine create(int numPlayers, UnoRules rules, long seed, boolean undo);
+    }
+
+    /** The reference engine. */
+    public static final EngineFactory REFERENCE = (n, rules, seed, undo) -> {
+        List<String> names = new ArrayList<>();
+        List<Boolean> isAI = new ArrayList<>();
+        for (int i = 0; i < n; i++) { names.add("P" + i); isAI.add(false); }
+        UnoModel m = new UnoModel(n, names, isAI, rules, seed);
+        if (!undo) m.getHistory().setBudget(0);
+        return m;
+    };
+
+    // Moves are packed into an int: op in the top byte, then the Wild color, then the hand index
+    private static final int DRAW = 0, NEXT = 1, PLAY = 2, WILD = 3, UNDO = 4, REDO = 5;
+    private static final String[] OP_NAMES = {"DRAW", "NEXT", "PLAY", "WILD", "UNDO", "REDO"};
+
+    private static final UnoColor[] LIGHT = {UnoColor.RED, UnoColor.GREEN, UnoColor.BLUE, UnoColor.YELLOW};
+    private static final UnoColor[] DARK = {UnoColor.PINK, UnoColor.TEAL, UnoColor.PURPLE, UnoColor.ORANGE};
+
+    private static final int STATE_BYTES = 4096;
+
+    private final EngineFactory reference;
+    private final EngineFactory candidate;
+    private UnoRules rules = UnoRules.standard();
+    private int maxSteps = 200;
+    private int undoEvery = 16;
+
+    /**
+     * @param reference The engine that is right by definition (usually {@link #REFERENCE}).
+     * @param candidate The engine being checked.
+     */
+    public UnoConformance(EngineFactory reference, EngineFactory candidate) {
+        this.reference = reference;
+        this.candidate = candidate;
+    }
+
+    public void setRules(UnoRules rules) { this.rules = rules; }
+    public void setMaxSteps(int maxSteps) { this.maxSteps = maxSteps; }
+
+    /**
+     * @param undoEvery Every how many games to test with undo on (1 = all of them).
+     */
+    public void setUndoEvery(int undoEvery) {
+        if (undoEvery < 1) throw new IllegalArgumentException("undoEvery must be at least 1.");
+        this.undoEvery = undoEvery;
+    }
+
+    /**
+     * Fuzzes a batch of games (seeds firstSeed, firstSeed+1, ...) and stops at the first difference.
+     * @param firstSeed Seed of the first game.
+     * @param games     How many games to play.
+     * @param threads   How many games to run at once.
+     * @return What happened.
+     */
+    public Report run(long firstSeed, int games, int threads) throws InterruptedException {
+        long start = System.nanoTime();
+        AtomicLong steps = new AtomicLong();
+        AtomicLong played = new AtomicLong();
+        AtomicReference<Mismatch> failure = new AtomicReference<>();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> jobs = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int lane = t;
+                jobs.add(pool.submit(() -> {
+                    ByteBuffer a = ByteBuffer.allocate(STATE_BYTES);
+                    ByteBuffer b = ByteBuffer.allocate(STATE_BYTES);
+                    for (int g = lane; g < games && failure.get() == null; g += threads) {
+                        Mismatch m = fuzzGame(firstSeed + g, a, b, steps);
+                        played.incrementAndGet();
+                        if (m != null) failure.compareAndSet(null, m);
+                    }
+                }));
+            }
+            for (Future<?> f : jobs) {
+                try {
+                    f.get();
+                } catch (java.util.concurrent.ExecutionException e) {
+                    throw new IllegalStateException("Fuzzer crashed", e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        Mismatch m = failure.get();
+        if (m != null) m = shrink(m);
+        return new Report(played.get(), steps.get(), System.nanoTime() - start, m);
+    }
+
+    /**
+     * Replays a move list on fresh engines and finds the first move they disagree on.
+     * @param seed    The game seed.
+     * @param actions The moves.
+     * @return The difference, or null if they agree all the way.
+     */
+    public Mismatch check(long seed, int[] actions) {
+        int n = playersFor(seed);
+        boolean undo = undoFor(seed);
+        UnoEngine ref = reference.create(n, rules, seed, undo);
+        UnoEngine cand = candidate.create(n, rules, seed, undo);
+        ByteBuffer a = ByteBuffer.allocate(STATE_BYTES);
+        ByteBuffer b = ByteBuffer.allocate(STATE_BYTES);
+        String diff = compare(ref, cand, null, null, a, b);
+        if (diff != null) return new Mismatch(seed, n, new int[0], diff);
+        for (int i = 0; i < actions.length; i++) {
+            String refOutcome = apply(ref, actions[i]);
+            String candOutcome = apply(cand, actions[i]);
+            diff = compare(ref, cand, refOutcome, candOutcome, a, b);
+            if (diff != null) return new Mismatch(seed, n, Arrays.copyOf(actions, i + 1), diff);
+        }
+        return null;
+    }
+
+    /**
+     * Makes a failing move list as short as possible (ddmin), keeping only moves needed to show a difference.
+     * @param m A difference found by the fuzzer.
+     * @return The shortest difference found.
+     */
+    public Mismatch shrink(Mismatch m) {
+        int[] actions = m.actions;
+        Mismatch best = m;
+        int parts = 2;
+        while (actions.length >= 2) {
+            int chunk = (actions.length + parts - 1) / parts;
+            boolean reduced = false;
+            for (int from = 0; from < actions.length; from += chunk) {
+                int to = Math.min(actions.length, from + chunk);
+                int[] fewer = new int[actions.length - (to - from)];
+                System.arraycopy(actions, 0, fewer, 0, from);
+                System.arraycopy(actions, to, fewer, from, actions.length - to);
+                Mismatch again = check(m.seed, fewer);
+                if (again != null) {
+                    best = again;
+                    actions = again.actions; // Already cut right after the failing move
+                    parts = Math.max(parts - 1, 2);
+                    reduced = true;
+                    break;
+                }
+            }
+            if (!reduced) {
+                if (parts >= actions.length) break;
+                parts = Math.min(actions.length, parts * 2);
+            }
+        }
+        return best;
+    }
+
+    // Plays one game with random moves picked from the reference's state, comparing after each move
+    private Mismatch fuzzGame(long seed, ByteBuffer a, ByteBuffer b, AtomicLong steps) {
+        int n = playersFor(seed);
+        boolean undo = undoFor(seed);
+        UnoEngine ref = reference.create(n, rules, seed, undo);
+        UnoEngine cand = candidate.create(n, rules, seed, undo);
+        String diff = compare(ref, cand, null, null, a, b);
+        if (diff != null) return new Mismatch(seed, n, new int[0], diff);
+
+        Random rnd = new Random(seed * 0x9E3779B97F4A7C15L);
+        int[] actions = new int[maxSteps];
+        for (int i = 0; i < maxSteps; i++) {
+            actions[i] = pickAction(ref, rnd, undo);
+            String refOutcome = apply(ref, actions[i]);
+            String candOutcome = apply(cand, actions[i]);
+            steps.incrementAndGet();
+            diff = compare(ref, cand, refOutcome, candOutcome, a, b);
+            if (diff != null) return new Mismatch(seed, n, Arrays.copyOf(actions, i + 1), diff);
+        }
+        return null;
+    }
+
+    // Mostly sensible moves, with some undo/redo and some moves that should be rejected
+    private static int pickAction(UnoEngine e, Random rnd, boolean undo) {
+        int roll = rnd.nextInt(100);
+        if (undo && roll < 4) return pack(UNDO, 0, 0);
+        if (undo && roll < 7) return pack(REDO, 0, 0);
+        boolean[] legal = e.getLegalMoves();
+        if (roll < 12) {
+            // Anything at all, usually illegal (including out of range)
+            int op = rnd.nextInt(4);
+            return pack(op, rnd.nextInt(legal.length + 2), rnd.nextInt(4));
+        }
+        if (e.isMustPressNext()) return pack(NEXT, 0, 0);
+        int count = 0;
+        for (boolean ok : legal) if (ok) count++;
+        if (count == 0 || roll < 20) return pack(DRAW, 0, 0);
+        int pick = rnd.nextInt(count);
+        for (int i = 0; i < legal.length; i++) {
+            if (legal[i] && pick-- == 0) return pack(e.isCardWild(i) ? WILD : PLAY, i, rnd.nextInt(4));
+        }
+        return pack(DRAW, 0, 0);
+    }
+
+    private static int pack(int op, int index, int color) {
+        return op << 24 | color << 16 | index;
+    }
+
+    // Applies a move, returning null if it worked or the kind of exception if it was rejected
+    private static String apply(UnoEngine e, int action) {
+        int op = action >>> 24;
+        int index = action & 0xFFFF;
+        try {
+            switch (op) {
+                case DRAW -> e.draw();
+                case NEXT -> e.nextPlayer();
+                case PLAY -> e.play(index);
+                case WILD -> e.playWild(index, (e.isDark() ? DARK : LIGHT)[(action >>> 16) & 0xFF]);
+                case UNDO -> e.undo();
+                case REDO -> e.redo();
+                default -> throw new IllegalArgumentException("Bad op " + op);
+            }
+            return null;
+        } catch (RuntimeException ex) {
+            return ex.getClass().getSimpleName();
+        }
+    }
+
+    /**
+     * @return null if both engines agree, otherwise what differs.
+     */
+    private static String compare(UnoEngine ref, UnoEngine cand, String refOutcome, String candOutcome, ByteBuffer a, ByteBuffer b) {
+        if (refOutcome == null ? candOutcome != null : !refOutcome.equals(candOutcome)) {
+            return "outcome: reference " + (refOutcome == null ? "ok" : refOutcome) + ", candidate " + (candOutcome == null ? "ok" : candOutcome);
+        }
+        a.clear();
+        b.clear();
+        ref.writeTo(a);
+        cand.writeTo(b);
+        a.flip();
+        b.flip();
+        int at = a.mismatch(b);
+        return at < 0 ? null : describeDifference(a, b, at);
+    }
+
+    // Turns the first differing byte into a field name by decoding both states
+    private static String describeDifference(ByteBuffer a, ByteBuffer b, int at) {
+        UnoModel x;
+        UnoModel y;
+        try {
+            x = UnoModel.readFrom(a.duplicate());
+            y = UnoModel.readFrom(b.duplicate());
+        } catch (RuntimeException e) {
+            return "state differs at byte " + at + " (candidate state can't be read: " + e + ")";
+        }
+        StringBuilder sb = new StringBuilder();
+        field(sb, "current", x.getCurrentPlayerIndex(), y.getCurrentPlayerIndex());
+        field(sb, "direction", x.getGameDirection(), y.getGameDirection());
+        field(sb, "nextSteps", x.getNextSteps(), y.getNextSteps());
+        field(sb, "isDark", x.isDark(), y.isDark());
+        field(sb, "mustPressNext", x.isMustPressNext(), y.isMustPressNext());
+        field(sb, "gameOver", x.isGameOver(), y.isGameOver());
+        field(sb, "activeColor", x.getActiveColor(), y.getActiveColor());
+        field(sb, "pendingDraw", x.getPendingDraw(), y.getPendingDraw());
+        field(sb, "roundsPlayed", x.getRoundsPlayed(), y.getRoundsPlayed());
+        field(sb, "players", x.getPlayerCount(), y.getPlayerCount());
+        for (int i = 0; i < Math.min(x.getPlayerCount(), y.getPlayerCount()); i++) {
+            field(sb, "score[" + i + "]", x.getPlayer(i).getScore(), y.getPlayer(i).getScore());
+            field(sb, "hand[" + i + "]", x.getPlayer(i).hand, y.getPlayer(i).hand);
+        }
+        field(sb, "drawPileSize", x.getDrawPileSize(), y.getDrawPileSize());
+        field(sb, "discardTop", x.getDiscardTop(), y.getDiscardTop());
+        if (sb.length() == 0) sb.append("state differs at byte ").append(at).append(" (info text or pile order)");
+        return sb.toString();
+    }
+
+    private static void field(StringBuilder sb, String name, Object ref, Object cand) {
+        if (java.util.Objects.equals(ref, cand)) return;
+        if (sb.length() > 0) sb.append("; ");
+        sb.append(name).append(": reference ").append(ref).append(", candidate ").append(cand);
+    }
+
+    private static int playersFor(long seed) {
+        return 2 + (int) Math.floorMod(seed, 3L);
+    }
+
+    private boolean undoFor(long seed) {
+        return Math.floorMod(seed, (long) undoEvery) == 0;
+    }
+
+    /**
+     * @return A move as text, e.g. "PLAY 3" or "WILD 0 BLUE(slot 2)".
+     */
+    static String describe(int action) {
+        int op = action >>> 24;
+        int index = action & 0xFFFF;
+        return switch (op) {
+            case PLAY -> "PLAY " + index;
+            case WILD -> "WILD " + index + " color slot " + ((action >>> 16) & 0xFF);
+            default -> OP_NAMES[op];
+        };
+    }
+
+    /**
+     * A move list on which the engines disagree, small enough to replay by hand.
+     */
+    public static final class Mismatch {
+        public final long seed;
+        public final int numPlayers;
+        final int[] actions;
+        public final String difference;
+
+        Mismatch(long seed, int numPlayers, int[] actions, String difference) {
+            this.seed = seed;
+            this.numPlayers = numPlayers;
+            this.actions = actions;
+            this.difference = difference;
+        }
+
+        /**
+         * @return The moves, to replay with {@link UnoConformance#check(long, int[])}.
+         */
+        public int[] getActions() {
+            return actions.clone();
+        }
+
+        /**
+         * @return How many moves it takes to show the difference.
+         */
+        public int length() {
+            return actions.length;
+        }
+
+        @Override
+        public String toString() {
+            List<String> moves = new ArrayList<>();
+            for (int a : actions) moves.add(describe(a));
+            return "seed " + seed + ", " + numPlayers + " players, moves " + moves + " -> " + difference;
+        }
+    }
+
+    /**
+     * The result of a fuzzing run.
+     */
+    public static final class Report {
+        public final long games;
+        public final long steps;
+        public final long nanos;
+        /** The (shrunk) difference found, or null if the engines always agreed. */
+        public final Mismatch failure;
+
+        Report(long games, long steps, long nanos, Mismatch failure) {
+            this.games = games;
+            this.steps = steps;
+            this.nanos = nanos;
+            this.failure = failure;
+        }
+
+        public boolean passed() { return failure == null; }
+
+        public double gamesPerMinute() {
+            return games * 60e9 / Math.max(1, nanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d games, %d moves in %.1fs (%.0f games/min): %s",
+                    games, steps, nanos / 1e9, gamesPerMinute(), failure == null ? "PASS" : "FAIL " + failure);
+        }
+    }
+
+    /**
+     * Runs the reference against itself, which catches anything that isn't deterministic for a seed.
+     * Swap in a faster engine's factory here (or call run from its own test) to check it.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        Report r = new UnoConformance(REFERENCE, REFERENCE).run(seed, games, threads);
+        System.out.println(r);
+        if (!r.passed()) System.exit(1);
+    }
+}
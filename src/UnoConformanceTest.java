@@ -0,0 +1,82 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test class for the differential conformance fuzzer.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoConformanceTest {
+
+    /**
+     * An engine with a planted bug: playing a Reverse on the Light side doesn't turn play around.
+     */
+    static class ForgetfulReverse extends UnoModel {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        ForgetfulReverse(int n, List<String> names, List<Boolean> isAI, UnoRules rules, long seed) {
+            super(n, names, isAI, rules, seed);
+        }
+
+        @Override
+        public void play(int handIndex) {
+            UnoCard c = peekCardInHand(handIndex);
+            boolean reverse = c != null && !isDark() && c.getRank(false) == UnoRank.REVERSE;
+            super.play(handIndex);
+            if (reverse) reverseDirection(); // Undo the turn-around
+        }
+    }
+
+    private static final UnoConformance.EngineFactory BUGGY = (n, rules, seed, undo) -> {
+        List<String> names = new ArrayList<>();
+        List<Boolean> isAI = new ArrayList<>();
+        for (int i = 0; i < n; i++) { names.add("P" + i); isAI.add(false); }
+        UnoModel m = new ForgetfulReverse(n, names, isAI, rules, seed);
+        if (!undo) m.getHistory().setBudget(0);
+        return m;
+    };
+
+    /**
+     * The reference always agrees with itself, undo and redo included.
+     */
+    @Test
+    public void testReferenceMatchesItself() throws InterruptedException {
+        UnoConformance c = new UnoConformance(UnoConformance.REFERENCE, UnoConformance.REFERENCE);
+        c.setUndoEvery(4);
+        UnoConformance.Report r = c.run(100, 200, 2);
+        assertTrue(r.toString(), r.passed());
+        assertEquals(200, r.games);
+        assertTrue(r.steps > 0);
+    }
+
+    /**
+     * A planted bug is found, pinned to the right field, and shrunk to a short replay.
+     */
+    @Test
+    public void testFindsAndShrinksBug() throws InterruptedException {
+        UnoConformance c = new UnoConformance(UnoConformance.REFERENCE, BUGGY);
+        UnoConformance.Report r = c.run(1, 500, 1);
+        assertFalse(r.passed());
+        UnoConformance.Mismatch m = r.failure;
+        assertTrue(m.difference, m.difference.contains("direction"));
+        assertTrue("Should shrink well below a whole game: " + m, m.length() < 50);
+
+        // The shrunk moves still show the bug on replay
+        int[] moves = m.getActions();
+        UnoConformance.Mismatch replay = c.check(m.seed, moves);
+        assertNotNull(replay);
+        assertEquals(m.difference, replay.difference);
+
+        // And none of them can be left out
+        for (int skip = 0; skip < moves.length; skip++) {
+            int[] fewer = new int[moves.length - 1];
+            System.arraycopy(moves, 0, fewer, 0, skip);
+            System.arraycopy(moves, skip + 1, fewer, skip, moves.length - skip - 1);
+            assertNull("Move " + skip + " could be dropped: " + m, c.check(m.seed, fewer));
+        }
+    }
+}
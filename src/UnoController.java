@@ -2,7 +2,11 @@ import java.awt.Component;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import javax.swing.JFileChooser;
+import javax.swing.SwingUtilities;
 import java.io.File;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Controller class for the Uno game that handles user interactions and updates the model.
@@ -15,6 +19,19 @@ public class UnoController implements ActionListener {
 
     private UnoModel model;
     private final UnoView view;
+    // Folder of the last save/load, where the Load dialog looks first
+    private File saveDirectory = new File(System.getProperty("user.home"));
+
+    // Shared by every window: one background thread for file I/O so saves happen in order and never block the UI
+    private static final ExecutorService IO = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "uno-io");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Executor io;
+    private final Executor ui;
+    private boolean busy = false; // A save or load is still running (only touched on the UI thread)
 
     /**
      * Constructor for UnoController.
@@ -24,8 +41,23 @@ public class UnoController implements ActionListener {
      * @param view The UnoView instance (can be a Frame or a Stub).
      */
     public UnoController(UnoModel model, UnoView view) {
+        this(model, view, IO, SwingUtilities::invokeLater);
+    }
+
+    /**
+     * Constructor that picks where file I/O runs and how results get back to the UI thread.
+     * Tests pass {@code Runnable::run} for both to make saving and loading synchronous.
+     *
+     * @param model The UnoModel instance representing the game state.
+     * @param view  The UnoView instance (can be a Frame or a Stub).
+     * @param io    Runs the slow file reads and writes.
+     * @param ui    Runs the follow-up on the UI thread.
+     */
+    public UnoController(UnoModel model, UnoView view, Executor io, Executor ui) {
         this.model = model;
         this.view = view;
+        this.io = io;
+        this.ui = ui;
     }
 
     /**
@@ -60,31 +92,108 @@ public class UnoController implements ActionListener {
                 } catch (IllegalStateException ex) {
                     model.playAITurn();
                 }
+            } else if (cmd.equals("RUN_AI")) {
+                // All the bot turns up to the next human in one go
+                model.runAITurns();
             } else if (cmd.equals("UNDO")) {
                 model.undo();
             } else if (cmd.equals("REDO")) {
                 model.redo();
+            } else if (cmd.equals("HINTS")) {
+                model.setHintsEnabled(!model.isHintsEnabled());
             } else if (cmd.equals("SAVE")) {
                 // Safely get a parent component for the dialog
                 Component parent = (view instanceof Component) ? (Component) view : null;
-                JFileChooser fc = new JFileChooser();
+                JFileChooser fc = new JFileChooser(saveDirectory);
                 if (fc.showSaveDialog(parent) == JFileChooser.APPROVE_OPTION) {
-                    model.saveGame(fc.getSelectedFile());
-                    view.showInfo("Game Saved!");
+                    saveAsync(fc.getSelectedFile());
                 }
             } else if (cmd.equals("LOAD")) {
                 Component parent = (view instanceof Component) ? (Component) view : null;
-                JFileChooser fc = new JFileChooser();
-                if (fc.showOpenDialog(parent) == JFileChooser.APPROVE_OPTION) {
-                    UnoModel newModel = UnoModel.loadGame(fc.getSelectedFile());
-                    this.model = newModel;
-                    newModel.addView(view);
-                    view.showInfo("Game Loaded!");
-                }
+                // Lists the indexed saves in the folder, only the picked one gets loaded
+                File file = UnoSaveBrowser.choose(parent, saveDirectory);
+                if (file != null) loadAsync(file);
             }
         } catch (Exception ex) {
             view.showInfo("Error: " + ex.getMessage());
             ex.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Saves the game in the background. The game is snapshotted right away (so later moves don't end up
+     * in the file) and written by the I/O thread. The result is reported through the view.
+     * @param file The file to save to.
+     */
+    void saveAsync(File file) {
+        if (busy) {
+            view.showInfo("Please wait, still saving or loading.");
+            return;
+        }
+        UnoSaveSnapshot snapshot;
+        try {
+            snapshot = model.snapshotForSave();
+        } catch (Exception ex) {
+            view.showInfo("Error: " + ex.getMessage());
+            return;
+        }
+        busy = true;
+        view.showProgress("Saving " + file.getName() + "...");
+        io.execute(() -> {
+            Exception error = null;
+            try {
+                snapshot.writeTo(file);
+                snapshot.addToIndex(file); // So the Load dialog lists it
+            } catch (Exception ex) {
+                error = ex;
+            }
+            Exception failed = error;
+            ui.execute(() -> {
+                busy = false;
+                if (failed != null) {
+                    view.showInfo("Error: " + failed.getMessage());
+                    failed.printStackTrace();
+                } else {
+                    saveDirectory = file.getAbsoluteFile().getParentFile();
+                    view.showInfo("Game Saved!");
+                }
+            });
+        });
+    }
+
+    /**
+     * Loads a game in the background and switches to it on the UI thread once it has been read.
+     * @param file The save file.
+     */
+    void loadAsync(File file) {
+        if (busy) {
+            view.showInfo("Please wait, still saving or loading.");
+            return;
+        }
+        busy = true;
+        view.showProgress("Loading " + file.getName() + "...");
+        io.execute(() -> {
+            UnoModel loaded = null;
+            Exception error = null;
+            try {
+                loaded = UnoModel.loadGame(file);
+            } catch (Exception ex) {
+                error = ex;
+            }
+            UnoModel newModel = loaded;
+            Exception failed = error;
+            ui.execute(() -> {
+                busy = false;
+                if (failed != null) {
+                    view.showInfo("Error: " + failed.getMessage());
+                    failed.printStackTrace();
+                } else {
+                    saveDirectory = file.getAbsoluteFile().getParentFile();
+                    this.model = newModel;
+                    newModel.addView(view);
+                    view.showInfo("Game Loaded!");
+                }
+            });
+        });
+    }
+}
@@ -1,8 +1,11 @@
 import org.junit.*;
 import static org.junit.Assert.*;
 import java.awt.event.ActionEvent;
+import java.util.ArrayList;
 import java.util.List;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 
 /**
  * Test class for UnoController.
@@ -14,12 +17,21 @@ public class UnoControllerTest {
     private MockModel model;
     private UnoViewStub view;
     private UnoController controller;
+    private File dir; // Saves go here, never straight into the temp folder
 
     @Before
-    public void setUp() {
+    public void setUp() throws IOException {
         model = new MockModel();
         view = new UnoViewStub();
         controller = new UnoController(model, view);
+        dir = Files.createTempDirectory("uno_controller").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = dir.listFiles();
+        if (files != null) for (File f : files) f.delete();
+        dir.delete();
     }
 
     @Test
@@ -59,6 +71,67 @@ public class UnoControllerTest {
         assertTrue("nextPlayer() should be called", model.nextPlayerCalled);
     }
 
+    @Test
+    public void testRunAI() {
+        controller.actionPerformed(new ActionEvent(this, 0, "RUN_AI"));
+        assertTrue("runAITurns() should be called", model.runAICalled);
+    }
+
+    /**
+     * A background save writes the game as it was when Save was pressed, even if play goes on meanwhile.
+     */
+    @Test
+    public void testAsyncSaveUsesSnapshot() throws Exception {
+        UnoModel real = new UnoModel(2, List.of("P1", "P2"), List.of(false, false), UnoRules.standard(), 5);
+        List<Runnable> ioQueue = new ArrayList<>();
+        UnoController c = new UnoController(real, view, ioQueue::add, Runnable::run);
+        File temp = new File(dir, "async.ser");
+
+        int handBefore = real.getPlayer(0).hand.size();
+        c.saveAsync(temp);
+        assertEquals("Saving " + temp.getName() + "...", view.lastInfo);
+        real.draw(); // Keep playing while the save is queued
+        ioQueue.remove(0).run();
+        assertEquals("Game Saved!", view.lastInfo);
+
+        assertEquals(handBefore, UnoModel.loadGame(temp).getPlayer(0).hand.size());
+        assertEquals("Saves from the dialog are indexed", 1, new UnoSaveStore(dir).list().size());
+    }
+
+    /**
+     * A background load switches the controller to the loaded game only once it has been read.
+     */
+    @Test
+    public void testAsyncLoad() throws Exception {
+        UnoModel saved = new UnoModel(2, List.of("Ann", "Bob"), List.of(false, false), UnoRules.standard(), 6);
+        File temp = new File(dir, "async.ser");
+        saved.saveGame(temp);
+
+        List<Runnable> ioQueue = new ArrayList<>();
+        UnoController c = new UnoController(model, view, ioQueue::add, Runnable::run);
+        c.loadAsync(temp);
+        c.loadAsync(temp); // Ignored, the first load is still running
+        assertEquals(1, ioQueue.size());
+        ioQueue.remove(0).run();
+        assertEquals("Game Loaded!", view.lastInfo);
+        assertEquals("Ann", ((UnoModel) view.lastEvent.getSource()).getPlayer(0).name);
+    }
+
+    /**
+     * An atomic save never leaves its temp file behind.
+     */
+    @Test
+    public void testSaveLeavesNoTempFiles() throws Exception {
+        File target = new File(dir, "game.ser");
+        UnoModel real = new UnoModel(2, List.of("P1", "P2"), List.of(false, false));
+        real.saveGame(target);
+        real.saveGame(target); // Replacing an existing save
+        String[] names = dir.list();
+        assertNotNull(names);
+        for (String n : names) assertFalse(n, n.endsWith(".tmp"));
+        assertEquals("P1", UnoModel.loadGame(target).getPlayer(0).name);
+    }
+
     // MOCK MODEL
     static class MockModel extends UnoModel {
         boolean playCalled = false;
@@ -68,6 +141,7 @@ public class UnoControllerTest {
         boolean undoCalled = false;
         boolean redoCalled = false;
         boolean saveCalled = false;
+        boolean runAICalled = false;
 
         boolean isWild = false;
         boolean returnNull = false;
@@ -83,6 +157,7 @@ public class UnoControllerTest {
         @Override public void undo() { undoCalled = true; }
         @Override public void redo() { redoCalled = true; }
         @Override public void saveGame(File f) { saveCalled = true; }
+        @Override public AiRun runAITurns() { runAICalled = true; return null; }
 
         @Override
         public boolean isCardWild(int index) { return isWild; }
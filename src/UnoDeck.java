@@ -0,0 +1,73 @@
+import java.util.Random;
+
+/**
+ * The list of cards a game is played with. The cards are built once and shared by every game,
+ * which works because UnoCard never changes after it is created.
+ * Starting a round just copies the cards into an array the model keeps around and shuffles it in place,
+ * so no new card objects or lists get created.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public final class UnoDeck {
+    /** The standard Uno Flip deck. */
+    public static final UnoDeck FLIP = new UnoDeck(buildFlipCards());
+
+    private final UnoCard[] template;
+
+    /**
+     * Creates a deck from a fixed set of cards. The array is copied so the deck can't be changed afterwards.
+     * @param cards The cards in the deck.
+     */
+    public UnoDeck(UnoCard[] cards) {
+        this.template = cards.clone();
+    }
+
+    /**
+     * @return How many cards are in the deck.
+     */
+    public int size() {
+        return template.length;
+    }
+
+    /**
+     * @param i Position in the (unshuffled) deck.
+     * @return The card at that position.
+     */
+    public UnoCard get(int i) {
+        return template[i];
+    }
+
+    /**
+     * Copies the deck into the given array and shuffles it (Fisher-Yates).
+     * @param into An array at least as big as the deck. It is reused every round.
+     * @param rng  The random generator to shuffle with.
+     */
+    public void shuffleInto(UnoCard[] into, Random rng) {
+        System.arraycopy(template, 0, into, 0, template.length);
+        for (int i = template.length - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            UnoCard tmp = into[i];
+            into[i] = into[j];
+            into[j] = tmp;
+        }
+    }
+
+    private static UnoCard[] buildFlipCards() {
+        UnoRank[] ranks = UnoRank.values();
+        UnoColor[] lights = {UnoColor.RED, UnoColor.BLUE, UnoColor.GREEN, UnoColor.YELLOW};
+        UnoColor[] darks = {UnoColor.ORANGE, UnoColor.PINK, UnoColor.TEAL, UnoColor.PURPLE};
+        UnoCard[] deck = new UnoCard[4 * 13 + 2];
+        int k = 0;
+        for (int i = 0; i < 4; i++) {
+            for (int n = 1; n <= 9; n++) deck[k++] = new UnoCard(lights[i], ranks[n], darks[i], ranks[n]);
+            deck[k++] = new UnoCard(lights[i], UnoRank.FLIP, darks[i], UnoRank.FLIP);
+            deck[k++] = new UnoCard(lights[i], UnoRank.DRAW_ONE, darks[i], UnoRank.DRAW_FIVE);
+            deck[k++] = new UnoCard(lights[i], UnoRank.SKIP, darks[i], UnoRank.SKIP_EVERYONE);
+            deck[k++] = new UnoCard(lights[i], UnoRank.REVERSE, darks[i], UnoRank.REVERSE);
+        }
+        deck[k++] = new UnoCard(UnoColor.WILD, UnoRank.WILD, UnoColor.WILD, UnoRank.WILD_DRAW_COLOR);
+        deck[k] = new UnoCard(UnoColor.WILD, UnoRank.WILD_DRAW_TWO, UnoColor.WILD, UnoRank.WILD_DRAW_COLOR);
+        return deck;
+    }
+}
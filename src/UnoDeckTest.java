@@ -0,0 +1,49 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.*;
+
+/**
+ * Test class for the shared deck template.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoDeckTest {
+
+    /**
+     * Shuffling must hand out every card of the template exactly once.
+     */
+    @Test
+    public void testShuffleIsPermutation() {
+        UnoDeck deck = UnoDeck.FLIP;
+        UnoCard[] into = new UnoCard[deck.size()];
+        deck.shuffleInto(into, new Random(42));
+
+        Set<UnoCard> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        seen.addAll(Arrays.asList(into));
+        assertEquals(deck.size(), seen.size());
+        for (int i = 0; i < deck.size(); i++) assertTrue(seen.contains(deck.get(i)));
+    }
+
+    /**
+     * The same seed gives the same order, so games can be replayed.
+     */
+    @Test
+    public void testSameSeedSameOrder() {
+        UnoDeck deck = UnoDeck.FLIP;
+        UnoCard[] a = new UnoCard[deck.size()];
+        UnoCard[] b = new UnoCard[deck.size()];
+        deck.shuffleInto(a, new Random(7));
+        deck.shuffleInto(b, new Random(7));
+        assertArrayEquals(a, b);
+    }
+
+    /**
+     * A new round deals 7 cards each and turns one card face up; the rest is the draw pile.
+     */
+    @Test
+    public void testRoundStartUsesWholeDeck() {
+        UnoModel model = new UnoModel(3, Arrays.asList("A", "B", "C"), Arrays.asList(false, false, false));
+        assertEquals(UnoDeck.FLIP.size() - 3 * 7 - 1, model.getDrawPileSize());
+        assertNotNull(model.getDiscardTop());
+    }
+}
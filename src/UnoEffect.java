@@ -0,0 +1,17 @@
+/**
+ * What happens when a card of a certain rank is played (Skip, Flip, Draw Five, etc.).
+ * The rule set keeps one of these for every UnoRank, so the Model can look up the effect directly.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+@FunctionalInterface
+public interface UnoEffect {
+
+    /**
+     * Applies the effect to the game. The card is already on the discard pile when this is called.
+     * @param model The game the card was played in.
+     * @param card  The card that was just played.
+     * @return Text added to the status message, e.g. " Skip" (empty if there is nothing to say).
+     */
+    String apply(UnoModel model, UnoCard card);
+}
@@ -0,0 +1,336 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Works out the best move for every small two-player endgame and writes them to a file for {@link UnoEndgameTable}.
+ * Run it once (it takes about 35 seconds on one core for the default sizes) and put the file next to the game.
+ * <p>
+ * The solver uses a simplified model of the Light side with standard rules:
+ * <ul>
+ *   <li>Cards are abstract types (relative color and rank). Every type is equally likely to be drawn, and the
+ *       opponent's cards are random types too.</li>
+ *   <li>The opponent plays a random matching card if it has one (and picks a random Wild color, like the bots do),
+ *       otherwise it draws.</li>
+ *   <li>Opponent hands bigger than the table limit count as the limit. When a hand grows past the limit, or a Flip
+ *       leaves the Light side, the rest of the round is scored with a simple race where each player gets rid of a
+ *       card or draws one each turn.</li>
+ * </ul>
+ * The value of a position is the chance of winning the round. Values are improved in sweeps over all positions
+ * until they stop changing, then the best move of each position is stored.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoEndgameSolver {
+    private static final int TYPES = UnoEndgameTable.TYPES;
+    private static final int RANKS = UnoEndgameTable.RANKS;
+    private static final int TOPS = UnoEndgameTable.TOPS;
+    private static final int TOP_WILD = UnoEndgameTable.TOP_WILD;
+    private static final int WILD = UnoEndgameTable.WILD;
+    private static final int RACE_LIMIT = 40;
+    private static final double EPSILON = 1e-9;
+    private static final int MAX_SWEEPS = 500;
+
+    private final int maxHand;
+    private final int maxOpponent;
+    private final int[] handOffset;
+    private final int hands;
+
+    private final int[][] cards;  // sorted abstract cards of each hand
+    private final int[][] minus;  // hand without the card in a slot
+    private final int[][] plus;   // hand with one more card, or -1 if it would be too big
+    private final int[][] swap;   // hand with relative colors 0 and x swapped
+
+    private final double[] mine;    // chance to win when it's my turn
+    private final double[] theirs;  // chance to win when it's the opponent's turn
+    private final double[][] raceMine = new double[RACE_LIMIT + 1][RACE_LIMIT + 1];
+    private final double[][] raceTheirs = new double[RACE_LIMIT + 1][RACE_LIMIT + 1];
+    private int sweeps;
+
+    /**
+     * @param maxHand     Biggest hand (for the bot) the table covers.
+     * @param maxOpponent Biggest opponent hand told apart; bigger ones share the last slot.
+     */
+    public UnoEndgameSolver(int maxHand, int maxOpponent) {
+        if (maxHand < 1 || maxHand > 4 || maxOpponent < 1 || maxOpponent > RACE_LIMIT) {
+            throw new IllegalArgumentException("Table size out of range: " + maxHand + "/" + maxOpponent);
+        }
+        this.maxHand = maxHand;
+        this.maxOpponent = maxOpponent;
+        this.handOffset = UnoEndgameTable.handOffsets(maxHand);
+        this.hands = handOffset[maxHand + 1];
+        this.cards = new int[hands][];
+        enumerate(new int[maxHand], 0, 0);
+        this.minus = new int[hands][];
+        this.plus = new int[hands][];
+        this.swap = new int[hands][4];
+        for (int h = 0; h < hands; h++) link(h);
+        this.mine = new double[hands * TOPS * maxOpponent];
+        this.theirs = new double[mine.length];
+    }
+
+    // Every sorted hand of up to maxHand cards
+    private void enumerate(int[] buf, int size, int from) {
+        int[] ids = java.util.Arrays.copyOf(buf, size);
+        cards[UnoEndgameTable.rank(ids, size, handOffset)] = ids;
+        if (size == maxHand) return;
+        for (int c = from; c < TYPES; c++) {
+            buf[size] = c;
+            enumerate(buf, size + 1, c);
+        }
+    }
+
+    private void link(int h) {
+        int[] ids = cards[h];
+        minus[h] = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            int[] rest = new int[ids.length - 1];
+            System.arraycopy(ids, 0, rest, 0, i);
+            System.arraycopy(ids, i + 1, rest, i, ids.length - i - 1);
+            minus[h][i] = rankOf(rest);
+        }
+        plus[h] = new int[TYPES];
+        for (int d = 0; d < TYPES; d++) {
+            if (ids.length == maxHand) { plus[h][d] = -1; continue; }
+            int[] more = java.util.Arrays.copyOf(ids, ids.length + 1);
+            more[ids.length] = d;
+            plus[h][d] = rankOf(more);
+        }
+        swap[h][0] = h;
+        for (int x = 1; x < 4; x++) {
+            int[] swapped = new int[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                int c = ids[i];
+                int color = c < WILD ? c / RANKS : -1;
+                if (color == 0) c += x * RANKS;
+                else if (color == x) c -= x * RANKS;
+                swapped[i] = c;
+            }
+            swap[h][x] = rankOf(swapped);
+        }
+    }
+
+    private int rankOf(int[] ids) {
+        java.util.Arrays.sort(ids);
+        return UnoEndgameTable.rank(ids, ids.length, handOffset);
+    }
+
+    private int at(int h, int top, int opponent) {
+        return (h * TOPS + top) * maxOpponent + Math.min(opponent, maxOpponent) - 1;
+    }
+
+    /**
+     * Improves the values until they settle.
+     * @return This solver, for chaining.
+     */
+    public UnoEndgameSolver solve() {
+        solveRace();
+        double delta;
+        do {
+            delta = 0;
+            for (int h = handOffset[1]; h < hands; h++) {
+                for (int t = 0; t < TOPS; t++) {
+                    for (int k = 1; k <= maxOpponent; k++) {
+                        int i = at(h, t, k);
+                        double v = theirTurn(h, t, k);
+                        delta = Math.max(delta, Math.abs(v - theirs[i]));
+                        theirs[i] = v;
+                        v = best(h, t, k, null);
+                        delta = Math.max(delta, Math.abs(v - mine[i]));
+                        mine[i] = v;
+                    }
+                }
+            }
+            sweeps++;
+        } while (delta > EPSILON && sweeps < MAX_SWEEPS);
+        return this;
+    }
+
+    public int getSweeps() { return sweeps; }
+
+    /**
+     * @return The chance of winning with this (sorted) hand on my turn, after solve().
+     */
+    public double value(int[] sortedHand, int top, int opponent) {
+        return mine[at(UnoEndgameTable.rank(sortedHand, sortedHand.length, handOffset), top, opponent)];
+    }
+
+    /**
+     * @return The stored move for this (sorted) hand, in the table's format.
+     */
+    public byte move(int[] sortedHand, int top, int opponent) {
+        byte[] move = new byte[1];
+        best(UnoEndgameTable.rank(sortedHand, sortedHand.length, handOffset), top, opponent, move);
+        return move[0];
+    }
+
+    // My turn: the best of drawing and every legal card (and Wild color)
+    private double best(int h, int t, int k, byte[] move) {
+        int[] ids = cards[h];
+        int s = ids.length;
+        double best = 0;
+        for (int d = 0; d < TYPES; d++) {
+            best += plus[h][d] >= 0 ? theirs[at(plus[h][d], t, k)] : raceTheirs[s + 1][k];
+        }
+        best /= TYPES;
+        if (move != null) move[0] = UnoEndgameTable.DRAW;
+
+        for (int i = 0; i < s; i++) {
+            int c = ids[i];
+            if (i > 0 && c == ids[i - 1]) continue;
+            int rest = minus[h][i];
+            if (c >= WILD) {
+                for (int y = 0; y < 4; y++) {
+                    double v;
+                    if (s == 1) v = 1;
+                    else if (c == WILD) v = theirs[at(swap[rest][y], TOP_WILD, k)];
+                    else v = mine[at(swap[rest][y], TOP_WILD, k + 2)]; // They draw 2 and I go again
+                    if (v > best + EPSILON) {
+                        best = v;
+                        if (move != null) move[0] = (byte) (i << 2 | y);
+                    }
+                }
+                continue;
+            }
+            int color = c / RANKS, r = c % RANKS;
+            if (color != 0 && r != t) continue; // Not playable (a Wild top only takes the active color)
+            double v;
+            if (s == 1) v = 1;
+            else {
+                int next = swap[rest][color];
+                v = switch (r) {
+                    case UnoEndgameTable.R_FLIP -> raceTheirs[s - 1][k];
+                    case UnoEndgameTable.R_SKIP -> mine[at(next, r, k)];
+                    case UnoEndgameTable.R_DRAW_ONE -> mine[at(next, r, k + 1)];
+                    default -> theirs[at(next, r, k)];
+                };
+            }
+            if (v > best + EPSILON) {
+                best = v;
+                if (move != null) move[0] = (byte) (i << 2);
+            }
+        }
+        return best;
+    }
+
+    // Opponent's turn: a random matching card if it has one, otherwise it draws
+    private double theirTurn(int h, int t, int k) {
+        int s = cards[h].length;
+        int matching = RANKS + 2 + (t == TOP_WILD ? 0 : 3);
+        double has = 1 - Math.pow(1 - (double) matching / TYPES, k);
+        double played = 0;
+        if (k > 1) {
+            for (int r = 0; r < RANKS; r++) played += afterTheirCard(h, s, 0, r, k - 1);
+            if (t != TOP_WILD) {
+                for (int x = 1; x < 4; x++) played += afterTheirCard(h, s, x, t, k - 1);
+            }
+            double wild = 0, drawTwo = 0;
+            for (int y = 0; y < 4; y++) {
+                wild += mine[at(swap[h][y], TOP_WILD, k - 1)];
+                drawTwo += afterDrawing(h, s, y, 2, TOP_WILD, k - 1);
+            }
+            played += (wild + drawTwo) / 4;
+            played /= matching;
+        }
+        double drew = mine[at(h, t, k + 1)];
+        return has * played + (1 - has) * drew;
+    }
+
+    private double afterTheirCard(int h, int s, int color, int r, int k) {
+        int next = swap[h][color];
+        return switch (r) {
+            case UnoEndgameTable.R_FLIP -> raceMine[s][k];
+            case UnoEndgameTable.R_SKIP -> theirs[at(next, r, k)];
+            case UnoEndgameTable.R_DRAW_ONE -> afterDrawing(h, s, color, 1, r, k);
+            default -> mine[at(next, r, k)];
+        };
+    }
+
+    // I draw some cards and the opponent goes again
+    private double afterDrawing(int h, int s, int color, int count, int top, int k) {
+        if (s + count > maxHand) return raceTheirs[s + count][k];
+        double sum = 0;
+        for (int d = 0; d < TYPES; d++) {
+            int more = plus[h][d];
+            if (count == 1) sum += theirs[at(swap[more][color], top, k)];
+            else sum += afterDrawing(more, s + 1, color, count - 1, top, k);
+        }
+        return sum / TYPES;
+    }
+
+    // Outside the table: each turn the player sheds a card with the chance a random hand has a match, else draws
+    private void solveRace() {
+        double delta;
+        do {
+            delta = 0;
+            for (int m = 1; m <= RACE_LIMIT; m++) {
+                for (int k = 1; k <= RACE_LIMIT; k++) {
+                    double p = shedChance(m);
+                    double v = p * (m == 1 ? 1 : raceTheirs[m - 1][k]) + (1 - p) * raceTheirs[Math.min(m + 1, RACE_LIMIT)][k];
+                    delta = Math.max(delta, Math.abs(v - raceMine[m][k]));
+                    raceMine[m][k] = v;
+                    p = shedChance(k);
+                    v = p * (k == 1 ? 0 : raceMine[m][k - 1]) + (1 - p) * raceMine[m][Math.min(k + 1, RACE_LIMIT)];
+                    delta = Math.max(delta, Math.abs(v - raceTheirs[m][k]));
+                    raceTheirs[m][k] = v;
+                }
+            }
+        } while (delta > EPSILON);
+    }
+
+    private static double shedChance(int handSize) {
+        return 1 - Math.pow(2.0 / 3, handSize);
+    }
+
+    /**
+     * Writes the table (best move of every position) to a file, replacing it in one step.
+     * @param file Where to write it.
+     */
+    public void write(Path file) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(UnoEndgameTable.HEADER_SIZE + mine.length);
+        buf.putInt(UnoEndgameTable.MAGIC).putInt(UnoEndgameTable.VERSION);
+        buf.put((byte) maxHand).put((byte) maxOpponent);
+        buf.position(UnoEndgameTable.HEADER_SIZE);
+        byte[] move = new byte[1];
+        for (int h = 0; h < hands; h++) {
+            for (int t = 0; t < TOPS; t++) {
+                for (int k = 1; k <= maxOpponent; k++) {
+                    move[0] = UnoEndgameTable.DRAW;
+                    if (h >= handOffset[1]) best(h, t, k, move);
+                    buf.put(move[0]);
+                }
+            }
+        }
+        buf.flip();
+        Path dir = file.toAbsolutePath().getParent();
+        Path tmp = Files.createTempFile(dir, "uno-endgame", ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, WRITE, CREATE, TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Builds the table file. Arguments: [file] [biggest hand] [biggest opponent hand].
+     */
+    public static void main(String[] args) throws IOException {
+        Path out = Paths.get(args.length > 0 ? args[0] : UnoEndgameTable.DEFAULT_FILE);
+        int maxHand = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int maxOpponent = args.length > 2 ? Integer.parseInt(args[2]) : 6;
+        long start = System.nanoTime();
+        UnoEndgameSolver solver = new UnoEndgameSolver(maxHand, maxOpponent).solve();
+        solver.write(out);
+        System.out.printf("%d positions, %d sweeps in %.1fs -> %s (%d bytes)%n", solver.mine.length, solver.getSweeps(),
+                (System.nanoTime() - start) / 1e9, out, Files.size(out));
+    }
+}
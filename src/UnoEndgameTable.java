@@ -0,0 +1,249 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Best moves for small two-player endgames, worked out ahead of time by {@link UnoEndgameSolver}
+ * and read from a memory-mapped file. Looking up a move is one array access, so the bot plays
+ * its endgames well without searching anything during the game.
+ * <p>
+ * Positions are described the same way the solver sees them: the bot's hand (up to a few cards),
+ * the top card and the number of cards the opponent holds. Colors are relative: the active color is
+ * color 0 and the other three are numbered in UnoColor order. Only the Light side with standard rules
+ * is covered; anything else falls back to another strategy.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public final class UnoEndgameTable {
+    /** Default file name, looked for in the working folder at startup. */
+    public static final String DEFAULT_FILE = "uno-endgame.tbl";
+
+    static final int MAGIC = 0x554E4F45; // "UNOE"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+
+    // Abstract cards: colored ones are relColor * 13 + rank, then the two Wilds
+    static final int RANKS = 13;  // ONE..NINE, FLIP, DRAW_ONE, SKIP, REVERSE
+    static final int R_FLIP = 9, R_DRAW_ONE = 10, R_SKIP = 11, R_REVERSE = 12;
+    static final int WILD = 4 * RANKS;
+    static final int WILD_DRAW_TWO = WILD + 1;
+    static final int TYPES = WILD_DRAW_TWO + 1;
+    /** Top "rank" meaning the top card is a Wild (only the active color matters). */
+    static final int TOP_WILD = RANKS;
+    static final int TOPS = RANKS + 1;
+
+    /** Stored move meaning "draw a card". Otherwise a move is (slot in sorted hand) * 4 + relative Wild color. */
+    static final byte DRAW = (byte) 0xFF;
+
+    private static final UnoColor[] LIGHT = {UnoColor.RED, UnoColor.GREEN, UnoColor.BLUE, UnoColor.YELLOW};
+
+    private final ByteBuffer moves;
+    private final int maxHand;
+    private final int maxOpponent;
+    private final int[] handOffset;
+
+    private UnoEndgameTable(ByteBuffer moves, int maxHand, int maxOpponent) {
+        this.moves = moves;
+        this.maxHand = maxHand;
+        this.maxOpponent = maxOpponent;
+        this.handOffset = handOffsets(maxHand);
+    }
+
+    /**
+     * Maps a table file written by the solver.
+     * @param path The table file.
+     * @return The table.
+     */
+    public static UnoEndgameTable load(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            if (ch.size() < HEADER_SIZE || map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+                throw new IOException("Not an Uno endgame table: " + path);
+            }
+            int maxHand = map.get(8);
+            int maxOpponent = map.get(9);
+            long expected = HEADER_SIZE + (long) handCount(maxHand) * TOPS * maxOpponent;
+            if (ch.size() != expected) throw new IOException("Endgame table has the wrong size: " + path);
+            return new UnoEndgameTable(map, maxHand, maxOpponent);
+        }
+    }
+
+    /**
+     * Loads the default table if it has been generated.
+     * @return The table, or null if there is no table file.
+     */
+    public static UnoEndgameTable loadIfPresent(File file) {
+        if (!file.isFile()) return null;
+        try {
+            return load(file.toPath());
+        } catch (IOException e) {
+            System.err.println("Ignoring endgame table: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public int getMaxHand() { return maxHand; }
+    public int getMaxOpponent() { return maxOpponent; }
+
+    /**
+     * Wraps the table as a bot: table moves in covered endgames, the fallback everywhere else.
+     * @param fallback The strategy for positions the table doesn't cover.
+     * @return The strategy.
+     */
+    public UnoStrategy asStrategy(UnoStrategy fallback) {
+        return new UnoStrategy() {
+            @Override
+            public int choose(UnoModel model, List<UnoCard> hand, boolean[] legal) {
+                int move = lookup(model, hand);
+                if (move == NOT_COVERED) return fallback.choose(model, hand, legal);
+                if (move == DRAW) return -1;
+                int idx = sortedHandIndex(model, hand, (move & 0xFF) >> 2);
+                // A table that doesn't belong to these rules could name a card that can't be played here
+                if (idx < 0 || idx >= legal.length || !legal[idx]) return fallback.choose(model, hand, legal);
+                return idx;
+            }
+
+            @Override
+            public UnoColor chooseColor(UnoModel model, List<UnoCard> hand, int handIndex) {
+                int move = lookup(model, hand);
+                if (move == NOT_COVERED || move == DRAW || sortedHandIndex(model, hand, (move & 0xFF) >> 2) != handIndex) {
+                    return fallback.chooseColor(model, hand, handIndex);
+                }
+                return fromRelative(model.getActiveColor(), move & 3);
+            }
+        };
+    }
+
+    private static final int NOT_COVERED = Integer.MIN_VALUE;
+
+    /**
+     * Finds the stored move for the current player.
+     * @return The stored move byte, or NOT_COVERED.
+     */
+    int lookup(UnoModel model, List<UnoCard> hand) {
+        if (model.getPlayerCount() != 2 || model.isDark() || model.getPendingDraw() > 0) return NOT_COVERED;
+        if (model.getRules() != UnoRules.standard()) return NOT_COVERED;
+        if (hand.isEmpty() || hand.size() > maxHand) return NOT_COVERED;
+        int top = topOf(model);
+        if (top < 0) return NOT_COVERED;
+        int[] ids = new int[hand.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = typeOf(hand.get(i), model.getActiveColor());
+            if (ids[i] < 0) return NOT_COVERED;
+        }
+        java.util.Arrays.sort(ids);
+        int opponent = model.getPlayer(1 - model.getCurrentPlayerIndex()).hand.size();
+        return moves.get(HEADER_SIZE + index(rank(ids, ids.length), top, opponent));
+    }
+
+    int index(int handRank, int top, int opponent) {
+        return (handRank * TOPS + top) * maxOpponent + Math.min(opponent, maxOpponent) - 1;
+    }
+
+    int rank(int[] sortedIds, int size) {
+        return rank(sortedIds, size, handOffset);
+    }
+
+    // Turns a slot in the sorted hand back into a position in the real hand
+    private static int sortedHandIndex(UnoModel model, List<UnoCard> hand, int slot) {
+        if (slot >= hand.size()) return -1;
+        Integer[] order = new Integer[hand.size()];
+        int[] ids = new int[hand.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+            ids[i] = typeOf(hand.get(i), model.getActiveColor());
+        }
+        java.util.Arrays.sort(order, (x, y) -> Integer.compare(ids[x], ids[y]));
+        return order[slot];
+    }
+
+    // ENCODING (shared with the solver)
+
+    /**
+     * @return The abstract card, or -1 for cards the table doesn't know (Dark-only ranks).
+     */
+    static int typeOf(UnoCard c, UnoColor active) {
+        UnoRank r = c.getRank(false);
+        if (r == UnoRank.WILD) return WILD;
+        if (r == UnoRank.WILD_DRAW_TWO) return WILD_DRAW_TWO;
+        int rank = rankOf(r);
+        int color = relative(active, c.getColor(false));
+        return rank < 0 || color < 0 ? -1 : color * RANKS + rank;
+    }
+
+    private static int topOf(UnoModel model) {
+        UnoCard top = model.getDiscardTop();
+        if (top == null) return -1;
+        if (top.isWild(false)) return TOP_WILD;
+        if (top.getColor(false) != model.getActiveColor()) return -1;
+        return rankOf(top.getRank(false));
+    }
+
+    private static int rankOf(UnoRank r) {
+        return switch (r) {
+            case ONE, TWO, THREE, FOUR, FIVE, SIX, SEVEN, EIGHT, NINE -> r.ordinal() - UnoRank.ONE.ordinal();
+            case FLIP -> R_FLIP;
+            case DRAW_ONE -> R_DRAW_ONE;
+            case SKIP -> R_SKIP;
+            case REVERSE -> R_REVERSE;
+            default -> -1;
+        };
+    }
+
+    // Active color is 0, the others follow in UnoColor order
+    private static int relative(UnoColor active, UnoColor c) {
+        int a = indexOf(active);
+        int x = indexOf(c);
+        if (a < 0 || x < 0) return -1;
+        if (x == a) return 0;
+        return x < a ? x + 1 : x;
+    }
+
+    private static UnoColor fromRelative(UnoColor active, int rel) {
+        int a = indexOf(active);
+        if (rel == 0) return active;
+        int x = rel - 1;
+        return LIGHT[x < a ? x : x + 1];
+    }
+
+    private static int indexOf(UnoColor c) {
+        for (int i = 0; i < LIGHT.length; i++) if (LIGHT[i] == c) return i;
+        return -1;
+    }
+
+    /**
+     * Number of hands of up to maxHand cards (a hand is a multiset of abstract cards).
+     */
+    static int handCount(int maxHand) {
+        return handOffsets(maxHand)[maxHand + 1];
+    }
+
+    // handOffsets[s] = how many hands have fewer than s cards
+    static int[] handOffsets(int maxHand) {
+        int[] off = new int[maxHand + 2];
+        for (int s = 0; s <= maxHand; s++) off[s + 1] = off[s] + (int) choose(TYPES + s - 1, s);
+        return off;
+    }
+
+    /**
+     * Ranks a sorted multiset of abstract cards (combinatorial number system), so every hand gets its own slot.
+     */
+    static int rank(int[] sortedIds, int size, int[] handOffset) {
+        int r = handOffset[size];
+        for (int i = 0; i < size; i++) r += (int) choose(sortedIds[i] + i, i + 1);
+        return r;
+    }
+
+    static long choose(int n, int k) {
+        if (k < 0 || k > n) return 0;
+        long r = 1;
+        for (int i = 1; i <= k; i++) r = r * (n - k + i) / i;
+        return r;
+    }
+}
@@ -0,0 +1,121 @@
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Test class for the endgame solver and lookup table.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoEndgameTest {
+    private static UnoEndgameSolver solver;
+    private static UnoEndgameTable table;
+
+    private static final int FIVE = 4, THREE = 2;
+    private static final int BLUE = 2; // Relative color of Blue when Red is active
+
+    /**
+     * A small table (2 cards, opponent up to 3) solves in well under a second. It's shared by all the tests.
+     */
+    @BeforeClass
+    public static void solveSmallTable() throws Exception {
+        solver = new UnoEndgameSolver(2, 3).solve();
+        Path file = Files.createTempFile("uno-endgame", ".tbl");
+        file.toFile().deleteOnExit();
+        solver.write(file);
+        table = UnoEndgameTable.load(file);
+    }
+
+    private static UnoModel twoBots(long seed) {
+        UnoModel m = new UnoModel(2, Arrays.asList("Bot1", "Bot2"), Arrays.asList(true, true), UnoRules.standard(), seed);
+        m.setStrategy(0, table.asStrategy(UnoStrategy.GREEDY));
+        m.setTopCard(new UnoCard(UnoColor.RED, UnoRank.THREE, UnoColor.TEAL, UnoRank.THREE));
+        return m;
+    }
+
+    /**
+     * With a Skip and a normal card in the active color, the Skip goes first and wins the round.
+     */
+    @Test
+    public void testSkipThenGoOut() {
+        int[] hand = {FIVE, UnoEndgameTable.R_SKIP};
+        assertEquals(1.0, solver.value(hand, THREE, 3), 1e-9);
+        assertEquals(1 << 2, solver.move(hand, THREE, 3)); // Slot 1 (the Skip)
+    }
+
+    /**
+     * The table plays the Wild Draw Two and picks the color of its last card, instead of a random one.
+     */
+    @Test
+    public void testWildColorFromTable() {
+        for (long seed = 1; seed <= 5; seed++) {
+            UnoModel m = twoBots(seed);
+            UnoCard blueFive = new UnoCard(UnoColor.BLUE, UnoRank.FIVE, UnoColor.PINK, UnoRank.FIVE);
+            UnoCard wild = new UnoCard(UnoColor.WILD, UnoRank.WILD_DRAW_TWO, UnoColor.WILD, UnoRank.WILD_DRAW_COLOR);
+            assertEquals(0, m.getCurrentPlayerIndex());
+            m.forceHand(0, Arrays.asList(blueFive, wild));
+            assertEquals(1 << 2 | BLUE, table.lookup(m, m.getPlayer(0).hand) & 0xFF);
+
+            m.playAITurn();
+            assertEquals(UnoRank.WILD_DRAW_TWO, m.getDiscardTop().getRank(false));
+            assertEquals(UnoColor.BLUE, m.getActiveColor());
+            m.nextPlayer(); // Skips the opponent
+            m.playAITurn();
+            assertEquals(1, m.getRoundsPlayed());
+            assertEquals(0, m.getLastRoundWinner());
+        }
+    }
+
+    /**
+     * If the rules in play don't allow the card the table picked, the fallback chooses instead (color too).
+     */
+    @Test
+    public void testFallbackForIllegalTableMove() {
+        UnoModel m = twoBots(1);
+        UnoCard blueFive = new UnoCard(UnoColor.BLUE, UnoRank.FIVE, UnoColor.PINK, UnoRank.FIVE);
+        UnoCard wild = new UnoCard(UnoColor.WILD, UnoRank.WILD_DRAW_TWO, UnoColor.WILD, UnoRank.WILD_DRAW_COLOR);
+        m.forceHand(0, Arrays.asList(blueFive, wild));
+        List<UnoCard> hand = m.getPlayer(0).hand;
+        UnoStrategy firstLegal = new UnoStrategy() {
+            @Override
+            public int choose(UnoModel model, List<UnoCard> h, boolean[] legal) {
+                for (int i = 0; i < legal.length; i++) if (legal[i]) return i;
+                return -1;
+            }
+
+            @Override
+            public UnoColor chooseColor(UnoModel model, List<UnoCard> h, int handIndex) { return UnoColor.GREEN; }
+        };
+        UnoStrategy s = table.asStrategy(firstLegal);
+        int wildIdx = hand.indexOf(wild);
+        assertEquals("The table's move when it is legal", wildIdx, s.choose(m, hand, new boolean[]{true, true}));
+        boolean[] noWild = {true, true};
+        noWild[wildIdx] = false;
+        assertEquals(1 - wildIdx, s.choose(m, hand, noWild));
+        assertEquals(UnoColor.GREEN, s.chooseColor(m, hand, 1 - wildIdx));
+    }
+
+    /**
+     * Positions the table doesn't cover (big hands, more players) are left to the fallback.
+     */
+    @Test
+    public void testFallbackOutsideTable() {
+        UnoModel m = twoBots(7);
+        List<UnoCard> big = m.getPlayer(0).hand;
+        assertTrue(big.size() > table.getMaxHand());
+        UnoStrategy s = table.asStrategy(UnoStrategy.GREEDY);
+        boolean[] legal = m.getLegalMoves();
+        assertEquals(UnoStrategy.GREEDY.choose(m, big, legal), s.choose(m, big, legal));
+
+        UnoModel three = new UnoModel(3, Arrays.asList("A", "B", "C"), Arrays.asList(true, true, true), UnoRules.standard(), 7);
+        three.forceHand(0, Arrays.asList(new UnoCard(UnoColor.RED, UnoRank.ONE, UnoColor.TEAL, UnoRank.ONE)));
+        assertEquals(Integer.MIN_VALUE, table.lookup(three, three.getPlayer(0).hand));
+
+        assertNull(UnoEndgameTable.loadIfPresent(new File("no-such-table.tbl")));
+    }
+}
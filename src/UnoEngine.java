@@ -0,0 +1,53 @@
+import java.nio.ByteBuffer;
+
+/**
+ * The moves and state a game engine has to support so it can be checked against UnoModel.
+ * UnoModel is the reference. Any faster engine that implements this can be run side by side with it
+ * by UnoConformance, which compares the full state after every move.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public interface UnoEngine {
+
+    /** Plays a (non-Wild) card from the current player's hand. */
+    void play(int handIndex);
+
+    /** Plays a Wild card and picks the new color. */
+    void playWild(int handIndex, UnoColor chosenColor);
+
+    /** The current player draws. */
+    void draw();
+
+    /** Passes the turn on. */
+    void nextPlayer();
+
+    /** Goes back one move. */
+    void undo();
+
+    /** Re-applies an undone move. */
+    void redo();
+
+    /**
+     * @return One entry per card in the current player's hand, true if it can be played right now.
+     */
+    boolean[] getLegalMoves();
+
+    /**
+     * @return true if the card at that position in the current player's hand is a Wild on the active side.
+     */
+    boolean isCardWild(int handIndex);
+
+    /** @return true while playing the Dark side. */
+    boolean isDark();
+
+    /** @return true when the current player is done and Next has to be pressed. */
+    boolean isMustPressNext();
+
+    /**
+     * Writes the full game state in the compact format of {@link UnoModel#writeTo(ByteBuffer)}.
+     * Two engines are in the same state exactly when they write the same bytes.
+     * @param buf Where to write.
+     */
+    void writeTo(ByteBuffer buf);
+}
@@ -0,0 +1,246 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Plays two bot strategies against each other to find out if one is really better.
+ * <p>
+ * Games come in pairs: both games of a pair use the same deal (same seed), but the second one swaps which seats
+ * A and B play. Luck of the deal then mostly cancels out inside each pair. Each game is one round and
+ * scores the round points from handleRoundWin. With more than 2 players, A and B take turns around the table
+ * (A, B, A, B).
+ * <p>
+ * Pairs are played in parallel batches. After each batch the results are checked. The run stops as soon as
+ * the difference is clear (a sequential z-test with a strict boundary so checking often doesn't cause false
+ * alarms), or when the win-rate interval is narrow enough to call it a tie, or when it hits the pair limit.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoEvaluation {
+    /** Steps after which a round is called off as a tie (both bots keep drawing, etc.). */
+    public static final int MAX_STEPS = 5000;
+
+    // Boundary for stopping early. About 2.8 keeps the overall false alarm rate near 5% over many looks.
+    private static final double STOP_Z = 2.8;
+    private static final double CI_Z = 1.96;
+
+    private final UnoStrategy a;
+    private final UnoStrategy b;
+    private int numPlayers = 2;
+    private UnoRules rules = UnoRules.standard();
+    private int batchSize = 200;
+    private int minPairs = 200;
+    private int maxPairs = 20000;
+    private double tieWidth = 0.01; // stop once the 95% interval on A's win rate is this narrow around 50%
+
+    /**
+     * @param a The strategy being tested.
+     * @param b The strategy it is compared against.
+     */
+    public UnoEvaluation(UnoStrategy a, UnoStrategy b) {
+        this.a = a;
+        this.b = b;
+    }
+
+    public void setNumPlayers(int numPlayers) { this.numPlayers = numPlayers; }
+    public void setRules(UnoRules rules) { this.rules = rules; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+    public void setMinPairs(int minPairs) { this.minPairs = minPairs; }
+    public void setMaxPairs(int maxPairs) { this.maxPairs = maxPairs; }
+    public void setTieWidth(double tieWidth) { this.tieWidth = tieWidth; }
+
+    /**
+     * Runs the comparison.
+     * @param firstSeed Seed of the first pair (pair i uses firstSeed + i, so runs can be repeated).
+     * @param threads   How many games to play at once.
+     * @return The report.
+     */
+    public Report run(long firstSeed, int threads) throws InterruptedException {
+        long start = System.nanoTime();
+        Stats stats = new Stats();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            long next = 0;
+            String stop = null;
+            while (stop == null) {
+                int count = (int) Math.min(batchSize, maxPairs - next);
+                List<Future<double[]>> jobs = new ArrayList<>();
+                int chunk = (count + threads - 1) / threads;
+                for (int from = 0; from < count; from += chunk) {
+                    long lo = next + from;
+                    long hi = next + Math.min(count, from + chunk);
+                    jobs.add(pool.submit(() -> {
+                        // Sums for this chunk, added up below: the result doesn't depend on thread timing
+                        Stats part = new Stats();
+                        for (long p = lo; p < hi; p++) part.add(playPair(firstSeed + p));
+                        return part.toArray();
+                    }));
+                }
+                for (Future<double[]> f : jobs) {
+                    try {
+                        stats.merge(f.get());
+                    } catch (ExecutionException e) {
+                        throw new IllegalStateException("Evaluation game crashed", e.getCause());
+                    }
+                }
+                next += count;
+                stop = stats.stopReason(next >= maxPairs);
+            }
+            return new Report(stats, stop, System.nanoTime() - start);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays both games of a pair.
+     * @return {A wins, A points, B points} added up over the two games (a tie counts as half a win).
+     */
+    private double[] playPair(long seed) {
+        double[] r = new double[3];
+        for (int swap = 0; swap < 2; swap++) {
+            UnoModel m = newGame(seed, swap == 1);
+            int steps = 0;
+            while (m.getRoundsPlayed() == 0 && steps < MAX_STEPS) {
+                if (m.isMustPressNext()) m.nextPlayer();
+                else m.playAITurn();
+                steps++;
+            }
+            int winner = m.getLastRoundWinner();
+            if (winner < 0) {
+                r[0] += 0.5;
+                continue;
+            }
+            int points = m.getPlayer(winner).getScore();
+            if (isA(winner, swap == 1)) { r[0] += 1; r[1] += points; }
+            else r[2] += points;
+        }
+        return r;
+    }
+
+    private UnoModel newGame(long seed, boolean swapped) {
+        List<String> names = new ArrayList<>();
+        List<Boolean> isAI = new ArrayList<>();
+        for (int i = 0; i < numPlayers; i++) { names.add((isA(i, swapped) ? "A" : "B") + i); isAI.add(true); }
+        UnoModel m = new UnoModel(numPlayers, names, isAI, rules, seed);
+        m.getHistory().setBudget(0); // Bots never undo
+        for (int i = 0; i < numPlayers; i++) m.setStrategy(i, isA(i, swapped) ? a : b);
+        return m;
+    }
+
+    private static boolean isA(int seat, boolean swapped) {
+        return (seat % 2 == 0) != swapped;
+    }
+
+    /**
+     * Running sums over pairs, so the mean and variance can be worked out at any time.
+     */
+    private final class Stats {
+        long pairs;
+        double win, win2;      // A's win share per pair (0, 0.5 or 1) and its square
+        double ptsA, ptsA2;    // A's points per round, averaged over the pair
+        double ptsB, ptsB2;
+
+        void add(double[] pair) {
+            double w = pair[0] / 2, pa = pair[1] / 2, pb = pair[2] / 2;
+            pairs++;
+            win += w; win2 += w * w;
+            ptsA += pa; ptsA2 += pa * pa;
+            ptsB += pb; ptsB2 += pb * pb;
+        }
+
+        double[] toArray() {
+            return new double[]{pairs, win, win2, ptsA, ptsA2, ptsB, ptsB2};
+        }
+
+        void merge(double[] s) {
+            pairs += (long) s[0];
+            win += s[1]; win2 += s[2];
+            ptsA += s[3]; ptsA2 += s[4];
+            ptsB += s[5]; ptsB2 += s[6];
+        }
+
+        double mean(double sum) { return sum / pairs; }
+
+        double stdErr(double sum, double sum2) {
+            if (pairs < 2) return Double.POSITIVE_INFINITY;
+            double m = sum / pairs;
+            double var = Math.max(0, (sum2 - pairs * m * m) / (pairs - 1));
+            return Math.sqrt(var / pairs);
+        }
+
+        double z() {
+            double se = stdErr(win, win2);
+            if (se == 0) return mean(win) == 0.5 ? 0 : Math.copySign(Double.POSITIVE_INFINITY, mean(win) - 0.5);
+            return (mean(win) - 0.5) / se;
+        }
+
+        String stopReason(boolean limitReached) {
+            if (pairs >= minPairs) {
+                if (Math.abs(z()) >= STOP_Z) return "clear difference";
+                if (CI_Z * stdErr(win, win2) <= tieWidth) return "too close to call";
+            }
+            return limitReached ? "pair limit" : null;
+        }
+    }
+
+    /**
+     * What an evaluation found.
+     */
+    public static final class Report {
+        public final long pairs;
+        /** Share of games won by A (0.5 = even). */
+        public final double winRateA;
+        public final double winRateLow, winRateHigh;
+        /** Average round points scored by A and by B per game. */
+        public final double pointsA, pointsB;
+        public final double pointsAInterval, pointsBInterval;
+        /** How far A's win rate is from 50%, in standard errors. */
+        public final double z;
+        /** Why it stopped: "clear difference", "too close to call" or "pair limit". */
+        public final String stopReason;
+        public final long nanos;
+
+        private Report(UnoEvaluation.Stats s, String stopReason, long nanos) {
+            this.pairs = s.pairs;
+            this.winRateA = s.mean(s.win);
+            double half = CI_Z * s.stdErr(s.win, s.win2);
+            this.winRateLow = winRateA - half;
+            this.winRateHigh = winRateA + half;
+            this.pointsA = s.mean(s.ptsA);
+            this.pointsB = s.mean(s.ptsB);
+            this.pointsAInterval = CI_Z * s.stdErr(s.ptsA, s.ptsA2);
+            this.pointsBInterval = CI_Z * s.stdErr(s.ptsB, s.ptsB2);
+            this.z = s.z();
+            this.stopReason = stopReason;
+            this.nanos = nanos;
+        }
+
+        /**
+         * @return 1 if A is significantly better, -1 if B is, 0 if the run couldn't tell.
+         */
+        public int verdict() {
+            if (Math.abs(z) < STOP_Z) return 0;
+            return z > 0 ? 1 : -1;
+        }
+
+        @Override
+        public String toString() {
+            String result = switch (verdict()) {
+                case 1 -> "A is better";
+                case -1 -> "B is better";
+                default -> "no significant difference";
+            };
+            return String.format("%s after %d pairs (%s, %.1fs)%n"
+                            + "A win rate %.1f%% [%.1f%%, %.1f%%], z = %.2f%n"
+                            + "Points per round: A %.1f +/- %.1f, B %.1f +/- %.1f",
+                    result, pairs, stopReason, nanos / 1e9,
+                    100 * winRateA, 100 * winRateLow, 100 * winRateHigh, z,
+                    pointsA, pointsAInterval, pointsB, pointsBInterval);
+        }
+    }
+}
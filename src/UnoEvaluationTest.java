@@ -0,0 +1,55 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for comparing bot strategies.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoEvaluationTest {
+    // A hopeless bot that never plays a card
+    private static final UnoStrategy ALWAYS_DRAW = (model, hand, legal) -> -1;
+
+    /**
+     * A clearly better bot wins and the run stops early instead of playing every pair.
+     */
+    @Test
+    public void testClearWinnerStopsEarly() throws InterruptedException {
+        UnoEvaluation e = new UnoEvaluation(UnoStrategy.GREEDY, ALWAYS_DRAW);
+        e.setMaxPairs(5000);
+        UnoEvaluation.Report r = e.run(1, 2);
+        assertEquals(r.toString(), 1, r.verdict());
+        assertEquals("clear difference", r.stopReason);
+        assertTrue(r.pairs < 5000);
+        assertTrue(r.winRateLow > 0.5);
+        assertTrue(r.pointsA > r.pointsB);
+    }
+
+    /**
+     * The same bot against itself shows no difference, and the seat swap keeps the win rate near 50%.
+     */
+    @Test
+    public void testSameStrategyIsEven() throws InterruptedException {
+        UnoEvaluation e = new UnoEvaluation(UnoStrategy.GREEDY, UnoStrategy.GREEDY);
+        e.setMaxPairs(400);
+        UnoEvaluation.Report r = e.run(7, 2);
+        assertEquals(r.toString(), 0, r.verdict());
+        assertTrue(r.winRateLow <= 0.5 && r.winRateHigh >= 0.5);
+    }
+
+    /**
+     * The result only depends on the seeds, not on how many threads played the games.
+     */
+    @Test
+    public void testRepeatableAcrossThreadCounts() throws InterruptedException {
+        UnoEvaluation e = new UnoEvaluation(UnoStrategy.HIGHEST_POINTS, UnoStrategy.GREEDY);
+        e.setNumPlayers(4);
+        e.setMaxPairs(200);
+        e.setBatchSize(100);
+        UnoEvaluation.Report one = e.run(3, 1);
+        UnoEvaluation.Report three = e.run(3, 3);
+        assertEquals(one.pairs, three.pairs);
+        assertEquals(one.winRateA, three.winRateA, 1e-12);
+        assertEquals(one.pointsA, three.pointsA, 1e-9);
+    }
+}
@@ -15,6 +15,8 @@ public class UnoEvent extends EventObject {
     private final UnoColor activeColor;
     private final boolean isDark;
     private final boolean isAIPlayer;
+    private final boolean[] legalMoves;
+    private final int suggestedMove;
 
     /**
      * Constructs a new UnoEvent.
@@ -29,6 +31,18 @@ public class UnoEvent extends EventObject {
     public UnoEvent(Object source, List<UnoCard> hand, String topCardText,
                     String currentPlayerName, String info, boolean mustPressNext,
                     UnoColor activeColor, boolean isDark, boolean isAIPlayer) {
+        this(source, hand, topCardText, currentPlayerName, info, mustPressNext, activeColor, isDark, isAIPlayer, null, -1);
+    }
+
+    /**
+     * Constructs a new UnoEvent that also says which cards can be played and which one the bot would pick.
+     * @param legalMoves    One entry per card in the hand, true if it can be played right now (null if unknown).
+     * @param suggestedMove Hand index of the suggested card, or -1 for no suggestion.
+     */
+    public UnoEvent(Object source, List<UnoCard> hand, String topCardText,
+                    String currentPlayerName, String info, boolean mustPressNext,
+                    UnoColor activeColor, boolean isDark, boolean isAIPlayer,
+                    boolean[] legalMoves, int suggestedMove) {
         super(source);
         this.hand = hand;
         this.topCardText = topCardText;
@@ -38,6 +52,8 @@ public class UnoEvent extends EventObject {
         this.activeColor = activeColor;
         this.isDark = isDark;
         this.isAIPlayer = isAIPlayer;
+        this.legalMoves = legalMoves;
+        this.suggestedMove = suggestedMove;
     }
 
     /**
@@ -103,4 +119,21 @@ public class UnoEvent extends EventObject {
     public boolean isAIPlayer() {
         return isAIPlayer;
     }
-}
\ No newline at end of file
+
+    /**
+     * Checks if a card in the hand can be played right now.
+     * @param handIndex The position of the card.
+     * @return True if it is legal (or if the model didn't say).
+     */
+    public boolean isPlayable(int handIndex) {
+        return legalMoves == null || (handIndex >= 0 && handIndex < legalMoves.length && legalMoves[handIndex]);
+    }
+
+    /**
+     * Gets the card the bot would play in this spot, if hints are turned on.
+     * @return The hand index, or -1 if there is no suggestion (hints off, or drawing is the best move).
+     */
+    public int getSuggestedMove() {
+        return suggestedMove;
+    }
+}
@@ -0,0 +1,127 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Custom Java Flight Recorder events that the Model emits while a game is running.
+ * They let us line up GC pauses and latency spikes in a recording with what was happening in the game.
+ * When recording is off, the JVM throws the event objects away, so the Model pays basically nothing for them.
+ * Until Flight Recorder has been started, the Model doesn't create them at all (see {@link #isOn()}).
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public final class UnoFlightEvents {
+
+    private UnoFlightEvents() {
+    }
+
+    /**
+     * The first event object of a run starts up all of JFR, which costs a few hundred milliseconds (a lot for
+     * a short simulation job). So the Model only creates events once Flight Recorder has been started, with
+     * -XX:StartFlightRecording, jcmd or a Recording in code.
+     * @return true if Flight Recorder is running in this JVM.
+     */
+    static boolean isOn() {
+        return FlightRecorder.isInitialized();
+    }
+
+    /**
+     * Fired after a card has been played and its special effect (Skip, Flip, etc.) applied.
+     */
+    @Name("uno.ActionApplied")
+    @Label("Uno Action Applied")
+    @Category("Uno")
+    @Description("A card was played and its effect applied")
+    @StackTrace(false)
+    static final class ActionApplied extends Event {
+        @Label("Player")
+        String player;
+
+        @Label("Card")
+        String card;
+
+        @Label("Effect")
+        String effect;
+
+        @Label("Dark Side")
+        boolean dark;
+    }
+
+    /**
+     * Fired when someone empties their hand and the round gets scored.
+     */
+    @Name("uno.RoundEnded")
+    @Label("Uno Round Ended")
+    @Category("Uno")
+    @Description("A round was won and scored")
+    @StackTrace(false)
+    static final class RoundEnded extends Event {
+        @Label("Winner")
+        String winner;
+
+        @Label("Points")
+        int points;
+
+        @Label("Winner Total")
+        int total;
+
+        @Label("Game Over")
+        boolean gameOver;
+    }
+
+    /**
+     * Spans the time a bot spends picking its move in playAITurn.
+     */
+    @Name("uno.AiDecision")
+    @Label("Uno AI Decision")
+    @Category("Uno")
+    @Description("A bot evaluated its hand and picked a move")
+    @StackTrace(false)
+    static final class AiDecision extends Event {
+        @Label("Player")
+        String player;
+
+        @Label("Candidates")
+        @Description("Number of cards in hand that were legal to play")
+        int candidates;
+
+        @Label("Hand Size")
+        int handSize;
+
+        @Label("Chosen")
+        String chosen;
+    }
+
+    /**
+     * Fired whenever the Model serializes itself for the undo/redo history.
+     */
+    @Name("uno.SnapshotTaken")
+    @Label("Uno Snapshot Taken")
+    @Category("Uno")
+    @Description("The game state was serialized for undo/redo")
+    @StackTrace(false)
+    static final class SnapshotTaken extends Event {
+        @Label("Size")
+        @DataAmount
+        long bytes;
+    }
+
+    /**
+     * Fired when the draw pile ran out and the discard pile got shuffled back into it.
+     */
+    @Name("uno.DeckRecycled")
+    @Label("Uno Deck Recycled")
+    @Category("Uno")
+    @Description("The discard pile was shuffled back into the draw pile")
+    @StackTrace(false)
+    static final class DeckRecycled extends Event {
+        @Label("Cards")
+        int cards;
+    }
+}
@@ -0,0 +1,65 @@
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the Flight Recorder events emitted by UnoModel.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoFlightEventsTest {
+
+    /**
+     * Records a short game and checks that the play, AI and snapshot events show up in the recording.
+     */
+    @Test
+    public void testEventsRecorded() throws IOException {
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(UnoFlightEvents.ActionApplied.class);
+            recording.enable(UnoFlightEvents.AiDecision.class);
+            recording.enable(UnoFlightEvents.SnapshotTaken.class);
+            recording.start();
+
+            UnoModel model = new UnoModel(2, Arrays.asList("Alice", "Bot"), Arrays.asList(false, true));
+            model.setTopCard(new UnoCard(UnoColor.RED, UnoRank.FIVE, UnoColor.TEAL, UnoRank.FIVE));
+            List<UnoCard> hand = new ArrayList<>();
+            hand.add(new UnoCard(UnoColor.RED, UnoRank.REVERSE, UnoColor.TEAL, UnoRank.REVERSE));
+            hand.add(new UnoCard(UnoColor.BLUE, UnoRank.NINE, UnoColor.PINK, UnoRank.NINE));
+            model.forceHand(0, hand);
+            model.play(0);
+            model.nextPlayer();
+            model.playAITurn();
+
+            recording.stop();
+            File out = File.createTempFile("uno_jfr", ".jfr");
+            out.deleteOnExit();
+            recording.dump(out.toPath());
+            events = RecordingFile.readAllEvents(out.toPath());
+        }
+
+        RecordedEvent applied = find(events, "uno.ActionApplied");
+        assertNotNull("Play should emit an ActionApplied event", applied);
+        assertEquals("Alice", applied.getString("player"));
+        assertEquals("RED-REVERSE", applied.getString("card"));
+        assertEquals("REVERSE", applied.getString("effect"));
+
+        assertNotNull("Bot turn should emit an AiDecision event", find(events, "uno.AiDecision"));
+
+        RecordedEvent snapshot = find(events, "uno.SnapshotTaken");
+        assertNotNull("saveState should emit a SnapshotTaken event", snapshot);
+        assertTrue(snapshot.getLong("bytes") > 0);
+    }
+
+    private RecordedEvent find(List<RecordedEvent> events, String name) {
+        for (RecordedEvent e : events) {
+            if (e.getEventType().getName().equals(name)) return e;
+        }
+        return null;
+    }
+}
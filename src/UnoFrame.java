@@ -17,10 +17,12 @@ public class UnoFrame extends JFrame implements UnoView {
     private final JPanel handPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 8, 8));
     private final JButton buttonDraw = new JButton("Draw");
     private final JButton buttonNext = new JButton("Next Player");
+    private final JButton buttonRunBots = new JButton("Run All Bots");
 
     // Menu items for the top bar
     private final JMenuItem menuUndo = new JMenuItem("Undo");
     private final JMenuItem menuRedo = new JMenuItem("Redo");
+    private final JCheckBoxMenuItem menuHints = new JCheckBoxMenuItem("Show Hints");
 
     private UnoController controller;
     private boolean isDark = false;
@@ -50,6 +52,8 @@ public class UnoFrame extends JFrame implements UnoView {
         menuRedo.setActionCommand("REDO");
         gameMenu.add(menuUndo);
         gameMenu.add(menuRedo);
+        menuHints.setActionCommand("HINTS");
+        gameMenu.add(menuHints);
 
         menuBar.add(fileMenu);
         menuBar.add(gameMenu);
@@ -70,10 +74,13 @@ public class UnoFrame extends JFrame implements UnoView {
         itemLoad.addActionListener(controller);
         menuUndo.addActionListener(controller);
         menuRedo.addActionListener(controller);
+        menuHints.addActionListener(controller);
         buttonDraw.setActionCommand("DRAW");
         buttonDraw.addActionListener(controller);
         buttonNext.setActionCommand("NEXT");
         buttonNext.addActionListener(controller);
+        buttonRunBots.setActionCommand("RUN_AI");
+        buttonRunBots.addActionListener(controller);
 
         // Components
         JPanel north = new JPanel(new GridLayout(2, 1));
@@ -82,7 +89,7 @@ public class UnoFrame extends JFrame implements UnoView {
         north.add(stats);
 
         JPanel south = new JPanel();
-        south.add(buttonDraw); south.add(buttonNext);
+        south.add(buttonDraw); south.add(buttonNext); south.add(buttonRunBots);
 
         add(north, BorderLayout.NORTH);
         add(new JScrollPane(handPanel), BorderLayout.CENTER);
@@ -116,8 +123,12 @@ public class UnoFrame extends JFrame implements UnoView {
             b.setForeground(isDark ? Color.WHITE : Color.BLACK);
             b.setActionCommand("PLAY:" + i);
             b.addActionListener(controller);
-            // Disable buttons if it's not our turn to play
-            b.setEnabled(!e.isMustPressNext() && !e.isAIPlayer());
+            // Disable buttons if it's not our turn to play, or if the card can't go on the pile
+            b.setEnabled(!e.isMustPressNext() && !e.isAIPlayer() && e.isPlayable(i));
+            if (i == e.getSuggestedMove()) {
+                b.setBorder(BorderFactory.createLineBorder(new Color(255, 200, 0), 3));
+                b.setToolTipText("Suggested move");
+            }
             handPanel.add(b);
         }
 
@@ -126,10 +137,12 @@ public class UnoFrame extends JFrame implements UnoView {
             buttonDraw.setEnabled(false);
             buttonNext.setText(e.isMustPressNext() ? "Next Player" : "Run AI Turn");
             buttonNext.setEnabled(true);
+            buttonRunBots.setEnabled(true);
         } else {
             buttonDraw.setEnabled(!e.isMustPressNext());
             buttonNext.setText("Next Player");
             buttonNext.setEnabled(e.isMustPressNext());
+            buttonRunBots.setEnabled(false);
         }
 
         handPanel.revalidate();
@@ -171,9 +184,16 @@ public class UnoFrame extends JFrame implements UnoView {
     }
 
     /**
-     * Helper to get visual colors for the cards.
+     * Shows save/load progress in the status label so the window stays usable.
      */
     @Override
+    public void showProgress(String message) {
+        labelInfo.setText(message);
+    }
+
+    /**
+     * Helper to get visual colors for the cards.
+     */
     public Color mapCardColor(UnoColor c) {
         return switch(c) {
             case RED -> new Color(255, 80, 80);
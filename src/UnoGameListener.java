@@ -0,0 +1,43 @@
+/**
+ * Gets told about every move and round result, without the snapshot a view gets. Meant for recorders
+ * and statistics in simulations, so calls have to be cheap: don't keep the model or do slow work here.
+ * What a recorder usually needs about the move is passed in, so it doesn't have to ask the model.
+ * Undo and redo are not reported, so a listener sees the moves as they were made.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public interface UnoGameListener {
+
+    /**
+     * Called after a card was played and its effect applied (a Flip has already flipped the table).
+     * @param model  The game.
+     * @param player The seat that played.
+     * @param card   The card.
+     * @param rank   The rank it was played as (the side that was up when it was played).
+     * @param hand   How many cards the player has left.
+     * @param isDark Whether the Dark side is up now.
+     */
+    default void onPlay(UnoModel model, int player, UnoCard card, UnoRank rank, int hand, boolean isDark) {
+    }
+
+    /**
+     * Called after a player drew instead of playing.
+     * @param model  The game.
+     * @param player The seat that drew.
+     * @param cards  How many cards they drew (more than one when taking stacked Draw cards).
+     * @param hand   How many cards the player has now.
+     * @param isDark Whether the Dark side is up.
+     */
+    default void onDraw(UnoModel model, int player, int cards, int hand, boolean isDark) {
+    }
+
+    /**
+     * Called when someone goes out, after the points are added and before the next round is dealt.
+     * @param model  The game.
+     * @param winner The seat that went out.
+     * @param points The points they got for the round.
+     */
+    default void onRoundEnd(UnoModel model, int winner, int points) {
+    }
+}
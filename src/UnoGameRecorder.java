@@ -0,0 +1,488 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Records every move and round of simulated games into a compact file for analysis.
+ * <p>
+ * Data is stored by column: each table (turns and rounds) fills a fixed-size buffer, row after row.
+ * When a table's buffer is full it is handed to a background thread that picks out each column, compresses it
+ * on its own and writes them as a chunk, while the game keeps going with a second buffer. Recording
+ * a move only costs storing one long on the game's thread: the game, round and turn columns are worked out by the
+ * writer thread from where each round's run of moves starts. Memory use stays the same no matter how many games
+ * are recorded (two buffers per table), and {@link UnoRecordReader} can read one column (say, the points) without
+ * unpacking any of the others.
+ * <p>
+ * Recording every move costs the games about 8% more time (median of main's paired runs on one core, where the
+ * writer shares the CPU), so by default only the rounds are recorded, which costs about 2%: the turns table is
+ * then empty. Ask for turns when the per-move data is worth it.
+ * <p>
+ * Use {@link #attach} for every game. A recorder isn't thread-safe, so give each simulation thread its own file.
+ * <pre>
+ * File:  "UNOC", version, table count, then per table: id, name, column count, per column: name, width
+ * Chunk: table id, row count, compressed size of each column, then the compressed columns one after another
+ * </pre>
+ * Values are stored big-endian in the column's width (1, 2 or 4 bytes) before compressing. Counting columns
+ * (game, round, turn) store the change from the row before instead, which compresses to almost nothing;
+ * the top bit of their width byte is set. Every chunk starts counting from 0 again.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoGameRecorder implements Closeable {
+    static final int MAGIC = 0x554E4F43; // "UNOC"
+    static final int VERSION = 1;
+    public static final int DEFAULT_CHUNK_ROWS = 1 << 15;
+
+    /** One row per turn. card is the card code (-1 for a draw), rank the played rank's ordinal (-1 for a draw),
+     * hand the player's hand size after the turn and dark the side that is up after it (so a change means a Flip). */
+    public static final Table TURNS = new Table(0, "turns",
+            new String[]{"game", "round", "turn", "player", "card", "rank", "drawn", "hand", "dark"},
+            new int[]{4, 2, 2, 1, 2, 1, 1, 1, 1}, 3);
+    /** One row per round that someone won. gameOver is 1 for the round that ended the game. */
+    public static final Table ROUNDS = new Table(1, "rounds",
+            new String[]{"game", "round", "winner", "points", "turns", "dark", "gameOver"},
+            new int[]{4, 2, 1, 4, 2, 1, 1}, 2);
+    static final Table[] TABLES = {TURNS, ROUNDS};
+
+    private final FileChannel channel;
+    private final int chunkRows;
+    private final Slot turns; // null when only rounds are recorded
+    private final Slot rounds;
+    // Only the writer thread touches these
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final ByteBuffer raw;      // one column in its stored form, before compressing
+    private final ByteBuffer packed;   // compressed columns of the chunk being written
+    private final ByteBuffer header;
+    private final int[] unpacked;      // the turns of the chunk being written, spelled out into all their columns
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "uno-recorder");
+        t.setDaemon(true);
+        return t;
+    });
+    private int games;
+    private volatile long chunks;
+    private volatile long bytes;
+
+    /**
+     * Creates (or replaces) a record file.
+     * @param file      Where to write.
+     * @param chunkRows Rows per chunk: more compresses better but needs bigger buffers.
+     * @param turns     Whether to record every move too, or just the rounds (which is what stays cheap enough
+     *                  to leave on; the turns table is then empty).
+     */
+    public UnoGameRecorder(Path file, int chunkRows, boolean turns) throws IOException {
+        this.chunkRows = chunkRows;
+        this.turns = turns ? new Slot(TURNS, chunkRows) : null;
+        this.rounds = new Slot(ROUNDS, chunkRows);
+        int widest = 0;
+        for (Table t : TABLES) widest = Math.max(widest, t.rowWidth());
+        // Deflate can make incompressible data a little bigger, so leave some room
+        this.packed = ByteBuffer.allocateDirect(widest * chunkRows + chunkRows / 8 + 1024);
+        this.raw = ByteBuffer.allocateDirect(4 * chunkRows);
+        this.unpacked = turns ? new int[TURNS.columns.length * chunkRows] : null;
+        this.header = ByteBuffer.allocate(64);
+        this.channel = FileChannel.open(file, WRITE, CREATE, TRUNCATE_EXISTING);
+        writeFileHeader();
+    }
+
+    /**
+     * Opens a record file with the default chunk size.
+     * @param file  Where to write.
+     * @param turns Whether to record every move too, or just the rounds.
+     */
+    public UnoGameRecorder(Path file, boolean turns) throws IOException {
+        this(file, DEFAULT_CHUNK_ROWS, turns);
+    }
+
+    /**
+     * Starts recording a game. Rows from this game get the next game number (0, 1, 2, ...).
+     * @param model The game, before its first move.
+     */
+    public void attach(UnoModel model) {
+        model.addGameListener(new Game(games++));
+    }
+
+    public int getGames() { return games; }
+    /** @return Chunks written to the file so far. */
+    public long getChunks() { return chunks; }
+    /** @return Bytes written to the file so far. */
+    public long getBytes() { return bytes; }
+
+    /**
+     * Listens to one game and keeps its round and turn counters.
+     */
+    private final class Game implements UnoGameListener {
+        private final int id;
+        private int round;
+        private int turn;
+
+        Game(int id) { this.id = id; }
+
+        @Override
+        public void onPlay(UnoModel m, int player, UnoCard card, UnoRank rank, int hand, boolean isDark) {
+            if (turns == null) turn++;
+            else turn(player, card.toCode(), rank.ordinal(), 0, hand, isDark);
+        }
+
+        @Override
+        public void onDraw(UnoModel m, int player, int cards, int hand, boolean isDark) {
+            if (turns == null) turn++;
+            else turn(player, -1, -1, cards, hand, isDark);
+        }
+
+        private void turn(int player, int card, int rank, int drawn, int hand, boolean dark) {
+            Buffer b = turns.filling;
+            int r = b.rows;
+            if (b.runGame != this || b.runRound != round) b.startRun(this, round, turn);
+            b.turns[r] = (card & 0xFFFFL) | (player & 0xFFL) << 16 | (rank & 0xFFL) << 24
+                    | (drawn & 0xFFL) << 32 | (hand & 0xFFL) << 40 | (dark ? 1L << 48 : 0);
+            turn++;
+            endRow(b);
+        }
+
+        @Override
+        public void onRoundEnd(UnoModel m, int winner, int points) {
+            Buffer b = rounds.filling;
+            int[] v = b.values;
+            int r = b.rows * 7;
+            v[r] = id; v[r + 1] = round++; v[r + 2] = winner; v[r + 3] = points;
+            v[r + 4] = turn; v[r + 5] = m.isDark() ? 1 : 0; v[r + 6] = m.isGameOver() ? 1 : 0;
+            turn = 0;
+            endRow(b);
+        }
+    }
+
+    private void endRow(Buffer b) {
+        if (++b.rows == chunkRows) {
+            try {
+                (b.table == TURNS ? turns : rounds).handOff();
+            } catch (IOException e) {
+                throw new IllegalStateException("Couldn't write game records", e);
+            }
+        }
+    }
+
+    /**
+     * Writes what is buffered, waits for the writer and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (turns != null) turns.handOff();
+            rounds.handOff();
+            if (turns != null) turns.await();
+            rounds.await();
+        } finally {
+            writer.shutdown();
+            try {
+                writer.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            deflater.end();
+            channel.close();
+        }
+    }
+
+    /**
+     * The two buffers of a table: one being filled by the game, one being written in the background.
+     */
+    private final class Slot {
+        Buffer filling;
+        Buffer spare;
+        Future<?> writing; // Writing of the spare buffer, or null if it is free
+
+        Slot(Table table, int rows) {
+            filling = new Buffer(table, rows);
+            spare = new Buffer(table, rows);
+        }
+
+        // Gives the full buffer to the writer and continues in the other one (waits if that is still being written)
+        void handOff() throws IOException {
+            if (filling.rows == 0) return;
+            await();
+            Buffer full = filling;
+            filling = spare;
+            spare = full;
+            writing = writer.submit(() -> {
+                writeChunk(full);
+                return null;
+            });
+        }
+
+        void await() throws IOException {
+            if (writing == null) return;
+            try {
+                writing.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while writing game records", e);
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+            } finally {
+                writing = null;
+            }
+        }
+    }
+
+    private void writeFileHeader() throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(1024);
+        buf.putInt(MAGIC).putInt(VERSION).put((byte) TABLES.length);
+        for (Table t : TABLES) {
+            buf.put((byte) t.id);
+            putString(buf, t.name);
+            buf.put((byte) t.columns.length);
+            for (int c = 0; c < t.columns.length; c++) {
+                putString(buf, t.columns[c]);
+                buf.put((byte) (t.widths[c] | (c < t.counters ? 0x80 : 0)));
+            }
+        }
+        buf.flip();
+        writeFully(buf);
+    }
+
+    private static void putString(ByteBuffer buf, String s) {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        buf.put((byte) b.length).put(b);
+    }
+
+    private void writeChunk(Buffer b) throws IOException {
+        Table t = b.table;
+        header.clear();
+        header.put((byte) t.id).putInt(b.rows);
+        packed.clear();
+        int[] rows = b.turns != null ? b.unpackTurns(unpacked) : b.values;
+        for (int c = 0; c < t.columns.length; c++) {
+            ByteBuffer col = b.pack(rows, c, raw);
+            deflater.reset();
+            deflater.setInput(col);
+            deflater.finish();
+            int start = packed.position();
+            while (!deflater.finished()) {
+                if (deflater.deflate(packed) == 0 && !packed.hasRemaining()) {
+                    throw new IllegalStateException("Chunk buffer too small");
+                }
+            }
+            header.putInt(packed.position() - start);
+        }
+        header.flip();
+        packed.flip();
+        writeFully(header);
+        writeFully(packed);
+        b.clear();
+        chunks++;
+    }
+
+    private void writeFully(ByteBuffer buf) throws IOException {
+        bytes += buf.remaining();
+        while (buf.hasRemaining()) channel.write(buf);
+    }
+
+    /**
+     * A table in the file: its name and its columns with their widths in bytes.
+     * The first few columns are counters, stored as the change from the row before.
+     */
+    public static final class Table {
+        public final int id;
+        public final String name;
+        private final String[] columns;
+        private final int[] widths;
+        private final int counters;
+
+        Table(int id, String name, String[] columns, int[] widths, int counters) {
+            this.id = id;
+            this.name = name;
+            this.columns = columns;
+            this.widths = widths;
+            this.counters = counters;
+        }
+
+        boolean isCounter(int column) { return column < counters; }
+
+        public List<String> getColumns() { return List.of(columns); }
+
+        int width(int column) { return widths[column]; }
+
+        int rowWidth() { return Arrays.stream(widths).sum(); }
+
+        /**
+         * @return The column's position, or -1 if there is no such column.
+         */
+        public int column(String name) {
+            return List.of(columns).indexOf(name);
+        }
+    }
+
+    /**
+     * The rows of a table for the chunk being filled.
+     */
+    private static final class Buffer {
+        final Table table;
+        // ROUNDS: row after row (a row's values are next to each other), so recording a row touches one array
+        final int[] values;
+        // TURNS: one long per row with everything but the counters (see Game.turn), so a move is a single store.
+        // The counters are rebuilt by the writer from the runs: rows in a row from the same round of one game.
+        final long[] turns;
+        int[] runStart = new int[16];
+        int[] runFirst = new int[3 * 16]; // game id, round and first turn of each run, three ints per run
+        int runs;
+        Game runGame;   // whose run the last row belongs to
+        int runRound;
+        int rows;
+
+        Buffer(Table table, int rows) {
+            this.table = table;
+            boolean packed = table == TURNS;
+            this.values = new int[table.columns.length * (packed ? 0 : rows)];
+            this.turns = packed ? new long[rows] : null;
+        }
+
+        void startRun(Game g, int round, int turn) {
+            if (runs == runStart.length) {
+                runStart = Arrays.copyOf(runStart, runs * 2);
+                runFirst = Arrays.copyOf(runFirst, runs * 6);
+            }
+            runStart[runs] = rows;
+            runFirst[runs * 3] = g.id;
+            runFirst[runs * 3 + 1] = round;
+            runFirst[runs * 3 + 2] = turn;
+            runs++;
+            runGame = g;
+            runRound = round;
+        }
+
+        void clear() {
+            rows = 0;
+            runs = 0;
+            runGame = null;
+        }
+
+        /**
+         * Spells the packed turns out into rows of all nine columns, like ROUNDS keeps them (on the writer thread).
+         * @return The rows, in the given array.
+         */
+        int[] unpackTurns(int[] out) {
+            for (int k = 0; k < runs; k++) {
+                int end = k + 1 < runs ? runStart[k + 1] : rows;
+                for (int r = runStart[k], turn = runFirst[k * 3 + 2]; r < end; r++) {
+                    long t = turns[r];
+                    int at = r * 9;
+                    out[at] = runFirst[k * 3];
+                    out[at + 1] = runFirst[k * 3 + 1];
+                    out[at + 2] = turn++;
+                    out[at + 3] = (int) (t >>> 16) & 0xFF;
+                    out[at + 4] = (short) t;
+                    out[at + 5] = (byte) (t >>> 24);
+                    out[at + 6] = (int) (t >>> 32) & 0xFF;
+                    out[at + 7] = (int) (t >>> 40) & 0xFF;
+                    out[at + 8] = (int) (t >>> 48) & 1;
+                }
+            }
+            return out;
+        }
+
+        /**
+         * Packs a column into its stored form (on the writer thread).
+         * @return The bytes to compress, in the given buffer.
+         */
+        ByteBuffer pack(int[] v, int column, ByteBuffer out) {
+            out.clear();
+            int cols = table.columns.length;
+            int width = table.widths[column];
+            boolean counter = table.isCounter(column);
+            int last = 0;
+            for (int r = 0, at = column; r < rows; r++, at += cols) {
+                int value = v[at];
+                if (counter) {
+                    value = v[at] - last;
+                    last = v[at];
+                }
+                switch (width) {
+                    case 1 -> out.put((byte) value);
+                    case 2 -> out.putShort((short) value);
+                    default -> out.putInt(value);
+                }
+            }
+            return out.flip();
+        }
+    }
+
+    /**
+     * Simulates all-bot games with and without a recorder and prints how big the file got and how much longer
+     * the games took on their own thread (compressing happens on the writer thread).
+     * Arguments: [file] [games per round] [players] [rounds] [turns] (the last one records every move too).
+     * <p>
+     * Times are the game thread's CPU time. After some warm-up rounds for the JIT, every round plays the same games
+     * once plain and once recorded, right after each other (taking turns which goes first), and the overhead of
+     * each round is compared. Rounds are short so both halves see the same machine; the median and middle half
+     * over many rounds are printed, so a few noisy rounds can't swing the result.
+     */
+    public static void main(String[] args) throws IOException {
+        Path out = Paths.get(args.length > 0 ? args[0] : "uno-games.col");
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int players = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int rounds = args.length > 3 ? Integer.parseInt(args[3]) : 101;
+        boolean turns = args.length > 4 && args[4].equals("turns");
+        int warmup = 20;
+        double[] overhead = new double[rounds];
+        long plain = 0, recorded = 0;
+        long start = System.nanoTime();
+        try (UnoGameRecorder rec = new UnoGameRecorder(out, turns)) {
+            for (int round = -warmup; round < rounds; round++) {
+                boolean recordFirst = (round & 1) != 0;
+                long a = simulate(recordFirst ? rec : null, count, players);
+                long b = simulate(recordFirst ? null : rec, count, players);
+                long p = recordFirst ? b : a, r = recordFirst ? a : b;
+                if (round < 0) continue;
+                overhead[round] = 100.0 * (r - p) / p;
+                plain += p;
+                recorded += r;
+            }
+            System.out.printf("%d games, %d chunks", rec.getGames(), rec.getChunks());
+        }
+        Arrays.sort(overhead);
+        System.out.printf(", %d bytes in %.1fs%n", Files.size(out), (System.nanoTime() - start) / 1e9);
+        System.out.printf("%d rounds of %d games: plain %.0f ms, recorded %.0f ms in total.%n",
+                rounds, count, plain / 1e6, recorded / 1e6);
+        System.out.printf("Recording overhead: median %.1f%% (middle half %.1f%% to %.1f%%)%n",
+                overhead[rounds / 2], overhead[rounds / 4], overhead[3 * rounds / 4]);
+    }
+
+    private static long simulate(UnoGameRecorder rec, int count, int players) {
+        List<String> names = new ArrayList<>();
+        List<Boolean> isAI = new ArrayList<>();
+        for (int i = 0; i < players; i++) { names.add("Bot" + i); isAI.add(true); }
+        java.lang.management.ThreadMXBean cpu = java.lang.management.ManagementFactory.getThreadMXBean();
+        long start = cpu.getCurrentThreadCpuTime();
+        for (int g = 0; g < count; g++) {
+            UnoModel m = new UnoModel(players, names, isAI, UnoRules.standard(), g);
+            m.getHistory().setBudget(0);
+            if (rec != null) rec.attach(m);
+            int steps = 0;
+            while (!m.isGameOver() && steps++ < 100 * UnoEvaluation.MAX_STEPS) {
+                if (m.isMustPressNext()) m.nextPlayer();
+                else m.playAITurn();
+            }
+        }
+        return cpu.getCurrentThreadCpuTime() - start;
+    }
+}
@@ -0,0 +1,126 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test class for the columnar game recorder and its reader.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoGameRecorderTest {
+
+    /**
+     * Keeps its own list of what happened, to check the file against.
+     */
+    static class Log implements UnoGameListener {
+        final List<Integer> cards = new ArrayList<>();
+        final List<Integer> points = new ArrayList<>();
+        int draws;
+
+        @Override
+        public void onPlay(UnoModel m, int player, UnoCard card, UnoRank rank, int hand, boolean dark) { cards.add(card.toCode()); }
+
+        @Override
+        public void onDraw(UnoModel m, int player, int n, int hand, boolean dark) { cards.add(-1); draws++; }
+
+        @Override
+        public void onRoundEnd(UnoModel m, int winner, int pts) { points.add(pts); }
+    }
+
+    private static Log play(UnoGameRecorder rec, int games) {
+        Log log = new Log();
+        for (int g = 0; g < games; g++) {
+            UnoModel m = new UnoModel(3, List.of("A", "B", "C"), List.of(true, true, true), UnoRules.standard(), 40 + g);
+            m.getHistory().setBudget(0);
+            rec.attach(m);
+            m.addGameListener(log);
+            for (int round = 0; round < 2; round++) m.runAITurns();
+        }
+        return log;
+    }
+
+    /**
+     * Small chunks force many background writes; every column reads back exactly as it was recorded.
+     */
+    @Test
+    public void testRoundTrip() throws Exception {
+        File file = File.createTempFile("uno_games", ".col");
+        file.deleteOnExit();
+        Path path = file.toPath();
+        Log log;
+        try (UnoGameRecorder rec = new UnoGameRecorder(path, 100, true)) {
+            log = play(rec, 5);
+            assertEquals(5, rec.getGames());
+        }
+
+        try (UnoRecordReader r = new UnoRecordReader(path)) {
+            assertEquals(log.cards.size(), r.count("turns"));
+            assertEquals(log.points.size(), r.count("rounds"));
+
+            List<Integer> cards = new ArrayList<>();
+            r.scan("turns", "card", cards::add);
+            assertEquals(log.cards, cards);
+
+            List<Integer> points = new ArrayList<>();
+            r.scan("rounds", "points", points::add);
+            assertEquals(log.points, points);
+
+            // Counter columns come back as the real numbers, not the stored changes
+            List<Integer> games = new ArrayList<>();
+            r.scan("turns", "game", games::add);
+            assertEquals(Integer.valueOf(0), games.get(0));
+            assertEquals(Integer.valueOf(4), games.get(games.size() - 1));
+            for (int i = 1; i < games.size(); i++) assertTrue(games.get(i) >= games.get(i - 1));
+
+            int[] drawn = new int[1];
+            r.scan("turns", "drawn", v -> { if (v > 0) drawn[0]++; });
+            assertEquals(log.draws, drawn[0]);
+
+            int[] firstTurns = new int[1];
+            r.scan("turns", "turn", v -> { if (v == 0) firstTurns[0]++; });
+            assertEquals("Every round starts at turn 0", 10, firstTurns[0]);
+        }
+    }
+
+    /**
+     * Without turns only the rounds are written, but they still count the moves of each round.
+     */
+    @Test
+    public void testRoundsOnly() throws Exception {
+        File file = File.createTempFile("uno_games", ".col");
+        file.deleteOnExit();
+        Path path = file.toPath();
+        Log log;
+        try (UnoGameRecorder rec = new UnoGameRecorder(path, 100, false)) {
+            log = play(rec, 5);
+        }
+
+        try (UnoRecordReader r = new UnoRecordReader(path)) {
+            assertEquals(0, r.count("turns"));
+            assertEquals(log.points.size(), r.count("rounds"));
+            List<Integer> points = new ArrayList<>();
+            r.scan("rounds", "points", points::add);
+            assertEquals(log.points, points);
+            long[] turns = new long[1];
+            r.scan("rounds", "turns", v -> turns[0] += v);
+            assertEquals(log.cards.size(), turns[0]);
+        }
+    }
+
+    /**
+     * Asking for a column that doesn't exist fails clearly.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownColumn() throws Exception {
+        File file = File.createTempFile("uno_games", ".col");
+        file.deleteOnExit();
+        new UnoGameRecorder(file.toPath(), true).close();
+        try (UnoRecordReader r = new UnoRecordReader(file.toPath())) {
+            assertEquals(0, r.count("turns"));
+            r.scan("turns", "colour", v -> { });
+        }
+    }
+}
@@ -0,0 +1,251 @@
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A training environment (in the style of OpenAI Gym) for teaching a bot to play.
+ * The agent sits in one seat and every other seat is played by the built-in bot.
+ * One episode is one round.
+ * <p>
+ * Actions are numbers: {@code rank * 4 + colorSlot} plays a card of that rank and color
+ * (for Wild cards the color slot is the color to pick), and {@link #DRAW} draws a card.
+ * Color slots are the four colors of the active side in UnoColor order (RED, GREEN, BLUE, YELLOW
+ * or PINK, TEAL, PURPLE, ORANGE). The observation and the legal-action mask are written into arrays
+ * that are reused every step, so stepping creates no new observation objects.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoGym {
+    private static final int RANKS = UnoRank.values().length;
+
+    /** The action that draws a card. */
+    public static final int DRAW = RANKS * 4;
+    /** How many different actions there are. */
+    public static final int NUM_ACTIONS = DRAW + 1;
+
+    // Observation layout
+    private static final int OBS_HAND = 0;                        // count of each action class in hand
+    private static final int OBS_TOP = OBS_HAND + RANKS * 4;     // top card rank, one-hot
+    private static final int OBS_COLOR = OBS_TOP + RANKS;        // active color slot, one-hot
+    private static final int OBS_DARK = OBS_COLOR + 4;           // 1 if on the Dark side
+    private static final int OBS_DIRECTION = OBS_DARK + 1;       // +1 or -1
+    private static final int OBS_OPPONENTS = OBS_DIRECTION + 1;  // hand sizes of the next 3 seats
+    private static final int OBS_DRAW_PILE = OBS_OPPONENTS + 3;  // fraction of the deck left to draw
+    private static final int OBS_PENDING = OBS_DRAW_PILE + 1;    // stacked Draw cards waiting
+    /** Length of the observation vector. */
+    public static final int OBS_SIZE = OBS_PENDING + 1;
+
+    /** Episodes longer than this many actions (agent and bots together) are cut off with no reward. */
+    public static final int MAX_STEPS = 2000;
+
+    private static final UnoColor[] LIGHT = {UnoColor.RED, UnoColor.GREEN, UnoColor.BLUE, UnoColor.YELLOW};
+    private static final UnoColor[] DARK = {UnoColor.PINK, UnoColor.TEAL, UnoColor.PURPLE, UnoColor.ORANGE};
+
+    private final int numPlayers;
+    private final int agentSeat;
+    private final UnoRules rules;
+    private final List<String> names = new ArrayList<>();
+    private final List<Boolean> isAI = new ArrayList<>();
+
+    private final float[] observation = new float[OBS_SIZE];
+    private final float[] mask = new float[NUM_ACTIONS];
+
+    private UnoModel model;
+    private int roundAtReset;
+    private int steps;
+    private boolean done = true;
+    private float lastReward;
+
+    /**
+     * Creates an environment with the standard rules where the agent goes first.
+     * @param numPlayers Number of seats (2-4).
+     */
+    public UnoGym(int numPlayers) {
+        this(numPlayers, 0, UnoRules.standard());
+    }
+
+    /**
+     * Creates an environment.
+     * @param numPlayers Number of seats (2-4).
+     * @param agentSeat  Which seat the agent plays.
+     * @param rules      The rule set to train on.
+     */
+    public UnoGym(int numPlayers, int agentSeat, UnoRules rules) {
+        if (agentSeat < 0 || agentSeat >= numPlayers) throw new IllegalArgumentException("Agent seat out of range.");
+        this.numPlayers = numPlayers;
+        this.agentSeat = agentSeat;
+        this.rules = rules;
+        for (int i = 0; i < numPlayers; i++) {
+            names.add(i == agentSeat ? "Agent" : "Bot " + i);
+            isAI.add(i != agentSeat);
+        }
+    }
+
+    /**
+     * Starts a new episode (a fresh round) with a given seed.
+     * @param seed Seed for the shuffle and the bots, so episodes can be replayed.
+     * @return The first observation (the same array is reused every step).
+     */
+    public float[] reset(long seed) {
+        model = new UnoModel(numPlayers, names, isAI, rules, seed);
+        model.getHistory().setBudget(0); // No undo needed, so skip the snapshots
+        roundAtReset = model.getRoundsPlayed();
+        steps = 0;
+        done = false;
+        lastReward = 0;
+        advance();
+        writeObservation();
+        return observation;
+    }
+
+    /**
+     * Does one agent action and lets the bots play until it is the agent's turn again or the round ends.
+     * @param action The action number (see the class description). It must be legal.
+     * @return The reward: +1 if the agent won the round, -1 if someone else did, otherwise 0.
+     */
+    public float step(int action) {
+        if (done) throw new IllegalStateException("Episode is over, call reset first.");
+        if (action < 0 || action >= NUM_ACTIONS || !isLegal(action)) {
+            throw new IllegalArgumentException("Illegal action: " + action);
+        }
+
+        if (action == DRAW) {
+            model.draw();
+        } else {
+            int rank = action >> 2;
+            int slot = action & 3;
+            int idx = findCard(rank, slot);
+            if (model.isCardWild(idx)) model.playWild(idx, palette()[slot]);
+            else model.play(idx);
+        }
+        steps++;
+        advance();
+        writeObservation();
+        return lastReward;
+    }
+
+    /**
+     * @return The latest observation (reused array, don't keep it between steps).
+     */
+    public float[] observation() {
+        return observation;
+    }
+
+    /**
+     * Gets which actions are legal right now: 1 for legal, 0 for illegal.
+     * @return The mask (reused array).
+     */
+    public float[] legalActionMask() {
+        Arrays.fill(mask, 0f);
+        if (done) return mask;
+        mask[DRAW] = 1f;
+        UnoPlayer me = model.getPlayer(agentSeat);
+        boolean dark = model.isDark();
+        for (int i = 0; i < me.hand.size(); i++) {
+            if (!model.isLegalMove(i)) continue;
+            UnoCard c = me.hand.get(i);
+            int base = c.getRank(dark).ordinal() * 4;
+            if (c.isWild(dark)) {
+                for (int s = 0; s < 4; s++) mask[base + s] = 1f;
+            } else {
+                mask[base + slotOf(c.getColor(dark))] = 1f;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Copies the latest observation into a (direct) buffer, e.g. to hand it to native training code.
+     * @param dst    The buffer.
+     * @param offset The float index to start writing at.
+     */
+    public void writeObservation(FloatBuffer dst, int offset) {
+        for (int i = 0; i < OBS_SIZE; i++) dst.put(offset + i, observation[i]);
+    }
+
+    public boolean isDone() { return done; }
+    public float getLastReward() { return lastReward; }
+    public int getSteps() { return steps; }
+
+    /**
+     * @return The game behind the environment (for debugging and tests).
+     */
+    public UnoModel getModel() { return model; }
+
+    /**
+     * Presses Next and runs the bots until the agent has to decide something or the round is over.
+     */
+    private void advance() {
+        while (true) {
+            if (model.getRoundsPlayed() != roundAtReset) {
+                done = true;
+                lastReward = model.getLastRoundWinner() == agentSeat ? 1f : -1f;
+                return;
+            }
+            if (steps >= MAX_STEPS) {
+                done = true;
+                lastReward = 0f;
+                return;
+            }
+            if (model.isMustPressNext()) {
+                model.nextPlayer();
+            } else if (model.getCurrentPlayerIndex() == agentSeat) {
+                lastReward = 0f;
+                return;
+            } else {
+                model.playAITurn();
+                steps++;
+            }
+        }
+    }
+
+    private boolean isLegal(int action) {
+        if (action == DRAW) return true;
+        int idx = findCard(action >> 2, action & 3);
+        return idx >= 0 && model.isLegalMove(idx);
+    }
+
+    // Finds a card in the agent's hand for the action (for Wilds the slot is the color to pick, not the card color)
+    private int findCard(int rank, int slot) {
+        UnoPlayer me = model.getPlayer(agentSeat);
+        boolean dark = model.isDark();
+        for (int i = 0; i < me.hand.size(); i++) {
+            UnoCard c = me.hand.get(i);
+            if (c.getRank(dark).ordinal() != rank) continue;
+            if (c.isWild(dark) || slotOf(c.getColor(dark)) == slot) return i;
+        }
+        return -1;
+    }
+
+    private void writeObservation() {
+        Arrays.fill(observation, 0f);
+        boolean dark = model.isDark();
+        UnoPlayer me = model.getPlayer(agentSeat);
+        for (UnoCard c : me.hand) {
+            int slot = c.isWild(dark) ? 0 : slotOf(c.getColor(dark));
+            observation[OBS_HAND + c.getRank(dark).ordinal() * 4 + slot] += 1f;
+        }
+        UnoCard top = model.getDiscardTop();
+        if (top != null) observation[OBS_TOP + top.getRank(dark).ordinal()] = 1f;
+        UnoColor active = model.getActiveColor();
+        if (active.ordinal() < 8) observation[OBS_COLOR + slotOf(active)] = 1f;
+        observation[OBS_DARK] = dark ? 1f : 0f;
+        observation[OBS_DIRECTION] = model.getGameDirection();
+        for (int k = 1; k < numPlayers; k++) {
+            observation[OBS_OPPONENTS + k - 1] = model.getPlayer((agentSeat + k) % numPlayers).hand.size();
+        }
+        observation[OBS_DRAW_PILE] = model.getDrawPileSize() / (float) rules.getDeck().size();
+        observation[OBS_PENDING] = model.getPendingDraw();
+    }
+
+    private UnoColor[] palette() {
+        return model.isDark() ? DARK : LIGHT;
+    }
+
+    // Light colors come first in UnoColor and the Dark ones right after, four each
+    private static int slotOf(UnoColor c) {
+        return c.ordinal() & 3;
+    }
+}
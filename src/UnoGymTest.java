@@ -0,0 +1,100 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.*;
+
+/**
+ * Test class for the training environments.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoGymTest {
+
+    // Picks a random legal action from a mask
+    private static int pick(float[] mask, int offset, Random rnd) {
+        int legal = 0;
+        for (int a = 0; a < UnoGym.NUM_ACTIONS; a++) if (mask[offset + a] > 0) legal++;
+        int k = rnd.nextInt(legal);
+        for (int a = 0; a < UnoGym.NUM_ACTIONS; a++) {
+            if (mask[offset + a] > 0 && k-- == 0) return a;
+        }
+        throw new AssertionError("No legal action");
+    }
+
+    /**
+     * The same seed gives the same first observation.
+     */
+    @Test
+    public void testResetIsDeterministic() {
+        UnoGym a = new UnoGym(3);
+        UnoGym b = new UnoGym(3);
+        assertArrayEquals(a.reset(99).clone(), b.reset(99).clone(), 0f);
+        assertEquals("Agent starts with 7 cards", 7f, sum(a.observation(), 0, UnoRank.values().length * 4), 0f);
+    }
+
+    /**
+     * Playing random legal actions always finishes the round with a win or loss reward.
+     */
+    @Test
+    public void testRandomEpisodesFinish() {
+        UnoGym env = new UnoGym(2);
+        Random rnd = new Random(1);
+        for (int episode = 0; episode < 50; episode++) {
+            env.reset(episode);
+            float reward = 0;
+            while (!env.isDone()) {
+                float[] mask = env.legalActionMask();
+                assertEquals("Drawing is always legal", 1f, mask[UnoGym.DRAW], 0f);
+                reward = env.step(pick(mask, 0, rnd));
+            }
+            assertTrue("Reward " + reward, reward == 1f || reward == -1f || env.getSteps() >= UnoGym.MAX_STEPS);
+        }
+    }
+
+    /**
+     * Actions the mask rules out are rejected.
+     */
+    @Test
+    public void testIllegalActionRejected() {
+        UnoGym env = new UnoGym(2);
+        env.reset(5);
+        float[] mask = env.legalActionMask();
+        for (int a = 0; a < UnoGym.DRAW; a++) {
+            if (mask[a] == 0f) {
+                try {
+                    env.step(a);
+                    fail("Action " + a + " should be illegal");
+                } catch (IllegalArgumentException expected) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * The vectorized environment keeps every slot alive and writes into its shared buffers.
+     */
+    @Test
+    public void testVectorStep() {
+        UnoVectorGym vec = new UnoVectorGym(16, 2, UnoRules.standard());
+        vec.reset(1000);
+        Random rnd = new Random(3);
+        int[] actions = new int[vec.size()];
+        int finished = 0;
+        for (int t = 0; t < 200; t++) {
+            for (int i = 0; i < vec.size(); i++) actions[i] = pick(vec.masks(), i * UnoGym.NUM_ACTIONS, rnd);
+            vec.step(actions);
+            for (int i = 0; i < vec.size(); i++) if (vec.dones()[i]) finished++;
+        }
+        assertTrue("Some episodes should have finished", finished > 0);
+        assertTrue(vec.observations().isDirect());
+        float cards = 0;
+        for (int r = 0; r < UnoRank.values().length * 4; r++) cards += vec.observations().get(r);
+        assertTrue("Game 0 should have cards in hand", cards > 0);
+    }
+
+    private static float sum(float[] a, int from, int to) {
+        float s = 0;
+        for (int i = from; i < to; i++) s += a[i];
+        return s;
+    }
+}
@@ -0,0 +1,124 @@
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A player's hand. It works like a normal list of cards, but underneath it's a {@link UnoCardList}: every change
+ * swaps in a new version of the cards, so {@link #getCards()} is a snapshot that costs nothing to take.
+ * The versions keep a running total of how many points the cards are worth on the Light and Dark side,
+ * so scoring a round doesn't need to look at every card again. The same goes for its hash
+ * (see {@link UnoZobrist}), which position hashes are built from.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoHand extends AbstractList<UnoCard> implements RandomAccess, Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    // Saved the way hands were before they were persistent, so old saves and new ones read the same
+    @Serial
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("cards", ArrayList.class),
+            new ObjectStreamField("lightPoints", int.class),
+            new ObjectStreamField("darkPoints", int.class)
+    };
+
+    private transient UnoCardList cards = UnoCardList.EMPTY;
+
+    @Override
+    public UnoCard get(int index) {
+        return cards.get(index);
+    }
+
+    @Override
+    public int size() {
+        return cards.size();
+    }
+
+    @Override
+    public UnoCard set(int index, UnoCard card) {
+        UnoCard old = cards.get(index);
+        cards = cards.replace(index, card);
+        return old;
+    }
+
+    @Override
+    public void add(int index, UnoCard card) {
+        cards = cards.insert(index, card);
+        modCount++;
+    }
+
+    @Override
+    public UnoCard remove(int index) {
+        UnoCard old = cards.get(index);
+        cards = cards.delete(index);
+        modCount++;
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        cards = UnoCardList.EMPTY;
+        modCount++;
+    }
+
+    /**
+     * Gets the cards as they are right now. Later changes to the hand don't change the returned list.
+     * @return The current version of the cards.
+     */
+    public UnoCardList getCards() {
+        return cards;
+    }
+
+    /**
+     * Puts back a version of the cards from {@link #getCards()}.
+     * @param cards The cards.
+     */
+    public void setCards(UnoCardList cards) {
+        this.cards = cards;
+        modCount++;
+    }
+
+    /**
+     * Gets the total score value of the hand.
+     * @param isDark true to count the Dark side of the cards.
+     * @return the points these cards are worth.
+     */
+    public int getPoints(boolean isDark) {
+        return cards.getPoints(isDark);
+    }
+
+    /**
+     * Gets a hash of which cards are in the hand, no matter their order. Two hands with the same cards
+     * (counting duplicates) have the same hash.
+     * @return the sum of the cards' Zobrist keys.
+     */
+    public long getHash() {
+        return cards.getHash();
+    }
+
+    @Serial
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField f = out.putFields();
+        f.put("cards", new ArrayList<>(cards));
+        f.put("lightPoints", getPoints(false));
+        f.put("darkPoints", getPoints(true));
+        out.writeFields();
+    }
+
+    // The totals are worked out again from the cards
+    @Serial
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        List<UnoCard> saved = (List<UnoCard>) in.readFields().get("cards", null);
+        cards = saved == null ? UnoCardList.EMPTY : UnoCardList.of(saved);
+    }
+}
@@ -0,0 +1,66 @@
+import org.junit.Test;
+import org.junit.Before;
+import static org.junit.Assert.*;
+import java.util.*;
+
+/**
+ * Test class for UnoHand's running point totals.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoHandTest {
+    private UnoHand hand;
+    private UnoCard blueFive;
+    private UnoCard redSkip;
+    private UnoCard wild;
+
+    @Before
+    public void setUp() {
+        hand = new UnoHand();
+        blueFive = new UnoCard(UnoColor.BLUE, UnoRank.FIVE, UnoColor.PINK, UnoRank.FIVE);
+        redSkip = new UnoCard(UnoColor.RED, UnoRank.SKIP, UnoColor.ORANGE, UnoRank.SKIP_EVERYONE);
+        wild = new UnoCard(UnoColor.WILD, UnoRank.WILD_DRAW_TWO, UnoColor.WILD, UnoRank.WILD_DRAW_COLOR);
+    }
+
+    /**
+     * Totals follow cards as they are added, removed and replaced, on both sides.
+     */
+    @Test
+    public void testTotalsFollowChanges() {
+        hand.addAll(List.of(blueFive, redSkip, wild));
+        assertEquals(5 + 20 + 50, hand.getPoints(false));
+        assertEquals(5 + 30 + 60, hand.getPoints(true));
+
+        hand.remove(1);
+        assertEquals(55, hand.getPoints(false));
+
+        hand.set(0, redSkip);
+        assertEquals(70, hand.getPoints(false));
+
+        hand.removeIf(c -> c.isWild(false));
+        assertEquals(20, hand.getPoints(false));
+
+        hand.clear();
+        assertEquals(0, hand.getPoints(false));
+        assertEquals(0, hand.getPoints(true));
+    }
+
+    /**
+     * The round winner gets exactly the points left in the other hands.
+     */
+    @Test
+    public void testRoundScoreUsesHandPoints() {
+        UnoModel model = new UnoModel(2, Arrays.asList("Alice", "Bob"), Arrays.asList(false, false));
+        UnoViewStub view = new UnoViewStub();
+        model.addView(view);
+
+        model.forceHand(0, new ArrayList<>(List.of(new UnoCard(UnoColor.RED, UnoRank.ONE, UnoColor.TEAL, UnoRank.ONE))));
+        model.forceHand(1, new ArrayList<>(List.of(blueFive, redSkip, wild)));
+        model.setTopCard(new UnoCard(UnoColor.RED, UnoRank.TWO, UnoColor.TEAL, UnoRank.TWO));
+        model.play(0);
+
+        assertTrue(view.lastInfo.contains("Points: +75"));
+        assertTrue(view.lastInfo.contains("Alice: 75"));
+        assertTrue(view.lastInfo.contains("Bob: 0"));
+    }
+}
@@ -0,0 +1,392 @@
+import java.io.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stores the undo and redo history of a game inside a fixed memory budget (in bytes).
+ * Instead of keeping every snapshot whole, only every few entries is a full "keyframe";
+ * the ones in between just store what changed compared to the entry before them.
+ * Everything is compressed, and once the budget is used up the oldest moves are forgotten first.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoHistory {
+    /** Default memory budget for one table's history. */
+    public static final long DEFAULT_BUDGET = 1024 * 1024;
+    /** Default number of entries between two full keyframes. */
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 8;
+
+    // Rough cost of an entry object and its array header, so lots of tiny diffs still count
+    private static final int ENTRY_OVERHEAD = 48;
+    private static final int FILE_MAGIC = 0x554E4F48; // "UNOH"
+
+    private final Lane undo = new Lane();
+    private final Lane redo = new Lane();
+    private long budget;
+    private int keyframeInterval = DEFAULT_KEYFRAME_INTERVAL;
+    private long usedBytes = 0;
+    private boolean persistent = false;
+
+    // Made on first use: they hold native memory, and most games (forks, simulations) never compress anything
+    private Deflater deflater;
+    private Inflater inflater;
+
+    /**
+     * Creates a history with the default memory budget.
+     */
+    public UnoHistory() {
+        this(DEFAULT_BUDGET);
+    }
+
+    /**
+     * Creates a history with a given memory budget.
+     * @param budgetBytes How many bytes the history may use. 0 turns undo off completely.
+     */
+    public UnoHistory(long budgetBytes) {
+        setBudget(budgetBytes);
+    }
+
+    /**
+     * Changes the memory budget, forgetting the oldest moves if the history is now too big.
+     * @param budgetBytes The new budget in bytes. 0 turns undo off completely.
+     */
+    public void setBudget(long budgetBytes) {
+        if (budgetBytes < 0) throw new IllegalArgumentException("Budget must not be negative.");
+        this.budget = budgetBytes;
+        if (budget == 0) clear();
+        else evict();
+    }
+
+    public long getBudget() { return budget; }
+
+    /**
+     * Changes how often a full snapshot is stored. Higher values save memory but make undo slower.
+     * @param interval Number of entries between keyframes (1 means every entry is a keyframe).
+     */
+    public void setKeyframeInterval(int interval) {
+        if (interval < 1) throw new IllegalArgumentException("Keyframe interval must be at least 1.");
+        this.keyframeInterval = interval;
+    }
+
+    public int getKeyframeInterval() { return keyframeInterval; }
+
+    /**
+     * Sets whether the history should be written next to the save file when the game is saved.
+     */
+    public void setPersistent(boolean persistent) { this.persistent = persistent; }
+
+    public boolean isPersistent() { return persistent; }
+
+    /**
+     * @return false if the budget is 0, meaning the model doesn't need to take snapshots at all.
+     */
+    public boolean isEnabled() { return budget > 0; }
+
+    public long getUsedBytes() { return usedBytes; }
+    public int undoSize() { return undo.entries.size(); }
+    public int redoSize() { return redo.entries.size(); }
+    public boolean canUndo() { return !undo.entries.isEmpty(); }
+    public boolean canRedo() { return !redo.entries.isEmpty(); }
+
+    /**
+     * Remembers a snapshot taken right before a new move. This wipes the redo history.
+     * @param snapshot The serialized game state.
+     */
+    public void record(byte[] snapshot) {
+        if (!isEnabled()) return;
+        usedBytes -= redo.clear();
+        usedBytes += undo.push(snapshot);
+        evict();
+    }
+
+    /**
+     * Steps back one move.
+     * @param current Snapshot of the game as it is now, so it can be redone later.
+     * @return The snapshot to restore.
+     */
+    public byte[] undo(byte[] current) throws IOException {
+        return move(undo, redo, current);
+    }
+
+    /**
+     * Steps forward one move that was previously undone.
+     * @param current Snapshot of the game as it is now, so it can be undone again.
+     * @return The snapshot to restore.
+     */
+    public byte[] redo(byte[] current) throws IOException {
+        return move(redo, undo, current);
+    }
+
+    /**
+     * Forgets everything, e.g. when a new round starts.
+     */
+    public void clear() {
+        undo.clear();
+        redo.clear();
+        usedBytes = 0;
+    }
+
+    /**
+     * Writes the whole history (already compressed) to a stream so it can sit next to a save file.
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(FILE_MAGIC);
+        out.writeInt(keyframeInterval);
+        undo.writeTo(out);
+        redo.writeTo(out);
+    }
+
+    /**
+     * Replaces this history with one previously written by {@link #writeTo}.
+     * If the saved history is bigger than the current budget, the oldest entries get dropped.
+     */
+    public void readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != FILE_MAGIC) throw new IOException("Not an Uno history file.");
+        clear();
+        keyframeInterval = in.readInt();
+        usedBytes += undo.readFrom(in);
+        usedBytes += redo.readFrom(in);
+        if (isEnabled()) evict();
+        else clear();
+    }
+
+    private byte[] move(Lane from, Lane to, byte[] current) throws IOException {
+        byte[] target = from.peek();
+        usedBytes -= from.drop();
+        usedBytes += to.push(current);
+        evict();
+        return target;
+    }
+
+    /**
+     * Drops the oldest entries until we fit in the budget again.
+     * Always keeps the newest entry on each side so the last move can still be taken back.
+     */
+    private void evict() {
+        while (usedBytes > budget) {
+            if (undo.entries.size() > 1) {
+                usedBytes -= undo.dropOldest();
+            } else if (redo.entries.size() > 1) {
+                usedBytes -= redo.dropOldest();
+            } else {
+                break;
+            }
+        }
+    }
+
+    // COMPRESSION HELPERS
+
+    private byte[] deflate(byte[] data, int off, int len) {
+        if (deflater == null) deflater = new Deflater(Deflater.BEST_SPEED);
+        deflater.reset();
+        deflater.setInput(data, off, len);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(len / 2 + 16);
+        byte[] buf = new byte[4096];
+        while (!deflater.finished()) {
+            int n = deflater.deflate(buf);
+            out.write(buf, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] inflate(byte[] data, int rawLength) throws IOException {
+        if (inflater == null) inflater = new Inflater();
+        inflater.reset();
+        inflater.setInput(data);
+        byte[] out = new byte[rawLength];
+        try {
+            int n = 0;
+            while (n < rawLength && !inflater.finished()) {
+                int read = inflater.inflate(out, n, rawLength - n);
+                if (read == 0 && inflater.needsInput()) throw new IOException("Truncated history entry.");
+                n += read;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt history entry.", e);
+        }
+        return out;
+    }
+
+    /**
+     * A diff keeps the bytes the two snapshots share at the start and end, and stores the middle part.
+     * Consecutive game states serialize almost identically, so the middle is usually small.
+     */
+    private Entry encodeDiff(byte[] base, byte[] next, int depth) {
+        int max = Math.min(base.length, next.length);
+        int prefix = 0;
+        while (prefix < max && base[prefix] == next[prefix]) prefix++;
+        int suffix = 0;
+        while (suffix < max - prefix && base[base.length - 1 - suffix] == next[next.length - 1 - suffix]) suffix++;
+
+        int middle = next.length - prefix - suffix;
+        byte[] raw = new byte[8 + middle];
+        writeInt(raw, 0, prefix);
+        writeInt(raw, 4, suffix);
+        System.arraycopy(next, prefix, raw, 8, middle);
+        return new Entry(false, deflate(raw, 0, raw.length), raw.length, depth);
+    }
+
+    private byte[] applyDiff(byte[] base, Entry diff) throws IOException {
+        byte[] raw = inflate(diff.payload, diff.rawLength);
+        int prefix = readInt(raw, 0);
+        int suffix = readInt(raw, 4);
+        int middle = raw.length - 8;
+        byte[] out = new byte[prefix + middle + suffix];
+        System.arraycopy(base, 0, out, 0, prefix);
+        System.arraycopy(raw, 8, out, prefix, middle);
+        System.arraycopy(base, base.length - suffix, out, prefix + middle, suffix);
+        return out;
+    }
+
+    private static void writeInt(byte[] b, int off, int v) {
+        b[off] = (byte) (v >>> 24); b[off + 1] = (byte) (v >>> 16); b[off + 2] = (byte) (v >>> 8); b[off + 3] = (byte) v;
+    }
+
+    private static int readInt(byte[] b, int off) {
+        return ((b[off] & 0xFF) << 24) | ((b[off + 1] & 0xFF) << 16) | ((b[off + 2] & 0xFF) << 8) | (b[off + 3] & 0xFF);
+    }
+
+    /**
+     * One stored snapshot. Keyframes hold the whole (compressed) state, diffs only the change from the older entry.
+     */
+    private static final class Entry {
+        final boolean keyframe;
+        final byte[] payload;
+        final int rawLength;
+        final int depth; // how many diffs since the last keyframe
+
+        Entry(boolean keyframe, byte[] payload, int rawLength, int depth) {
+            this.keyframe = keyframe;
+            this.payload = payload;
+            this.rawLength = rawLength;
+            this.depth = depth;
+        }
+
+        long cost() { return payload.length + ENTRY_OVERHEAD; }
+    }
+
+    /**
+     * One side of the history (undo or redo). Newest entries are at the front of the deque.
+     */
+    private final class Lane {
+        final Deque<Entry> entries = new ArrayDeque<>();
+        // The decoded newest snapshot, so pushing a diff doesn't have to rebuild it
+        byte[] newestRaw;
+
+        long push(byte[] snapshot) {
+            Entry prev = entries.peekFirst();
+            Entry e;
+            if (prev == null || prev.depth + 1 >= keyframeInterval) {
+                e = new Entry(true, deflate(snapshot, 0, snapshot.length), snapshot.length, 0);
+            } else {
+                byte[] base = newestRaw;
+                if (base == null) {
+                    try { base = peek(); } catch (IOException ex) { base = null; }
+                }
+                e = base == null
+                        ? new Entry(true, deflate(snapshot, 0, snapshot.length), snapshot.length, 0)
+                        : encodeDiff(base, snapshot, prev.depth + 1);
+            }
+            entries.push(e);
+            newestRaw = snapshot;
+            return e.cost();
+        }
+
+        /**
+         * Rebuilds the newest snapshot by starting at the nearest keyframe and applying the diffs on top.
+         */
+        byte[] peek() throws IOException {
+            if (newestRaw != null) return newestRaw;
+            List<Entry> chain = new ArrayList<>();
+            for (Entry e : entries) {
+                chain.add(e);
+                if (e.keyframe) break;
+            }
+            Entry key = chain.get(chain.size() - 1);
+            if (!key.keyframe) throw new IOException("History is missing its keyframe.");
+            byte[] state = inflate(key.payload, key.rawLength);
+            for (int i = chain.size() - 2; i >= 0; i--) state = applyDiff(state, chain.get(i));
+            newestRaw = state;
+            return state;
+        }
+
+        long drop() {
+            Entry e = entries.pop();
+            newestRaw = null;
+            return e.cost();
+        }
+
+        /**
+         * Removes the oldest entry. If the next one was a diff against it, it gets turned into a keyframe first.
+         */
+        long dropOldest() {
+            Entry oldest = entries.pollLast();
+            if (oldest == null) return 0;
+            long freed = oldest.cost();
+            Entry next = entries.peekLast();
+            if (next != null && !next.keyframe) {
+                try {
+                    byte[] base = inflate(oldest.payload, oldest.rawLength);
+                    byte[] state = applyDiff(base, next);
+                    Entry rebased = new Entry(true, deflate(state, 0, state.length), state.length, 0);
+                    entries.pollLast();
+                    entries.addLast(rebased);
+                    freed += next.cost() - rebased.cost();
+                } catch (IOException ex) {
+                    // Can't rebuild it, so everything that depended on it is useless too
+                    freed += clear();
+                }
+            }
+            if (entries.isEmpty()) newestRaw = null;
+            return freed;
+        }
+
+        long clear() {
+            long freed = 0;
+            for (Entry e : entries) freed += e.cost();
+            entries.clear();
+            newestRaw = null;
+            return freed;
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(entries.size());
+            // Oldest first, so reading them back in order rebuilds the same deque
+            Iterator<Entry> it = entries.descendingIterator();
+            while (it.hasNext()) {
+                Entry e = it.next();
+                out.writeBoolean(e.keyframe);
+                out.writeInt(e.depth);
+                out.writeInt(e.rawLength);
+                out.writeInt(e.payload.length);
+                out.write(e.payload);
+            }
+        }
+
+        long readFrom(DataInputStream in) throws IOException {
+            int n = in.readInt();
+            long used = 0;
+            for (int i = 0; i < n; i++) {
+                boolean keyframe = in.readBoolean();
+                int depth = in.readInt();
+                int rawLength = in.readInt();
+                byte[] payload = new byte[in.readInt()];
+                in.readFully(payload);
+                if (i == 0 && !keyframe) throw new IOException("History must start with a keyframe.");
+                Entry e = new Entry(keyframe, payload, rawLength, depth);
+                entries.push(e);
+                used += e.cost();
+            }
+            newestRaw = null;
+            return used;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+import org.junit.Test;
+import org.junit.Before;
+import static org.junit.Assert.*;
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Test class for the memory-budgeted undo/redo history.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoHistoryTest {
+    private UnoModel model;
+    private UnoViewStub view;
+
+    @Before
+    public void setup() {
+        model = new UnoModel(2, Arrays.asList("A", "B"), Arrays.asList(false, false));
+        view = new UnoViewStub();
+        model.addView(view);
+    }
+
+    /**
+     * Makes a bunch of moves with diffs in between keyframes, then walks all the way back and forward again.
+     */
+    @Test
+    public void testDeepUndoThroughDiffs() {
+        model.getHistory().setKeyframeInterval(4);
+        List<Integer> sizes = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            sizes.add(view.lastEvent.getHand().size());
+            model.draw();
+            model.nextPlayer();
+        }
+        assertEquals(12, model.getHistory().undoSize());
+
+        // Each undo lands right before a draw, going back through both players
+        for (int i = 11; i >= 0; i--) {
+            model.undo();
+            assertEquals("Hand size after undoing move " + i, (int) sizes.get(i), view.lastEvent.getHand().size());
+        }
+        assertFalse(model.canUndo());
+
+        for (int i = 0; i < 12; i++) model.redo();
+        assertFalse(model.canRedo());
+        assertTrue(model.canUndo());
+    }
+
+    /**
+     * The history should never grow past its byte budget, dropping the oldest moves instead.
+     */
+    @Test
+    public void testBudgetEvictsOldest() {
+        UnoHistory history = model.getHistory();
+        model.draw();
+        model.nextPlayer();
+        long perMove = history.getUsedBytes();
+        history.setBudget(perMove * 6);
+
+        for (int i = 0; i < 40; i++) {
+            model.draw();
+            model.nextPlayer();
+            assertTrue("Used " + history.getUsedBytes() + " of " + history.getBudget(),
+                    history.getUsedBytes() <= history.getBudget());
+        }
+        assertTrue(history.undoSize() < 80);
+
+        // Whatever survived must still be restorable
+        int kept = history.undoSize();
+        while (model.canUndo()) model.undo();
+        assertEquals("Every kept move should have been undone", kept, history.redoSize());
+    }
+
+    /**
+     * A budget of zero switches undo off.
+     */
+    @Test
+    public void testZeroBudgetDisablesUndo() {
+        model.getHistory().setBudget(0);
+        model.draw();
+        assertFalse(model.canUndo());
+    }
+
+    /**
+     * A move that isn't allowed leaves no undo entry behind.
+     */
+    @Test
+    public void testRefusedMoveRecordsNothing() {
+        model.draw();
+        int entries = model.getHistory().undoSize();
+        try {
+            model.draw();
+            fail("Drew twice in one turn");
+        } catch (IllegalStateException expected) {
+            assertEquals("Press next.", expected.getMessage());
+        }
+        assertEquals(entries, model.getHistory().undoSize());
+    }
+
+    /**
+     * A persistent history gets saved with the game and can still undo after loading.
+     */
+    @Test
+    public void testHistoryPersistsWithSave() throws IOException, ClassNotFoundException {
+        model.getHistory().setPersistent(true);
+        int initialSize = view.lastEvent.getHand().size();
+        model.draw();
+
+        File temp = File.createTempFile("uno_hist", ".ser");
+        temp.deleteOnExit();
+        new File(temp.getPath() + ".history").deleteOnExit();
+        model.saveGame(temp);
+
+        UnoModel loaded = UnoModel.loadGame(temp);
+        UnoViewStub newView = new UnoViewStub();
+        loaded.addView(newView);
+        assertTrue(loaded.canUndo());
+        loaded.undo();
+        assertEquals(initialSize, newView.lastEvent.getHand().size());
+    }
+}
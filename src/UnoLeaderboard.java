@@ -0,0 +1,230 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Standings over every table on the server. Each table adds it as a game listener, and every round a player
+ * wins adds the round's points to their total here.
+ * <p>
+ * Nothing is locked. A player's total is swapped in with compare-and-set, the standings are kept in a
+ * concurrent skip list (highest first), and a Fenwick tree of atomic counters over the scores tells how many
+ * players are ahead of a score. Top-K and pages read the skip list, and rank-of-player reads the tree. All of
+ * them take logarithmic time (plus the entries returned) and none of them waits for writers.
+ * <p>
+ * While rounds are being added, a read can be a moment behind, e.g. see one update but not another that
+ * finished at the same time. Every read only returns current entries, so nobody shows up twice.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoLeaderboard implements UnoGameListener {
+    /** Scores from here up share the top counter, so ranks above it are only approximate. */
+    public static final int MAX_TRACKED_SCORE = 1 << 20;
+
+    // Highest first, then by name. The version keeps two entries of the same player apart while one replaces the other.
+    private static final Comparator<Entry> ORDER = Comparator.comparingLong((Entry e) -> -e.score)
+            .thenComparing(e -> e.name)
+            .thenComparingLong(e -> e.version);
+
+    private final ConcurrentHashMap<String, AtomicReference<Entry>> players = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Entry> standings = new ConcurrentSkipListSet<>(ORDER);
+    // Players per score in Fenwick layout: index i counts score i - 1 (index 0 is unused)
+    private final AtomicLongArray counts = new AtomicLongArray(MAX_TRACKED_SCORE + 1);
+
+    /**
+     * Adds the round's points to the winner's total.
+     */
+    @Override
+    public void onRoundEnd(UnoModel model, int winner, int points) {
+        add(model.getPlayer(winner).name, points);
+    }
+
+    /**
+     * Adds points to a player's total (creating the player at 0 if they're new).
+     * @param name   The player.
+     * @param points Points to add (can be 0 to just list the player).
+     * @return The new total.
+     */
+    public long add(String name, long points) {
+        AtomicReference<Entry> slot = players.get(name);
+        if (slot == null) {
+            AtomicReference<Entry> created = new AtomicReference<>();
+            slot = players.putIfAbsent(name, created);
+            if (slot == null) slot = created;
+        }
+        Entry old, now;
+        do {
+            old = slot.get();
+            now = old == null ? new Entry(name, points, 0, slot) : new Entry(name, old.score + points, old.version + 1, slot);
+        } while (!slot.compareAndSet(old, now));
+
+        standings.add(now);
+        if (old != null) standings.remove(old);
+        // Someone else may have replaced us before we got in: don't leave an old entry behind
+        if (slot.get() != now) standings.remove(now);
+
+        if (old != null) count(old.score, -1);
+        count(now.score, 1);
+        return now.score;
+    }
+
+    /**
+     * @param name The player.
+     * @return Their total, or 0 if they haven't been seen.
+     */
+    public long getScore(String name) {
+        AtomicReference<Entry> slot = players.get(name);
+        Entry e = slot == null ? null : slot.get();
+        return e == null ? 0 : e.score;
+    }
+
+    /**
+     * @return How many players are listed.
+     */
+    public int size() {
+        return players.size();
+    }
+
+    /**
+     * The best players, highest total first (ties by name).
+     * @param k How many.
+     * @return Up to k entries.
+     */
+    public List<Entry> top(int k) {
+        List<Entry> out = new ArrayList<>(Math.min(k, 64));
+        for (Entry e : standings) {
+            if (out.size() == k) break;
+            if (e.isCurrent()) out.add(e);
+        }
+        return out;
+    }
+
+    /**
+     * A player's place: 1 plus the number of players with a higher total (players with the same total share it).
+     * @param name The player.
+     * @return The rank, or 0 if they haven't been seen.
+     */
+    public long rank(String name) {
+        AtomicReference<Entry> slot = players.get(name);
+        Entry e = slot == null ? null : slot.get();
+        return e == null ? 0 : 1 + above(e.score);
+    }
+
+    /**
+     * A page of the standings.
+     * @param fromRank First place wanted (1 = the leader).
+     * @param count    How many entries.
+     * @return The entries, in order.
+     */
+    public List<Entry> page(long fromRank, int count) {
+        // Find the score at that place with the tree, then walk the skip list from there
+        long skip = fromRank - 1;
+        int score = scoreAtPosition(skip);
+        boolean top = score == MAX_TRACKED_SCORE - 1; // Scores there aren't told apart, start from the leader
+        long before = top ? 0 : above(score); // Players ranked ahead of that score
+        List<Entry> out = new ArrayList<>(Math.min(count, 64));
+        for (Entry e : top ? standings : standings.tailSet(probe(score))) {
+            if (out.size() == count) break;
+            if (!e.isCurrent()) continue;
+            if (before < skip) { before++; continue; }
+            out.add(e);
+        }
+        return out;
+    }
+
+    /**
+     * Everyone whose total is in a range, highest first.
+     * @param low  Lowest total (inclusive).
+     * @param high Highest total (inclusive).
+     * @return The entries.
+     */
+    public List<Entry> between(long low, long high) {
+        List<Entry> out = new ArrayList<>();
+        if (low > high) return out;
+        for (Entry e : standings.tailSet(probe(high))) {
+            if (e.score < low) break;
+            if (e.isCurrent()) out.add(e);
+        }
+        return out;
+    }
+
+    // FENWICK TREE (index i stands for score i - 1)
+
+    private void count(long score, long delta) {
+        for (int i = bucket(score) + 1; i < counts.length(); i += i & -i) counts.addAndGet(i, delta);
+    }
+
+    // Players with a total of at most this score
+    private long atMost(int bucket) {
+        long sum = 0;
+        for (int i = bucket + 1; i > 0; i -= i & -i) sum += counts.get(i);
+        return sum;
+    }
+
+    // Players with a higher total
+    private long above(long score) {
+        return total() - atMost(bucket(score));
+    }
+
+    // Sorts before every real entry with this score
+    private static Entry probe(long score) {
+        return new Entry("", score, Long.MIN_VALUE, null);
+    }
+
+    private long total() {
+        return atMost(MAX_TRACKED_SCORE - 1);
+    }
+
+    /**
+     * Finds the score of the player at a position (0 = leader) by walking down the tree.
+     */
+    private int scoreAtPosition(long position) {
+        long fromBottom = total() - position; // 1-based position counted from the lowest score
+        if (fromBottom <= 0) return 0;
+        int i = 0;
+        for (int step = Integer.highestOneBit(counts.length() - 1); step > 0; step >>= 1) {
+            int next = i + step;
+            if (next >= counts.length()) continue;
+            long below = counts.get(next);
+            if (below < fromBottom) {
+                i = next;
+                fromBottom -= below;
+            }
+        }
+        return i; // The (i + 1)th counter, which is score i
+    }
+
+    private static int bucket(long score) {
+        return (int) Math.max(0, Math.min(score, MAX_TRACKED_SCORE - 1));
+    }
+
+    /**
+     * A player's total at one moment. Entries never change; a new total makes a new entry.
+     */
+    public static final class Entry {
+        public final String name;
+        public final long score;
+        private final long version;
+        private final AtomicReference<Entry> slot;
+
+        private Entry(String name, long score, long version, AtomicReference<Entry> slot) {
+            this.name = name;
+            this.score = score;
+            this.version = version;
+            this.slot = slot;
+        }
+
+        private boolean isCurrent() {
+            return slot.get() == this;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": " + score;
+        }
+    }
+}
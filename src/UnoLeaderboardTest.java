@@ -0,0 +1,123 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Test class for the cross-table leaderboard.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoLeaderboardTest {
+
+    private static List<String> names(List<UnoLeaderboard.Entry> entries) {
+        List<String> out = new ArrayList<>();
+        for (UnoLeaderboard.Entry e : entries) out.add(e.name);
+        return out;
+    }
+
+    /**
+     * Top-K, ranks with ties, pages and score ranges.
+     */
+    @Test
+    public void testQueries() {
+        UnoLeaderboard board = new UnoLeaderboard();
+        board.add("Ann", 120);
+        board.add("Bob", 300);
+        board.add("Cat", 120);
+        board.add("Dan", 40);
+        board.add("Ann", 30); // 150
+
+        assertEquals(List.of("Bob", "Ann", "Cat"), names(board.top(3)));
+        assertEquals(1, board.rank("Bob"));
+        assertEquals(2, board.rank("Ann"));
+        assertEquals(3, board.rank("Cat"));
+        assertEquals(4, board.rank("Dan"));
+        assertEquals(0, board.rank("Eve"));
+
+        board.add("Dan", 80); // Ties Cat at 120
+        assertEquals(3, board.rank("Dan"));
+        assertEquals(3, board.rank("Cat"));
+        assertEquals(List.of("Ann", "Cat"), names(board.page(2, 2)));
+        assertEquals(List.of("Dan"), names(board.page(4, 10)));
+        assertEquals(List.of(), board.page(9, 10));
+        assertEquals(List.of("Ann", "Cat", "Dan"), names(board.between(100, 200)));
+        assertEquals(4, board.top(100).size());
+    }
+
+    /**
+     * Many tables adding at once: no update is lost, and readers never see a player twice.
+     */
+    @Test
+    public void testConcurrentUpdates() throws Exception {
+        UnoLeaderboard board = new UnoLeaderboard();
+        int threads = 4, updates = 20000, players = 100;
+        long[][] added = new long[threads][players];
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> problem = new AtomicReference<>();
+
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                Set<String> seen = new HashSet<>();
+                for (UnoLeaderboard.Entry e : board.top(players)) {
+                    if (!seen.add(e.name)) problem.set("Listed twice: " + e.name);
+                }
+                board.rank("P7");
+            }
+        });
+        reader.start();
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            Thread w = new Thread(() -> {
+                Random rng = new Random(id);
+                for (int i = 0; i < updates; i++) {
+                    int p = rng.nextInt(players);
+                    int pts = rng.nextInt(50);
+                    board.add("P" + p, pts);
+                    added[id][p] += pts;
+                }
+            });
+            writers.add(w);
+            w.start();
+        }
+        for (Thread w : writers) w.join();
+        done.set(true);
+        reader.join();
+        assertNull(problem.get(), problem.get());
+
+        assertEquals(players, board.size());
+        List<UnoLeaderboard.Entry> all = board.top(Integer.MAX_VALUE);
+        assertEquals("No stale entries left behind", players, all.size());
+        for (int p = 0; p < players; p++) {
+            long sum = 0;
+            for (long[] perThread : added) sum += perThread[p];
+            assertEquals(sum, board.getScore("P" + p));
+        }
+        // Ranks from the tree agree with the order in the list
+        for (UnoLeaderboard.Entry e : all) {
+            long higher = all.stream().filter(o -> o.score > e.score).count();
+            assertEquals(1 + higher, board.rank(e.name));
+        }
+    }
+
+    /**
+     * Hooked into a table, a round win lands on the board.
+     */
+    @Test
+    public void testRoundWinsFromTable() {
+        UnoLeaderboard board = new UnoLeaderboard();
+        UnoModel m = new UnoModel(2, List.of("Bot1", "Bot2"), List.of(true, true), UnoRules.standard(), 9);
+        m.addGameListener(board);
+        m.runAITurns();
+        int winner = m.getLastRoundWinner();
+        String name = m.getPlayer(winner).name;
+        assertEquals(m.getPlayer(winner).getScore(), board.getScore(name));
+        assertEquals(1, board.rank(name));
+    }
+}
@@ -0,0 +1,17 @@
+/**
+ * Decides if a card may be played on top of the discard pile. Rule sets use this to change the matching rule.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+@FunctionalInterface
+public interface UnoMatcher {
+
+    /**
+     * @param card        The card the player wants to play.
+     * @param top         The card currently sitting on top of the discard pile.
+     * @param activeColor The color currently required (important if the previous card was Wild).
+     * @param isDark      Whether we are checking against the Dark or Light side.
+     * @return true if this is a valid move.
+     */
+    boolean matches(UnoCard card, UnoCard top, UnoColor activeColor, boolean isDark);
+}
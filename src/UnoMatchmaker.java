@@ -0,0 +1,274 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seats waiting players into tables. Players are queued by rating into fixed-width buckets, so a player only
+ * ever gets compared with the queues next to their own, never with everyone who is waiting.
+ * <p>
+ * A full bucket makes a table right away. The longer a player waits, the more neighbouring buckets they may be
+ * matched with, and after the bot timeout their table is started with AI players in the empty seats.
+ * {@link #poll} hands back every table that is ready, so the server can start them as one batch.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoMatchmaker {
+    /** Ratings from here up share the last bucket. */
+    public static final int MAX_RATING = 4000;
+
+    private final int tableSize;
+    private final int bucketWidth;
+    private final long widenMillis;
+    private final long botMillis;
+
+    private final ArrayDeque<Ticket>[] buckets;
+    private final int[] live; // Waiting players per bucket, not counting the ones that left
+    private final BitSet occupied = new BitSet();
+    private int waiting;
+
+    /**
+     * Creates a matchmaker with 100-point buckets that widens by one bucket every 5 seconds and calls in bots after 30.
+     * @param tableSize Players per table (2-4).
+     */
+    public UnoMatchmaker(int tableSize) {
+        this(tableSize, 100, 5000, 30000);
+    }
+
+    /**
+     * @param tableSize   Players per table (2-4).
+     * @param bucketWidth Rating points per bucket.
+     * @param widenMillis How long a player waits before one more bucket either side is allowed.
+     * @param botMillis   How long a player waits before the empty seats go to bots.
+     */
+    public UnoMatchmaker(int tableSize, int bucketWidth, long widenMillis, long botMillis) {
+        if (tableSize < 2 || tableSize > 4) throw new IllegalArgumentException("Tables seat 2 to 4 players.");
+        if (bucketWidth < 1 || widenMillis < 1) throw new IllegalArgumentException("Bucket width and widen time must be positive.");
+        this.tableSize = tableSize;
+        this.bucketWidth = bucketWidth;
+        this.widenMillis = widenMillis;
+        this.botMillis = botMillis;
+        int count = MAX_RATING / bucketWidth + 1;
+        buckets = newBuckets(count);
+        live = new int[count];
+    }
+
+    // Java can't make an array of a generic type directly
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArrayDeque<Ticket>[] newBuckets(int count) {
+        ArrayDeque<Ticket>[] b = new ArrayDeque[count];
+        for (int i = 0; i < count; i++) b[i] = new ArrayDeque<>();
+        return b;
+    }
+
+    /**
+     * Puts a player in the queue.
+     * @param name   The player's name.
+     * @param rating Their rating (clamped to 0..MAX_RATING).
+     * @param now    The current time in milliseconds.
+     * @return Their ticket, to {@link #cancel} with.
+     */
+    public synchronized Ticket enqueue(String name, int rating, long now) {
+        int b = Math.max(0, Math.min(rating, MAX_RATING)) / bucketWidth;
+        Ticket t = new Ticket(name, rating, now, b);
+        buckets[b].addLast(t);
+        live[b]++;
+        occupied.set(b);
+        waiting++;
+        return t;
+    }
+
+    /**
+     * Takes a player out of the queue (e.g. they closed the game).
+     * @param ticket Their ticket.
+     * @return false if they were already seated or gone.
+     */
+    public synchronized boolean cancel(Ticket ticket) {
+        if (ticket.done) return false;
+        // Left in its queue and skipped when it comes up, so cancelling doesn't search the queue
+        ticket.done = true;
+        live[ticket.bucket]--;
+        waiting--;
+        return true;
+    }
+
+    /**
+     * @return How many players are waiting.
+     */
+    public synchronized int getWaiting() {
+        return waiting;
+    }
+
+    /**
+     * Makes every table that can be made right now. Only buckets with someone in them are looked at.
+     * @param now The current time in milliseconds.
+     * @return The new tables, oldest players first.
+     */
+    public synchronized List<Match> poll(long now) {
+        List<Match> out = new ArrayList<>();
+        // Full buckets first: these players are as close in rating as they can be
+        for (int b = occupied.nextSetBit(0); b >= 0; b = occupied.nextSetBit(b + 1)) {
+            while (live[b] >= tableSize) {
+                List<Ticket> seats = new ArrayList<>(tableSize);
+                while (seats.size() < tableSize) seats.add(take(b));
+                out.add(new Match(seats, 0, now));
+            }
+            trim(b);
+        }
+        // Then players who have waited long enough to look further out, or to play with bots
+        for (int b = occupied.nextSetBit(0); b >= 0; b = occupied.nextSetBit(b + 1)) {
+            while (live[b] > 0) {
+                Ticket oldest = buckets[b].peekFirst();
+                long waited = now - oldest.enqueuedAt;
+                int reach = (int) Math.min(buckets.length, waited / widenMillis);
+                List<Ticket> seats = gather(b, reach);
+                if (seats.size() < tableSize && waited < botMillis) break;
+                for (Ticket t : seats) take(t.bucket);
+                out.add(new Match(seats, tableSize - seats.size(), now));
+            }
+            trim(b);
+        }
+        return out;
+    }
+
+    // Up to a table's worth of players from this bucket outwards, nearest first. Nobody is taken yet.
+    private List<Ticket> gather(int b, int reach) {
+        List<Ticket> seats = new ArrayList<>(tableSize);
+        for (int d = 0; d <= reach && seats.size() < tableSize; d++) {
+            addFrom(b - d, seats);
+            if (d > 0) addFrom(b + d, seats);
+        }
+        return seats;
+    }
+
+    private void addFrom(int b, List<Ticket> seats) {
+        if (b < 0 || b >= buckets.length || live[b] == 0) return;
+        trim(b);
+        for (Ticket t : buckets[b]) {
+            if (seats.size() == tableSize) return;
+            if (!t.done) seats.add(t);
+        }
+    }
+
+    // The oldest player still waiting in a bucket
+    private Ticket take(int b) {
+        trim(b);
+        Ticket t = buckets[b].pollFirst();
+        t.done = true;
+        live[b]--;
+        waiting--;
+        trim(b);
+        return t;
+    }
+
+    // Drops players who left from the front of the queue
+    private void trim(int b) {
+        ArrayDeque<Ticket> q = buckets[b];
+        while (!q.isEmpty() && q.peekFirst().done) q.pollFirst();
+        if (live[b] == 0) {
+            q.clear();
+            occupied.clear(b);
+        }
+    }
+
+    /**
+     * A queued player.
+     */
+    public static final class Ticket {
+        public final String name;
+        public final int rating;
+        public final long enqueuedAt;
+        private final int bucket;
+        private boolean done;
+
+        private Ticket(String name, int rating, long enqueuedAt, int bucket) {
+            this.name = name;
+            this.rating = rating;
+            this.enqueuedAt = enqueuedAt;
+            this.bucket = bucket;
+        }
+
+        @Override
+        public String toString() {
+            return name + " (" + rating + ")";
+        }
+    }
+
+    /**
+     * A table ready to start: the seated players, then the bots.
+     */
+    public static final class Match {
+        public final List<Ticket> players;
+        public final int bots;
+        public final long madeAt;
+
+        private Match(List<Ticket> players, int bots, long madeAt) {
+            this.players = Collections.unmodifiableList(players);
+            this.bots = bots;
+            this.madeAt = madeAt;
+        }
+
+        /**
+         * @return The longest any player at this table waited, in milliseconds.
+         */
+        public long longestWait() {
+            long wait = 0;
+            for (Ticket t : players) wait = Math.max(wait, madeAt - t.enqueuedAt);
+            return wait;
+        }
+
+        /**
+         * Starts the table.
+         * @param rules The rule set.
+         * @param seed  The shuffle seed.
+         * @return A new game with the players in their seats and bots in the rest.
+         */
+        public UnoModel start(UnoRules rules, long seed) {
+            List<String> names = new ArrayList<>();
+            List<Boolean> isAI = new ArrayList<>();
+            for (Ticket t : players) { names.add(t.name); isAI.add(false); }
+            for (int i = 1; i <= bots; i++) { names.add("Bot " + i); isAI.add(true); }
+            return new UnoModel(names.size(), names, isAI, rules, seed);
+        }
+    }
+
+    /**
+     * Starts a batch of tables with the same rules.
+     * @param matches The tables from {@link #poll}.
+     * @param rules   The rule set.
+     * @param seed    Seed for the first table; each next table adds one.
+     * @return The new games, in the same order.
+     */
+    public static List<UnoModel> startAll(List<Match> matches, UnoRules rules, long seed) {
+        List<UnoModel> models = new ArrayList<>(matches.size());
+        for (Match m : matches) models.add(m.start(rules, seed++));
+        return models;
+    }
+
+    /**
+     * Queues a crowd of players and times enqueue and matching. Arguments: players (default 50000), table size (default 4).
+     */
+    public static void main(String[] args) {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 50000;
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        Random rng = new Random(1);
+        int[] ratings = new int[players];
+        for (int i = 0; i < players; i++) ratings[i] = (int) Math.max(0, 1500 + rng.nextGaussian() * 350);
+
+        for (int run = 0; run < 3; run++) {
+            UnoMatchmaker mm = new UnoMatchmaker(size);
+            long t0 = System.nanoTime();
+            for (int i = 0; i < players; i++) mm.enqueue("P" + i, ratings[i], 0);
+            long t1 = System.nanoTime();
+            List<Match> first = mm.poll(0);
+            long t2 = System.nanoTime();
+            List<Match> late = mm.poll(60000);
+            long t3 = System.nanoTime();
+            System.out.printf("enqueue %.3f us/player, poll %.3f ms (%d tables), timed-out poll %.3f ms (%d tables, %d waiting)%n",
+                    (t1 - t0) / 1e3 / players, (t2 - t1) / 1e6, first.size(), (t3 - t2) / 1e6, late.size(), mm.getWaiting());
+        }
+    }
+}
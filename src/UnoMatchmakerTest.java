@@ -0,0 +1,83 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.List;
+
+/**
+ * Test class for the matchmaking queue.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoMatchmakerTest {
+
+    /**
+     * Close ratings sit together at once; far ones wait until the search has widened enough.
+     */
+    @Test
+    public void testBucketsAndWidening() {
+        UnoMatchmaker mm = new UnoMatchmaker(2, 100, 1000, 60000);
+        mm.enqueue("Ann", 1510, 0);
+        mm.enqueue("Bob", 2050, 0);
+        mm.enqueue("Cat", 1590, 0);
+        mm.enqueue("Dan", 1750, 0);
+
+        List<UnoMatchmaker.Match> now = mm.poll(0);
+        assertEquals(1, now.size());
+        assertEquals("Ann", now.get(0).players.get(0).name);
+        assertEquals("Cat", now.get(0).players.get(1).name);
+        assertEquals(0, now.get(0).bots);
+        assertEquals(2, mm.getWaiting());
+
+        // Dan (bucket 17) and Bob (bucket 20) are three buckets apart
+        assertTrue(mm.poll(2999).isEmpty());
+        List<UnoMatchmaker.Match> later = mm.poll(3000);
+        assertEquals(1, later.size());
+        assertEquals(2, later.get(0).players.size());
+        assertEquals(3000, later.get(0).longestWait());
+        assertEquals(0, mm.getWaiting());
+    }
+
+    /**
+     * After the timeout, empty seats go to bots and the table starts as a normal game.
+     */
+    @Test
+    public void testBotsFillSeats() {
+        UnoMatchmaker mm = new UnoMatchmaker(4, 100, 1000, 5000);
+        UnoMatchmaker.Ticket gone = mm.enqueue("Ann", 1200, 0);
+        mm.enqueue("Bob", 1210, 100);
+        assertTrue(mm.cancel(gone));
+        assertFalse(mm.cancel(gone));
+        assertTrue(mm.poll(4000).isEmpty());
+
+        List<UnoMatchmaker.Match> matches = mm.poll(5100);
+        assertEquals(1, matches.size());
+        assertEquals(3, matches.get(0).bots);
+        List<UnoModel> tables = UnoMatchmaker.startAll(matches, UnoRules.standard(), 7);
+        UnoModel m = tables.get(0);
+        assertEquals("Bot 3", m.getPlayer(3).name);
+        assertEquals("Bob", m.getPlayer(0).name);
+        assertFalse(m.getPlayer(0).isAI);
+        for (int i = 1; i < 4; i++) assertTrue(m.getPlayer(i).isAI);
+    }
+
+    /**
+     * A big crowd is seated without anyone being lost or seated twice.
+     */
+    @Test
+    public void testCrowd() {
+        UnoMatchmaker mm = new UnoMatchmaker(3);
+        java.util.Random rng = new java.util.Random(3);
+        int players = 20000;
+        for (int i = 0; i < players; i++) mm.enqueue("P" + i, 800 + rng.nextInt(1600), 0);
+        java.util.Set<String> seated = new java.util.HashSet<>();
+        int bots = 0;
+        for (long t : new long[]{0, 10000, 60000}) {
+            for (UnoMatchmaker.Match m : mm.poll(t)) {
+                for (UnoMatchmaker.Ticket p : m.players) assertTrue(seated.add(p.name));
+                bots += m.bots;
+            }
+        }
+        assertEquals(0, mm.getWaiting());
+        assertEquals(players, seated.size());
+        assertTrue("Bots only fill the last few seats", bots < 3);
+    }
+}
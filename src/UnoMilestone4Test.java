@@ -63,4 +63,27 @@ public class UnoMilestone4Test {
 
         temp.deleteOnExit();
     }
-}
\ No newline at end of file
+
+    /**
+     * Saves are in the compact format now, but files saved with Java serialization still load.
+     */
+    @Test
+    public void testCompactAndOldSaves() throws Exception {
+        model.setHintsEnabled(true);
+        File temp = File.createTempFile("uno_test", ".ser");
+        temp.deleteOnExit();
+        model.saveGame(temp);
+        byte[] head = java.nio.file.Files.readAllBytes(temp.toPath());
+        assertEquals("UNOS", new String(head, 0, 4, "US-ASCII"));
+        assertTrue("Hints are kept", UnoModel.loadGame(temp).isHintsEnabled());
+
+        File old = File.createTempFile("uno_old", ".ser");
+        old.deleteOnExit();
+        try (java.io.ObjectOutputStream out = new java.io.ObjectOutputStream(new java.io.FileOutputStream(old))) {
+            out.writeObject(model);
+        }
+        UnoModel loaded = UnoModel.loadGame(old);
+        assertEquals(model.getPlayer(0).hand.size(), loaded.getPlayer(0).hand.size());
+        assertEquals(model.getDiscardTop().toCode(), loaded.getDiscardTop().toCode());
+    }
+}
@@ -1,4 +1,8 @@
 import java.io.*;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
 
 /**
@@ -8,19 +12,19 @@ import java.util.*;
  * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
  * @version 4.0
  */
-public class UnoModel implements Serializable {
+public class UnoModel implements Serializable, UnoEngine {
     private static final long serialVersionUID = 1L;
 
     // Transient because we don't save the UI components when saving the game file
     private transient List<UnoView> views = new ArrayList<>();
 
-    private final List<UnoPlayer> players = new ArrayList<>();
-    private final Deque<UnoCard> drawPile = new ArrayDeque<>();
-    private final Deque<UnoCard> discard = new ArrayDeque<>();
+    private List<UnoPlayer> players = new ArrayList<>();
+    // The piles never change: a move swaps in a new version (see UnoCardStack)
+    private transient UnoCardStack drawPile = UnoCardStack.EMPTY;
+    private transient UnoCardStack discard = UnoCardStack.EMPTY;
 
-    // We store the history of the game as byte arrays (snapshots) so we can jump back in time
-    private transient Deque<byte[]> undoStack = new ArrayDeque<>();
-    private transient Deque<byte[]> redoStack = new ArrayDeque<>();
+    // We store the history of the game as compressed snapshots so we can jump back in time
+    private transient UnoHistory history = new UnoHistory();
 
     private int current = 0;
     private int gameDirection = 1;
@@ -29,8 +33,31 @@ public class UnoModel implements Serializable {
     private String info = "Welcome to Uno!";
     private int nextSteps = 1;
     private boolean isDark = false;
+    private UnoRules rules;
+    // Cards waiting to be drawn when Draw cards are being stacked (only used if the rules allow it)
+    private int pendingDraw = 0;
+    private UnoRank pendingRank = null;
+    private int roundsPlayed = 0;
+    private int lastRoundWinner = -1;
+    private boolean gameOver = false;
+    private boolean hintsEnabled = false;
+
+    // Reused every round so starting a round doesn't create new cards or lists
+    private transient Random rng;
+    private transient UnoCard[] shuffled;
+    // Which bot plays each seat (null = the default bot). Code, so it isn't saved with the game.
+    private transient UnoStrategy[] strategies;
+    private static volatile UnoStrategy defaultStrategy = UnoStrategy.GREEDY;
+    // Set while runAITurns is going: no snapshots or view updates until the batch is done
+    private transient boolean batching;
+    private transient List<Runnable> deferredEnds;
+    // Recorders and statistics (null until someone listens, so simulations pay nothing)
+    private transient UnoGameListener[] listeners; // An array: it's walked on every move and rarely changes
 
     private static final int WINNING_SCORE = 500;
+    private static final int HAND_SIZE = 7;
+    // Stops a batch of bot turns on an all-bot table that never finishes a round
+    private static final int MAX_BATCH_TURNS = 10000;
 
     /**
      * Sets up the game with the given players and immediately starts the first round.
@@ -40,6 +67,38 @@ public class UnoModel implements Serializable {
      * @param isAI       True/False list corresponding to if that player is a bot.
      */
     public UnoModel(int numPlayers, List<String> names, List<Boolean> isAI) {
+        this(numPlayers, names, isAI, UnoRules.standard());
+    }
+
+    /**
+     * Sets up the game with a specific rule set (house rules) and immediately starts the first round.
+     *
+     * @param numPlayers How many people are playing (2-4).
+     * @param names      The names of the players.
+     * @param isAI       True/False list corresponding to if that player is a bot.
+     * @param rules      The rule set the table plays with.
+     */
+    public UnoModel(int numPlayers, List<String> names, List<Boolean> isAI, UnoRules rules) {
+        this(numPlayers, names, isAI, rules, new Random());
+    }
+
+    /**
+     * Sets up a game whose shuffles and bot choices all come from the given seed,
+     * so the same seed and the same moves always play out the same way (for replays, tests and training).
+     *
+     * @param numPlayers How many people are playing (2-4).
+     * @param names      The names of the players.
+     * @param isAI       True/False list corresponding to if that player is a bot.
+     * @param rules      The rule set the table plays with.
+     * @param seed       The random seed.
+     */
+    public UnoModel(int numPlayers, List<String> names, List<Boolean> isAI, UnoRules rules, long seed) {
+        this(numPlayers, names, isAI, rules, new Random(seed));
+    }
+
+    private UnoModel(int numPlayers, List<String> names, List<Boolean> isAI, UnoRules rules, Random rng) {
+        this.rules = rules;
+        this.rng = rng;
         if (numPlayers < 2 || numPlayers > 4) {
             throw new IllegalArgumentException("Number of players must be 2–4.");
         }
@@ -49,35 +108,41 @@ public class UnoModel implements Serializable {
         initializeRound();
     }
 
+    // Used when rebuilding a game from the compact binary format; readFrom fills in the rest
+    private UnoModel(UnoRules rules) {
+        this.rules = rules;
+    }
+
     /**
      * Resets the deck, shuffles, deals cards, and starts a fresh round.
      * Called at the start of the game and after someone empties their hand.
      */
     private void initializeRound() {
-        drawPile.clear();
-        discard.clear();
-        List<UnoCard> deck = buildFlipDeck();
-        Collections.shuffle(deck, new Random());
-        deck.forEach(drawPile::push);
+        pendingDraw = 0;
+        pendingRank = null;
+        UnoDeck deck = rules().getDeck();
+        if (shuffled == null || shuffled.length != deck.size()) shuffled = new UnoCard[deck.size()];
+        deck.shuffleInto(shuffled, rng());
 
-        // Clear everyone's hand and deal 7 new cards
-        for(UnoPlayer p : players) p.resetHand();
-        for (int k = 0; k < 7; k++) {
-            for (UnoPlayer p : players) p.hand.add(drawPile.pop());
+        // Clear everyone's hand and deal 7 new cards, straight out of the shuffled array
+        int n = players.size();
+        for (UnoPlayer p : players) p.resetHand();
+        for (int k = 0; k < HAND_SIZE; k++) {
+            for (int i = 0; i < n; i++) players.get(i).hand.add(shuffled[k * n + i]);
         }
 
-        // Flip the first card to start the pile
-        UnoCard first = drawPile.pop();
-        discard.push(first);
+        // Flip the first card to start the pile, the rest becomes the draw pile
+        int dealt = HAND_SIZE * n;
+        UnoCard first = shuffled[dealt];
+        drawPile = UnoCardStack.of(shuffled, dealt + 1, shuffled.length);
+        discard = UnoCardStack.EMPTY.push(first);
         activeColor = first.getColor(isDark);
         // If the first card happens to be a Wild, pick a safe default color
         if (first.isWild(isDark)) activeColor = isDark ? UnoColor.TEAL : UnoColor.RED;
 
         // Clear history because you can't undo into a previous round
-        if(undoStack == null) undoStack = new ArrayDeque<>();
-        if(redoStack == null) redoStack = new ArrayDeque<>();
-        undoStack.clear();
-        redoStack.clear();
+        if(history == null) history = new UnoHistory();
+        history.clear();
 
         info = "Round Start! Target: " + WINNING_SCORE + " pts.";
         notifyViews();
@@ -93,19 +158,58 @@ public class UnoModel implements Serializable {
         notifyViews();
     }
 
+    /**
+     * @param v A view added with addView. It gets no more updates.
+     */
+    public void removeView(UnoView v) {
+        if (views != null) views.remove(v);
+    }
+
+    /**
+     * Adds a listener that is told about every move and round result (see UnoGameListener).
+     * Listeners aren't saved with the game.
+     * @param l The listener.
+     */
+    public void addGameListener(UnoGameListener l) {
+        if (listeners == null) {
+            listeners = new UnoGameListener[]{l};
+        } else {
+            listeners = Arrays.copyOf(listeners, listeners.length + 1);
+            listeners[listeners.length - 1] = l;
+        }
+    }
+
+    /**
+     * @param l A listener added with addGameListener.
+     */
+    public void removeGameListener(UnoGameListener l) {
+        if (listeners == null) return;
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] != l) continue;
+            UnoGameListener[] rest = new UnoGameListener[listeners.length - 1];
+            System.arraycopy(listeners, 0, rest, 0, i);
+            System.arraycopy(listeners, i + 1, rest, i, rest.length - i);
+            listeners = rest.length == 0 ? null : rest;
+            return;
+        }
+    }
+
     /**
      * Packages up the current state of the game and sends it to all connected Views.
      */
     private void notifyViews() {
-        if (views == null) return;
+        if (batching || views == null || views.isEmpty()) return; // Nobody is watching (e.g. simulations)
         UnoPlayer p = players.get(current);
         // Send a copy of the hand so the View can't mess with the real one
         List<UnoCard> handCopy = new ArrayList<>(p.hand);
-        UnoCard top = discard.peek();
+        UnoCard top = discard.first();
         String topText = top != null ? top.toText(isDark) : "None";
         if (activeColor != UnoColor.NONE) topText += " [" + activeColor + "]";
 
-        UnoEvent event = new UnoEvent(this, handCopy, topText, p.name, info, mustPressNext, activeColor, isDark, p.isAI);
+        // Work out once which cards can be played so the view doesn't have to ask card by card
+        boolean[] legal = getLegalMoves();
+        int suggested = hintsEnabled && !p.isAI ? defaultStrategy.choose(this, p.hand, legal) : -1;
+        UnoEvent event = new UnoEvent(this, handCopy, topText, p.name, info, mustPressNext, activeColor, isDark, p.isAI, legal, suggested);
         for (UnoView v : views) v.handleUpdate(event);
     }
 
@@ -116,14 +220,9 @@ public class UnoModel implements Serializable {
      * Call this right before making any changes (playing, drawing, etc.).
      */
     public void saveState() {
-        try {
-            undoStack.push(serializeState());
-            redoStack.clear(); // Once you make a new move, you can't redo old paths
-            // Cap the stack at 50 to prevent memory issues
-            if (undoStack.size() > 50) undoStack.removeLast();
-        } catch (IOException e) {
-            System.err.println("Failed to save state for undo: " + e.getMessage());
-        }
+        if (batching || !history.isEnabled()) return; // Undo is turned off, don't bother serializing
+        // Once you make a new move, you can't redo old paths. The history drops old moves when it runs out of memory.
+        history.record(serializeState());
     }
 
     /**
@@ -132,9 +231,8 @@ public class UnoModel implements Serializable {
     public void undo() {
         if (!canUndo()) return;
         try {
-            // Save where we are now to the redo stack before going back
-            redoStack.push(serializeState());
-            restoreState(undoStack.pop());
+            // Save where we are now to the redo side before going back
+            restoreState(history.undo(serializeState()));
             info = "Undid last move.";
             notifyViews();
         } catch (Exception e) {
@@ -148,8 +246,7 @@ public class UnoModel implements Serializable {
     public void redo() {
         if (!canRedo()) return;
         try {
-            undoStack.push(serializeState());
-            restoreState(redoStack.pop());
+            restoreState(history.redo(serializeState()));
             info = "Redid move.";
             notifyViews();
         } catch (Exception e) {
@@ -157,37 +254,236 @@ public class UnoModel implements Serializable {
         }
     }
 
-    public boolean canUndo() { return !undoStack.isEmpty(); }
-    public boolean canRedo() { return !redoStack.isEmpty(); }
+    public boolean canUndo() { return history.canUndo(); }
+    public boolean canRedo() { return history.canRedo(); }
+
+    /**
+     * Gives access to the undo/redo history, e.g. to change its memory budget or make it persistent.
+     * @return The history store of this game.
+     */
+    public UnoHistory getHistory() { return history; }
+
+    // PERSISTENT SNAPSHOTS
+
+    /**
+     * The game at one moment. The hands and piles are kept as they were ({@link UnoCardList} and
+     * {@link UnoCardStack} never change), so taking one copies a few numbers per player and no cards at all.
+     */
+    public static final class State {
+        private final UnoCardList[] hands;
+        private final int[] scores;
+        private final UnoCardStack drawPile, discard;
+        private final int current, gameDirection, nextSteps, pendingDraw, roundsPlayed, lastRoundWinner;
+        private final boolean mustPressNext, isDark, gameOver;
+        private final UnoColor activeColor;
+        private final UnoRank pendingRank;
+        private final String info;
+
+        private State(UnoModel m) {
+            int n = m.players.size();
+            hands = new UnoCardList[n];
+            scores = new int[n];
+            for (int i = 0; i < n; i++) {
+                UnoPlayer p = m.players.get(i);
+                hands[i] = ((UnoHand) p.hand).getCards();
+                scores[i] = p.getScore();
+            }
+            drawPile = m.drawPile;
+            discard = m.discard;
+            current = m.current;
+            gameDirection = m.gameDirection;
+            nextSteps = m.nextSteps;
+            pendingDraw = m.pendingDraw;
+            roundsPlayed = m.roundsPlayed;
+            lastRoundWinner = m.lastRoundWinner;
+            mustPressNext = m.mustPressNext;
+            isDark = m.isDark;
+            gameOver = m.gameOver;
+            activeColor = m.activeColor;
+            pendingRank = m.pendingRank;
+            info = m.info;
+        }
+    }
+
+    /**
+     * Takes a snapshot of the game, e.g. as a replay checkpoint. It costs the same however many cards there are,
+     * and it shares its cards with the game, so keeping many of them only costs what changed in between.
+     * @return The snapshot.
+     */
+    public State snapshot() {
+        return new State(this);
+    }
+
+    /**
+     * Puts the game back the way it was when the snapshot was taken. Players keep their seats, names and bots;
+     * the undo history isn't touched.
+     * @param s A snapshot of this game.
+     */
+    public void restore(State s) {
+        if (s.hands.length != players.size()) throw new IllegalArgumentException("That snapshot is from a different table.");
+        apply(s);
+        notifyViews();
+    }
+
+    /**
+     * Makes an independent copy of the game that shares all its cards with this one, for example to try moves
+     * while searching or to let a spectator read the table without holding its lock. Changing either game only
+     * copies the few nodes it touches. The copy has no views, listeners or undo history, and its random
+     * generator is seeded from the position, so the same position always forks the same way.
+     * @return The copy.
+     */
+    public UnoModel fork() {
+        UnoModel m = new UnoModel(rules());
+        m.rng = new Random(getStateHash());
+        m.history = new UnoHistory(0);
+        m.views = new ArrayList<>();
+        m.hintsEnabled = hintsEnabled;
+        if (strategies != null) m.strategies = strategies.clone();
+        for (UnoPlayer p : players) m.players.add(new UnoPlayer(p.name, p.isAI));
+        m.apply(snapshot());
+        return m;
+    }
+
+    private void apply(State s) {
+        for (int i = 0; i < s.hands.length; i++) {
+            UnoPlayer p = players.get(i);
+            ((UnoHand) p.hand).setCards(s.hands[i]);
+            p.addScore(s.scores[i] - p.getScore());
+        }
+        drawPile = s.drawPile;
+        discard = s.discard;
+        current = s.current;
+        gameDirection = s.gameDirection;
+        nextSteps = s.nextSteps;
+        pendingDraw = s.pendingDraw;
+        roundsPlayed = s.roundsPlayed;
+        lastRoundWinner = s.lastRoundWinner;
+        mustPressNext = s.mustPressNext;
+        isDark = s.isDark;
+        gameOver = s.gameOver;
+        activeColor = s.activeColor;
+        pendingRank = s.pendingRank;
+        info = s.info;
+    }
 
     /**
-     * Turns this entire object into a byte array so we can store it.
+     * Turns the game into a byte array (the compact binary format) so we can store it.
      */
-    private byte[] serializeState() throws IOException {
-        ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        ObjectOutputStream oos = new ObjectOutputStream(bos);
-        oos.writeObject(this);
-        return bos.toByteArray();
+    private byte[] serializeState() {
+        byte[] data = toBytes();
+
+        UnoFlightEvents.SnapshotTaken taken = UnoFlightEvents.isOn() ? new UnoFlightEvents.SnapshotTaken() : null;
+        if (taken != null && taken.shouldCommit()) {
+            taken.bytes = data.length;
+            taken.commit();
+        }
+        return data;
     }
 
     /**
      * Reads a byte array and overwrites the current object's fields with that old data.
      */
     private void restoreState(byte[] data) throws IOException, ClassNotFoundException {
-        ByteArrayInputStream bis = new ByteArrayInputStream(data);
-        ObjectInputStream ois = new ObjectInputStream(bis);
-        UnoModel restored = (UnoModel) ois.readObject();
+        UnoModel restored = isLegacy(data) ? readLegacy(new ByteArrayInputStream(data)) : readFrom(ByteBuffer.wrap(data));
 
         // Copy everything over
         this.players.clear(); this.players.addAll(restored.players);
-        this.drawPile.clear(); this.drawPile.addAll(restored.drawPile);
-        this.discard.clear(); this.discard.addAll(restored.discard);
+        this.drawPile = restored.drawPile;
+        this.discard = restored.discard;
         this.current = restored.current;
         this.gameDirection = restored.gameDirection;
         this.mustPressNext = restored.mustPressNext;
         this.activeColor = restored.activeColor;
         this.nextSteps = restored.nextSteps;
         this.isDark = restored.isDark;
+        this.pendingDraw = restored.pendingDraw;
+        this.pendingRank = restored.pendingRank;
+        this.roundsPlayed = restored.roundsPlayed;
+        this.lastRoundWinner = restored.lastRoundWinner;
+        this.gameOver = restored.gameOver;
+    }
+
+    // Histories and saves from before the compact format was used start with Java's serialization header
+    private static boolean isLegacy(byte[] data) {
+        return data.length >= 2 && data[0] == (byte) 0xAC && data[1] == (byte) 0xED;
+    }
+
+    // Only old files get here. Native builds don't register classes for serialization, so they can't read them.
+    private static UnoModel readLegacy(InputStream in) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream ois = new ObjectInputStream(in)) {
+            return (UnoModel) ois.readObject();
+        }
+    }
+
+    // Java serialization keeps the layout from before the piles were persistent (two ArrayDeques, top first),
+    // so those old saves still read
+    @Serial
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("players", List.class),
+            new ObjectStreamField("drawPile", Deque.class),
+            new ObjectStreamField("discard", Deque.class),
+            new ObjectStreamField("current", int.class),
+            new ObjectStreamField("gameDirection", int.class),
+            new ObjectStreamField("mustPressNext", boolean.class),
+            new ObjectStreamField("activeColor", UnoColor.class),
+            new ObjectStreamField("info", String.class),
+            new ObjectStreamField("nextSteps", int.class),
+            new ObjectStreamField("isDark", boolean.class),
+            new ObjectStreamField("rules", UnoRules.class),
+            new ObjectStreamField("pendingDraw", int.class),
+            new ObjectStreamField("pendingRank", UnoRank.class),
+            new ObjectStreamField("roundsPlayed", int.class),
+            new ObjectStreamField("lastRoundWinner", int.class),
+            new ObjectStreamField("gameOver", boolean.class),
+            new ObjectStreamField("hintsEnabled", boolean.class)
+    };
+
+    @Serial
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField f = out.putFields();
+        f.put("players", players);
+        f.put("drawPile", new ArrayDeque<>(drawPile));
+        f.put("discard", new ArrayDeque<>(discard));
+        f.put("current", current);
+        f.put("gameDirection", gameDirection);
+        f.put("mustPressNext", mustPressNext);
+        f.put("activeColor", activeColor);
+        f.put("info", info);
+        f.put("nextSteps", nextSteps);
+        f.put("isDark", isDark);
+        f.put("rules", rules);
+        f.put("pendingDraw", pendingDraw);
+        f.put("pendingRank", pendingRank);
+        f.put("roundsPlayed", roundsPlayed);
+        f.put("lastRoundWinner", lastRoundWinner);
+        f.put("gameOver", gameOver);
+        f.put("hintsEnabled", hintsEnabled);
+        out.writeFields();
+    }
+
+    @Serial
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField f = in.readFields();
+        players = (List<UnoPlayer>) f.get("players", null);
+        Deque<UnoCard> draws = (Deque<UnoCard>) f.get("drawPile", null);
+        Deque<UnoCard> discards = (Deque<UnoCard>) f.get("discard", null);
+        drawPile = draws == null ? UnoCardStack.EMPTY : UnoCardStack.of(draws);
+        discard = discards == null ? UnoCardStack.EMPTY : UnoCardStack.of(discards);
+        current = f.get("current", 0);
+        gameDirection = f.get("gameDirection", 1);
+        mustPressNext = f.get("mustPressNext", false);
+        activeColor = (UnoColor) f.get("activeColor", UnoColor.NONE);
+        info = (String) f.get("info", "");
+        nextSteps = f.get("nextSteps", 1);
+        isDark = f.get("isDark", false);
+        rules = (UnoRules) f.get("rules", null);
+        pendingDraw = f.get("pendingDraw", 0);
+        pendingRank = (UnoRank) f.get("pendingRank", null);
+        roundsPlayed = f.get("roundsPlayed", 0);
+        lastRoundWinner = f.get("lastRoundWinner", -1);
+        gameOver = f.get("gameOver", false);
+        hintsEnabled = f.get("hintsEnabled", false);
     }
 
     // GAMEPLAY ACTIONS
@@ -198,20 +494,17 @@ public class UnoModel implements Serializable {
      * @param handIndex The position of the card in their hand.
      */
     public void play(int handIndex) {
-        saveState(); // Save before changing anything!
         ensureAwaitingAction();
         UnoPlayer p = players.get(current);
         UnoCard chosen = p.hand.get(handIndex);
-        UnoCard top = discard.peek();
+        UnoCard top = discard.first();
 
-        if (!chosen.matches(top, activeColor, isDark)) {
-            // If the move was bad, we didn't actually change state, so pop the save we just made
-            undoStack.pop();
-            throw new IllegalStateException("Illegal move: " + chosen.toText(isDark));
-        }
+        // Check first so a bad move doesn't cost a snapshot
+        if (!isLegal(chosen, top)) throw new IllegalStateException("Illegal move: " + chosen.toText(isDark));
+        saveState(); // Save before changing anything!
 
         p.hand.remove(handIndex);
-        discard.push(chosen);
+        discard = discard.push(chosen);
         activeColor = chosen.getColor(isDark);
         handleCardEffect(chosen, p.hand);
     }
@@ -223,13 +516,15 @@ public class UnoModel implements Serializable {
      * @param chosenColor The color they picked.
      */
     public void playWild(int handIndex, UnoColor chosenColor) {
-        saveState();
         ensureAwaitingAction();
         UnoPlayer p = players.get(current);
         UnoCard chosen = p.hand.get(handIndex);
 
+        if (!isLegal(chosen, discard.first())) throw new IllegalStateException("Illegal move: " + chosen.toText(isDark));
+        saveState();
+
         p.hand.remove(handIndex);
-        discard.push(chosen);
+        discard = discard.push(chosen);
         activeColor = chosenColor;
         handleCardEffect(chosen, p.hand);
     }
@@ -238,15 +533,60 @@ public class UnoModel implements Serializable {
      * Player draws a card from the deck.
      */
     public void draw() {
-        saveState();
         ensureAwaitingAction();
+        saveState();
         UnoPlayer p = players.get(current);
-        p.hand.add(popOrRecycle());
+        int before = p.hand.size();
+        if (pendingDraw > 0) {
+            // Couldn't (or didn't want to) stack, so take the whole pile of penalty cards
+            int n = pendingDraw;
+            drawInto(p, n);
+            pendingDraw = 0;
+            pendingRank = null;
+            info = p.name + " drew " + n + " cards.";
+        } else {
+            drawInto(p, 1);
+            info = p.name + " drew 1 card.";
+        }
+        if (listeners != null) {
+            int size = p.hand.size();
+            for (UnoGameListener l : listeners) l.onDraw(this, current, size - before, size, isDark);
+        }
         mustPressNext = true;
-        info = p.name + " drew 1 card.";
         notifyViews();
     }
 
+    /**
+     * Lets a player who isn't on turn play a card identical to the top card (same color and rank).
+     * Only allowed if the rule set turns on jump-in. Play continues from the player who jumped in.
+     *
+     * @param playerIdx The player jumping in.
+     * @param handIndex The position of the card in their hand.
+     */
+    public void jumpIn(int playerIdx, int handIndex) {
+        if (gameOver) throw new IllegalStateException("Game is over.");
+        if (!rules().isJumpIn()) throw new IllegalStateException("Jump-in is not allowed at this table.");
+        if (pendingDraw > 0) throw new IllegalStateException("Can't jump in while Draw cards are stacked.");
+        // The player on turn plays normally; jumping in would let them play again after drawing or playing
+        if (playerIdx == current) throw new IllegalStateException("It's your turn, so you can't jump in.");
+        UnoPlayer p = players.get(playerIdx);
+        UnoCard chosen = p.hand.get(handIndex);
+        UnoCard top = discard.first();
+        if (top == null || chosen.isWild(isDark) || chosen.getColor(isDark) != top.getColor(isDark)
+                || chosen.getRank(isDark) != top.getRank(isDark)) {
+            throw new IllegalStateException("Can only jump in with an identical card.");
+        }
+
+        saveState();
+        current = playerIdx;
+        mustPressNext = false;
+        nextSteps = 1;
+        p.hand.remove(handIndex);
+        discard = discard.push(chosen);
+        activeColor = chosen.getColor(isDark);
+        handleCardEffect(chosen, p.hand);
+    }
+
     /**
      * Passes the turn to the next person.
      * This is usually called after someone draws or plays a card.
@@ -273,29 +613,37 @@ public class UnoModel implements Serializable {
         UnoPlayer ai = players.get(current);
         if (!ai.isAI) return;
 
-        UnoCard top = discard.peek();
-        int bestIdx = -1;
-        int wildIdx = -1;
+        // Times the decision for Flight Recorder (free when recording is off)
+        UnoFlightEvents.AiDecision decision = UnoFlightEvents.isOn() ? new UnoFlightEvents.AiDecision() : null;
+        if (decision != null) decision.begin();
 
         // AI Strategy: Try to match normally, save Wilds for last resort
-        for (int i = 0; i < ai.hand.size(); i++) {
-            UnoCard c = ai.hand.get(i);
-            if (c.matches(top, activeColor, isDark)) {
-                if (c.isWild(isDark)) wildIdx = i;
-                else if (isActionCard(c)) { bestIdx = i; break; } // Aggressive play
-                else if (bestIdx == -1) bestIdx = i;
-            }
-        }
+        boolean[] legal = getLegalMoves();
+        UnoStrategy strategy = strategyFor(current);
+        int bestIdx = strategy.choose(this, ai.hand, legal);
+        int candidates = 0;
+        for (boolean ok : legal) if (ok) candidates++;
 
-        if (bestIdx == -1 && wildIdx != -1) bestIdx = wildIdx;
+        if (decision != null && decision.shouldCommit()) {
+            decision.player = ai.name;
+            decision.candidates = candidates;
+            decision.handSize = ai.hand.size();
+            decision.chosen = bestIdx != -1 ? ai.hand.get(bestIdx).toText(isDark) : "DRAW";
+            decision.commit();
+        }
 
         if (bestIdx != -1) {
             if (isCardWild(bestIdx)) {
-                // Bots just pick a random valid color for now
+                UnoColor chosen = strategy.chooseColor(this, ai.hand, bestIdx);
+                if (chosen != null) {
+                    playWild(bestIdx, chosen);
+                    return;
+                }
+                // Otherwise pick a random valid color
                 UnoColor[] opts = isDark ?
                         new UnoColor[]{UnoColor.TEAL, UnoColor.PINK, UnoColor.PURPLE, UnoColor.ORANGE} :
                         new UnoColor[]{UnoColor.RED, UnoColor.BLUE, UnoColor.GREEN, UnoColor.YELLOW};
-                playWild(bestIdx, opts[new Random().nextInt(opts.length)]);
+                playWild(bestIdx, opts[rng().nextInt(opts.length)]);
             } else {
                 play(bestIdx);
             }
@@ -304,57 +652,94 @@ public class UnoModel implements Serializable {
         }
     }
 
+    /**
+     * Plays bot turns back to back (passing the turn after each one) until a human is up,
+     * the round ends or the game is over. If the current player is waiting for Next, the turn is passed first.
+     * <p>
+     * The whole run is a single undo step, and the views get one update at the end with a summary
+     * instead of one per play and per Next. That makes long stretches of bot play (or all-bot tables) fast.
+     * @return What the bots did.
+     */
+    public AiRun runAITurns() {
+        if (gameOver || (!mustPressNext && !players.get(current).isAI)) return new AiRun(List.of(), 0, 0, false);
+        saveState(); // One undo step for the whole run
+        batching = true;
+        deferredEnds = new ArrayList<>();
+        List<String> moves = new ArrayList<>();
+        int played = 0, drew = 0;
+        int round = roundsPlayed;
+        try {
+            if (mustPressNext) nextPlayer();
+            while (!gameOver && roundsPlayed == round && players.get(current).isAI && moves.size() < MAX_BATCH_TURNS) {
+                UnoPlayer bot = players.get(current);
+                int before = bot.hand.size();
+                playAITurn();
+                moves.add(roundsPlayed != round ? bot.name + " went out." : info);
+                if (roundsPlayed != round || bot.hand.size() < before) played++;
+                else drew++;
+                if (mustPressNext) nextPlayer();
+            }
+        } finally {
+            batching = false;
+        }
+        AiRun run = new AiRun(moves, played, drew, roundsPlayed != round);
+        List<Runnable> ends = deferredEnds;
+        deferredEnds = null;
+        if (!moves.isEmpty()) info = run.summary() + " " + info;
+        notifyViews();
+        for (Runnable end : ends) end.run();
+        return run;
+    }
+
+    /**
+     * What happened during {@link #runAITurns}.
+     */
+    public static final class AiRun {
+        /** One line per bot turn, like the info line a single turn would show. */
+        public final List<String> moves;
+        public final int played;
+        public final int drew;
+        /** True if someone went out during the run. */
+        public final boolean roundEnded;
+
+        private AiRun(List<String> moves, int played, int drew, boolean roundEnded) {
+            this.moves = Collections.unmodifiableList(moves);
+            this.played = played;
+            this.drew = drew;
+            this.roundEnded = roundEnded;
+        }
+
+        public int turns() { return moves.size(); }
+
+        /**
+         * @return A short line for the info label, e.g. "3 bot turns (2 played, 1 drew)."
+         */
+        public String summary() {
+            if (moves.size() == 1) return moves.get(0);
+            return moves.size() + " bot turns (" + played + " played, " + drew + " drew).";
+        }
+    }
+
     /**
      * Applies the special rules for the card that was just played (Skip, Flip, etc.).
      */
     private void handleCardEffect(UnoCard chosen, List<UnoCard> currentHand) {
         UnoRank r = chosen.getRank(isDark);
-        String msg = " played " + chosen.toText(isDark);
-
-        switch (r) {
-            case FLIP -> {
-                isDark = !isDark;
-                UnoCard top = discard.peek();
-                assert top != null;
-                activeColor = top.getColor(isDark);
-                // If we flip onto a wild, default to Teal/Red so we don't get stuck
-                if (top.isWild(isDark)) activeColor = isDark ? UnoColor.TEAL : UnoColor.RED;
-                msg += " FLIP!";
-            }
-            case DRAW_FIVE -> {
-                int victim = properIndex(current + gameDirection);
-                for(int i=0; i<5; i++) players.get(victim).hand.add(popOrRecycle());
-                nextSteps = 2; // Skip them
-                msg += " (Next draws 5)";
-            }
-            case SKIP_EVERYONE -> { nextSteps = 0; msg += " (Play again!)"; }
-            case REVERSE -> { gameDirection = -gameDirection; msg += " Reverse"; }
-            case SKIP -> { nextSteps = 2; msg += " Skip"; }
-            case DRAW_ONE -> {
-                int victim = properIndex(current + gameDirection);
-                players.get(victim).hand.add(popOrRecycle());
-                nextSteps = 2;
-                msg += " Draw 1";
-            }
-            case WILD_DRAW_TWO -> {
-                int victim = properIndex(current + gameDirection);
-                for(int i=0; i<2; i++) players.get(victim).hand.add(popOrRecycle());
-                nextSteps = 2;
-            }
-            case WILD_DRAW_COLOR -> {
-                int victim = properIndex(current + gameDirection);
-                UnoPlayer vp = players.get(victim);
-                boolean found = false;
-                // They draw until they hit the color the current player just picked
-                while(!found) {
-                    UnoCard c = popOrRecycle();
-                    vp.hand.add(c);
-                    assert c != null;
-                    if (c.getColor(isDark) == activeColor) found = true;
-                }
-                nextSteps = 2;
-            }
-            default -> nextSteps = 1;
+        String cardText = chosen.toText(isDark);
+        // The rule set maps every rank to its effect (Skip, Flip, Draw Five, ...)
+        String msg = " played " + cardText + rules().effectFor(r).apply(this, chosen);
+
+        UnoFlightEvents.ActionApplied applied = UnoFlightEvents.isOn() ? new UnoFlightEvents.ActionApplied() : null;
+        if (applied != null && applied.shouldCommit()) {
+            applied.player = players.get(current).name;
+            applied.card = cardText;
+            applied.effect = r.name();
+            applied.dark = isDark;
+            applied.commit();
+        }
+        if (listeners != null) {
+            int size = currentHand.size();
+            for (UnoGameListener l : listeners) l.onPlay(this, current, chosen, r, size, isDark);
         }
 
         // Check for round winner
@@ -368,107 +753,465 @@ public class UnoModel implements Serializable {
         notifyViews();
     }
 
+    // The round/game over popups wait until a batch of bot turns has sent its update
+    private void announce(Runnable end) {
+        if (batching) deferredEnds.add(end);
+        else end.run();
+    }
+
     /**
      * Calculates points when someone goes out, updates scores, and checks if the whole game is over.
      */
     private void handleRoundWin() {
         UnoPlayer winner = players.get(current);
         int points = 0;
-        // Sum up points from everyone else's hands
-        for (UnoPlayer p : players) {
-            for (UnoCard c : p.hand) {
-                UnoRank r = c.getRank(isDark);
-                switch(r) {
-                    case WILD_DRAW_COLOR -> points += 60;
-                    case WILD_DRAW_TWO -> points += 50;
-                    case WILD -> points += 40;
-                    case DRAW_FIVE, FLIP, SKIP_EVERYONE -> points += 30;
-                    case SKIP, REVERSE, DRAW_ONE -> points += 20;
-                    default -> points += (r.ordinal() < 10 ? r.ordinal() : 0);
-                }
-            }
-        }
+        // Sum up points from everyone else's hands (the hands keep their own running totals)
+        for (UnoPlayer p : players) points += p.getHandPoints(isDark);
         winner.addScore(points);
+        roundsPlayed++;
+        lastRoundWinner = current;
+        gameOver = winner.getScore() >= WINNING_SCORE;
 
-        String scoreMsg = winner.name + " wins round! Points: +" + points + "\nTotal Scores:\n";
-        for(UnoPlayer p : players) scoreMsg += p.name + ": " + p.getScore() + "\n";
+        UnoFlightEvents.RoundEnded ended = UnoFlightEvents.isOn() ? new UnoFlightEvents.RoundEnded() : null;
+        if (ended != null && ended.shouldCommit()) {
+            ended.winner = winner.name;
+            ended.points = points;
+            ended.total = winner.getScore();
+            ended.gameOver = gameOver;
+            ended.commit();
+        }
+        if (listeners != null) for (UnoGameListener l : listeners) l.onRoundEnd(this, current, points);
+
+        StringBuilder sb = new StringBuilder(64 + 24 * players.size());
+        sb.append(winner.name).append(" wins round! Points: +").append(points).append("\nTotal Scores:\n");
+        for (UnoPlayer p : players) sb.append(p.name).append(": ").append(p.getScore()).append('\n');
+        String scoreMsg = sb.toString();
 
-        if (winner.getScore() >= WINNING_SCORE) {
+        if (gameOver) {
             info = "GAME OVER. " + winner.name + " WINS!";
             notifyViews();
-            for (UnoView v : views) v.handleEnd(scoreMsg + "\nGAME OVER!");
+            announce(() -> { for (UnoView v : views) v.handleEnd(scoreMsg + "\nGAME OVER!"); });
         } else {
             info = "Round Over. Next Round starting...";
             notifyViews();
-            for (UnoView v : views) v.handleRoundEnd(scoreMsg);
+            announce(() -> { for (UnoView v : views) v.handleRoundEnd(scoreMsg); });
             initializeRound(); // Automatically start the next round
         }
     }
 
     /**
-     * Saves the entire game object to a file.
+     * Saves the game to a file in the compact binary format (see {@link #writeTo}), behind a "UNOS" header.
+     * If the history is persistent, the undo/redo history is written next to it in a ".history" file.
+     * The file is replaced atomically, so a crash while saving can't leave half a save behind.
      * @param file The file location to save to.
      */
     public void saveGame(File file) throws IOException {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(file))) {
-            oos.writeObject(this);
+        snapshotForSave().writeTo(file);
+    }
+
+    /**
+     * Turns the game into bytes in memory so it can be written to disk later, e.g. on a background thread.
+     * Call this on the thread that is playing the game so the snapshot is consistent.
+     * @return The snapshot to write with {@link UnoSaveSnapshot#writeTo(File)}.
+     */
+    public UnoSaveSnapshot snapshotForSave() throws IOException {
+        byte[] game = toBytes(SAVE_MAGIC);
+        byte[] historyBytes = null;
+        if (history.isPersistent() && history.isEnabled()) {
+            ByteArrayOutputStream hist = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(hist)) {
+                history.writeTo(out);
+            }
+            historyBytes = hist.toByteArray();
         }
+        return new UnoSaveSnapshot(game, historyBytes, UnoSaveStore.describe(this));
     }
 
     /**
-     * Loads a game object from a file.
+     * Loads a game from a file, along with its undo/redo history if one was saved next to it.
+     * Saves made before the compact format (Java serialization) can still be read.
      * @param file The file to load from.
      * @return The loaded UnoModel.
      */
     public static UnoModel loadGame(File file) throws IOException, ClassNotFoundException {
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-            UnoModel m = (UnoModel) ois.readObject();
-            // Re-init the transient fields that weren't saved
-            if (m.views == null) m.views = new ArrayList<>();
-            if (m.undoStack == null) m.undoStack = new ArrayDeque<>();
-            if (m.redoStack == null) m.redoStack = new ArrayDeque<>();
-            return m;
+        byte[] data = Files.readAllBytes(file.toPath());
+        UnoModel m;
+        if (isLegacy(data)) {
+            m = readLegacy(new ByteArrayInputStream(data));
+        } else {
+            ByteBuffer buf = ByteBuffer.wrap(data);
+            if (data.length < 4 || buf.getInt() != SAVE_MAGIC) throw new IOException("Not an Uno save file: " + file.getName());
+            m = readFrom(buf);
         }
+        // Re-init the transient fields that weren't saved
+        if (m.views == null) m.views = new ArrayList<>();
+        if (m.history == null) m.history = new UnoHistory();
+        File historyFile = historyFileFor(file);
+        if (historyFile.exists()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(historyFile)))) {
+                m.history.readFrom(in);
+                m.history.setPersistent(true);
+            }
+        }
+        return m;
+    }
+
+    static File historyFileFor(File saveFile) {
+        return new File(saveFile.getPath() + ".history");
+    }
+
+    // EFFECT HOOKS (used by the effects in UnoRules)
+
+    /**
+     * Sets how many seats the turn moves when Next is pressed (0 = same player again, 2 = skip one).
+     */
+    void setNextSteps(int steps) { nextSteps = steps; }
+
+    /**
+     * Turns play around.
+     */
+    void reverseDirection() { gameDirection = -gameDirection; }
+
+    /**
+     * Flips the game to the other side of the cards.
+     */
+    void flipSides() {
+        isDark = !isDark;
+        UnoCard top = discard.first();
+        assert top != null;
+        activeColor = top.getColor(isDark);
+        // If we flip onto a wild, default to Teal/Red so we don't get stuck
+        if (top.isWild(isDark)) activeColor = isDark ? UnoColor.TEAL : UnoColor.RED;
+    }
+
+    /**
+     * The next player draws some cards and loses their turn.
+     * If the rules allow stacking, the cards are added to a pile instead, and the next player can pass it on.
+     */
+    void penalizeNext(UnoCard card, int cards) {
+        if (rules().isStackDraws()) {
+            pendingDraw += cards;
+            pendingRank = card.getRank(isDark);
+            nextSteps = 1; // They get a turn to stack or draw
+            return;
+        }
+        UnoPlayer victim = players.get(properIndex(current + gameDirection));
+        drawInto(victim, cards);
+        nextSteps = 2; // Skip them
+    }
+
+    /**
+     * The next player draws until they get a card in the active color, and loses their turn.
+     */
+    void nextDrawsUntilColor() {
+        UnoPlayer victim = players.get(properIndex(current + gameDirection));
+        // They draw until they hit the color the current player just picked
+        while (true) {
+            UnoCard c = popOrRecycle();
+            if (c == null) break; // Nothing left to draw
+            victim.hand.add(c);
+            if (c.getColor(isDark) == activeColor) break;
+        }
+        nextSteps = 2;
+    }
+
+    // COMPACT BINARY FORMAT
+
+    private static final byte FORMAT_VERSION = 1;
+    // Save files start with "UNOS" so a wrong file is caught before it's read as a game
+    private static final int SAVE_MAGIC = 0x554E4F53;
+    // Shared by every snapshot on this thread, grown when a game doesn't fit
+    private static final ThreadLocal<ByteBuffer> SCRATCH = ThreadLocal.withInitial(() -> ByteBuffer.allocate(1024));
+
+    /**
+     * Writes the whole game state into a buffer in a compact binary form (cards are 2 bytes each).
+     * Views, the undo history and the random generator are not included.
+     * @param buf Where to write. Throws BufferOverflowException if it doesn't fit.
+     */
+    public void writeTo(ByteBuffer buf) {
+        buf.put(FORMAT_VERSION);
+        putString(buf, rules().toText());
+        buf.put((byte) players.size());
+        buf.put((byte) current);
+        buf.put((byte) gameDirection);
+        buf.put((byte) nextSteps);
+        buf.put((byte) ((mustPressNext ? 1 : 0) | (isDark ? 2 : 0) | (gameOver ? 4 : 0) | (hintsEnabled ? 8 : 0)));
+        buf.put((byte) activeColor.ordinal());
+        buf.putShort((short) pendingDraw);
+        buf.put((byte) (pendingRank == null ? -1 : pendingRank.ordinal()));
+        buf.putInt(roundsPlayed);
+        buf.put((byte) lastRoundWinner);
+        putString(buf, info);
+
+        for (UnoPlayer p : players) {
+            putString(buf, p.name);
+            buf.put((byte) (p.isAI ? 1 : 0));
+            buf.putInt(p.getScore());
+            putCards(buf, p.hand);
+        }
+        putCards(buf, drawPile);
+        putCards(buf, discard);
+    }
+
+    // The compact form as a byte array, with an optional 4-byte header in front (0 for none)
+    private byte[] toBytes(int header) {
+        ByteBuffer buf = SCRATCH.get();
+        while (true) {
+            buf.clear();
+            try {
+                if (header != 0) buf.putInt(header);
+                writeTo(buf);
+                return Arrays.copyOf(buf.array(), buf.position());
+            } catch (BufferOverflowException e) {
+                buf = ByteBuffer.allocate(buf.capacity() * 2);
+                SCRATCH.set(buf);
+            }
+        }
+    }
+
+    private byte[] toBytes() {
+        return toBytes(0);
+    }
+
+    /**
+     * Rebuilds a game written by {@link #writeTo}. It comes back with no views and an empty undo history.
+     * @param buf Where to read from.
+     * @return The game.
+     */
+    public static UnoModel readFrom(ByteBuffer buf) {
+        byte version = buf.get();
+        if (version != FORMAT_VERSION) throw new IllegalArgumentException("Unknown game format version " + version);
+        UnoModel m = new UnoModel(UnoRules.fromText(getString(buf)));
+        m.rng = new Random();
+
+        int numPlayers = buf.get();
+        m.current = buf.get();
+        m.gameDirection = buf.get();
+        m.nextSteps = buf.get();
+        int flags = buf.get();
+        m.mustPressNext = (flags & 1) != 0;
+        m.isDark = (flags & 2) != 0;
+        m.gameOver = (flags & 4) != 0;
+        m.hintsEnabled = (flags & 8) != 0;
+        m.activeColor = UnoColor.values()[buf.get()];
+        m.pendingDraw = buf.getShort();
+        int rank = buf.get();
+        m.pendingRank = rank < 0 ? null : UnoRank.values()[rank];
+        m.roundsPlayed = buf.getInt();
+        m.lastRoundWinner = buf.get();
+        m.info = getString(buf);
+
+        for (int i = 0; i < numPlayers; i++) {
+            UnoPlayer p = new UnoPlayer(getString(buf), buf.get() != 0);
+            p.addScore(buf.getInt());
+            UnoCard[] hand = getCards(buf);
+            ((UnoHand) p.hand).setCards(UnoCardList.of(hand, 0, hand.length));
+            m.players.add(p);
+        }
+        UnoCard[] draws = getCards(buf);
+        m.drawPile = UnoCardStack.of(draws, 0, draws.length);
+        UnoCard[] discards = getCards(buf);
+        m.discard = UnoCardStack.of(discards, 0, discards.length);
+        return m;
+    }
+
+    // Top of a pile is written first, so reading back with add() keeps the same order
+    private static void putCards(ByteBuffer buf, Collection<UnoCard> cards) {
+        buf.putShort((short) cards.size());
+        for (UnoCard c : cards) buf.putChar((char) c.toCode());
+    }
+
+    private static UnoCard[] getCards(ByteBuffer buf) {
+        UnoCard[] cards = new UnoCard[buf.getShort()];
+        for (int i = 0; i < cards.length; i++) cards[i] = UnoCard.fromCode(buf.getChar());
+        return cards;
+    }
+
+    private static void putString(ByteBuffer buf, String s) {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        buf.putShort((short) b.length);
+        buf.put(b);
+    }
+
+    private static String getString(ByteBuffer buf) {
+        byte[] b = new byte[buf.getShort() & 0xFFFF];
+        buf.get(b);
+        return new String(b, StandardCharsets.UTF_8);
     }
 
     // HELPER METHODS
 
+    /**
+     * Checks a card against the top card using the table's rules.
+     * While Draw cards are stacked, only another Draw card of the same rank can be played.
+     */
+    private boolean isLegal(UnoCard card, UnoCard top) {
+        if (pendingDraw > 0 && card.getRank(isDark) != pendingRank) return false;
+        return rules().matches(card, top, activeColor, isDark);
+    }
+
+    // Saves from before rule sets existed don't have one
+    private UnoRules rules() {
+        if (rules == null) rules = UnoRules.standard();
+        return rules;
+    }
+
+    /**
+     * @return The rule set this table plays with.
+     */
+    public UnoRules getRules() { return rules(); }
+
+    // STATE ACCESSORS (read-only views for bots, training and tools)
+
+    public int getPlayerCount() { return players.size(); }
+    public UnoPlayer getPlayer(int i) { return players.get(i); }
+    public int getCurrentPlayerIndex() { return current; }
+    public UnoColor getActiveColor() { return activeColor; }
+    public int getGameDirection() { return gameDirection; }
+    /**
+     * @return How many seats the turn moves when Next is pressed (0 = same player again, 2 = skip one).
+     */
+    public int getNextSteps() { return nextSteps; }
+    public boolean isMustPressNext() { return mustPressNext; }
+    public int getPendingDraw() { return pendingDraw; }
+    public int getRoundsPlayed() { return roundsPlayed; }
+
+    /**
+     * Gets a 64-bit Zobrist hash of the position: the top card, the active color, the side, the direction,
+     * whose turn it is (and whether they still have to press Next), stacked Draw cards and the cards in each hand.
+     * Names, scores, the info line and the order of the draw pile aren't part of it.
+     * <p>
+     * The hands keep their hashes up to date as cards move, so this costs the same no matter how many cards there
+     * are. Two positions with the same hash are the same position, except with a chance of about one in 2^64.
+     * @return The hash.
+     */
+    public long getStateHash() {
+        UnoCard top = discard.first();
+        long h = UnoZobrist.key(UnoZobrist.TOP, top == null ? -1 : top.toCode())
+                ^ UnoZobrist.key(UnoZobrist.COLOR, activeColor.ordinal())
+                ^ UnoZobrist.key(UnoZobrist.DARK, isDark ? 1 : 0)
+                ^ UnoZobrist.key(UnoZobrist.DIRECTION, gameDirection)
+                ^ UnoZobrist.key(UnoZobrist.TURN, current)
+                ^ UnoZobrist.key(UnoZobrist.NEXT, mustPressNext ? 1 : 0)
+                ^ UnoZobrist.key(UnoZobrist.PENDING, pendingDraw)
+                ^ UnoZobrist.key(UnoZobrist.PENDING_RANK, pendingRank == null ? -1 : pendingRank.ordinal());
+        for (int i = 0; i < players.size(); i++) h ^= UnoZobrist.seat(i, ((UnoHand) players.get(i).hand).getHash());
+        return h;
+    }
+
+    /**
+     * @return The seat that won the most recent round, or -1 if no round has finished yet.
+     */
+    public int getLastRoundWinner() { return lastRoundWinner; }
+
+    /**
+     * @return true once someone has reached the winning score.
+     */
+    public boolean isGameOver() { return gameOver; }
+
+    /**
+     * Works out which cards in the current player's hand can be played right now.
+     * @return One entry per card (all false while waiting for Next or after the game ended).
+     */
+    public boolean[] getLegalMoves() {
+        List<UnoCard> hand = players.get(current).hand;
+        boolean[] legal = new boolean[hand.size()];
+        if (mustPressNext || gameOver) return legal;
+        UnoCard top = discard.first();
+        for (int i = 0; i < legal.length; i++) legal[i] = isLegal(hand.get(i), top);
+        return legal;
+    }
+
+    /**
+     * Picks the bot that plays a seat (used to compare strategies).
+     * @param seat     The seat.
+     * @param strategy The strategy, or null for the default greedy bot.
+     */
+    public void setStrategy(int seat, UnoStrategy strategy) {
+        if (strategies == null) strategies = new UnoStrategy[players.size()];
+        strategies[seat] = strategy;
+    }
+
+    private UnoStrategy strategyFor(int seat) {
+        UnoStrategy s = strategies == null ? null : strategies[seat];
+        return s != null ? s : defaultStrategy;
+    }
+
+    /**
+     * Picks the bot used by every seat that wasn't given its own strategy (for example one backed by the endgame table).
+     * @param strategy The strategy, or null for the greedy bot.
+     */
+    public static void setDefaultStrategy(UnoStrategy strategy) {
+        defaultStrategy = strategy != null ? strategy : UnoStrategy.GREEDY;
+    }
+
+    /**
+     * Turns the "suggested move" hint for human players on or off.
+     * @param enabled True to have the view highlight the card the bot would play.
+     */
+    public void setHintsEnabled(boolean enabled) {
+        hintsEnabled = enabled;
+        notifyViews();
+    }
+
+    public boolean isHintsEnabled() { return hintsEnabled; }
+
+    /**
+     * Checks if the current player could legally play a card from their hand right now.
+     * @param handIndex The position of the card in their hand.
+     * @return true if play(handIndex) would be accepted.
+     */
+    public boolean isLegalMove(int handIndex) {
+        if (mustPressNext || gameOver) return false;
+        List<UnoCard> hand = players.get(current).hand;
+        return handIndex >= 0 && handIndex < hand.size() && isLegal(hand.get(handIndex), discard.first());
+    }
+
     private int properIndex(int idx) { int n = players.size(); return ((idx % n) + n) % n; }
-    private void ensureAwaitingAction() { if (mustPressNext) throw new IllegalStateException("Press next."); }
+    private void ensureAwaitingAction() {
+        if (gameOver) throw new IllegalStateException("Game is over.");
+        if (mustPressNext) throw new IllegalStateException("Press next.");
+    }
+
+    // Deals cards to a player, stopping early if both piles are empty
+    private void drawInto(UnoPlayer p, int cards) {
+        for (int i = 0; i < cards; i++) {
+            UnoCard c = popOrRecycle();
+            if (c == null) return;
+            p.hand.add(c);
+        }
+    }
 
     private UnoCard popOrRecycle() {
         if (drawPile.isEmpty()) recycle();
-        return drawPile.isEmpty() ? null : drawPile.pop();
+        UnoCard c = drawPile.first();
+        if (c != null) drawPile = drawPile.pop();
+        return c;
     }
 
     private void recycle() {
         if (discard.isEmpty()) return;
-        UnoCard top = discard.pop();
-        List<UnoCard> back = new ArrayList<>(discard);
-        discard.clear();
-        discard.push(top);
-        Collections.shuffle(back);
-        back.forEach(drawPile::push);
+        UnoCard top = discard.first();
+        List<UnoCard> back = new ArrayList<>(discard.pop());
+        discard = UnoCardStack.EMPTY.push(top);
+        Collections.shuffle(back, rng());
+        Collections.reverse(back); // The last card shuffled back goes on top, as if pushed one by one
+        drawPile = UnoCardStack.of(back);
+
+        UnoFlightEvents.DeckRecycled recycled = UnoFlightEvents.isOn() ? new UnoFlightEvents.DeckRecycled() : null;
+        if (recycled != null && recycled.shouldCommit()) {
+            recycled.cards = back.size();
+            recycled.commit();
+        }
     }
 
     public UnoCard peekCardInHand(int i) { if (i>=0 && i<players.get(current).hand.size()) return players.get(current).hand.get(i); return null; }
     public boolean isCardWild(int i) { return peekCardInHand(i).isWild(isDark); }
-    private boolean isActionCard(UnoCard c) { UnoRank r = c.getRank(isDark); return r == UnoRank.SKIP || r == UnoRank.REVERSE || r == UnoRank.DRAW_ONE || r == UnoRank.DRAW_FIVE || r == UnoRank.FLIP; }
 
-    private List<UnoCard> buildFlipDeck() {
-        List<UnoCard> deck = new ArrayList<>();
-        UnoColor[] lights = {UnoColor.RED, UnoColor.BLUE, UnoColor.GREEN, UnoColor.YELLOW};
-        UnoColor[] darks = {UnoColor.ORANGE, UnoColor.PINK, UnoColor.TEAL, UnoColor.PURPLE};
-        for (int i=0; i<4; i++) {
-            for (int n=1; n<=9; n++) deck.add(new UnoCard(lights[i], UnoRank.values()[n], darks[i], UnoRank.values()[n]));
-            deck.add(new UnoCard(lights[i], UnoRank.FLIP, darks[i], UnoRank.FLIP));
-            deck.add(new UnoCard(lights[i], UnoRank.DRAW_ONE, darks[i], UnoRank.DRAW_FIVE));
-            deck.add(new UnoCard(lights[i], UnoRank.SKIP, darks[i], UnoRank.SKIP_EVERYONE));
-            deck.add(new UnoCard(lights[i], UnoRank.REVERSE, darks[i], UnoRank.REVERSE));
-        }
-        deck.add(new UnoCard(UnoColor.WILD, UnoRank.WILD, UnoColor.WILD, UnoRank.WILD_DRAW_COLOR));
-        deck.add(new UnoCard(UnoColor.WILD, UnoRank.WILD_DRAW_TWO, UnoColor.WILD, UnoRank.WILD_DRAW_COLOR));
-        return deck;
+    // Transient fields are null after loading a save, so create the generator on first use
+    private Random rng() {
+        if (rng == null) rng = new Random();
+        return rng;
     }
 
     // TESTING HELPERS (These are what was missing!)
@@ -478,7 +1221,7 @@ public class UnoModel implements Serializable {
      * USED FOR TESTING ONLY.
      */
     public void setTopCard(UnoCard c) {
-        discard.push(c);
+        discard = discard.push(c);
         activeColor = c.getColor(isDark);
     }
 
@@ -487,7 +1230,7 @@ public class UnoModel implements Serializable {
      * USED FOR TESTING ONLY.
      */
     public UnoCard getDiscardTop() {
-        return discard.peek();
+        return discard.first();
     }
 
     /**
@@ -76,4 +76,67 @@ public class UnoModelTest {
         model.forceHand(0, hand);
         model.play(0); // Should fail
     }
-}
\ No newline at end of file
+
+    /**
+     * The event says which cards can be played, and an illegal play doesn't leave an undo snapshot behind.
+     */
+    @Test
+    public void testLegalMovesInEvent() {
+        model.setTopCard(new UnoCard(UnoColor.RED, UnoRank.FIVE, UnoColor.TEAL, UnoRank.FIVE));
+        List<UnoCard> hand = new ArrayList<>();
+        hand.add(new UnoCard(UnoColor.BLUE, UnoRank.NINE, UnoColor.PINK, UnoRank.NINE));
+        hand.add(new UnoCard(UnoColor.RED, UnoRank.TWO, UnoColor.TEAL, UnoRank.TWO));
+        hand.add(new UnoCard(UnoColor.WILD, UnoRank.WILD, UnoColor.WILD, UnoRank.WILD_DRAW_COLOR));
+        model.forceHand(0, hand);
+        model.setHintsEnabled(false); // Sends a fresh event
+
+        assertFalse(view.lastEvent.isPlayable(0));
+        assertTrue(view.lastEvent.isPlayable(1));
+        assertTrue(view.lastEvent.isPlayable(2));
+        assertEquals(-1, view.lastEvent.getSuggestedMove());
+
+        try {
+            model.play(0);
+            fail("Blue 9 can't go on Red 5");
+        } catch (IllegalStateException expected) {
+        }
+        assertFalse("A rejected move shouldn't be undoable", model.canUndo());
+
+        model.draw();
+        for (int i = 0; i < view.lastEvent.getHand().size(); i++) {
+            assertFalse("Nothing is playable while waiting for Next", view.lastEvent.isPlayable(i));
+        }
+    }
+
+    /**
+     * With hints on, the bot's pick is suggested: a matching normal card before the Wild.
+     */
+    @Test
+    public void testSuggestedMove() {
+        model.setTopCard(new UnoCard(UnoColor.RED, UnoRank.FIVE, UnoColor.TEAL, UnoRank.FIVE));
+        List<UnoCard> hand = new ArrayList<>();
+        hand.add(new UnoCard(UnoColor.WILD, UnoRank.WILD, UnoColor.WILD, UnoRank.WILD_DRAW_COLOR));
+        hand.add(new UnoCard(UnoColor.BLUE, UnoRank.NINE, UnoColor.PINK, UnoRank.NINE));
+        hand.add(new UnoCard(UnoColor.RED, UnoRank.TWO, UnoColor.TEAL, UnoRank.TWO));
+        model.forceHand(0, hand);
+        model.setHintsEnabled(true);
+        assertEquals(2, view.lastEvent.getSuggestedMove());
+
+        hand.add(new UnoCard(UnoColor.RED, UnoRank.SKIP, UnoColor.TEAL, UnoRank.SKIP_EVERYONE));
+        model.forceHand(0, hand);
+        model.setHintsEnabled(true);
+        assertEquals("Action cards come first", 3, view.lastEvent.getSuggestedMove());
+    }
+
+    /**
+     * A removed view stops getting updates.
+     */
+    @Test
+    public void testRemoveView() {
+        model.draw();
+        UnoEvent last = view.lastEvent;
+        model.removeView(view);
+        model.nextPlayer();
+        assertSame(last, view.lastEvent);
+    }
+}
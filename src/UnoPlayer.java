@@ -1,6 +1,5 @@
 import java.io.Serial;
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -15,7 +14,7 @@ public class UnoPlayer implements Serializable {
 
     public final String name;
     public final boolean isAI;
-    public final List<UnoCard> hand = new ArrayList<>();
+    public final List<UnoCard> hand = new UnoHand();
     private int score = 0;
 
     /**
@@ -45,10 +44,31 @@ public class UnoPlayer implements Serializable {
         this.score += points;
     }
 
+    /**
+     * Gets how many points the cards in this hand are worth. This is kept up to date as cards come and go.
+     * @param isDark true to count the Dark side of the cards.
+     * @return the points of the hand.
+     */
+    public int getHandPoints(boolean isDark) {
+        return ((UnoHand) hand).getPoints(isDark);
+    }
+
     /**
      * Wipes the player's hand clean. Used when starting a brand new round.
      */
     public void resetHand() {
         hand.clear();
     }
-}
\ No newline at end of file
+
+    /**
+     * Saves from before hands tracked their points stored a plain list, so swap in a proper hand.
+     */
+    @Serial
+    private Object readResolve() {
+        if (hand instanceof UnoHand) return this;
+        UnoPlayer upgraded = new UnoPlayer(name, isAI);
+        upgraded.hand.addAll(hand);
+        upgraded.score = score;
+        return upgraded;
+    }
+}
@@ -1,13 +1,27 @@
 /**
  * Represents the rank of a card.
+ * Each rank also knows how many points it is worth when it is left in someone's hand at the end of a round.
  * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
  * @version 4.0
  */
 public enum UnoRank {
-    ZERO, ONE, TWO, THREE, FOUR, FIVE, SIX, SEVEN, EIGHT, NINE,
-    SKIP, REVERSE, DRAW_ONE, WILD,
-    FLIP,
-    DRAW_FIVE, SKIP_EVERYONE, WILD_DRAW_COLOR,
-    WILD_DRAW_TWO
-}
+    ZERO(0), ONE(1), TWO(2), THREE(3), FOUR(4), FIVE(5), SIX(6), SEVEN(7), EIGHT(8), NINE(9),
+    SKIP(20), REVERSE(20), DRAW_ONE(20), WILD(40),
+    FLIP(30),
+    DRAW_FIVE(30), SKIP_EVERYONE(30), WILD_DRAW_COLOR(60),
+    WILD_DRAW_TWO(50);
+
+    private final int points;
 
+    UnoRank(int points) {
+        this.points = points;
+    }
+
+    /**
+     * Gets the score value of this rank (number cards are worth their face value).
+     * @return the points for one card of this rank.
+     */
+    public int getPoints() {
+        return points;
+    }
+}
@@ -0,0 +1,316 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Skill ratings for players and bots, Elo style, updated after every finished game. Add it as a game listener to
+ * each table: when a round ends the game (someone reached the winning score), every pair of players at the table
+ * counts as one match, won by whoever finished with more points. A game costs a few steps per player and
+ * touches nothing but those players' ratings.
+ * <p>
+ * Players get a number the first time they're seen, and their rating and game count are kept in pages of atomic
+ * arrays under that number. Nothing is locked while rating: each player's change is added with compare-and-set,
+ * so games finishing at the same time on different tables never lose each other's changes. (Each game works out
+ * its changes from the ratings as it finds them, the same as if the games had finished one after the other.)
+ * <p>
+ * {@link #save} writes everyone to a small binary file, and {@link #autoSave} does it in the background every
+ * so often.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoRatings implements UnoGameListener, AutoCloseable {
+    /** Where everyone starts. */
+    public static final double DEFAULT_RATING = 1500;
+    /** How far one game against one opponent can move a rating. */
+    public static final double DEFAULT_K = 32;
+
+    static final int MAGIC = 0x554E4F52; // "UNOR"
+    static final int VERSION = 1;
+    private static final int HEADER = 28; // magic, version, starting rating, K, player count
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+    private final double initial;
+    private final double k;
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile Page[] pages = new Page[0];
+    private volatile int count;
+    private final AtomicLong changes = new AtomicLong();
+    private Thread saver;
+    private volatile boolean closed;
+
+    // One page of players: ratings are kept as double bits so they can be compare-and-set
+    private static final class Page {
+        final AtomicLongArray ratings = new AtomicLongArray(PAGE_SIZE);
+        final AtomicIntegerArray games = new AtomicIntegerArray(PAGE_SIZE);
+        final String[] names = new String[PAGE_SIZE];
+    }
+
+    /**
+     * Creates empty ratings with the usual starting rating and K.
+     */
+    public UnoRatings() {
+        this(DEFAULT_RATING, DEFAULT_K);
+    }
+
+    /**
+     * @param initial Rating of a player who hasn't played yet.
+     * @param k       How many points a game against one opponent is worth at most.
+     */
+    public UnoRatings(double initial, double k) {
+        if (k <= 0) throw new IllegalArgumentException("K must be positive.");
+        this.initial = initial;
+        this.k = k;
+    }
+
+    /**
+     * Rates the game if this round ended it.
+     */
+    @Override
+    public void onRoundEnd(UnoModel model, int winner, int points) {
+        if (!model.isGameOver()) return;
+        int n = model.getPlayerCount();
+        int[] players = new int[n];
+        long[] scores = new long[n];
+        for (int i = 0; i < n; i++) {
+            players[i] = idOf(model.getPlayer(i).name);
+            scores[i] = model.getPlayer(i).getScore();
+        }
+        record(players, scores);
+    }
+
+    /**
+     * Rates one finished game. A player beats everyone who finished with fewer points and draws with everyone on
+     * the same points; each of those counts as 1/(players - 1) of a game.
+     * @param players The players' numbers (from {@link #idOf}).
+     * @param scores  Their final scores, in the same order.
+     */
+    public void record(int[] players, long[] scores) {
+        int n = players.length;
+        if (n < 2 || scores.length != n) throw new IllegalArgumentException("A game needs 2 or more players with a score each.");
+        double[] before = new double[n];
+        for (int i = 0; i < n; i++) before[i] = getRating(players[i]);
+        for (int i = 0; i < n; i++) {
+            double expected = 0, actual = 0;
+            for (int j = 0; j < n; j++) {
+                if (j == i) continue;
+                expected += 1 / (1 + Math.pow(10, (before[j] - before[i]) / 400));
+                actual += scores[i] > scores[j] ? 1 : scores[i] == scores[j] ? 0.5 : 0;
+            }
+            Page p = pages[players[i] >> PAGE_BITS];
+            int slot = players[i] & (PAGE_SIZE - 1);
+            add(p.ratings, slot, k / (n - 1) * (actual - expected));
+            p.games.incrementAndGet(slot);
+        }
+        changes.incrementAndGet();
+    }
+
+    /**
+     * Gets a player's number, giving them one (and the starting rating) if they're new.
+     * @param name The player.
+     * @return Their number.
+     */
+    public int idOf(String name) {
+        Integer id = ids.get(name);
+        return id != null ? id : register(name, initial, 0);
+    }
+
+    private synchronized int register(String name, double rating, int games) {
+        Integer id = ids.get(name);
+        if (id != null) return id;
+        int next = count;
+        Page[] ps = pages;
+        if (next >> PAGE_BITS == ps.length) {
+            Page[] grown = Arrays.copyOf(ps, ps.length + 1);
+            grown[ps.length] = new Page();
+            pages = ps = grown;
+        }
+        Page p = ps[next >> PAGE_BITS];
+        int slot = next & (PAGE_SIZE - 1);
+        p.names[slot] = name;
+        p.ratings.set(slot, Double.doubleToRawLongBits(rating));
+        p.games.set(slot, games);
+        count = next + 1;
+        ids.put(name, next); // Last, so anyone who finds the number also finds the page
+        return next;
+    }
+
+    /**
+     * @param id A player's number.
+     * @return Their rating.
+     */
+    public double getRating(int id) {
+        return Double.longBitsToDouble(pages[id >> PAGE_BITS].ratings.get(id & (PAGE_SIZE - 1)));
+    }
+
+    /**
+     * @param name The player.
+     * @return Their rating, or the starting rating if they haven't played.
+     */
+    public double getRating(String name) {
+        Integer id = ids.get(name);
+        return id == null ? initial : getRating(id);
+    }
+
+    /**
+     * @param name The player.
+     * @return How many rated games they have played.
+     */
+    public int getGames(String name) {
+        Integer id = ids.get(name);
+        return id == null ? 0 : pages[id >> PAGE_BITS].games.get(id & (PAGE_SIZE - 1));
+    }
+
+    /**
+     * @return How many players have a rating.
+     */
+    public int size() {
+        return count;
+    }
+
+    // Adds to a double kept as bits, retrying if another game changed it at the same time
+    private static void add(AtomicLongArray a, int i, double delta) {
+        long old, now;
+        do {
+            old = a.get(i);
+            now = Double.doubleToRawLongBits(Double.longBitsToDouble(old) + delta);
+        } while (!a.compareAndSet(i, old, now));
+    }
+
+    // SNAPSHOTS
+
+    /**
+     * Writes every rating to a file, replacing it in one step. Games can keep finishing while it's written;
+     * each player is written as they were at that moment.
+     * @param file Where to write.
+     */
+    public void save(Path file) throws IOException {
+        int n = count;
+        Page[] ps = pages;
+        ByteBuffer buf = ByteBuffer.allocate(HEADER + n * 16);
+        buf.putInt(MAGIC).putInt(VERSION).putDouble(initial).putDouble(k).putInt(n);
+        for (int id = 0; id < n; id++) {
+            Page p = ps[id >> PAGE_BITS];
+            int slot = id & (PAGE_SIZE - 1);
+            byte[] name = p.names[slot].getBytes(StandardCharsets.UTF_8);
+            if (buf.remaining() < name.length + 14) buf = ByteBuffer.allocate(buf.capacity() * 2 + name.length).put(buf.flip());
+            buf.putShort((short) name.length).put(name);
+            buf.putDouble(Double.longBitsToDouble(p.ratings.get(slot)));
+            buf.putInt(p.games.get(slot));
+        }
+        buf.flip();
+
+        Path dir = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel ch = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (buf.hasRemaining()) ch.write(buf);
+                ch.force(true);
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Reads ratings written by {@link #save}.
+     * @param file The file.
+     * @return The ratings, with the starting rating and K they were saved with.
+     */
+    public static UnoRatings load(Path file) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buf.remaining() < HEADER || buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+            throw new IOException("Not an Uno ratings file: " + file);
+        }
+        UnoRatings r = new UnoRatings(buf.getDouble(), buf.getDouble());
+        int n = buf.getInt();
+        for (int i = 0; i < n; i++) {
+            byte[] name = new byte[buf.getShort() & 0xFFFF];
+            buf.get(name);
+            r.register(new String(name, StandardCharsets.UTF_8), buf.getDouble(), buf.getInt());
+        }
+        return r;
+    }
+
+    /**
+     * Loads the ratings if the file exists.
+     * @param file The file.
+     * @return The ratings, or new empty ones.
+     */
+    public static UnoRatings loadIfPresent(Path file) throws IOException {
+        return Files.exists(file) ? load(file) : new UnoRatings();
+    }
+
+    /**
+     * Saves the ratings in the background every so often (only if a game was rated since the last save),
+     * and once more when closed.
+     * @param file   Where to save.
+     * @param millis Time between saves.
+     */
+    public synchronized void autoSave(Path file, long millis) {
+        if (saver != null) throw new IllegalStateException("Already saving.");
+        saver = new Thread(() -> {
+            long saved = -1;
+            while (true) {
+                // Waits on the ratings rather than sleeping, so close() can wake it without interrupting a save
+                synchronized (this) {
+                    try {
+                        if (!closed) wait(millis);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                long now = changes.get();
+                if (now != saved) {
+                    try {
+                        save(file);
+                        saved = now;
+                    } catch (IOException | RuntimeException e) {
+                        // Keep going: the next save may work, and a dead saver would never save again
+                        System.err.println("Failed to save ratings: " + e);
+                    }
+                }
+                if (closed) return;
+            }
+        }, "uno-ratings-saver");
+        saver.setDaemon(true);
+        saver.start();
+    }
+
+    /**
+     * Stops the background saves, after a last one. Waits for that save unless the calling thread is
+     * interrupted, in which case it stops waiting and keeps the interrupt flag set.
+     */
+    @Override
+    public void close() {
+        Thread t;
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+            t = saver;
+        }
+        if (t == null) return;
+        try {
+            t.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
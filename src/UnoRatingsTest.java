@@ -0,0 +1,127 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Test class for the skill ratings.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoRatingsTest {
+
+    /**
+     * Beating a player moves points from them to you, more so when they were rated higher, and ties count half.
+     */
+    @Test
+    public void testEloUpdates() {
+        UnoRatings r = new UnoRatings();
+        int a = r.idOf("Ann"), b = r.idOf("Bob"), c = r.idOf("Cat"), d = r.idOf("Dan");
+        assertEquals(a, r.idOf("Ann"));
+        r.record(new int[]{a, b}, new long[]{510, 120});
+        assertEquals(1516, r.getRating("Ann"), 1e-9);
+        assertEquals(1484, r.getRating("Bob"), 1e-9);
+
+        r.record(new int[]{b, a}, new long[]{500, 80}); // The upset is worth more
+        assertTrue(r.getRating("Bob") > 1500);
+        assertEquals(3000, r.getRating("Ann") + r.getRating("Bob"), 1e-9);
+
+        r.record(new int[]{a, b, c, d}, new long[]{500, 300, 300, 0});
+        assertTrue(r.getRating("Ann") > r.getRating("Cat"));
+        assertTrue(r.getRating("Cat") > r.getRating("Dan"));
+        assertTrue(r.getRating("Dan") < 1500);
+        assertEquals(3, r.getGames("Ann"));
+        assertEquals(1500, r.getRating("Nobody"), 0);
+    }
+
+    /**
+     * Games rated from many threads at once all count, and ratings are only moved around, never lost.
+     */
+    @Test
+    public void testConcurrentTables() throws Exception {
+        UnoRatings r = new UnoRatings();
+        int players = 3000, threads = 4, games = 20000;
+        for (int i = 0; i < players; i++) r.idOf("P" + i);
+        List<Thread> ts = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long seed = t;
+            ts.add(new Thread(() -> {
+                Random rng = new Random(seed);
+                for (int g = 0; g < games; g++) {
+                    // Few enough players that tables keep sharing them
+                    int[] seats = {rng.nextInt(10), 10 + rng.nextInt(10), 20 + rng.nextInt(players - 20)};
+                    r.record(seats, new long[]{rng.nextInt(600), rng.nextInt(600), rng.nextInt(600)});
+                }
+            }));
+        }
+        for (Thread t : ts) t.start();
+        for (Thread t : ts) t.join();
+
+        double sum = 0;
+        long played = 0;
+        for (int i = 0; i < players; i++) {
+            sum += r.getRating(i);
+            played += r.getGames("P" + i);
+        }
+        assertEquals(players * UnoRatings.DEFAULT_RATING, sum, 1e-6);
+        assertEquals(3L * threads * games, played);
+    }
+
+    /**
+     * Finished games at a table are rated, and the ratings survive a save and load.
+     */
+    @Test
+    public void testTablesAndSnapshots() throws Exception {
+        UnoRatings r = new UnoRatings();
+        for (int seed = 0; seed < 3; seed++) {
+            UnoModel m = new UnoModel(3, Arrays.asList("Ann", "Bob", "Cat"), Arrays.asList(true, true, true),
+                    UnoRules.standard(), seed);
+            m.getHistory().setBudget(0);
+            m.addGameListener(r);
+            while (!m.isGameOver()) m.runAITurns();
+        }
+        assertEquals(3, r.getGames("Cat"));
+        assertEquals(4500, r.getRating("Ann") + r.getRating("Bob") + r.getRating("Cat"), 1e-9);
+
+        Path dir = Files.createTempDirectory("uno-ratings");
+        Path file = dir.resolve("ratings.bin");
+        r.autoSave(file, 60000);
+        r.close(); // Saves once more on the way out
+        UnoRatings loaded = UnoRatings.load(file);
+        assertEquals(3, loaded.size());
+        for (String name : List.of("Ann", "Bob", "Cat")) {
+            assertEquals(r.getRating(name), loaded.getRating(name), 0);
+            assertEquals(3, loaded.getGames(name));
+        }
+        Files.delete(file);
+        Files.delete(dir);
+    }
+
+    /**
+     * Empty ratings save and load, and an auto-save that started with nothing still saves what comes later.
+     */
+    @Test
+    public void testEmptyAndAutoSave() throws Exception {
+        Path dir = Files.createTempDirectory("uno-ratings");
+        Path file = dir.resolve("ratings.bin");
+        new UnoRatings().save(file);
+        assertEquals(0, UnoRatings.load(file).size());
+        Files.delete(file);
+
+        UnoRatings r = new UnoRatings();
+        r.autoSave(file, 1); // Its first save is of no one
+        Thread.sleep(50);
+        r.record(new int[]{r.idOf("Ann"), r.idOf("Bob")}, new long[]{1, 0});
+        r.close();
+        UnoRatings loaded = UnoRatings.load(file);
+        assertEquals(2, loaded.size());
+        assertEquals(r.getRating("Ann"), loaded.getRating("Ann"), 0);
+        assertTrue(loaded.getRating("Ann") > loaded.getRating("Bob"));
+        Files.delete(file);
+        Files.delete(dir);
+    }
+}
@@ -0,0 +1,194 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads files written by {@link UnoGameRecorder}. A scan unpacks only the column it is asked for and jumps
+ * over the rest of each chunk, so adding up the points of a million rounds doesn't touch the turn data.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoRecordReader implements Closeable {
+    private final FileChannel channel;
+    private final List<UnoGameRecorder.Table> tables = new ArrayList<>();
+    private final long dataStart;
+    private final Inflater inflater = new Inflater();
+    private ByteBuffer packed = ByteBuffer.allocate(1 << 16);
+    private ByteBuffer values = ByteBuffer.allocate(1 << 16);
+
+    /**
+     * Opens a record file and reads its table descriptions.
+     * @param file The file.
+     */
+    public UnoRecordReader(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        ByteBuffer head = ByteBuffer.allocate((int) Math.min(1024, channel.size()));
+        readFully(head, 0);
+        head.flip();
+        if (head.remaining() < 9 || head.getInt() != UnoGameRecorder.MAGIC || head.getInt() != UnoGameRecorder.VERSION) {
+            channel.close();
+            throw new IOException("Not an Uno record file: " + file);
+        }
+        int count = head.get();
+        for (int i = 0; i < count; i++) {
+            int id = head.get();
+            String name = getString(head);
+            int columns = head.get();
+            String[] names = new String[columns];
+            int[] widths = new int[columns];
+            int counters = 0;
+            for (int c = 0; c < columns; c++) {
+                names[c] = getString(head);
+                int w = head.get() & 0xFF;
+                if ((w & 0x80) != 0) counters = c + 1; // Counter columns come first
+                widths[c] = w & 0x7F;
+            }
+            tables.add(new UnoGameRecorder.Table(id, name, names, widths, counters));
+        }
+        dataStart = head.position();
+    }
+
+    private static String getString(ByteBuffer buf) {
+        byte[] b = new byte[buf.get()];
+        buf.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param name "turns" or "rounds".
+     * @return The table, or null if the file doesn't have it.
+     */
+    public UnoGameRecorder.Table table(String name) {
+        for (UnoGameRecorder.Table t : tables) if (t.name.equals(name)) return t;
+        return null;
+    }
+
+    /**
+     * Counts the rows of a table from the chunk headers, without unpacking anything.
+     * @param table "turns" or "rounds".
+     * @return The number of rows.
+     */
+    public long count(String table) throws IOException {
+        return scan(table, null, null);
+    }
+
+    /**
+     * Goes through one column of a table in the order the rows were written.
+     * @param table  "turns" or "rounds".
+     * @param column The column name, e.g. "points".
+     * @param action Gets every value.
+     * @return The number of rows.
+     */
+    public long scan(String table, String column, IntConsumer action) throws IOException {
+        UnoGameRecorder.Table t = table(table);
+        if (t == null) throw new IllegalArgumentException("No table " + table);
+        int col = column == null ? -1 : t.column(column);
+        if (column != null && col < 0) throw new IllegalArgumentException("No column " + column + " in " + table);
+
+        long rows = 0;
+        long pos = dataStart;
+        long end = channel.size();
+        ByteBuffer head = ByteBuffer.allocate(5 + 4 * 255);
+        while (pos < end) {
+            head.clear().limit(5);
+            readFully(head, pos);
+            head.flip();
+            UnoGameRecorder.Table chunk = byId(head.get());
+            int n = head.getInt();
+            int columns = chunk.getColumns().size();
+            head.clear().limit(4 * columns);
+            readFully(head, pos + 5);
+            head.flip();
+            long data = pos + 5 + 4L * columns; // Where the first compressed column starts
+            long offset = data, length = 0, total = 0;
+            for (int c = 0; c < columns; c++) {
+                int size = head.getInt();
+                if (c < col) offset += size;
+                if (c == col) length = size;
+                total += size;
+            }
+            pos = data + total; // Next chunk
+            if (chunk != t) continue;
+            rows += n;
+            if (action != null) decode(offset, (int) length, n, t.width(col), t.isCounter(col), action);
+        }
+        return rows;
+    }
+
+    private UnoGameRecorder.Table byId(int id) throws IOException {
+        for (UnoGameRecorder.Table t : tables) if (t.id == id) return t;
+        throw new IOException("Corrupt record file: unknown table " + id);
+    }
+
+    private void decode(long at, int length, int rows, int width, boolean counter, IntConsumer action) throws IOException {
+        if (packed.capacity() < length) packed = ByteBuffer.allocate(length);
+        if (values.capacity() < rows * width) values = ByteBuffer.allocate(rows * width);
+        packed.clear().limit(length);
+        readFully(packed, at);
+        packed.flip();
+        values.clear().limit(rows * width);
+        inflater.reset();
+        inflater.setInput(packed);
+        try {
+            while (values.hasRemaining() && !inflater.finished()) {
+                if (inflater.inflate(values) == 0 && inflater.needsInput()) break;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt record file", e);
+        }
+        if (values.hasRemaining()) throw new IOException("Corrupt record file: column too short");
+        values.flip();
+        int value = 0;
+        for (int i = 0; i < rows; i++) {
+            int v = switch (width) {
+                case 1 -> values.get();
+                case 2 -> values.getShort();
+                default -> values.getInt();
+            };
+            // Counters hold the change from the row before
+            value = counter ? value + v : v;
+            action.accept(value);
+        }
+    }
+
+    private void readFully(ByteBuffer buf, long pos) throws IOException {
+        while (buf.hasRemaining()) {
+            int n = channel.read(buf, pos);
+            if (n < 0) throw new IOException("Record file ends too early");
+            pos += n;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        channel.close();
+    }
+
+    /**
+     * Prints the row count, total and average of one column. Arguments: file table column.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: UnoRecordReader <file> <table> <column>");
+            System.exit(2);
+        }
+        long[] sum = new long[1];
+        try (UnoRecordReader r = new UnoRecordReader(Paths.get(args[0]))) {
+            long rows = r.scan(args[1], args[2], v -> sum[0] += v);
+            System.out.printf("%s.%s: %d rows, total %d, average %.3f%n", args[1], args[2], rows, sum[0],
+                    rows == 0 ? 0.0 : (double) sum[0] / rows);
+        }
+    }
+}
@@ -0,0 +1,286 @@
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A rule set (house rules) for a table. It decides what each rank does when played,
+ * which cards can be played on which, what cards are in the deck, and a couple of optional rules
+ * like stacking draw cards and jumping in out of turn.
+ * <p>
+ * Variants are described with simple properties so they can be loaded from a file when a table is created:
+ * <pre>
+ * name=No Mercy
+ * stackDraws=true          # a Draw card can be answered with the same Draw card
+ * jumpIn=true              # an identical card can be played out of turn
+ * match=color              # "standard" (color, rank or wild) or "color" (color or wild only)
+ * deck.copies=2            # how many Flip decks are shuffled together
+ * deck.without=FLIP        # leave out cards that have one of these ranks on either side
+ * effect.REVERSE=SKIP      # make a rank behave like another built-in effect (or NONE)
+ * </pre>
+ * Only the properties are saved with a game. Effects or matchers plugged in from code with
+ * {@link #withEffect} or {@link #withMatcher} have to be plugged in again after loading.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public final class UnoRules implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    // The built-in effects. The strings are what gets added to the "X played Y" message.
+    private static final UnoEffect NONE = (m, c) -> { m.setNextSteps(1); return ""; };
+    private static final UnoEffect FLIP = (m, c) -> { m.flipSides(); return " FLIP!"; };
+    private static final UnoEffect DRAW_FIVE = (m, c) -> { m.penalizeNext(c, 5); return " (Next draws 5)"; };
+    private static final UnoEffect SKIP_EVERYONE = (m, c) -> { m.setNextSteps(0); return " (Play again!)"; };
+    private static final UnoEffect REVERSE = (m, c) -> { m.reverseDirection(); return " Reverse"; };
+    private static final UnoEffect SKIP = (m, c) -> { m.setNextSteps(2); return " Skip"; };
+    private static final UnoEffect DRAW_ONE = (m, c) -> { m.penalizeNext(c, 1); return " Draw 1"; };
+    private static final UnoEffect WILD_DRAW_TWO = (m, c) -> { m.penalizeNext(c, 2); return ""; };
+    private static final UnoEffect WILD_DRAW_COLOR = (m, c) -> { m.nextDrawsUntilColor(); return ""; };
+
+    private static final UnoMatcher STANDARD_MATCH = UnoCard::matches;
+    private static final UnoMatcher COLOR_MATCH = (card, top, activeColor, isDark) ->
+            card.isWild(isDark) || card.getColor(isDark) == activeColor;
+
+    // Enough cards for 4 players to get 7 each plus the starting card
+    private static final int MIN_DECK_SIZE = 4 * 7 + 1;
+
+    private static final UnoRules STANDARD = new UnoRules(new Properties());
+
+    // Rule sets read back from compact storage, shared by text (a table only has a handful of variants)
+    private static final int MAX_CACHED = 256;
+    private static final Map<String, UnoRules> BY_TEXT = new ConcurrentHashMap<>();
+
+    private final Properties config;
+
+    // Everything below is rebuilt from the config, so it doesn't need to be saved
+    private transient String name;
+    private transient UnoEffect[] effects;
+    private transient UnoMatcher matcher;
+    private transient UnoDeck deck;
+    private transient boolean stackDraws;
+    private transient boolean jumpIn;
+
+    private UnoRules(Properties config) {
+        this.config = new Properties();
+        this.config.putAll(config);
+        build();
+    }
+
+    private UnoRules(UnoRules base) {
+        this.config = base.config;
+        this.name = base.name;
+        this.effects = base.effects.clone();
+        this.matcher = base.matcher;
+        this.deck = base.deck;
+        this.stackDraws = base.stackDraws;
+        this.jumpIn = base.jumpIn;
+    }
+
+    /**
+     * @return The official Uno Flip rules.
+     */
+    public static UnoRules standard() {
+        return STANDARD;
+    }
+
+    /**
+     * Builds a rule set from properties (see the class description for the keys).
+     * @param config The variant description.
+     * @return The rule set.
+     */
+    public static UnoRules fromProperties(Properties config) {
+        return new UnoRules(config);
+    }
+
+    /**
+     * Reads a rule set from a .properties file.
+     * @param file The variant file.
+     * @return The rule set.
+     */
+    public static UnoRules load(File file) throws IOException {
+        Properties p = new Properties();
+        try (Reader r = new BufferedReader(new FileReader(file))) {
+            p.load(r);
+        }
+        return fromProperties(p);
+    }
+
+    /**
+     * Gets the built-in effect that a rank has in the official rules.
+     * @param rank The rank.
+     * @return Its effect (number cards and plain Wilds just end the turn).
+     */
+    public static UnoEffect builtInEffect(UnoRank rank) {
+        return switch (rank) {
+            case FLIP -> FLIP;
+            case DRAW_FIVE -> DRAW_FIVE;
+            case SKIP_EVERYONE -> SKIP_EVERYONE;
+            case REVERSE -> REVERSE;
+            case SKIP -> SKIP;
+            case DRAW_ONE -> DRAW_ONE;
+            case WILD_DRAW_TWO -> WILD_DRAW_TWO;
+            case WILD_DRAW_COLOR -> WILD_DRAW_COLOR;
+            default -> NONE;
+        };
+    }
+
+    /**
+     * Makes a copy of these rules where one rank does something else.
+     * @param rank   The rank to change.
+     * @param effect What it should do now.
+     * @return The new rule set (this one is left alone).
+     */
+    public UnoRules withEffect(UnoRank rank, UnoEffect effect) {
+        UnoRules copy = new UnoRules(this);
+        copy.effects[rank.ordinal()] = effect;
+        return copy;
+    }
+
+    /**
+     * Makes a copy of these rules with a different matching rule.
+     * @param matcher The new matching rule.
+     * @return The new rule set (this one is left alone).
+     */
+    public UnoRules withMatcher(UnoMatcher matcher) {
+        UnoRules copy = new UnoRules(this);
+        copy.matcher = matcher;
+        return copy;
+    }
+
+    /**
+     * Looks up what a rank does. This is a plain array lookup so it is as cheap as the old switch.
+     * @param rank The rank of the card that was played.
+     * @return The effect to apply.
+     */
+    public UnoEffect effectFor(UnoRank rank) {
+        return effects[rank.ordinal()];
+    }
+
+    /**
+     * Checks if a card can be played on the top card under these rules.
+     */
+    public boolean matches(UnoCard card, UnoCard top, UnoColor activeColor, boolean isDark) {
+        return matcher.matches(card, top, activeColor, isDark);
+    }
+
+    /**
+     * @return A copy of the properties this rule set was built from.
+     */
+    public Properties toProperties() {
+        Properties copy = new Properties();
+        copy.putAll(config);
+        return copy;
+    }
+
+    /**
+     * Writes the config as sorted "key=value" lines. This is how compact formats store the rule set.
+     * @return The config text (empty for the standard rules).
+     */
+    public String toText() {
+        StringBuilder sb = new StringBuilder();
+        for (String key : new TreeSet<>(config.stringPropertyNames())) {
+            sb.append(key).append('=').append(config.getProperty(key)).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Reads a rule set written by {@link #toText()}. The same text gives back the same object,
+     * so thousands of tables loaded from compact storage don't each rebuild their own deck.
+     * @param text The config text.
+     * @return The rule set.
+     */
+    public static UnoRules fromText(String text) {
+        if (text.isEmpty()) return STANDARD;
+        UnoRules cached = BY_TEXT.get(text);
+        if (cached != null) return cached;
+        Properties p = new Properties();
+        for (String line : text.split("\n")) {
+            int eq = line.indexOf('=');
+            if (eq > 0) p.setProperty(line.substring(0, eq), line.substring(eq + 1));
+        }
+        UnoRules rules = fromProperties(p);
+        if (BY_TEXT.size() < MAX_CACHED) BY_TEXT.putIfAbsent(text, rules);
+        return rules;
+    }
+
+    public String getName() { return name; }
+    public UnoDeck getDeck() { return deck; }
+    public boolean isStackDraws() { return stackDraws; }
+    public boolean isJumpIn() { return jumpIn; }
+
+    /**
+     * Turns the config into the lookup table, matcher and deck.
+     */
+    private void build() {
+        name = config.getProperty("name", "Standard");
+        stackDraws = Boolean.parseBoolean(config.getProperty("stackDraws", "false").trim());
+        jumpIn = Boolean.parseBoolean(config.getProperty("jumpIn", "false").trim());
+
+        String match = config.getProperty("match", "standard").trim().toLowerCase(Locale.ROOT);
+        matcher = switch (match) {
+            case "standard" -> STANDARD_MATCH;
+            case "color" -> COLOR_MATCH;
+            default -> throw new IllegalArgumentException("Unknown match rule: " + match);
+        };
+
+        UnoRank[] ranks = UnoRank.values();
+        effects = new UnoEffect[ranks.length];
+        for (UnoRank r : ranks) {
+            String mapped = config.getProperty("effect." + r.name());
+            if (mapped == null) effects[r.ordinal()] = builtInEffect(r);
+            else if (mapped.trim().equalsIgnoreCase("NONE")) effects[r.ordinal()] = NONE;
+            else effects[r.ordinal()] = builtInEffect(parseRank(mapped));
+        }
+
+        deck = buildDeck();
+    }
+
+    private UnoDeck buildDeck() {
+        int copies = Integer.parseInt(config.getProperty("deck.copies", "1").trim());
+        if (copies < 1) throw new IllegalArgumentException("deck.copies must be at least 1.");
+        List<UnoRank> without = new ArrayList<>();
+        for (String s : config.getProperty("deck.without", "").split(",")) {
+            if (!s.isBlank()) without.add(parseRank(s));
+        }
+        if (copies == 1 && without.isEmpty()) return UnoDeck.FLIP; // Share the normal deck
+
+        List<UnoCard> cards = new ArrayList<>();
+        for (int k = 0; k < copies; k++) {
+            for (int i = 0; i < UnoDeck.FLIP.size(); i++) {
+                UnoCard c = UnoDeck.FLIP.get(i);
+                if (!without.contains(c.getRank(false)) && !without.contains(c.getRank(true))) cards.add(c);
+            }
+        }
+        if (cards.size() < MIN_DECK_SIZE) {
+            throw new IllegalArgumentException("Deck only has " + cards.size() + " cards, need at least " + MIN_DECK_SIZE + ".");
+        }
+        return new UnoDeck(cards.toArray(new UnoCard[0]));
+    }
+
+    private static UnoRank parseRank(String s) {
+        try {
+            return UnoRank.valueOf(s.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown rank in rules: " + s.trim());
+        }
+    }
+
+    @Serial
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        build();
+    }
+
+    @Serial
+    private Object readResolve() {
+        // Keep sharing the same object for plain Uno Flip games
+        return config.isEmpty() ? STANDARD : this;
+    }
+}
@@ -0,0 +1,216 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.io.*;
+import java.util.*;
+
+/**
+ * Test class for rule sets (house-rule variants).
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoRulesTest {
+
+    private static UnoCard card(UnoColor color, UnoRank rank) {
+        return new UnoCard(color, rank, UnoColor.TEAL, rank);
+    }
+
+    private static UnoRules rules(String... keyValues) {
+        Properties p = new Properties();
+        for (int i = 0; i < keyValues.length; i += 2) p.setProperty(keyValues[i], keyValues[i + 1]);
+        return UnoRules.fromProperties(p);
+    }
+
+    private UnoModel game(int players, UnoRules rules) {
+        List<String> names = new ArrayList<>();
+        List<Boolean> ai = new ArrayList<>();
+        for (int i = 0; i < players; i++) { names.add("P" + i); ai.add(false); }
+        return new UnoModel(players, names, ai, rules);
+    }
+
+    /**
+     * The standard rules use the built-in effect for every rank.
+     */
+    @Test
+    public void testStandardDispatchTable() {
+        UnoRules std = UnoRules.standard();
+        for (UnoRank r : UnoRank.values()) assertSame(UnoRules.builtInEffect(r), std.effectFor(r));
+        assertEquals(UnoDeck.FLIP, std.getDeck());
+    }
+
+    /**
+     * A rank can be remapped to behave like another built-in effect.
+     */
+    @Test
+    public void testEffectRemap() {
+        UnoModel m = game(3, rules("effect.REVERSE", "SKIP"));
+        UnoViewStub view = new UnoViewStub();
+        m.addView(view);
+        m.setTopCard(card(UnoColor.RED, UnoRank.ONE));
+        m.forceHand(0, new ArrayList<>(List.of(card(UnoColor.RED, UnoRank.REVERSE), card(UnoColor.BLUE, UnoRank.TWO))));
+        m.play(0);
+        m.nextPlayer();
+        assertEquals("Reverse acts as Skip, so P1 is skipped", "P2", view.lastEvent.getCurrentPlayerName());
+    }
+
+    /**
+     * Effects can be plugged in from code too.
+     */
+    @Test
+    public void testCustomEffect() {
+        UnoRules custom = UnoRules.standard().withEffect(UnoRank.SEVEN, (model, c) -> {
+            model.setNextSteps(0);
+            return " (Lucky seven!)";
+        });
+        assertSame("The original rules are not changed", UnoRules.builtInEffect(UnoRank.SEVEN), UnoRules.standard().effectFor(UnoRank.SEVEN));
+
+        UnoModel m = game(2, custom);
+        UnoViewStub view = new UnoViewStub();
+        m.addView(view);
+        m.setTopCard(card(UnoColor.RED, UnoRank.ONE));
+        m.forceHand(0, new ArrayList<>(List.of(card(UnoColor.RED, UnoRank.SEVEN), card(UnoColor.BLUE, UnoRank.TWO))));
+        m.play(0);
+        assertTrue(view.lastEvent.getInfo().endsWith("(Lucky seven!)"));
+        m.nextPlayer();
+        assertEquals("P0", view.lastEvent.getCurrentPlayerName());
+    }
+
+    /**
+     * With stacking on, the next player can pass a Draw card on, and whoever finally draws takes them all.
+     */
+    @Test
+    public void testStackDraws() {
+        UnoModel m = game(2, rules("stackDraws", "true"));
+        UnoViewStub view = new UnoViewStub();
+        m.addView(view);
+        m.setTopCard(card(UnoColor.RED, UnoRank.ONE));
+        m.forceHand(0, new ArrayList<>(List.of(card(UnoColor.RED, UnoRank.DRAW_ONE), card(UnoColor.RED, UnoRank.FIVE))));
+        m.forceHand(1, new ArrayList<>(List.of(card(UnoColor.BLUE, UnoRank.DRAW_ONE), card(UnoColor.RED, UnoRank.SIX))));
+
+        m.play(0);
+        m.nextPlayer();
+        assertEquals("P1", view.lastEvent.getCurrentPlayerName());
+
+        try {
+            m.play(1); // RED-SIX matches the color, but a Draw is pending
+            fail("Only a Draw One should be playable");
+        } catch (IllegalStateException expected) {
+            // good
+        }
+        m.play(0); // Stack the Draw One
+        m.nextPlayer();
+        assertEquals("P0", view.lastEvent.getCurrentPlayerName());
+        m.draw();
+        assertEquals("P0 takes both stacked cards", 1 + 2, view.lastEvent.getHand().size());
+    }
+
+    /**
+     * With jump-in on, an identical card can be played out of turn.
+     */
+    @Test
+    public void testJumpIn() {
+        UnoModel m = game(3, rules("jumpIn", "true"));
+        UnoViewStub view = new UnoViewStub();
+        m.addView(view);
+        m.setTopCard(card(UnoColor.GREEN, UnoRank.FOUR));
+        m.forceHand(2, new ArrayList<>(List.of(card(UnoColor.GREEN, UnoRank.FOUR), card(UnoColor.BLUE, UnoRank.NINE))));
+
+        m.jumpIn(2, 0);
+        assertEquals("P2", view.lastEvent.getCurrentPlayerName());
+        assertTrue(view.lastEvent.isMustPressNext());
+        m.nextPlayer();
+        assertEquals("P0", view.lastEvent.getCurrentPlayerName());
+    }
+
+    /**
+     * The player on turn can't jump in, e.g. to play a second card after the first one.
+     */
+    @Test
+    public void testNoJumpInOnOwnTurn() {
+        UnoModel m = game(3, rules("jumpIn", "true"));
+        m.setTopCard(card(UnoColor.GREEN, UnoRank.FOUR));
+        m.forceHand(0, new ArrayList<>(List.of(card(UnoColor.GREEN, UnoRank.FOUR), card(UnoColor.GREEN, UnoRank.FOUR))));
+        m.play(0);
+        assertTrue(m.isMustPressNext());
+        try {
+            m.jumpIn(0, 0);
+            fail("Played twice in one turn");
+        } catch (IllegalStateException expected) {
+            assertEquals("It's your turn, so you can't jump in.", expected.getMessage());
+        }
+        assertEquals(1, m.getPlayer(0).hand.size());
+        assertEquals(0, m.getCurrentPlayerIndex());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testJumpInOffByDefault() {
+        UnoModel m = game(2, UnoRules.standard());
+        m.setTopCard(card(UnoColor.GREEN, UnoRank.FOUR));
+        m.forceHand(1, new ArrayList<>(List.of(card(UnoColor.GREEN, UnoRank.FOUR))));
+        m.jumpIn(1, 0);
+    }
+
+    /**
+     * Nobody can jump in once the game is over, so the final hands and scores stay as they were.
+     */
+    @Test
+    public void testNoJumpInAfterGameOver() {
+        UnoModel m = new UnoModel(3, List.of("P0", "P1", "P2"), List.of(true, true, true), rules("jumpIn", "true"), 4);
+        while (!m.isGameOver()) m.runAITurns();
+        m.setTopCard(card(UnoColor.GREEN, UnoRank.FOUR));
+        m.forceHand(2, new ArrayList<>(List.of(card(UnoColor.GREEN, UnoRank.FOUR))));
+        int score = m.getPlayer(2).getScore();
+        try {
+            m.jumpIn(2, 0);
+            fail("Jumped in after the game ended");
+        } catch (IllegalStateException expected) {
+            assertEquals("Game is over.", expected.getMessage());
+        }
+        assertEquals(1, m.getPlayer(2).hand.size());
+        assertEquals(score, m.getPlayer(2).getScore());
+    }
+
+    /**
+     * Deck composition comes from the config.
+     */
+    @Test
+    public void testDeckComposition() {
+        assertEquals(2 * UnoDeck.FLIP.size(), rules("deck.copies", "2").getDeck().size());
+
+        UnoDeck noFlip = rules("deck.without", "FLIP").getDeck();
+        assertEquals(UnoDeck.FLIP.size() - 4, noFlip.size());
+        for (int i = 0; i < noFlip.size(); i++) assertNotEquals(UnoRank.FLIP, noFlip.get(i).getRank(false));
+    }
+
+    /**
+     * The "color" matcher ignores rank matches.
+     */
+    @Test
+    public void testColorOnlyMatching() {
+        UnoRules colorOnly = rules("match", "color");
+        UnoCard top = card(UnoColor.RED, UnoRank.FIVE);
+        assertFalse(colorOnly.matches(card(UnoColor.BLUE, UnoRank.FIVE), top, UnoColor.RED, false));
+        assertTrue(colorOnly.matches(card(UnoColor.RED, UnoRank.TWO), top, UnoColor.RED, false));
+        assertTrue(UnoRules.standard().matches(card(UnoColor.BLUE, UnoRank.FIVE), top, UnoColor.RED, false));
+    }
+
+    /**
+     * A variant survives saving and loading the game.
+     */
+    @Test
+    public void testRulesSavedWithGame() throws IOException, ClassNotFoundException {
+        UnoModel m = game(2, rules("name", "Party", "stackDraws", "true"));
+        File temp = File.createTempFile("uno_rules", ".ser");
+        temp.deleteOnExit();
+        m.saveGame(temp);
+
+        UnoRules loaded = UnoModel.loadGame(temp).getRules();
+        assertEquals("Party", loaded.getName());
+        assertTrue(loaded.isStackDraws());
+        assertSame(UnoRules.builtInEffect(UnoRank.FLIP), loaded.effectFor(UnoRank.FLIP));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownRankRejected() {
+        rules("effect.SKIP", "TELEPORT");
+    }
+}
@@ -0,0 +1,121 @@
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.io.Serial;
+import java.util.List;
+
+/**
+ * The Load Game dialog. It lists the saves in a folder straight from the folder's index (UnoSaveStore),
+ * so it opens instantly even with thousands of saves, and typing in the box filters by file or player name.
+ * Nothing is actually loaded until the user picks a save. "Other File..." falls back to the normal file chooser
+ * for saves that aren't in the index (e.g. ones made before the index existed).
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoSaveBrowser extends JDialog {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final UnoSaveStore store;
+    private final JTextField filterField = new JTextField(25);
+    private final DefaultListModel<UnoSaveStore.Entry> entries = new DefaultListModel<>();
+    private final JList<UnoSaveStore.Entry> list = new JList<>(entries);
+    private File chosen;
+
+    private UnoSaveBrowser(Window owner, File directory) {
+        super(owner, "Load Game - " + directory, ModalityType.APPLICATION_MODAL);
+        this.store = new UnoSaveStore(directory);
+
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.addMouseListener(new java.awt.event.MouseAdapter() {
+            @Override
+            public void mouseClicked(java.awt.event.MouseEvent e) {
+                if (e.getClickCount() == 2) openSelected();
+            }
+        });
+        filterField.getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) { refresh(); }
+            public void removeUpdate(DocumentEvent e) { refresh(); }
+            public void changedUpdate(DocumentEvent e) { refresh(); }
+        });
+
+        JButton buttonOpen = new JButton("Load");
+        JButton buttonOther = new JButton("Other File...");
+        JButton buttonCancel = new JButton("Cancel");
+        buttonOpen.addActionListener(e -> openSelected());
+        buttonOther.addActionListener(e -> chooseOther());
+        buttonCancel.addActionListener(e -> dispose());
+
+        JPanel north = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        north.add(new JLabel("Filter:"));
+        north.add(filterField);
+        JPanel south = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        south.add(buttonOther);
+        south.add(buttonOpen);
+        south.add(buttonCancel);
+
+        setLayout(new BorderLayout());
+        add(north, BorderLayout.NORTH);
+        add(new JScrollPane(list), BorderLayout.CENTER);
+        add(south, BorderLayout.SOUTH);
+        getRootPane().setDefaultButton(buttonOpen);
+        setSize(650, 400);
+        setLocationRelativeTo(owner);
+        refresh();
+    }
+
+    /**
+     * Shows the dialog and waits for the user to pick a save.
+     * @param parent    Component to center the dialog on (can be null).
+     * @param directory Folder to list the saves of.
+     * @return The save file picked, or null if the user cancelled.
+     */
+    public static File choose(Component parent, File directory) {
+        Window owner = parent == null ? null : SwingUtilities.getWindowAncestor(parent);
+        if (parent instanceof Window) owner = (Window) parent;
+        UnoSaveBrowser dialog = new UnoSaveBrowser(owner, directory);
+        dialog.setVisible(true); // Blocks until the dialog is closed
+        return dialog.chosen;
+    }
+
+    private void refresh() {
+        entries.clear();
+        try {
+            List<UnoSaveStore.Entry> found = store.list(filterField.getText().trim());
+            entries.addAll(found);
+            if (!found.isEmpty()) list.setSelectedIndex(0);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "Could not read save index: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void openSelected() {
+        UnoSaveStore.Entry e = list.getSelectedValue();
+        if (e == null) return;
+        if (!e.getFile().exists()) {
+            // The save was deleted or moved since it was indexed, so drop it from the list
+            try {
+                store.remove(e.getFile());
+            } catch (IOException ignored) {
+                // Only the index is out of date, nothing to do about it here
+            }
+            JOptionPane.showMessageDialog(this, e.getFile().getName() + " no longer exists.", "Missing Save", JOptionPane.WARNING_MESSAGE);
+            refresh();
+            return;
+        }
+        chosen = e.getFile();
+        dispose();
+    }
+
+    private void chooseOther() {
+        JFileChooser fc = new JFileChooser(store.getDirectory());
+        if (fc.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+            chosen = fc.getSelectedFile();
+            dispose();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+/**
+ * A saved game that has been turned into bytes but not written to disk yet.
+ * Taking the snapshot is quick and happens on the thread that owns the model, so the game can't change halfway
+ * through. Writing it out (the slow part) can then happen on any thread.
+ * <p>
+ * Files are written atomically: the bytes go to a temp file in the same folder which is flushed to disk and then
+ * renamed over the real file, so a crash in the middle of saving leaves the old save as it was.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public final class UnoSaveSnapshot {
+    private final byte[] game;
+    private final byte[] history;      // null when the history isn't saved with the game
+    private final ByteBuffer description;
+
+    UnoSaveSnapshot(byte[] game, byte[] history, ByteBuffer description) {
+        this.game = game;
+        this.history = history;
+        this.description = description;
+    }
+
+    /**
+     * @return The size of the save file in bytes.
+     */
+    public int size() {
+        return game.length;
+    }
+
+    /**
+     * Writes the save (and its ".history" file if there is one). Safe to call from a background thread.
+     * The folder's save index is left alone, see {@link #addToIndex}.
+     * @param file The file to save to.
+     */
+    public void writeTo(File file) throws IOException {
+        writeAtomically(file.toPath(), game);
+        File historyFile = UnoModel.historyFileFor(file);
+        if (history != null) {
+            writeAtomically(historyFile.toPath(), history);
+        } else if (historyFile.exists() && !historyFile.delete()) {
+            // An old history next to a new save would undo into a different game
+            throw new IOException("Could not remove stale history file " + historyFile);
+        }
+    }
+
+    /**
+     * Lists a save written with {@link #writeTo} in its folder's save index, as the game was when the snapshot
+     * was taken. Only for folders the user picked (the Save dialog), so nothing else gets an index file.
+     * A failure is only reported: the save itself worked, it just won't show up in the quick list.
+     * @param file The file the snapshot was written to.
+     */
+    public void addToIndex(File file) {
+        try {
+            UnoSaveStore.forFile(file).record(file, description);
+        } catch (IOException e) {
+            System.err.println("Failed to update save index: " + e.getMessage());
+        }
+    }
+
+    private static void writeAtomically(Path target, byte[] data) throws IOException {
+        Path dir = target.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel ch = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buf = ByteBuffer.wrap(data);
+                while (buf.hasRemaining()) ch.write(buf);
+                ch.force(true); // Make sure the bytes are on disk before the rename makes them the real save
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,311 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a small index of all the saved games in a folder: who is playing, the scores, the round,
+ * whose turn it is and when it was saved. The index is updated every time a game is saved from the Save dialog,
+ * so the load dialog can list and filter thousands of saves without opening any of them.
+ * Only the save the user actually picks gets fully loaded.
+ * <p>
+ * The index is one file per folder made of fixed-size records, which is read by memory-mapping it.
+ * Changes take an exclusive file lock and reads a shared one, so other programs never see half a change.
+ * File locks belong to the whole JVM, so threads in this one take turns on a lock object per index first.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoSaveStore {
+    /** Name of the index file kept in each save folder. */
+    public static final String INDEX_NAME = "uno-saves.idx";
+
+    private static final int MAGIC = 0x554E4F49; // "UNOI"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;   // magic, version, record count, spare
+    private static final int RECORD_SIZE = 256;
+
+    private static final int FILE_NAME_BYTES = 95;
+    private static final int PLAYER_NAME_BYTES = 23;
+    private static final int MAX_PLAYERS = 4;
+    // One per index file in use, shared by every store for that folder
+    private static final ConcurrentHashMap<Path, Object> LOCKS = new ConcurrentHashMap<>();
+
+    private final File directory;
+    private final File indexFile;
+    private final Object lock;
+
+    /**
+     * Opens (or prepares to create) the index for a folder.
+     * @param directory The folder the save files are in.
+     */
+    public UnoSaveStore(File directory) {
+        this.directory = directory;
+        this.indexFile = new File(directory, INDEX_NAME);
+        this.lock = LOCKS.computeIfAbsent(indexFile.toPath().toAbsolutePath().normalize(), p -> new Object());
+    }
+
+    /**
+     * Gets the index for the folder a save file lives in.
+     * @param saveFile A save file.
+     * @return The index of its folder.
+     */
+    public static UnoSaveStore forFile(File saveFile) {
+        return new UnoSaveStore(saveFile.getAbsoluteFile().getParentFile());
+    }
+
+    public File getDirectory() { return directory; }
+
+    /**
+     * Adds or updates the index entry for a save file.
+     * @param saveFile The file that was just written.
+     * @param model    The game that was saved.
+     */
+    public void record(File saveFile, UnoModel model) throws IOException {
+        record(saveFile, describe(model));
+    }
+
+    /**
+     * Adds or updates the index entry for a save file from a description made earlier with {@link #describe}.
+     * This lets a background save index the game as it was when the snapshot was taken.
+     * @param saveFile    The file that was just written.
+     * @param description The game's index record.
+     */
+    @SuppressWarnings("try") // The file lock is only held, never used
+    void record(File saveFile, ByteBuffer description) throws IOException {
+        ByteBuffer rec = ByteBuffer.allocate(RECORD_SIZE);
+        rec.put(description.duplicate().clear());
+        putString(rec, NAME_OFFSET, saveFile.getName(), FILE_NAME_BYTES);
+        rec.putLong(0, System.currentTimeMillis());
+        rec.clear();
+        synchronized (lock) {
+            try (FileChannel ch = FileChannel.open(indexFile.toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                 FileLock ignored = ch.lock()) {
+                int count = readHeader(ch);
+                // Overwriting a save replaces its entry instead of adding a second one
+                int slot = find(ch, count, saveFile.getName());
+                if (slot < 0) {
+                    slot = count;
+                    writeHeader(ch, count + 1);
+                }
+                ch.write(rec, HEADER_SIZE + (long) slot * RECORD_SIZE);
+            }
+        }
+    }
+
+    /**
+     * Removes the entry for a save file (e.g. after it was deleted).
+     * @param saveFile The save file.
+     */
+    @SuppressWarnings("try")
+    public void remove(File saveFile) throws IOException {
+        synchronized (lock) {
+            if (!indexFile.exists()) return;
+            try (FileChannel ch = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+                 FileLock ignored = ch.lock()) {
+                int count = readHeader(ch);
+                int slot = find(ch, count, saveFile.getName());
+                if (slot < 0) return;
+                // Move the last record into the hole so the records stay packed
+                if (slot != count - 1) {
+                    ByteBuffer last = ByteBuffer.allocate(RECORD_SIZE);
+                    ch.read(last, HEADER_SIZE + (long) (count - 1) * RECORD_SIZE);
+                    last.flip();
+                    ch.write(last, HEADER_SIZE + (long) slot * RECORD_SIZE);
+                }
+                writeHeader(ch, count - 1);
+                ch.truncate(HEADER_SIZE + (long) (count - 1) * RECORD_SIZE);
+            }
+        }
+    }
+
+    /**
+     * Lists every indexed save, newest first.
+     * @return The entries (empty if the folder has no index yet).
+     */
+    public List<Entry> list() throws IOException {
+        return list("");
+    }
+
+    /**
+     * Lists the indexed saves whose file name or player names contain some text, newest first.
+     * @param filter Text to look for (case doesn't matter). Empty matches everything.
+     * @return The matching entries.
+     */
+    @SuppressWarnings("try")
+    public List<Entry> list(String filter) throws IOException {
+        List<Entry> out = new ArrayList<>();
+        String needle = filter.toLowerCase(Locale.ROOT);
+        synchronized (lock) {
+            if (!indexFile.exists()) return out;
+            // Shared, so no one can truncate the file while it's mapped
+            try (FileChannel ch = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ);
+                 FileLock ignored = ch.lock(0, Long.MAX_VALUE, true)) {
+                if (ch.size() < HEADER_SIZE) return out;
+                MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+                if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) throw new IOException("Not an Uno save index: " + indexFile);
+                int count = (int) Math.min(map.getInt(8), (ch.size() - HEADER_SIZE) / RECORD_SIZE);
+                for (int i = 0; i < count; i++) {
+                    Entry e = decode(map, HEADER_SIZE + i * RECORD_SIZE);
+                    if (needle.isEmpty() || e.matches(needle)) out.add(e);
+                }
+            }
+        }
+        out.sort(Collections.reverseOrder((a, b) -> Long.compare(a.savedAt, b.savedAt)));
+        return out;
+    }
+
+    // INDEX FILE HELPERS
+
+    private int readHeader(FileChannel ch) throws IOException {
+        if (ch.size() < HEADER_SIZE) {
+            writeHeader(ch, 0);
+            return 0;
+        }
+        ByteBuffer h = ByteBuffer.allocate(HEADER_SIZE);
+        ch.read(h, 0);
+        if (h.getInt(0) != MAGIC || h.getInt(4) != VERSION) throw new IOException("Not an Uno save index: " + indexFile);
+        return h.getInt(8);
+    }
+
+    private void writeHeader(FileChannel ch, int count) throws IOException {
+        ByteBuffer h = ByteBuffer.allocate(HEADER_SIZE);
+        h.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(0).flip();
+        ch.write(h, 0);
+    }
+
+    private int find(FileChannel ch, int count, String fileName) throws IOException {
+        if (count == 0) return -1;
+        MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, (long) count * RECORD_SIZE);
+        for (int i = 0; i < count; i++) {
+            if (getString(map, i * RECORD_SIZE + NAME_OFFSET, FILE_NAME_BYTES).equals(fileName)) return i;
+        }
+        return -1;
+    }
+
+    // RECORD LAYOUT
+    // savedAt(8) round(4) players(1) current(1) over(1) name(1+95) then per player: name(1+23) score(4)
+    private static final int NAME_OFFSET = 15;
+    private static final int PLAYERS_OFFSET = NAME_OFFSET + 1 + FILE_NAME_BYTES;
+    private static final int PLAYER_SIZE = 1 + PLAYER_NAME_BYTES + 4;
+
+    /**
+     * Makes the index record for a game (everything but the file name and time, which are filled in by record).
+     * @param m The game.
+     * @return The record.
+     */
+    static ByteBuffer describe(UnoModel m) {
+        ByteBuffer b = ByteBuffer.allocate(RECORD_SIZE);
+        b.putInt(8, m.getRoundsPlayed() + 1);
+        int n = Math.min(m.getPlayerCount(), MAX_PLAYERS);
+        b.put(12, (byte) n);
+        b.put(13, (byte) m.getCurrentPlayerIndex());
+        b.put(14, (byte) (m.isGameOver() ? 1 : 0));
+        for (int i = 0; i < n; i++) {
+            int off = PLAYERS_OFFSET + i * PLAYER_SIZE;
+            putString(b, off, m.getPlayer(i).name, PLAYER_NAME_BYTES);
+            b.putInt(off + 1 + PLAYER_NAME_BYTES, m.getPlayer(i).getScore());
+        }
+        return b;
+    }
+
+    private Entry decode(ByteBuffer b, int base) {
+        int n = b.get(base + 12);
+        String[] names = new String[n];
+        int[] scores = new int[n];
+        for (int i = 0; i < n; i++) {
+            int off = base + PLAYERS_OFFSET + i * PLAYER_SIZE;
+            names[i] = getString(b, off, PLAYER_NAME_BYTES);
+            scores[i] = b.getInt(off + 1 + PLAYER_NAME_BYTES);
+        }
+        return new Entry(new File(directory, getString(b, base + NAME_OFFSET, FILE_NAME_BYTES)),
+                b.getLong(base), b.getInt(base + 8), b.get(base + 13), b.get(base + 14) != 0, names, scores);
+    }
+
+    // Fixed-width string: a length byte then UTF-8, cut off at a whole character if it's too long
+    private static void putString(ByteBuffer b, int off, String s, int maxBytes) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        while (bytes.length > maxBytes) {
+            s = s.substring(0, s.length() - 1);
+            bytes = s.getBytes(StandardCharsets.UTF_8);
+        }
+        b.put(off, (byte) bytes.length);
+        b.put(off + 1, bytes);
+    }
+
+    private static String getString(ByteBuffer b, int off, int maxBytes) {
+        int len = Math.min(b.get(off) & 0xFF, maxBytes);
+        byte[] bytes = new byte[len];
+        b.get(off + 1, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * What the index knows about one save, without opening it.
+     */
+    public static final class Entry {
+        private final File file;
+        private final long savedAt;
+        private final int round;
+        private final int currentPlayer;
+        private final boolean gameOver;
+        private final String[] players;
+        private final int[] scores;
+
+        Entry(File file, long savedAt, int round, int currentPlayer, boolean gameOver, String[] players, int[] scores) {
+            this.file = file;
+            this.savedAt = savedAt;
+            this.round = round;
+            this.currentPlayer = currentPlayer;
+            this.gameOver = gameOver;
+            this.players = players;
+            this.scores = scores;
+        }
+
+        public File getFile() { return file; }
+        public long getSavedAt() { return savedAt; }
+        public int getRound() { return round; }
+        public boolean isGameOver() { return gameOver; }
+        public int getPlayerCount() { return players.length; }
+        public String getPlayerName(int i) { return players[i]; }
+        public int getScore(int i) { return scores[i]; }
+
+        /**
+         * @return The name of the player whose turn it was when the game was saved.
+         */
+        public String getCurrentPlayerName() {
+            return currentPlayer >= 0 && currentPlayer < players.length ? players[currentPlayer] : "?";
+        }
+
+        boolean matches(String lowerNeedle) {
+            if (file.getName().toLowerCase(Locale.ROOT).contains(lowerNeedle)) return true;
+            for (String p : players) if (p.toLowerCase(Locale.ROOT).contains(lowerNeedle)) return true;
+            return false;
+        }
+
+        /**
+         * One line summary for lists, e.g. "game1.ser - Round 3 - Alice 120, Bob 40 - Bob's turn".
+         */
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(file.getName()).append(" - Round ").append(round).append(" - ");
+            for (int i = 0; i < players.length; i++) {
+                if (i > 0) sb.append(", ");
+                sb.append(players[i]).append(' ').append(scores[i]);
+            }
+            sb.append(gameOver ? " - Game over" : " - " + getCurrentPlayerName() + "'s turn");
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Test class for the save-game index used by the Load dialog.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoSaveStoreTest {
+    private File dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("uno_saves").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = dir.listFiles();
+        if (files != null) for (File f : files) f.delete();
+        dir.delete();
+    }
+
+    // Saves the way the Save dialog does, index included
+    private File save(String fileName, UnoModel m) throws IOException {
+        File f = new File(dir, fileName);
+        UnoSaveSnapshot s = m.snapshotForSave();
+        s.writeTo(f);
+        s.addToIndex(f);
+        return f;
+    }
+
+    private static UnoModel game(String a, String b) {
+        return new UnoModel(2, Arrays.asList(a, b), Arrays.asList(false, false), UnoRules.standard(), 3);
+    }
+
+    /**
+     * Indexing a save adds it with its players, round and whose turn it is. A plain save doesn't make an index.
+     */
+    @Test
+    public void testSaveIsIndexed() throws IOException {
+        UnoModel m = game("Alice", "Bob");
+        m.saveGame(new File(dir, "plain.ser"));
+        assertFalse(new File(dir, UnoSaveStore.INDEX_NAME).exists());
+        save("first.ser", m);
+
+        List<UnoSaveStore.Entry> list = new UnoSaveStore(dir).list();
+        assertEquals(1, list.size());
+        UnoSaveStore.Entry e = list.get(0);
+        assertEquals("first.ser", e.getFile().getName());
+        assertEquals(2, e.getPlayerCount());
+        assertEquals("Alice", e.getPlayerName(0));
+        assertEquals("Bob", e.getPlayerName(1));
+        assertEquals(1, e.getRound());
+        assertEquals(m.getPlayer(m.getCurrentPlayerIndex()).name, e.getCurrentPlayerName());
+        assertFalse(e.isGameOver());
+    }
+
+    /**
+     * Saving over the same file updates its entry instead of adding another one.
+     */
+    @Test
+    public void testOverwriteReplacesEntry() throws IOException {
+        UnoModel m = game("Alice", "Bob");
+        save("game.ser", m);
+        m.draw();
+        m.nextPlayer();
+        save("game.ser", m);
+
+        List<UnoSaveStore.Entry> list = new UnoSaveStore(dir).list();
+        assertEquals(1, list.size());
+        assertEquals(m.getPlayer(m.getCurrentPlayerIndex()).name, list.get(0).getCurrentPlayerName());
+    }
+
+    /**
+     * The filter matches file names and player names, ignoring case.
+     */
+    @Test
+    public void testFilterAndRemove() throws IOException {
+        File a = save("monday.ser", game("Alice", "Bob"));
+        save("tuesday.ser", game("Carol", "Dave"));
+        save("wednesday.ser", game("Erin", "alice"));
+        UnoSaveStore store = new UnoSaveStore(dir);
+
+        assertEquals(3, store.list().size());
+        assertEquals(2, store.list("ALICE").size());
+        assertEquals(1, store.list("tues").size());
+        assertEquals(0, store.list("zed").size());
+
+        store.remove(a);
+        List<UnoSaveStore.Entry> left = store.list();
+        assertEquals(2, left.size());
+        for (UnoSaveStore.Entry e : left) assertNotEquals("monday.ser", e.getFile().getName());
+        assertEquals(1, store.list("alice").size());
+    }
+
+    /**
+     * A folder without any saves just has an empty list, and long names are cut to fit.
+     */
+    @Test
+    public void testEmptyFolderAndLongNames() throws IOException {
+        assertTrue(new UnoSaveStore(dir).list().isEmpty());
+
+        String longName = "A very long player name that will not fit";
+        save("long.ser", game(longName, "Bob"));
+        String stored = new UnoSaveStore(dir).list().get(0).getPlayerName(0);
+        assertTrue(longName.startsWith(stored));
+        assertFalse(stored.isEmpty());
+    }
+
+    /**
+     * Threads in one program can index and list the same folder at once (background saves do) without
+     * tripping over each other's file locks or losing entries.
+     */
+    @Test
+    public void testConcurrentIndexing() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> jobs = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                jobs.add(pool.submit(() -> {
+                    UnoSaveStore store = new UnoSaveStore(dir);
+                    for (int i = 0; i < 25; i++) {
+                        File f = new File(dir, "t" + thread + "_" + i + ".ser");
+                        store.record(f, game("Ann", "Bob"));
+                        store.list();
+                        if (i % 5 == 0) store.remove(f);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : jobs) f.get();
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(4 * 20, new UnoSaveStore(dir).list().size());
+    }
+}
@@ -0,0 +1,542 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lets remote players and spectators join tables over TCP. A few selector threads handle every connection, so an
+ * idle connection costs no thread and no buffers, just its socket and a small object.
+ * <p>
+ * Clients send commands of the form {@code [length:u8][op:u8][arguments]}, where the length counts the op and the
+ * arguments. The ops are the controller's commands:
+ * <ul>
+ *   <li>JOIN table:i32 seat:i8 (seat -1 to watch). A seat is played by one connection at a time: joining a
+ *   taken seat gets an error, and the seat is free again once its connection leaves it or closes.</li>
+ *   <li>PLAY index:u8 and PLAY_WILD index:u8 color:u8 (a UnoColor ordinal)</li>
+ *   <li>DRAW, NEXT, UNDO and REDO, with no arguments. UNDO and REDO are only allowed when every other seat is
+ *   a bot, so nobody can take back someone else's move.</li>
+ * </ul>
+ * A command whose length doesn't match its op closes the connection.
+ * The server answers with {@code [length:i32][type:u8][body]} messages. A FRAME body is
+ * {@code [public length:u16][public part][own hand]}, in the {@link UnoBroadcastFrame} format.
+ * An ERROR body is the UTF-8 text the window would have shown in a popup.
+ * <p>
+ * Every table streams through a {@link UnoBroadcaster} with a small queue per connection. A connection is only
+ * given its next frame once the last one has been written. A client that stops reading just gets the newest
+ * frame when it catches up, so it never holds up the game or piles up memory on the server.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoServer implements Closeable {
+    // Client to server
+    public static final int JOIN = 1;
+    public static final int PLAY = 2;
+    public static final int PLAY_WILD = 3;
+    public static final int DRAW = 4;
+    public static final int NEXT = 5;
+    public static final int UNDO = 6;
+    public static final int REDO = 7;
+    // Server to client
+    public static final int FRAME = 0x10;
+    public static final int ERROR = 0x11;
+
+    /** Frames a connection can fall behind before it skips to the newest one. */
+    public static final int QUEUED_FRAMES = 8;
+    // Errors waiting to be sent to one connection; more than that and the oldest are dropped
+    private static final int QUEUED_ERRORS = 4;
+    private static final int MAX_COMMAND = 6;
+    private static final ByteBuffer NOTHING = ByteBuffer.allocate(0);
+
+    private final ServerSocketChannel server;
+    private final Loop[] loops;
+    private final ConcurrentHashMap<Integer, Table> tables = new ConcurrentHashMap<>();
+    private final AtomicInteger nextTable = new AtomicInteger();
+    private final AtomicInteger connections = new AtomicInteger();
+    private int nextLoop; // Only touched by the accepting loop
+    private volatile boolean closed;
+
+    /**
+     * Starts listening.
+     * @param address Where to listen (port 0 picks a free port, see {@link #getPort()}).
+     * @param threads How many selector threads to run.
+     */
+    public UnoServer(InetSocketAddress address, int threads) throws IOException {
+        if (threads < 1) throw new IllegalArgumentException("Need at least one network thread.");
+        server = ServerSocketChannel.open();
+        loops = new Loop[threads];
+        try {
+            server.bind(address, 4096);
+            server.configureBlocking(false);
+            for (int i = 0; i < threads; i++) loops[i] = new Loop(i);
+            server.register(loops[0].selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+        for (Loop l : loops) l.thread.start();
+    }
+
+    /**
+     * @return The port the server is listening on.
+     */
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * @return How many clients are connected.
+     */
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    /**
+     * Puts a table online. From now on, the model must only be changed through the server (or while holding its lock).
+     * @param model The game.
+     * @return The table number clients JOIN with.
+     */
+    public int addTable(UnoModel model) {
+        Table t = new Table(nextTable.getAndIncrement(), model);
+        synchronized (model) {
+            model.addView(t.broadcaster);
+        }
+        tables.put(t.id, t);
+        return t.id;
+    }
+
+    /**
+     * Takes a table offline. Connected clients stop getting frames, and their commands get an error.
+     * @param id The table number.
+     */
+    public void removeTable(int id) {
+        tables.remove(id);
+    }
+
+    /**
+     * Stops listening and drops every connection.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        server.close();
+        for (Loop l : loops) {
+            if (l == null) continue;
+            l.selector.wakeup();
+            if (!l.thread.isAlive()) l.selector.close();
+        }
+        for (Loop l : loops) {
+            if (l == null || l.thread == Thread.currentThread()) continue;
+            try {
+                l.thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Builds a command to send to the server (for clients and tests).
+     * @param op   The op, e.g. {@link #PLAY}.
+     * @param args The arguments: table and seat for JOIN, the index (and color ordinal) for the plays.
+     * @return The bytes, ready to write.
+     */
+    public static ByteBuffer command(int op, int... args) {
+        ByteBuffer b = ByteBuffer.allocate(2 + MAX_COMMAND);
+        b.put((byte) 0).put((byte) op);
+        if (op == JOIN) b.putInt(args[0]).put((byte) args[1]);
+        else for (int a : args) b.put((byte) a);
+        b.put(0, (byte) (b.position() - 1));
+        return b.flip();
+    }
+
+    /**
+     * Runs a server with some empty two-player tables until it is killed. Arguments: [port] [tables] [threads].
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7777;
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        UnoServer s = new UnoServer(new InetSocketAddress(port), threads);
+        for (int i = 0; i < count; i++) {
+            s.addTable(new UnoModel(2, List.of("Player 1", "Player 2"), List.of(false, false)));
+        }
+        System.out.println("Serving " + count + " tables on port " + s.getPort() + " with " + threads + " network threads.");
+        while (true) {
+            Thread.sleep(10000);
+            System.out.println(s.getConnectionCount() + " connected");
+        }
+    }
+
+    /**
+     * A table and the broadcaster that streams it.
+     */
+    private static final class Table {
+        final int id;
+        final UnoModel model;
+        final UnoBroadcaster broadcaster = new UnoBroadcaster(QUEUED_FRAMES, UnoBroadcaster.SlowPolicy.SNAPSHOT);
+        // The connection playing each seat; connections on any loop claim and free them
+        final AtomicReferenceArray<Connection> seats;
+
+        Table(int id, UnoModel model) {
+            this.id = id;
+            this.model = model;
+            this.seats = new AtomicReferenceArray<>(model.getPlayerCount());
+        }
+
+        // Lets go of the seat if this connection holds it
+        void leave(Connection c) {
+            if (c.table == this && c.seat != UnoBroadcaster.SPECTATOR) seats.compareAndSet(c.seat, c, null);
+        }
+    }
+
+    /**
+     * One client. Only its loop's thread touches it, except for the queued flag.
+     */
+    private static final class Connection {
+        final SocketChannel channel;
+        SelectionKey key;
+        Table table;
+        int seat;
+        UnoBroadcaster.Subscription subscription;
+        byte[] partial; // The start of a command that hasn't fully arrived
+        ArrayDeque<String> errors;
+        final ByteBuffer[] out = {NOTHING, NOTHING, NOTHING}; // Header, public part, own hand
+        final AtomicBoolean queued = new AtomicBoolean();
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        boolean writing() {
+            for (ByteBuffer b : out) if (b.hasRemaining()) return true;
+            return false;
+        }
+    }
+
+    /**
+     * A selector thread. Loop 0 also accepts new connections and deals them out to the loops in turn.
+     */
+    private final class Loop implements Runnable {
+        final Selector selector;
+        final Thread thread;
+        final ConcurrentLinkedQueue<SocketChannel> joining = new ConcurrentLinkedQueue<>();
+        final ConcurrentLinkedQueue<Connection> ready = new ConcurrentLinkedQueue<>();
+        // Every read on this loop goes through this one buffer, so idle connections don't need their own
+        final ByteBuffer in = ByteBuffer.allocateDirect(16 * 1024);
+
+        Loop(int index) throws IOException {
+            selector = Selector.open();
+            thread = new Thread(this, "uno-net-" + index);
+            thread.setDaemon(true);
+        }
+
+        /**
+         * Asks the loop to send a connection its waiting frames. Called by the broadcaster from whichever
+         * thread changed the table.
+         */
+        void wantWrite(Connection c) {
+            if (!c.queued.compareAndSet(false, true)) return;
+            ready.add(c);
+            if (Thread.currentThread() != thread) selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!closed) {
+                    selector.select();
+                    for (SocketChannel ch; (ch = joining.poll()) != null; ) register(ch);
+                    Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                    while (it.hasNext()) {
+                        SelectionKey key = it.next();
+                        it.remove();
+                        if (!key.isValid()) continue;
+                        if (key.isAcceptable()) {
+                            accept();
+                            continue;
+                        }
+                        Connection c = (Connection) key.attachment();
+                        try {
+                            if (key.isReadable()) read(c);
+                            if (key.isValid() && key.isWritable()) flush(c);
+                        } catch (IOException | RuntimeException e) {
+                            drop(c); // Whatever one client did, the others on this loop keep going
+                        }
+                    }
+                    // Frames from other threads' tables, and replies to the commands just read
+                    for (Connection c; (c = ready.poll()) != null; ) {
+                        c.queued.set(false);
+                        try {
+                            if (c.key.isValid()) flush(c);
+                        } catch (RuntimeException e) {
+                            drop(c);
+                        }
+                    }
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                if (!closed) System.err.println("Network loop stopped: " + e.getMessage());
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    if (key.attachment() instanceof Connection) drop((Connection) key.attachment());
+                }
+                try {
+                    selector.close();
+                } catch (IOException ignored) {
+                    // Shutting down anyway
+                }
+            }
+        }
+
+        private void accept() throws IOException {
+            for (SocketChannel ch; (ch = server.accept()) != null; ) {
+                ch.configureBlocking(false);
+                ch.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                Loop target = loops[nextLoop++ % loops.length];
+                if (target == this) {
+                    register(ch);
+                } else {
+                    target.joining.add(ch);
+                    target.selector.wakeup();
+                }
+            }
+        }
+
+        private void register(SocketChannel ch) {
+            Connection c = new Connection(ch);
+            try {
+                c.key = ch.register(selector, SelectionKey.OP_READ, c);
+                connections.incrementAndGet();
+            } catch (IOException e) {
+                try {
+                    ch.close();
+                } catch (IOException ignored) {
+                    // Never got going
+                }
+            }
+        }
+
+        private void drop(Connection c) {
+            if (c.key != null && c.key.isValid()) connections.decrementAndGet();
+            if (c.key != null) c.key.cancel();
+            if (c.table != null) c.table.leave(c);
+            if (c.subscription != null) c.subscription.close();
+            try {
+                c.channel.close();
+            } catch (IOException ignored) {
+                // Already gone
+            }
+        }
+
+        // READING
+
+        private void read(Connection c) throws IOException {
+            in.clear();
+            if (c.partial != null) {
+                in.put(c.partial);
+                c.partial = null;
+            }
+            int n = c.channel.read(in);
+            if (n < 0) {
+                drop(c);
+                return;
+            }
+            in.flip();
+            while (in.remaining() > 0) {
+                int length = in.get(in.position()) & 0xFF;
+                if (length < 1 || length > MAX_COMMAND) {
+                    drop(c); // Not our protocol
+                    return;
+                }
+                if (in.remaining() < 1 + length) break;
+                if (length != length(in.get(in.position() + 1))) {
+                    drop(c); // Too short or too long for its op
+                    return;
+                }
+                in.get();
+                int end = in.position() + length;
+                int op = in.get();
+                execute(c, op, in);
+                in.position(end);
+            }
+            if (in.hasRemaining()) {
+                c.partial = new byte[in.remaining()];
+                in.get(c.partial);
+            }
+        }
+
+        // The exact length (op plus arguments) of each command
+        private int length(int op) {
+            return switch (op) {
+                case JOIN -> 6;
+                case PLAY -> 2;
+                case PLAY_WILD -> 3;
+                default -> 1;
+            };
+        }
+
+        private void execute(Connection c, int op, ByteBuffer args) {
+            if (op == JOIN) {
+                join(c, args.getInt(), args.get());
+                return;
+            }
+            Table t = c.table;
+            if (t == null || tables.get(t.id) != t) {
+                error(c, "Join a table first.");
+                return;
+            }
+            if (c.seat == UnoBroadcaster.SPECTATOR) {
+                error(c, "Spectators can't play.");
+                return;
+            }
+            UnoModel m = t.model;
+            try {
+                synchronized (m) {
+                    boolean myTurn = m.getCurrentPlayerIndex() == c.seat;
+                    switch (op) {
+                        case PLAY, PLAY_WILD -> {
+                            if (!myTurn) { error(c, "It's not your turn."); return; }
+                            int idx = args.get() & 0xFF;
+                            if (m.peekCardInHand(idx) == null) { error(c, "No card " + idx + "."); return; }
+                            if (!m.isCardWild(idx)) {
+                                m.play(idx);
+                            } else if (op == PLAY) {
+                                error(c, "Pick a color for the Wild (PLAY_WILD).");
+                            } else {
+                                int color = args.get() & 0xFF;
+                                if (color >= UnoColor.values().length) { error(c, "Unknown color " + color + "."); return; }
+                                m.playWild(idx, UnoColor.values()[color]);
+                            }
+                        }
+                        case DRAW -> {
+                            if (!myTurn) { error(c, "It's not your turn."); return; }
+                            m.draw();
+                        }
+                        case NEXT -> {
+                            // Like the Next button: any seated player moves a bot's turn along
+                            if (m.getPlayer(m.getCurrentPlayerIndex()).isAI) {
+                                try {
+                                    m.nextPlayer();
+                                } catch (IllegalStateException ex) {
+                                    m.playAITurn();
+                                }
+                            } else if (!myTurn) {
+                                error(c, "It's not your turn.");
+                            } else {
+                                m.nextPlayer();
+                            }
+                        }
+                        case UNDO, REDO -> {
+                            // The history doesn't say whose move it is, so only a player alone with bots may rewind
+                            for (int i = 0; i < m.getPlayerCount(); i++) {
+                                if (i != c.seat && !m.getPlayer(i).isAI) {
+                                    error(c, "Undo and redo only work when everyone else at the table is a bot.");
+                                    return;
+                                }
+                            }
+                            if (op == UNDO) m.undo();
+                            else m.redo();
+                        }
+                        default -> error(c, "Unknown command " + op + ".");
+                    }
+                }
+            } catch (RuntimeException ex) {
+                error(c, "Error: " + ex.getMessage());
+            }
+        }
+
+        private void join(Connection c, int id, int seat) {
+            Table t = tables.get(id);
+            if (t == null) {
+                error(c, "No table " + id + ".");
+                return;
+            }
+            if (seat < UnoBroadcaster.SPECTATOR || seat >= t.model.getPlayerCount()) {
+                error(c, "No seat " + seat + " at table " + id + ".");
+                return;
+            }
+            if (seat != UnoBroadcaster.SPECTATOR && t.seats.get(seat) != c && !t.seats.compareAndSet(seat, null, c)) {
+                error(c, "Seat " + seat + " at table " + id + " is taken.");
+                return;
+            }
+            if (c.table != null && (c.table != t || c.seat != seat)) c.table.leave(c);
+            if (c.subscription != null) c.subscription.close();
+            c.table = t;
+            c.seat = seat;
+            c.subscription = t.broadcaster.subscribe(seat);
+            c.subscription.setReadyListener(() -> wantWrite(c));
+            wantWrite(c); // The newest frame was queued before the listener was set
+        }
+
+        private void error(Connection c, String message) {
+            if (c.errors == null) c.errors = new ArrayDeque<>(QUEUED_ERRORS);
+            if (c.errors.size() == QUEUED_ERRORS) c.errors.poll();
+            c.errors.add(message);
+            wantWrite(c);
+        }
+
+        // WRITING
+
+        /**
+         * Writes what the connection has waiting, until the socket is full or there's nothing left.
+         */
+        private void flush(Connection c) {
+            try {
+                while (true) {
+                    if (c.writing()) {
+                        c.channel.write(c.out);
+                        if (c.writing()) {
+                            // The client isn't keeping up: wait for room instead of taking more frames
+                            c.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                            return;
+                        }
+                    }
+                    if (!next(c)) {
+                        c.key.interestOps(SelectionKey.OP_READ);
+                        return;
+                    }
+                }
+            } catch (IOException e) {
+                drop(c);
+            }
+        }
+
+        // Lines up the next message, errors first
+        private boolean next(Connection c) {
+            if (c.errors != null && !c.errors.isEmpty()) {
+                byte[] text = c.errors.poll().getBytes(StandardCharsets.UTF_8);
+                c.out[0] = ByteBuffer.allocate(5).putInt(1 + text.length).put((byte) ERROR).flip();
+                c.out[1] = ByteBuffer.wrap(text);
+                c.out[2] = NOTHING;
+                return true;
+            }
+            UnoBroadcastFrame f = c.subscription == null ? null : c.subscription.poll();
+            if (f == null) {
+                c.out[0] = c.out[1] = c.out[2] = NOTHING;
+                return false;
+            }
+            ByteBuffer pub = f.getPublicPayload();
+            ByteBuffer hand = f.getPrivatePayload(c.seat);
+            c.out[0] = ByteBuffer.allocate(7).putInt(1 + 2 + pub.remaining() + hand.remaining())
+                    .put((byte) FRAME).putShort((short) pub.remaining()).flip();
+            c.out[1] = pub;
+            c.out[2] = hand;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Test class for the network front end, with real clients over loopback.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoServerTest {
+    private UnoServer server;
+    private UnoModel model;
+    private int table;
+
+    /**
+     * A blocking client, one message at a time.
+     */
+    static class Client implements AutoCloseable {
+        final Socket socket;
+        final DataInputStream in;
+        final OutputStream out;
+        int type;
+        UnoBroadcastFrame.Table frame;
+        List<UnoCard> hand;
+        String error;
+
+        Client(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            socket.setSoTimeout(5000);
+            in = new DataInputStream(socket.getInputStream());
+            out = socket.getOutputStream();
+        }
+
+        void send(int op, int... args) throws IOException {
+            ByteBuffer b = UnoServer.command(op, args);
+            out.write(b.array(), 0, b.limit());
+            out.flush();
+        }
+
+        // Reads one message
+        Client next() throws IOException {
+            byte[] body = new byte[in.readInt()];
+            in.readFully(body);
+            ByteBuffer b = ByteBuffer.wrap(body);
+            type = b.get();
+            if (type == UnoServer.FRAME) {
+                int publicSize = b.getShort();
+                frame = new UnoBroadcastFrame.Table(b.slice().limit(publicSize));
+                hand = UnoBroadcastFrame.readHand(b.position(b.position() + publicSize));
+            } else {
+                error = new String(body, 1, body.length - 1, StandardCharsets.UTF_8);
+            }
+            return this;
+        }
+
+        String nextError() throws IOException {
+            while (next().type != UnoServer.ERROR) { }
+            return error;
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        server = new UnoServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2);
+        model = new UnoModel(2, Arrays.asList("Ann", "Bob"), Arrays.asList(false, false), UnoRules.standard(), 5);
+        table = server.addTable(model);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    /**
+     * Players join seats, moves go to the model, and everyone gets the new state (only their own hand).
+     */
+    @Test
+    public void testPlayOverLoopback() throws Exception {
+        try (Client ann = new Client(server.getPort()); Client bob = new Client(server.getPort());
+             Client watcher = new Client(server.getPort())) {
+            ann.send(UnoServer.JOIN, table, 0);
+            bob.send(UnoServer.JOIN, table, 1);
+            watcher.send(UnoServer.JOIN, table, -1);
+            assertEquals(model.getPlayer(0).hand, ann.next().hand);
+            assertEquals(Arrays.asList("Ann", "Bob"), bob.next().frame.names);
+            assertTrue(watcher.next().hand.isEmpty());
+
+            bob.send(UnoServer.DRAW);
+            assertEquals("It's not your turn.", bob.nextError());
+            ann.send(UnoServer.PLAY, 99);
+            assertEquals("No card 99.", ann.nextError());
+
+            ann.send(UnoServer.DRAW);
+            ann.next();
+            assertTrue(ann.frame.mustPressNext);
+            assertEquals(8, ann.hand.size());
+            assertEquals(8, watcher.next().frame.handSizes[0]);
+
+            ann.send(UnoServer.NEXT);
+            while (ann.next().frame.currentPlayer != 1) { }
+            while (bob.next().frame.currentPlayer != 1) { }
+            assertEquals(model.getPlayer(1).hand, bob.hand);
+
+            watcher.send(UnoServer.DRAW);
+            assertEquals("Spectators can't play.", watcher.nextError());
+            ann.send(UnoServer.JOIN, 42, 0);
+            assertEquals("No table 42.", ann.nextError());
+        }
+    }
+
+    /**
+     * Only one connection plays a seat: a second JOIN to it is turned away until the first one leaves.
+     */
+    @Test
+    public void testSeatTakenOnce() throws Exception {
+        try (Client ann = new Client(server.getPort()); Client thief = new Client(server.getPort())) {
+            ann.send(UnoServer.JOIN, table, 0);
+            ann.next();
+            thief.send(UnoServer.JOIN, table, 0);
+            assertEquals("Seat 0 at table " + table + " is taken.", thief.nextError());
+            thief.send(UnoServer.DRAW);
+            assertEquals("Join a table first.", thief.nextError());
+            ann.send(UnoServer.JOIN, table, 0); // Joining your own seat again is fine
+            ann.next();
+
+            ann.socket.close();
+            long deadline = System.currentTimeMillis() + 5000;
+            String error = "";
+            while (error != null && System.currentTimeMillis() < deadline) {
+                thief.send(UnoServer.JOIN, table, 0);
+                thief.next();
+                error = thief.type == UnoServer.ERROR ? thief.error : null;
+                thief.error = null;
+            }
+            assertNull("The seat is free once its connection closes", error);
+            assertEquals(model.getPlayer(0).hand, thief.hand);
+        }
+    }
+
+    /**
+     * Nobody can undo another person's move, but a player alone with bots can undo their own.
+     */
+    @Test
+    public void testUndoOnlyAgainstBots() throws Exception {
+        try (Client ann = new Client(server.getPort()); Client bob = new Client(server.getPort())) {
+            ann.send(UnoServer.JOIN, table, 0);
+            bob.send(UnoServer.JOIN, table, 1);
+            ann.next();
+            bob.next();
+            ann.send(UnoServer.DRAW);
+            while (!bob.next().frame.mustPressNext) { }
+            bob.send(UnoServer.UNDO);
+            assertEquals("Undo and redo only work when everyone else at the table is a bot.", bob.nextError());
+            ann.send(UnoServer.UNDO);
+            assertEquals("Undo and redo only work when everyone else at the table is a bot.", ann.nextError());
+            synchronized (model) {
+                assertEquals(8, model.getPlayer(0).hand.size());
+            }
+
+            UnoModel solo = new UnoModel(2, Arrays.asList("Ann", "Bot"), Arrays.asList(false, true), UnoRules.standard(), 5);
+            ann.send(UnoServer.JOIN, server.addTable(solo), 0);
+            ann.next();
+            ann.send(UnoServer.DRAW);
+            while (ann.next().hand.size() != 8) { }
+            ann.send(UnoServer.UNDO);
+            while (ann.next().hand.size() != 7) { }
+            assertFalse(ann.frame.mustPressNext);
+        }
+    }
+
+    /**
+     * A command of the wrong length drops just that client: the others and new connections carry on.
+     */
+    @Test
+    public void testBadCommandDropsOnlyThatClient() throws Exception {
+        try (Client ann = new Client(server.getPort()); Client bad = new Client(server.getPort());
+             Client bad2 = new Client(server.getPort())) {
+            ann.send(UnoServer.JOIN, table, 0);
+            ann.next();
+            bad.out.write(new byte[]{1, UnoServer.JOIN}); // A JOIN with no table or seat
+            bad.out.flush();
+            assertEquals(-1, bad.in.read());
+            bad2.out.write(new byte[]{3, UnoServer.DRAW, 0, 0});
+            bad2.out.flush();
+            assertEquals(-1, bad2.in.read());
+
+            ann.send(UnoServer.PLAY, 99);
+            assertEquals("No card 99.", ann.nextError());
+            try (Client late = new Client(server.getPort())) {
+                late.send(UnoServer.JOIN, table, 1);
+                assertEquals(model.getPlayer(1).hand, late.next().hand);
+            }
+        }
+    }
+
+    /**
+     * A client that stops reading doesn't hold up the table or other clients, and catches up with the newest state.
+     */
+    @Test
+    public void testSlowClientSkipsAhead() throws Exception {
+        try (Client slow = new Client(server.getPort()); Client fast = new Client(server.getPort())) {
+            slow.send(UnoServer.JOIN, table, 0);
+            fast.send(UnoServer.JOIN, table, 1);
+            fast.next();
+            // Each change makes a frame of a few hundred bytes: far more than the socket buffers hold
+            int changes = 50000;
+            synchronized (model) {
+                for (int i = 0; i < changes; i++) model.setHintsEnabled(i % 2 == 0);
+            }
+            fast.send(UnoServer.DRAW);
+            assertEquals("The fast client is served right away", "It's not your turn.", fast.nextError());
+
+            int received = 0;
+            long last = -1;
+            while (last < changes) {
+                slow.next();
+                assertTrue(slow.frame.sequence > last);
+                last = slow.frame.sequence;
+                received++;
+            }
+            assertTrue("Frames in between were skipped: " + received, received < changes);
+        }
+    }
+
+    /**
+     * Lots of idle connections take no extra threads, and closing them is noticed.
+     */
+    @Test
+    public void testManyIdleConnections() throws Exception {
+        List<Client> clients = new ArrayList<>();
+        try {
+            for (int i = 0; i < 1000; i++) clients.add(new Client(server.getPort()));
+            waitFor(1000);
+            long netThreads = Thread.getAllStackTraces().keySet().stream()
+                    .filter(t -> t.getName().startsWith("uno-net-")).count();
+            assertTrue(netThreads <= 2 + 2); // Ours, plus the other tests' if theirs are still shutting down
+            clients.get(0).send(UnoServer.JOIN, table, 0);
+            assertEquals(model.getPlayer(0).hand, clients.get(0).next().hand);
+        } finally {
+            for (Client c : clients) c.close();
+        }
+        waitFor(0);
+    }
+
+    private void waitFor(int connections) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (server.getConnectionCount() != connections && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        assertEquals(connections, server.getConnectionCount());
+    }
+}
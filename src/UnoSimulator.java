@@ -0,0 +1,125 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plays all-bot games from the command line and prints how they went. It is the entry point of the headless
+ * build: it only uses the model, the bots and the recorder, never Swing or AWT, and nothing here needs
+ * reflection, so it also compiles to a native executable (see the README).
+ * <p>
+ * Usage: {@code UnoSimulator [--games n] [--players n] [--seed n] [--strategy greedy|highest|endgame]
+ * [--record file] [--turns]}. --record only keeps the rounds unless --turns asks for every move too.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoSimulator {
+
+    /**
+     * What a run of games came to.
+     */
+    public static final class Report {
+        public final int games;
+        public final long rounds;
+        public final long turns;
+        public final int[] wins; // Games won per seat
+        public final long nanos;
+        public final long firstGameNanos;
+
+        Report(int games, long rounds, long turns, int[] wins, long nanos, long firstGameNanos) {
+            this.games = games;
+            this.rounds = rounds;
+            this.turns = turns;
+            this.wins = wins;
+            this.nanos = nanos;
+            this.firstGameNanos = firstGameNanos;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(games).append(" games, ").append(rounds).append(" rounds, ").append(turns).append(" turns in ")
+                    .append(nanos / 1_000_000).append(" ms (first game ").append(firstGameNanos / 1000).append(" us, ")
+                    .append(nanos == 0 ? 0 : (long) (games * 1e9 / nanos)).append(" games/s)\nWins by seat:");
+            for (int w : wins) sb.append(' ').append(w);
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Plays games one after another, each with its own seed.
+     * @param games    How many games.
+     * @param players  Players per table (2-4), all bots.
+     * @param seed     Seed of the first game; each next game adds one.
+     * @param strategy The bot every seat plays.
+     * @param recorder Gets every game, or null.
+     * @return The totals.
+     */
+    public static Report run(int games, int players, long seed, UnoStrategy strategy, UnoGameRecorder recorder) {
+        List<String> names = new ArrayList<>();
+        List<Boolean> isAI = new ArrayList<>();
+        for (int i = 0; i < players; i++) { names.add("Bot" + i); isAI.add(true); }
+        long rounds = 0, turns = 0, first = 0;
+        int[] wins = new int[players];
+        long start = System.nanoTime();
+        for (int g = 0; g < games; g++) {
+            UnoModel m = new UnoModel(players, names, isAI, UnoRules.standard(), seed + g);
+            m.getHistory().setBudget(0); // Nobody undoes a simulated game
+            for (int i = 0; i < players; i++) m.setStrategy(i, strategy);
+            if (recorder != null) recorder.attach(m);
+            while (!m.isGameOver()) {
+                UnoModel.AiRun run = m.runAITurns();
+                turns += run.turns();
+                if (!run.roundEnded) break; // Hit the turn limit without anyone going out
+                rounds++;
+            }
+            if (m.isGameOver()) wins[m.getLastRoundWinner()]++;
+            if (g == 0) first = System.nanoTime() - start;
+        }
+        return new Report(games, rounds, turns, wins, System.nanoTime() - start, first);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int games = 1000, players = 4;
+        long seed = 1;
+        String strategyName = "greedy";
+        String record = null;
+        boolean recordTurns = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--games" -> games = Integer.parseInt(args[++i]);
+                case "--players" -> players = Integer.parseInt(args[++i]);
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--strategy" -> strategyName = args[++i];
+                case "--record" -> record = args[++i];
+                case "--turns" -> recordTurns = true;
+                default -> {
+                    System.err.println("Usage: UnoSimulator [--games n] [--players n] [--seed n] "
+                            + "[--strategy greedy|highest|endgame] [--record file] [--turns]");
+                    System.exit(2);
+                }
+            }
+        }
+        UnoStrategy strategy = switch (strategyName) {
+            case "greedy" -> UnoStrategy.GREEDY;
+            case "highest" -> UnoStrategy.HIGHEST_POINTS;
+            case "endgame" -> {
+                UnoEndgameTable table = UnoEndgameTable.loadIfPresent(new java.io.File(UnoEndgameTable.DEFAULT_FILE));
+                if (table == null) System.err.println("No " + UnoEndgameTable.DEFAULT_FILE + ", playing greedy.");
+                yield table == null ? UnoStrategy.GREEDY : table.asStrategy(UnoStrategy.GREEDY);
+            }
+            default -> throw new IllegalArgumentException("Unknown strategy " + strategyName);
+        };
+
+        Report report;
+        if (record == null) {
+            report = run(games, players, seed, strategy, null);
+        } else {
+            try (UnoGameRecorder rec = new UnoGameRecorder(Paths.get(record), recordTurns)) {
+                report = run(games, players, seed, strategy, rec);
+            }
+        }
+        System.out.println(report);
+    }
+}
@@ -0,0 +1,116 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Test class for the persistent card lists and the snapshots built on them.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoSnapshotTest {
+
+    private static UnoModel table(long seed) {
+        UnoModel m = new UnoModel(3, Arrays.asList("Ann", "Bob", "Cat"), Arrays.asList(true, true, true), UnoRules.standard(), seed);
+        m.getHistory().setBudget(0);
+        return m;
+    }
+
+    private static byte[] bytes(UnoModel m) {
+        ByteBuffer buf = ByteBuffer.allocate(4096);
+        m.writeTo(buf);
+        return Arrays.copyOf(buf.array(), buf.position());
+    }
+
+    /**
+     * Random changes give the same cards and totals as a plain list, and older versions never change.
+     */
+    @Test
+    public void testCardListLikeArrayList() {
+        UnoCard[] deck = new UnoCard[UnoDeck.FLIP.size()];
+        for (int i = 0; i < deck.length; i++) deck[i] = UnoDeck.FLIP.get(i);
+        Random rng = new Random(1);
+        UnoCardList list = UnoCardList.EMPTY;
+        List<UnoCard> plain = new ArrayList<>();
+        List<UnoCardList> versions = new ArrayList<>();
+        List<List<UnoCard>> expected = new ArrayList<>();
+        for (int step = 0; step < 5000; step++) {
+            // Grows past the array limit for the first half, then shrinks back, so both kinds get used
+            int op = rng.nextInt(4);
+            if (op == 3) op = step < 2500 ? 0 : 1;
+            UnoCard c = deck[rng.nextInt(deck.length)];
+            if (op == 0 || plain.isEmpty()) {
+                int i = rng.nextInt(plain.size() + 1);
+                list = list.insert(i, c);
+                plain.add(i, c);
+            } else if (op == 1) {
+                int i = rng.nextInt(plain.size());
+                list = list.delete(i);
+                plain.remove(i);
+            } else {
+                int i = rng.nextInt(plain.size());
+                list = list.replace(i, c);
+                plain.set(i, c);
+            }
+            if (step % 250 == 0) {
+                versions.add(list);
+                expected.add(new ArrayList<>(plain));
+            }
+        }
+        assertEquals(plain, list);
+        UnoHand hand = new UnoHand();
+        hand.addAll(plain);
+        assertEquals(hand.getPoints(true), list.getPoints(true));
+        assertEquals(hand.getHash(), list.getHash());
+        for (int i = 0; i < versions.size(); i++) assertEquals(expected.get(i), versions.get(i));
+
+        List<UnoCard> order = new ArrayList<>();
+        list.forEach(order::add);
+        assertEquals(plain, order);
+        assertEquals(plain.get(0), list.first());
+        assertEquals(plain.subList(1, plain.size()), list.pop());
+    }
+
+    /**
+     * Restoring a snapshot puts back exactly the game it was taken from, even a round later.
+     */
+    @Test
+    public void testSnapshotAndRestore() {
+        UnoModel m = table(5);
+        m.runAITurns();
+        m.runAITurns();
+        byte[] before = bytes(m);
+        long hash = m.getStateHash();
+        UnoModel.State saved = m.snapshot();
+        UnoCardList hand = ((UnoHand) m.getPlayer(0).hand).getCards();
+
+        while (m.getRoundsPlayed() < 4 && !m.isGameOver()) m.runAITurns();
+        assertNotEquals(hash, m.getStateHash());
+
+        m.restore(saved);
+        assertArrayEquals(before, bytes(m));
+        assertEquals(hash, m.getStateHash());
+        assertSame("Cards are shared, not copied", hand, ((UnoHand) m.getPlayer(0).hand).getCards());
+    }
+
+    /**
+     * A fork plays on without changing the game it came from, and the same position always forks the same way.
+     */
+    @Test
+    public void testForkIsIndependent() {
+        UnoModel m = table(8);
+        m.runAITurns();
+        byte[] before = bytes(m);
+
+        UnoModel a = m.fork(), b = m.fork();
+        assertArrayEquals(before, bytes(a));
+        while (!a.isGameOver()) a.runAITurns();
+        while (!b.isGameOver()) b.runAITurns();
+        assertArrayEquals(before, bytes(m));
+        assertArrayEquals(bytes(a), bytes(b));
+        assertFalse(a.canUndo());
+    }
+}
@@ -0,0 +1,67 @@
+import java.util.List;
+
+/**
+ * How a bot picks its move. It gets the hand and which cards are legal right now,
+ * and answers with the card to play (or -1 to draw).
+ * The same code drives the bots and the "suggested move" hint shown to human players.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+@FunctionalInterface
+public interface UnoStrategy {
+
+    /**
+     * Picks a move.
+     * @param model The game (read it, don't change it).
+     * @param hand  The hand of the player who is deciding.
+     * @param legal Which cards in the hand can be played right now.
+     * @return The hand index to play, or -1 to draw.
+     */
+    int choose(UnoModel model, List<UnoCard> hand, boolean[] legal);
+
+    /**
+     * Picks the color for a Wild this strategy chose to play.
+     * @param handIndex The Wild in the hand.
+     * @return The color, or null to let the game pick one at random.
+     */
+    default UnoColor chooseColor(UnoModel model, List<UnoCard> hand, int handIndex) {
+        return null;
+    }
+
+    /**
+     * The original bot: play an action card if it can, otherwise the first normal card, and save Wilds for last.
+     */
+    UnoStrategy GREEDY = (model, hand, legal) -> {
+        boolean dark = model.isDark();
+        int best = -1;
+        int wild = -1;
+        for (int i = 0; i < hand.size(); i++) {
+            if (!legal[i]) continue;
+            UnoCard c = hand.get(i);
+            if (c.isWild(dark)) wild = i;
+            else if (isAction(c.getRank(dark))) return i; // Aggressive play
+            else if (best == -1) best = i;
+        }
+        return best != -1 ? best : wild;
+    };
+
+    /**
+     * Gets rid of the most valuable legal card first, so less is left to count if someone else goes out.
+     */
+    UnoStrategy HIGHEST_POINTS = (model, hand, legal) -> {
+        boolean dark = model.isDark();
+        int best = -1;
+        for (int i = 0; i < hand.size(); i++) {
+            if (legal[i] && (best == -1 || hand.get(i).getRank(dark).getPoints() > hand.get(best).getRank(dark).getPoints())) best = i;
+        }
+        return best;
+    };
+
+    /**
+     * @return true for the colored cards that do something when played.
+     */
+    static boolean isAction(UnoRank r) {
+        return r == UnoRank.SKIP || r == UnoRank.REVERSE || r == UnoRank.DRAW_ONE || r == UnoRank.DRAW_FIVE || r == UnoRank.FLIP;
+    }
+}
@@ -0,0 +1,192 @@
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Off-heap parking space for idle tables. Each table gets a fixed-size slot in a direct
+ * (or memory-mapped) buffer and is stored there in UnoModel's compact binary format.
+ * While parked, a table costs no heap at all, so the garbage collector doesn't have to look at it.
+ * When the table's next action comes in, it is rehydrated into a normal UnoModel.
+ * <p>
+ * Views and the undo history are not parked: a rehydrated table starts with an empty history.
+ * With a memory-mapped file, parked tables survive a restart of the server.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoTableArena implements AutoCloseable {
+    /** Slot size that fits a 4-player table with the standard deck and long names. */
+    public static final int DEFAULT_SLOT_SIZE = 512;
+
+    // Each slot starts with the length of the stored table, 0 means the slot is free
+    private static final int HEADER = Integer.BYTES;
+
+    private final int slotSize;
+    private final int capacity;
+    private final int slotsPerChunk;
+    private final ByteBuffer[] chunks;
+    private final FileChannel channel;
+
+    // Stack of free slot numbers
+    private final int[] free;
+    private int freeCount;
+
+    /**
+     * Creates an arena in direct (off-heap) memory.
+     * @param capacity How many tables it can hold.
+     * @param slotSize Bytes per table.
+     */
+    public UnoTableArena(int capacity, int slotSize) {
+        this(capacity, slotSize, null);
+    }
+
+    /**
+     * Creates an arena backed by a memory-mapped file. Tables already parked in the file are kept.
+     * @param file     The arena file (created if missing).
+     * @param capacity How many tables it can hold.
+     * @param slotSize Bytes per table.
+     * @return The arena.
+     */
+    public static UnoTableArena mapped(Path file, int capacity, int slotSize) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new UnoTableArena(capacity, slotSize, ch);
+        } catch (RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    private UnoTableArena(int capacity, int slotSize, FileChannel channel) {
+        if (capacity < 1 || slotSize <= HEADER) throw new IllegalArgumentException("Bad arena size.");
+        this.capacity = capacity;
+        this.slotSize = slotSize;
+        this.channel = channel;
+        // A single buffer can't be bigger than 2 GB, so big arenas are split into chunks
+        this.slotsPerChunk = Math.min(capacity, Integer.MAX_VALUE / slotSize);
+        int numChunks = (capacity + slotsPerChunk - 1) / slotsPerChunk;
+        this.chunks = new ByteBuffer[numChunks];
+        for (int i = 0; i < numChunks; i++) {
+            int slots = Math.min(slotsPerChunk, capacity - i * slotsPerChunk);
+            chunks[i] = channel == null ? ByteBuffer.allocateDirect(slots * slotSize) : map(i, slots);
+        }
+
+        free = new int[capacity];
+        // Push in reverse so slot 0 is handed out first; skip slots that already hold a table
+        for (int slot = capacity - 1; slot >= 0; slot--) {
+            if (storedLength(slot) == 0) free[freeCount++] = slot;
+        }
+    }
+
+    private MappedByteBuffer map(int chunk, int slots) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_WRITE, (long) chunk * slotsPerChunk * slotSize, (long) slots * slotSize);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not map arena file.", e);
+        }
+    }
+
+    /**
+     * Stores a table off-heap. The model can be thrown away afterwards.
+     * @param model The idle table.
+     * @return The slot number to rehydrate it with later.
+     * @throws IllegalStateException if the arena is full or the table doesn't fit in a slot.
+     */
+    public int park(UnoModel model) {
+        int slot = allocate();
+        ByteBuffer buf = slotBuffer(slot);
+        try {
+            buf.position(HEADER);
+            model.writeTo(buf);
+        } catch (BufferOverflowException e) {
+            release(slot);
+            throw new IllegalStateException("Table is too big for a " + slotSize + "-byte slot.");
+        }
+        // Write the length last, so a half-written slot never looks used
+        buf.putInt(0, buf.position() - HEADER);
+        return slot;
+    }
+
+    /**
+     * Brings a parked table back onto the heap and frees its slot.
+     * @param slot The slot from {@link #park}.
+     * @return The table, ready to play (with no views attached).
+     * @throws IllegalArgumentException if the slot is empty, e.g. it was already rehydrated.
+     */
+    public synchronized UnoModel rehydrate(int slot) {
+        // Reading, clearing and freeing under one lock, so a slot can't be handed out twice
+        UnoModel model = peek(slot);
+        slotBuffer(slot).putInt(0, 0);
+        release(slot);
+        return model;
+    }
+
+    /**
+     * Reads a parked table without removing it (e.g. for a spectator or an admin tool).
+     * @param slot The slot from {@link #park}.
+     * @return A copy of the table.
+     */
+    public UnoModel peek(int slot) {
+        int length = storedLength(slot);
+        if (length == 0) throw new IllegalArgumentException("Slot " + slot + " is empty.");
+        ByteBuffer buf = slotBuffer(slot);
+        buf.position(HEADER).limit(HEADER + length);
+        return UnoModel.readFrom(buf);
+    }
+
+    /**
+     * @param slot A slot number.
+     * @return true if a table is parked there.
+     */
+    public boolean isParked(int slot) {
+        return storedLength(slot) != 0;
+    }
+
+    public int capacity() { return capacity; }
+    public int slotSize() { return slotSize; }
+    public synchronized int parkedCount() { return capacity - freeCount; }
+
+    /**
+     * Writes a memory-mapped arena to disk. Does nothing for a direct-memory arena.
+     */
+    public void force() {
+        for (ByteBuffer b : chunks) if (b instanceof MappedByteBuffer mb) mb.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            force();
+            channel.close();
+        }
+    }
+
+    private synchronized int allocate() {
+        if (freeCount == 0) throw new IllegalStateException("Arena is full (" + capacity + " tables).");
+        return free[--freeCount];
+    }
+
+    private synchronized void release(int slot) {
+        free[freeCount++] = slot;
+    }
+
+    private int storedLength(int slot) {
+        checkSlot(slot);
+        return chunks[slot / slotsPerChunk].getInt((slot % slotsPerChunk) * slotSize);
+    }
+
+    // A view of just this slot, so concurrent parks in other slots don't share a position
+    private ByteBuffer slotBuffer(int slot) {
+        checkSlot(slot);
+        int off = (slot % slotsPerChunk) * slotSize;
+        return chunks[slot / slotsPerChunk].slice(off, slotSize);
+    }
+
+    private void checkSlot(int slot) {
+        if (slot < 0 || slot >= capacity) throw new IndexOutOfBoundsException("Slot " + slot);
+    }
+}
@@ -0,0 +1,120 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Test class for parking idle tables off-heap.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoTableArenaTest {
+
+    private static UnoModel playedGame(long seed) {
+        UnoModel m = new UnoModel(3, Arrays.asList("Ann", "Bot", "Cy"), Arrays.asList(false, true, false), UnoRules.standard(), seed);
+        m.draw();
+        m.nextPlayer();
+        m.playAITurn();
+        return m;
+    }
+
+    private static byte[] encode(UnoModel m) {
+        ByteBuffer buf = ByteBuffer.allocate(UnoTableArena.DEFAULT_SLOT_SIZE);
+        m.writeTo(buf);
+        return Arrays.copyOf(buf.array(), buf.position());
+    }
+
+    /**
+     * A parked table comes back exactly as it was.
+     */
+    @Test
+    public void testParkAndRehydrate() {
+        UnoTableArena arena = new UnoTableArena(10, UnoTableArena.DEFAULT_SLOT_SIZE);
+        UnoModel game = playedGame(11);
+        byte[] before = encode(game);
+        String turn = game.getPlayer(game.getCurrentPlayerIndex()).name;
+        boolean waiting = game.isMustPressNext();
+
+        int slot = arena.park(game);
+        assertEquals(1, arena.parkedCount());
+        UnoModel back = arena.rehydrate(slot);
+        assertEquals(0, arena.parkedCount());
+
+        assertArrayEquals(before, encode(back));
+        assertSame("Standard cards come back as the shared deck objects", game.getDiscardTop(), back.getDiscardTop());
+
+        // And it can keep playing
+        UnoViewStub view = new UnoViewStub();
+        back.addView(view);
+        assertEquals(turn, view.lastEvent.getCurrentPlayerName());
+        assertEquals(waiting, view.lastEvent.isMustPressNext());
+        if (waiting) back.nextPlayer();
+        else back.draw();
+        assertNotEquals(waiting, view.lastEvent.isMustPressNext());
+    }
+
+    /**
+     * Slots are reused and a full arena refuses new tables.
+     */
+    @Test
+    public void testCapacity() {
+        UnoTableArena arena = new UnoTableArena(2, UnoTableArena.DEFAULT_SLOT_SIZE);
+        int a = arena.park(playedGame(1));
+        arena.park(playedGame(2));
+        try {
+            arena.park(playedGame(3));
+            fail("Arena should be full");
+        } catch (IllegalStateException expected) {
+            // good
+        }
+        arena.rehydrate(a);
+        try {
+            arena.rehydrate(a);
+            fail("The slot was already rehydrated");
+        } catch (IllegalArgumentException expected) {
+            // good, and the slot wasn't freed a second time
+        }
+        assertEquals(1, arena.parkedCount());
+        assertEquals(a, arena.park(playedGame(4)));
+        try {
+            arena.park(playedGame(5));
+            fail("Arena should be full again");
+        } catch (IllegalStateException expected) {
+            // good
+        }
+    }
+
+    /**
+     * A house-rule table keeps its rules while parked.
+     */
+    @Test
+    public void testRulesSurvive() {
+        Properties p = new Properties();
+        p.setProperty("stackDraws", "true");
+        UnoModel game = new UnoModel(2, Arrays.asList("A", "B"), Arrays.asList(false, false), UnoRules.fromProperties(p), 5);
+        UnoTableArena arena = new UnoTableArena(1, UnoTableArena.DEFAULT_SLOT_SIZE);
+        assertTrue(arena.rehydrate(arena.park(game)).getRules().isStackDraws());
+    }
+
+    /**
+     * Tables parked in a memory-mapped arena are still there after reopening the file.
+     */
+    @Test
+    public void testMappedSurvivesReopen() throws IOException {
+        File file = File.createTempFile("uno_arena", ".bin");
+        file.deleteOnExit();
+        UnoModel game = playedGame(21);
+        byte[] before = encode(game);
+        int slot;
+        try (UnoTableArena arena = UnoTableArena.mapped(file.toPath(), 100, UnoTableArena.DEFAULT_SLOT_SIZE)) {
+            slot = arena.park(game);
+        }
+        try (UnoTableArena arena = UnoTableArena.mapped(file.toPath(), 100, UnoTableArena.DEFAULT_SLOT_SIZE)) {
+            assertEquals(1, arena.parkedCount());
+            assertTrue(arena.isParked(slot));
+            assertArrayEquals(before, encode(arena.rehydrate(slot)));
+        }
+    }
+}
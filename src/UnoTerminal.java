@@ -0,0 +1,80 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts a game in the terminal instead of a window. Nothing here touches AWT or Swing, so it starts quickly
+ * and works on machines without a display.
+ * <p>
+ * Usage: {@code java UnoTerminal [--plain] [--seed n] [--load file] [name ...]}. Names starting with
+ * "bot" are played by the computer. With no names it's you against one bot.
+ * <p>
+ * {@code java UnoTerminal [--plain] --connect host:port [--table n] [--seat n]} sits down at a live table on a
+ * {@link UnoServer} instead (seat -1 watches).
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoTerminal {
+
+    public static void main(String[] args) throws Exception {
+        boolean ansi = System.console() != null && !"dumb".equals(System.getenv("TERM"));
+        Long seed = null;
+        File load = null;
+        String connect = null;
+        int table = 0, seat = 0;
+        List<String> names = new ArrayList<>();
+        List<Boolean> isAI = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--plain" -> ansi = false;
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--load" -> load = new File(args[++i]);
+                case "--connect" -> connect = args[++i];
+                case "--table" -> table = Integer.parseInt(args[++i]);
+                case "--seat" -> seat = Integer.parseInt(args[++i]);
+                default -> {
+                    names.add(args[i]);
+                    isAI.add(args[i].toLowerCase().startsWith("bot"));
+                }
+            }
+        }
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+        if (connect != null) {
+            int colon = connect.lastIndexOf(':');
+            InetSocketAddress address = new InetSocketAddress(connect.substring(0, colon),
+                    Integer.parseInt(connect.substring(colon + 1)));
+            try (UnoTerminalClient client = new UnoTerminalClient(address, in, System.out, ansi)) {
+                if (!client.run(table, seat)) System.exit(1);
+            }
+            return;
+        }
+
+        if (names.isEmpty()) {
+            names.add("You");
+            isAI.add(false);
+        }
+        if (names.size() == 1) {
+            names.add("Bot");
+            isAI.add(true);
+        }
+        if (names.size() > 4) {
+            System.err.println("Uno is played by 2 to 4 players.");
+            System.exit(2);
+        }
+
+        // Bots play small endgames from the precomputed table if one has been generated
+        UnoEndgameTable endgames = UnoEndgameTable.loadIfPresent(new File(UnoEndgameTable.DEFAULT_FILE));
+        if (endgames != null) UnoModel.setDefaultStrategy(endgames.asStrategy(UnoStrategy.GREEDY));
+
+        UnoModel model;
+        if (load != null) model = UnoModel.loadGame(load);
+        else if (seed != null) model = new UnoModel(names.size(), names, isAI, UnoRules.standard(), seed);
+        else model = new UnoModel(names.size(), names, isAI);
+
+        new UnoTerminalView(model, in, System.out, ansi).run();
+    }
+}
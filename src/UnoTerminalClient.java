@@ -0,0 +1,179 @@
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Sits down at a live table on a {@link UnoServer} from the terminal. The table is drawn by a
+ * {@link UnoTerminalView} from the frames the server sends, and the commands typed go to the server, which
+ * checks them like any other client's. Only plain java.io and java.net, so it starts as quickly as the local game.
+ * <p>
+ * Commands: a card number to play it, d(raw), n(ext), u(ndo), r(edo), q(uit) and ? for help. Watchers (seat -1)
+ * can only quit.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoTerminalClient implements Closeable {
+    private static final String HELP = "Commands: <card #> play, d draw, n next, u undo, r redo, q quit";
+
+    private final Socket socket;
+    private final DataInputStream fromServer;
+    private final OutputStream toServer;
+    private final BufferedReader in;
+    private final UnoTerminalView view;
+    private int seat;
+    // The last frame, for working out what a typed card number means (set by the reading thread)
+    private volatile UnoBroadcastFrame.Table table;
+    private volatile List<UnoCard> hand = List.of();
+    private volatile boolean over;
+
+    /**
+     * Connects to a server.
+     * @param address The server.
+     * @param in      Where commands come from.
+     * @param out     Where the table is drawn.
+     * @param ansi    False for plain text.
+     */
+    public UnoTerminalClient(InetSocketAddress address, BufferedReader in, PrintStream out, boolean ansi) throws IOException {
+        this.socket = new Socket(address.getAddress(), address.getPort());
+        this.fromServer = new DataInputStream(socket.getInputStream());
+        this.toServer = socket.getOutputStream();
+        this.in = in;
+        this.view = new UnoTerminalView(in, out, ansi);
+    }
+
+    /**
+     * Joins a seat and runs commands until the game ends, the player quits, the input runs out or the server
+     * goes away.
+     * @param tableId The table.
+     * @param seat    The seat to play, or -1 to watch.
+     * @return false if the server turned the seat down (the reason has been shown).
+     */
+    public boolean run(int tableId, int seat) throws IOException {
+        this.seat = seat;
+        send(UnoServer.JOIN, tableId, seat);
+        // The first answer says whether we got the seat; after that the server's messages are shown as they come
+        if (!receive()) return false;
+        Thread reader = new Thread(() -> {
+            try {
+                while (!over) receive();
+            } catch (IOException ex) {
+                if (!socket.isClosed()) view.showInfo("Lost the server: " + ex.getMessage());
+            }
+            over = true;
+        }, "uno-terminal-client");
+        reader.setDaemon(true);
+        reader.start();
+
+        String line;
+        while (!over && (line = in.readLine()) != null) {
+            if (!execute(line.trim())) break;
+        }
+        return true;
+    }
+
+    /**
+     * Sends one command.
+     * @return false if the player asked to quit.
+     */
+    boolean execute(String line) throws IOException {
+        if (line.isEmpty()) return true;
+        String cmd = line.toLowerCase(Locale.ROOT);
+        if (cmd.equals("q") || cmd.equals("quit") || cmd.equals("exit")) return false;
+        if (seat < 0) {
+            view.showInfo("You are watching this table (q to quit).");
+            return true;
+        }
+        if (Character.isDigit(line.charAt(0))) {
+            int idx;
+            try {
+                idx = Integer.parseInt(line) - 1; // Cards are numbered from 1 on screen
+            } catch (NumberFormatException ex) {
+                view.showInfo("No card " + line + ".");
+                return true;
+            }
+            List<UnoCard> cards = hand;
+            UnoBroadcastFrame.Table t = table;
+            if (idx < 0 || idx >= cards.size() || idx > 0xFF) {
+                view.showInfo("No card " + line + ".");
+            } else if (t != null && cards.get(idx).isWild(t.dark)) {
+                UnoColor c = view.promptForWildColor();
+                if (c != null) send(UnoServer.PLAY_WILD, idx, c.ordinal());
+            } else {
+                send(UnoServer.PLAY, idx);
+            }
+            return true;
+        }
+        switch (cmd) {
+            case "d", "draw" -> send(UnoServer.DRAW);
+            case "n", "next" -> send(UnoServer.NEXT);
+            case "u", "undo" -> send(UnoServer.UNDO);
+            case "r", "redo" -> send(UnoServer.REDO);
+            default -> view.showInfo(HELP);
+        }
+        return true;
+    }
+
+    private void send(int op, int... args) throws IOException {
+        ByteBuffer b = UnoServer.command(op, args);
+        synchronized (toServer) {
+            toServer.write(b.array(), 0, b.limit());
+            toServer.flush();
+        }
+    }
+
+    // Reads and shows one message; false if it was an error
+    private boolean receive() throws IOException {
+        byte[] body = new byte[fromServer.readInt()];
+        fromServer.readFully(body);
+        ByteBuffer b = ByteBuffer.wrap(body);
+        if (b.get() != UnoServer.FRAME) {
+            view.showInfo(new String(body, 1, body.length - 1, StandardCharsets.UTF_8));
+            return false;
+        }
+        int publicSize = b.getShort();
+        UnoBroadcastFrame.Table t = new UnoBroadcastFrame.Table(b.slice().limit(publicSize));
+        List<UnoCard> cards = UnoBroadcastFrame.readHand(b.position(b.position() + publicSize));
+        table = t;
+        hand = cards;
+        show(t, cards);
+        return true;
+    }
+
+    private void show(UnoBroadcastFrame.Table t, List<UnoCard> cards) {
+        boolean mine = t.currentPlayer == seat;
+        boolean[] legal = new boolean[cards.size()];
+        for (int i = 0; i < legal.length; i++) {
+            legal[i] = mine && t.top != null && cards.get(i).matches(t.top, t.activeColor, t.dark);
+        }
+        String name = t.names.get(t.currentPlayer);
+        String top = t.top == null ? "" : t.top.toText(t.dark);
+        UnoEvent e = new UnoEvent(this, cards, top, name, t.info, t.mustPressNext, t.activeColor, t.dark, false,
+                legal, -1);
+        String hint;
+        if (seat < 0) hint = "Watching";
+        else if (!mine) hint = "Waiting for " + name;
+        else hint = t.mustPressNext ? "n = next player" : "Play a card number, or d to draw";
+        view.draw(e, name + (mine ? " (you)" : ""), seat >= 0, hint);
+        if (t.kind == UnoBroadcastFrame.ROUND_END) view.handleRoundEnd(t.message);
+        if (t.kind == UnoBroadcastFrame.GAME_END) {
+            view.handleEnd(t.message);
+            over = true;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        over = true;
+        socket.close();
+    }
+}
@@ -0,0 +1,76 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+
+/**
+ * Test class for playing a server table from the terminal, over loopback.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoTerminalClientTest {
+    private UnoServer server;
+    private int table;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new UnoServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1);
+        UnoModel model = new UnoModel(2, Arrays.asList("Ann", "Bob"), Arrays.asList(false, false), UnoRules.standard(), 5);
+        table = server.addTable(model);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.close();
+    }
+
+    private String play(int seat, String script, boolean[] joined) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, "UTF-8");
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort());
+        try (UnoTerminalClient client = new UnoTerminalClient(address, new BufferedReader(new StringReader(script)), out, false)) {
+            joined[0] = client.run(table, seat);
+        }
+        return bytes.toString("UTF-8");
+    }
+
+    /**
+     * The table is drawn from the server's frames and typed commands are played there.
+     */
+    @Test
+    public void testPlaysTheSeat() throws Exception {
+        try (UnoServerTest.Client watcher = new UnoServerTest.Client(server.getPort())) {
+            watcher.send(UnoServer.JOIN, table, -1);
+            int cards = watcher.next().frame.handSizes[0];
+            boolean[] joined = new boolean[1];
+            String out = play(0, "d\nq\n", joined);
+            assertTrue(joined[0]);
+            assertTrue(out.contains("Turn: Ann (you)"));
+            assertTrue(out.contains("  1  "));
+            while (watcher.next().frame.handSizes[0] == cards) { }
+            assertEquals("The draw reached the table", cards + 1, watcher.frame.handSizes[0]);
+        }
+    }
+
+    /**
+     * A seat someone else is playing is turned down with the server's reason.
+     */
+    @Test
+    public void testSeatTaken() throws Exception {
+        try (UnoServerTest.Client ann = new UnoServerTest.Client(server.getPort())) {
+            ann.send(UnoServer.JOIN, table, 0);
+            ann.next();
+            boolean[] joined = new boolean[1];
+            String out = play(0, "d\nq\n", joined);
+            assertFalse(joined[0]);
+            assertTrue(out.contains("is taken"));
+        }
+    }
+}
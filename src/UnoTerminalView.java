@@ -0,0 +1,251 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Locale;
+
+/**
+ * A text version of the game window for terminals (e.g. over SSH). It draws the table with ANSI colors and
+ * reads commands from a reader, one per line. It only uses plain java.io, so starting it never loads AWT or Swing.
+ * <p>
+ * Commands: a card number to play it, d(raw), n(ext), b(ots), u(ndo), r(edo), h(ints), s(ave) file,
+ * l(oad) file, q(uit) and ? for help.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoTerminalView implements UnoView {
+    private static final String RESET = "\033[0m";
+    private static final String CLEAR = "\033[H\033[2J";
+    private static final String HELP = "Commands: <card #> play, d draw, n next, b run bots, u undo, r redo, h hints, "
+            + "s <file> save, l <file> load, q quit";
+
+    private final BufferedReader in;
+    private final PrintStream out;
+    private final boolean ansi;
+    private UnoModel model;
+    private boolean isDark = false;
+    private boolean over = false;
+
+    /**
+     * @param model The game to show and play.
+     * @param in    Where commands come from.
+     * @param out   Where the table is drawn.
+     * @param ansi  False for plain text (no colors or screen clearing), e.g. when output goes to a file.
+     */
+    public UnoTerminalView(UnoModel model, BufferedReader in, PrintStream out, boolean ansi) {
+        this.model = model;
+        this.in = in;
+        this.out = out;
+        this.ansi = ansi;
+    }
+
+    /**
+     * A view that only draws and asks for colors, for a table that is played somewhere else
+     * (see {@link UnoTerminalClient}).
+     */
+    UnoTerminalView(BufferedReader in, PrintStream out, boolean ansi) {
+        this(null, in, out, ansi);
+    }
+
+    /**
+     * Reads and runs commands until the game ends, the player quits or the input runs out.
+     */
+    public void run() throws IOException {
+        model.addView(this);
+        String line;
+        while (!over && (line = in.readLine()) != null) {
+            if (!execute(line.trim())) break;
+        }
+    }
+
+    /**
+     * Runs one command.
+     * @param line The command line.
+     * @return false if the player asked to quit.
+     */
+    boolean execute(String line) {
+        if (line.isEmpty()) return true;
+        String[] parts = line.split("\\s+", 2);
+        String arg = parts.length > 1 ? parts[1] : null;
+        try {
+            if (Character.isDigit(line.charAt(0))) {
+                int idx = Integer.parseInt(parts[0]) - 1; // Cards are numbered from 1 on screen
+                if (model.peekCardInHand(idx) == null) {
+                    showInfo("No card " + parts[0] + ".");
+                } else if (model.isCardWild(idx)) {
+                    UnoColor c = promptForWildColor();
+                    if (c != null) model.playWild(idx, c);
+                } else {
+                    model.play(idx);
+                }
+                return true;
+            }
+            switch (parts[0].toLowerCase(Locale.ROOT)) {
+                case "d", "draw" -> model.draw();
+                case "n", "next" -> {
+                    try {
+                        model.nextPlayer();
+                    } catch (IllegalStateException ex) {
+                        model.playAITurn();
+                    }
+                }
+                case "b", "bots" -> {
+                    // A batch that ran redraws the table with its summary in the info line
+                    if (model.runAITurns().turns() == 0) showInfo("No bot turns to run.");
+                }
+                case "u", "undo" -> model.undo();
+                case "r", "redo" -> model.redo();
+                case "h", "hints" -> model.setHintsEnabled(!model.isHintsEnabled());
+                case "s", "save" -> {
+                    if (arg == null) { showInfo("Usage: s <file>"); break; }
+                    showProgress("Saving " + arg + "...");
+                    model.saveGame(new File(arg));
+                    showInfo("Game Saved!");
+                }
+                case "l", "load" -> {
+                    if (arg == null) { showInfo("Usage: l <file>"); break; }
+                    showProgress("Loading " + arg + "...");
+                    UnoModel loaded = UnoModel.loadGame(new File(arg));
+                    model.removeView(this);
+                    model = loaded;
+                    model.addView(this);
+                    showInfo("Game Loaded!");
+                }
+                case "q", "quit", "exit" -> { return false; }
+                default -> showInfo(HELP);
+            }
+        } catch (Exception ex) {
+            showInfo("Error: " + ex.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * Redraws the table: top card, whose turn it is, the status line and the hand.
+     */
+    @Override
+    public void handleUpdate(UnoEvent e) {
+        String hint;
+        if (e.isAIPlayer()) hint = e.isMustPressNext() ? "n = next player, b = run all bots" : "n = run bot turn, b = run all bots";
+        else hint = e.isMustPressNext() ? "n = next player" : "Play a card number, or d to draw";
+        draw(e, e.getCurrentPlayerName() + (e.isAIPlayer() ? " (bot)" : ""), !e.isAIPlayer(), hint);
+    }
+
+    /**
+     * Draws the table.
+     * @param turn     Who is playing, as shown.
+     * @param showHand Whether to list the hand in the event.
+     * @param hint     What can be typed now.
+     */
+    void draw(UnoEvent e, String turn, boolean showHand, String hint) {
+        isDark = e.isDark();
+        StringBuilder sb = new StringBuilder(256);
+        if (ansi) sb.append(CLEAR);
+        sb.append(isDark ? "=== UNO (dark side) ===" : "=== UNO ===").append('\n');
+        sb.append("Top:  ").append(paint(e.getTopCardText(), e.getActiveColor())).append('\n');
+        sb.append("Turn: ").append(turn).append('\n');
+        if (e.getInfo() != null && !e.getInfo().isEmpty()) sb.append(e.getInfo()).append('\n');
+        if (showHand) {
+            sb.append('\n');
+            for (int i = 0; i < e.getHand().size(); i++) {
+                UnoCard c = e.getHand().get(i);
+                boolean playable = !e.isMustPressNext() && e.isPlayable(i);
+                // Padded by hand: String.format would pull in the regex and Formatter classes at startup
+                if (i < 9) sb.append(' ');
+                if (i < 99) sb.append(' ');
+                sb.append(i + 1).append(i == e.getSuggestedMove() ? "* " : "  ");
+                String text = c.toText(isDark);
+                sb.append(playable ? paint(text, c.getColor(isDark)) : dim(text)).append('\n');
+            }
+        }
+        sb.append('\n').append(hint).append("  (? for help)\n> ");
+        out.print(sb);
+        out.flush();
+    }
+
+    @Override
+    public void handleRoundEnd(String message) {
+        out.println();
+        out.println("--- Round Over ---");
+        out.println(message);
+    }
+
+    @Override
+    public void handleEnd(String message) {
+        out.println();
+        out.println("=== Game Over ===");
+        out.println(message);
+        over = true;
+    }
+
+    /**
+     * Asks for a color on the next line, e.g. "r" or "red" (the first letter is enough unless two colors share it).
+     */
+    @Override
+    public UnoColor promptForWildColor() {
+        UnoColor[] opts = isDark ?
+                new UnoColor[]{UnoColor.TEAL, UnoColor.PINK, UnoColor.PURPLE, UnoColor.ORANGE} :
+                new UnoColor[]{UnoColor.RED, UnoColor.GREEN, UnoColor.BLUE, UnoColor.YELLOW};
+        StringBuilder ask = new StringBuilder("Choose color:");
+        for (UnoColor c : opts) ask.append(' ').append(paint(c.name().toLowerCase(Locale.ROOT), c));
+        while (true) {
+            out.print(ask + "\n> ");
+            out.flush();
+            String line;
+            try {
+                line = in.readLine();
+            } catch (IOException ex) {
+                return null;
+            }
+            if (line == null) return null;
+            String pick = line.trim().toUpperCase(Locale.ROOT);
+            if (pick.isEmpty()) continue;
+            UnoColor match = null;
+            for (UnoColor c : opts) {
+                if (c.name().equals(pick)) return c;
+                if (c.name().startsWith(pick)) match = match == null ? c : UnoColor.NONE;
+            }
+            if (match != null && match != UnoColor.NONE) return match;
+        }
+    }
+
+    @Override
+    public void showInfo(String message) {
+        out.println(message);
+        out.flush();
+    }
+
+    @Override
+    public void showProgress(String message) {
+        showInfo(message);
+    }
+
+    /**
+     * Helper to get the terminal color for a card color (256-color codes, close to the window's colors).
+     * @param c The internal UnoColor.
+     * @return The escape code, or "" for no color.
+     */
+    static String ansiColor(UnoColor c) {
+        return switch (c) {
+            case RED -> "\033[38;5;203m";
+            case GREEN -> "\033[38;5;77m";
+            case BLUE -> "\033[38;5;69m";
+            case YELLOW -> "\033[38;5;220m";
+            case TEAL -> "\033[38;5;30m";
+            case PINK -> "\033[38;5;205m";
+            case PURPLE -> "\033[38;5;91m";
+            case ORANGE -> "\033[38;5;214m";
+            default -> "";
+        };
+    }
+
+    private String paint(String text, UnoColor c) {
+        String code = c == null ? "" : ansiColor(c);
+        return ansi && !code.isEmpty() ? code + text + RESET : text;
+    }
+
+    private String dim(String text) {
+        return ansi ? "\033[2m" + text + RESET : text;
+    }
+}
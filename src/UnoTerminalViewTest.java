@@ -0,0 +1,79 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.util.List;
+
+/**
+ * Test class for the terminal view, driven by a scripted input.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoTerminalViewTest {
+
+    private static String run(UnoModel m, String script, boolean ansi) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, "UTF-8");
+        new UnoTerminalView(m, new BufferedReader(new StringReader(script)), out, ansi).run();
+        return bytes.toString("UTF-8");
+    }
+
+    private static UnoModel game() {
+        UnoModel m = new UnoModel(2, List.of("Ann", "Bot"), List.of(false, true), UnoRules.standard(), 3);
+        m.forceHand(0, List.of(new UnoCard(UnoColor.RED, UnoRank.FIVE, UnoColor.PINK, UnoRank.ONE),
+                new UnoCard(UnoColor.WILD, UnoRank.WILD, UnoColor.WILD, UnoRank.WILD)));
+        m.setTopCard(new UnoCard(UnoColor.BLUE, UnoRank.FIVE, UnoColor.TEAL, UnoRank.TWO));
+        return m;
+    }
+
+    /**
+     * Commands play cards, pick wild colors, and bad input just gets a message.
+     */
+    @Test
+    public void testCommands() throws Exception {
+        UnoModel m = game();
+        String out = run(m, "7\nfoo\n1\nn\nb\n1\nxx\ng\nq\nd\n", false);
+        assertTrue(out.contains("Turn: Ann"));
+        assertTrue(out.contains("No card 7."));
+        assertTrue(out.contains("Commands:"));
+        assertTrue(out.contains("bot turns"));
+        assertTrue(out.contains("Choose color:"));
+        assertEquals("Picked by its first letter", UnoColor.GREEN, m.getActiveColor());
+        assertFalse("Plain mode has no escape codes", out.contains("\033["));
+    }
+
+    /**
+     * With ANSI on, the screen is cleared and playable cards are colored.
+     */
+    @Test
+    public void testAnsi() throws Exception {
+        String out = run(game(), "q\n", true);
+        assertTrue(out.startsWith("\033[H\033[2J"));
+        assertTrue(out.contains(UnoTerminalView.ansiColor(UnoColor.RED) + "RED-FIVE"));
+    }
+
+    /**
+     * After loading, the old game no longer draws to the terminal, and b with no bot to move says so once.
+     */
+    @Test
+    public void testLoadAndIdleBots() throws Exception {
+        File file = File.createTempFile("uno_terminal", ".sav");
+        file.deleteOnExit();
+        UnoModel old = game();
+        old.saveGame(file);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, "UTF-8");
+        new UnoTerminalView(old, new BufferedReader(new StringReader("l " + file + "\nb\nq\n")), out, false).run();
+        String text = bytes.toString("UTF-8");
+        assertTrue(text.contains("Game Loaded!"));
+        assertEquals(text.indexOf("No bot turns to run."), text.lastIndexOf("No bot turns to run."));
+        assertTrue(text.contains("No bot turns to run."));
+
+        int before = bytes.size();
+        old.setHintsEnabled(true);
+        assertEquals("The old game isn't drawn any more", before, bytes.size());
+    }
+}
@@ -0,0 +1,193 @@
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size cache of what's known about positions, keyed by {@link UnoModel#getStateHash()}: the best move found
+ * (a card, or draw), the Wild color to go with it, a score and how deep the search that found it went. Bots that
+ * search can skip positions they have already seen, and {@link #cache} puts any strategy in front of it.
+ * <p>
+ * Nothing is locked, so any number of threads can share one table. Each entry is two longs: the packed data, and the
+ * hash XOR the data. A reader only believes an entry if XORing them back gives its hash, so an entry half-written
+ * by another thread looks like a miss instead of a wrong answer. Writers can overwrite each other, which only loses
+ * an entry.
+ * <p>
+ * Entries go in buckets of two. The first keeps the deepest result (unless it's from an older {@link #newSearch}),
+ * the second takes whatever comes in, so deep results survive and new positions still get cached.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoTranspositionTable {
+    /** Returned by {@link #probe} when the position isn't in the table. */
+    public static final long MISS = 0;
+    /** Stored move meaning "draw a card". */
+    public static final int DRAW = 0xFFFF;
+    /** Deepest depth that can be stored; deeper ones are stored as this. */
+    public static final int MAX_DEPTH = 63;
+
+    // Data layout: card code (16 bits), color + 1 (4), depth (6), generation (5), "used" bit, score (32, float bits)
+    private static final int COLOR_SHIFT = 16, DEPTH_SHIFT = 20, GEN_SHIFT = 26, SCORE_SHIFT = 32;
+    private static final long USED = 1L << 31;
+    private static final int GENERATIONS = 32;
+    private static final UnoColor[] COLORS = UnoColor.values();
+
+    private final AtomicLongArray slots; // 4 longs per bucket: check, data, check, data
+    private final int mask;
+    private volatile int generation;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param entries About how many positions to keep (rounded up to a power of 2). Each takes 16 bytes.
+     */
+    public UnoTranspositionTable(int entries) {
+        if (entries < 2) throw new IllegalArgumentException("The table needs at least 2 entries.");
+        int wanted = entries / 2;
+        int buckets = Integer.highestOneBit(wanted);
+        if (buckets < wanted) buckets <<= 1;
+        slots = new AtomicLongArray(buckets * 4);
+        mask = buckets - 1;
+    }
+
+    /**
+     * Looks up a position.
+     * @param hash The position's hash.
+     * @return The packed entry (read it with {@link #moveOf} and friends), or {@link #MISS}.
+     */
+    public long probe(long hash) {
+        int base = bucket(hash);
+        for (int i = base; i < base + 4; i += 2) {
+            long data = slots.getOpaque(i + 1);
+            if (data != MISS && (slots.getOpaque(i) ^ data) == hash) {
+                hits.increment();
+                return data;
+            }
+        }
+        misses.increment();
+        return MISS;
+    }
+
+    /**
+     * Stores what's known about a position, replacing what was there if it isn't worth more.
+     * @param hash  The position's hash.
+     * @param move  The card code of the best move, or {@link #DRAW}.
+     * @param color The color for a Wild, or null.
+     * @param score What the position is worth, in whatever unit the caller uses.
+     * @param depth How deep the search went (0 for a plain evaluation).
+     */
+    public void store(long hash, int move, UnoColor color, float score, int depth) {
+        int gen = generation;
+        long data = (move & 0xFFFFL)
+                | (long) (color == null ? 0 : color.ordinal() + 1) << COLOR_SHIFT
+                | (long) Math.min(Math.max(depth, 0), MAX_DEPTH) << DEPTH_SHIFT
+                | (long) gen << GEN_SHIFT
+                | USED
+                | (Float.floatToRawIntBits(score) & 0xFFFFFFFFL) << SCORE_SHIFT;
+        int base = bucket(hash);
+        long deep = slots.getOpaque(base + 1);
+        int slot;
+        if (deep == MISS || (slots.getOpaque(base) ^ deep) == hash || depthOf(deep) <= depthOf(data)
+                || generationOf(deep) != gen) {
+            slot = base;
+        } else {
+            slot = base + 2;
+        }
+        // Data first, check last: a reader seeing the new check with the old data (or the other way round) misses
+        slots.setOpaque(slot + 1, data);
+        slots.setOpaque(slot, hash ^ data);
+    }
+
+    /**
+     * Starts a new search: from now on, deep entries from before can be replaced by shallower new ones.
+     */
+    public void newSearch() {
+        generation = (generation + 1) % GENERATIONS;
+    }
+
+    /**
+     * Empties the table.
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) slots.setOpaque(i, 0);
+        hits.reset();
+        misses.reset();
+    }
+
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+
+    /**
+     * @param entry An entry from {@link #probe}.
+     * @return The card code of the best move, or {@link #DRAW}.
+     */
+    public static int moveOf(long entry) {
+        return (int) (entry & 0xFFFF);
+    }
+
+    /**
+     * @return The Wild color stored with the move, or null.
+     */
+    public static UnoColor colorOf(long entry) {
+        int c = (int) (entry >>> COLOR_SHIFT) & 0xF;
+        return c == 0 ? null : COLORS[c - 1];
+    }
+
+    public static float scoreOf(long entry) {
+        return Float.intBitsToFloat((int) (entry >>> SCORE_SHIFT));
+    }
+
+    public static int depthOf(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & MAX_DEPTH;
+    }
+
+    private static int generationOf(long entry) {
+        return (int) (entry >>> GEN_SHIFT) & (GENERATIONS - 1);
+    }
+
+    // Scrambled once more so hashes that only differ in their high bits still land in different buckets
+    private int bucket(long hash) {
+        return (int) (UnoZobrist.mix(hash) & mask) * 4;
+    }
+
+    /**
+     * Puts the table in front of a strategy: a position the strategy has already decided is answered from the table.
+     * Only worth it for strategies that are slow to decide (e.g. ones that search), and the strategy must always pick
+     * the same move in the same position, using only what's in the hash. Use one table per rule set.
+     * <p>
+     * The table stores the card, not its place in the hand, so the same cards in a different order still hit.
+     * @param strategy The strategy to cache.
+     * @return The cached strategy.
+     */
+    public UnoStrategy cache(UnoStrategy strategy) {
+        return new UnoStrategy() {
+            @Override
+            public int choose(UnoModel model, List<UnoCard> hand, boolean[] legal) {
+                if (hand != model.getPlayer(model.getCurrentPlayerIndex()).hand) return strategy.choose(model, hand, legal);
+                long hash = model.getStateHash();
+                long entry = probe(hash);
+                if (entry != MISS) {
+                    int move = moveOf(entry);
+                    if (move == DRAW) return -1;
+                    for (int i = 0; i < hand.size(); i++) {
+                        if (legal[i] && hand.get(i).toCode() == move) return i;
+                    }
+                    // Not in the hand after all: two positions shared a hash, so decide again
+                }
+                int chosen = strategy.choose(model, hand, legal);
+                UnoColor color = chosen >= 0 && hand.get(chosen).isWild(model.isDark())
+                        ? strategy.chooseColor(model, hand, chosen) : null;
+                store(hash, chosen < 0 ? DRAW : hand.get(chosen).toCode(), color, 0, 0);
+                return chosen;
+            }
+
+            @Override
+            public UnoColor chooseColor(UnoModel model, List<UnoCard> hand, int handIndex) {
+                if (hand != model.getPlayer(model.getCurrentPlayerIndex()).hand) return strategy.chooseColor(model, hand, handIndex);
+                long entry = probe(model.getStateHash());
+                if (entry == MISS || moveOf(entry) != hand.get(handIndex).toCode()) return strategy.chooseColor(model, hand, handIndex);
+                return colorOf(entry);
+            }
+        };
+    }
+}
@@ -0,0 +1,112 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Test class for position hashes and the transposition table.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoTranspositionTest {
+
+    private static UnoModel table(long seed) {
+        return new UnoModel(2, Arrays.asList("Ann", "Bob"), Arrays.asList(true, true), UnoRules.standard(), seed);
+    }
+
+    /**
+     * The hash follows the position: the same cards in any order hash the same, undo and reloading give the old
+     * hash back, and identical cards don't cancel each other out.
+     */
+    @Test
+    public void testHashFollowsPosition() {
+        UnoModel m = table(3);
+        UnoModel same = table(3);
+        assertEquals(m.getStateHash(), same.getStateHash());
+        assertNotEquals(m.getStateHash(), table(4).getStateHash());
+
+        long start = m.getStateHash();
+        List<UnoCard> reversed = new ArrayList<>(m.getPlayer(0).hand);
+        Collections.reverse(reversed);
+        m.forceHand(0, reversed);
+        assertEquals("Order doesn't matter", start, m.getStateHash());
+
+        m.draw();
+        assertNotEquals(start, m.getStateHash());
+        m.undo();
+        assertEquals(start, m.getStateHash());
+
+        ByteBuffer buf = ByteBuffer.allocate(4096);
+        m.writeTo(buf);
+        assertEquals(start, UnoModel.readFrom(buf.flip()).getStateHash());
+
+        UnoCard five = new UnoCard(UnoColor.RED, UnoRank.FIVE, UnoColor.TEAL, UnoRank.FIVE);
+        UnoHand pair = new UnoHand();
+        pair.addAll(List.of(five, five));
+        assertNotEquals(0, pair.getHash());
+        pair.remove(0);
+        pair.remove(0);
+        assertEquals(0, pair.getHash());
+    }
+
+    /**
+     * Entries come back as stored; a deep entry isn't pushed out by shallow ones until a new search starts.
+     */
+    @Test
+    public void testStoreAndReplace() {
+        UnoTranspositionTable tt = new UnoTranspositionTable(2); // One bucket, so everything collides
+        assertEquals(UnoTranspositionTable.MISS, tt.probe(42));
+
+        tt.store(1, 123, UnoColor.BLUE, 0.75f, 9);
+        long e = tt.probe(1);
+        assertEquals(123, UnoTranspositionTable.moveOf(e));
+        assertEquals(UnoColor.BLUE, UnoTranspositionTable.colorOf(e));
+        assertEquals(0.75f, UnoTranspositionTable.scoreOf(e), 0);
+        assertEquals(9, UnoTranspositionTable.depthOf(e));
+
+        tt.store(2, UnoTranspositionTable.DRAW, null, -1, 0);
+        tt.store(3, 7, null, 0, 1);
+        assertNotEquals("The deep entry stays", UnoTranspositionTable.MISS, tt.probe(1));
+        assertEquals("The shallow slot took the newest", UnoTranspositionTable.MISS, tt.probe(2));
+        assertEquals(7, UnoTranspositionTable.moveOf(tt.probe(3)));
+
+        tt.newSearch();
+        tt.store(4, 8, null, 0, 0);
+        assertEquals(UnoTranspositionTable.MISS, tt.probe(1));
+        assertEquals(8, UnoTranspositionTable.moveOf(tt.probe(4)));
+    }
+
+    /**
+     * A cached bot plays exactly like the bot itself, and replaying the game asks the bot nothing.
+     */
+    @Test
+    public void testCachedStrategy() {
+        int[] asked = {0};
+        UnoStrategy counting = (model, hand, legal) -> {
+            asked[0]++;
+            return UnoStrategy.GREEDY.choose(model, hand, legal);
+        };
+        UnoTranspositionTable tt = new UnoTranspositionTable(1 << 16);
+        UnoStrategy cached = tt.cache(counting);
+
+        long plain = play(UnoStrategy.GREEDY);
+        assertEquals(plain, play(cached));
+        int first = asked[0];
+        assertTrue(first > 0);
+        assertEquals(plain, play(cached));
+        assertEquals("All answered from the table", first, asked[0]);
+    }
+
+    // Plays one round between two bots and returns the hash of where it ended
+    private static long play(UnoStrategy strategy) {
+        UnoModel m = table(11);
+        m.getHistory().setBudget(0);
+        m.setStrategy(0, strategy);
+        m.setStrategy(1, strategy);
+        m.runAITurns();
+        return m.getStateHash();
+    }
+}
@@ -0,0 +1,279 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Turn clocks for many tables at once, so an idle player can't hold up a table forever. When a seat runs out of
+ * time, it does what a player in a hurry would: press Next if the turn is already done, let the bot move if it's a
+ * bot's turn, or draw a card and pass.
+ * <p>
+ * All clocks live in one hashed timing wheel: a ring of slots, one per tick, each with a linked list of the clocks
+ * that run out in it. Each table has one clock node that is moved around on every turn, so restarting or stopping
+ * a clock is a constant-time unlink and relink with no allocation. The wheel only looks at one slot per tick.
+ * <p>
+ * A clock restarts whenever the table changes turn (a new current player, a finished move waiting for Next, or a
+ * new round). Timeout moves run while holding the model's lock, like {@link UnoServer}'s commands do, so anything
+ * else changing the table should hold it too.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoTurnTimers implements AutoCloseable {
+    /** Default tick length of the wheel in milliseconds. */
+    public static final long DEFAULT_TICK = 100;
+    /** Default number of slots: with 100 ms ticks, one lap is about 51 seconds. */
+    public static final int DEFAULT_SLOTS = 512;
+
+    private final long turnMillis;
+    private final long tickMillis;
+    private final Clock[] slots; // Head of each slot's list
+    private final int mask;
+    private long tick; // Ticks done so far
+    private int pending;
+    private final AtomicLong timeouts = new AtomicLong();
+    private Thread thread;
+    private volatile boolean closed;
+
+    /**
+     * Creates the timers with the default wheel.
+     * @param turnMillis How long each seat has per turn.
+     */
+    public UnoTurnTimers(long turnMillis) {
+        this(turnMillis, DEFAULT_TICK, DEFAULT_SLOTS);
+    }
+
+    /**
+     * @param turnMillis How long each seat has per turn.
+     * @param tickMillis How precise the clocks are (a clock can run out up to one tick late).
+     * @param slots      Slots in the wheel (rounded up to a power of 2). Turns longer than one lap still work,
+     *                   their clocks are just passed over once per lap.
+     */
+    public UnoTurnTimers(long turnMillis, long tickMillis, int slots) {
+        if (turnMillis < 1 || tickMillis < 1 || slots < 1) throw new IllegalArgumentException("Times and slots must be positive.");
+        this.turnMillis = turnMillis;
+        this.tickMillis = tickMillis;
+        int size = Integer.highestOneBit(Math.max(1, slots - 1)) << 1;
+        this.slots = new Clock[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Starts a clock for a table. It runs for whoever's turn it is now and restarts on every turn.
+     * @param model The table.
+     * @return Its clock, to {@link #unwatch} it with later.
+     */
+    public Clock watch(UnoModel model) {
+        Clock c = new Clock(model);
+        synchronized (model) {
+            model.addView(c); // Adding a view sends an update right away, which starts the clock
+        }
+        return c;
+    }
+
+    /**
+     * Stops a table's clock for good and takes it off the table.
+     * @param clock The clock from {@link #watch}.
+     */
+    public void unwatch(Clock clock) {
+        synchronized (clock.model) {
+            clock.model.removeView(clock);
+        }
+        synchronized (this) {
+            clock.stopped = true;
+            unlink(clock);
+        }
+    }
+
+    /**
+     * Ticks the wheel in the background, in real time, until closed.
+     */
+    public synchronized void start() {
+        if (thread != null) return;
+        long origin = System.nanoTime();
+        thread = new Thread(() -> {
+            while (!closed) {
+                try {
+                    Thread.sleep(tickMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                advance((System.nanoTime() - origin) / 1_000_000);
+            }
+        }, "uno-turn-timer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Thread t;
+        synchronized (this) {
+            t = thread;
+        }
+        if (t != null) t.interrupt();
+    }
+
+    /**
+     * @return How many clocks are running.
+     */
+    public synchronized int getPending() {
+        return pending;
+    }
+
+    /**
+     * @return How many turns have been timed out so far.
+     */
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+    /**
+     * Moves the wheel up to a point in time and plays the timeout move for every clock that ran out.
+     * {@link #start()} calls this by itself; tests call it directly to control time.
+     * @param nowMillis Milliseconds since the timers were created.
+     * @return How many turns were timed out.
+     */
+    public int advance(long nowMillis) {
+        List<Clock> due = new ArrayList<>();
+        List<Long> versions = new ArrayList<>();
+        synchronized (this) {
+            long target = nowMillis / tickMillis;
+            while (tick < target) {
+                tick++;
+                Clock c = slots[(int) (tick & mask)];
+                while (c != null) {
+                    Clock next = c.next;
+                    if (c.deadline <= tick) {
+                        unlink(c);
+                        due.add(c);
+                        versions.add(c.version);
+                    }
+                    c = next;
+                }
+            }
+        }
+        // Outside the wheel's lock: the moves update the table, which restarts clocks
+        int done = 0;
+        for (int i = 0; i < due.size(); i++) {
+            if (due.get(i).expire(versions.get(i))) done++;
+        }
+        return done;
+    }
+
+    // Restarts a clock: out of its slot and into the one turnMillis from now. Constant time, no allocation.
+    private synchronized void restart(Clock c) {
+        unlink(c);
+        c.version++;
+        if (c.stopped) return;
+        c.deadline = tick + Math.max(1, (turnMillis + tickMillis - 1) / tickMillis);
+        int slot = (int) (c.deadline & mask);
+        c.next = slots[slot];
+        if (c.next != null) c.next.prev = c;
+        slots[slot] = c;
+        c.linked = true;
+        pending++;
+    }
+
+    private synchronized void stop(Clock c) {
+        unlink(c);
+        c.version++;
+    }
+
+    private void unlink(Clock c) {
+        if (!c.linked) return;
+        if (c.prev != null) c.prev.next = c.next;
+        else slots[(int) (c.deadline & mask)] = c.next;
+        if (c.next != null) c.next.prev = c.prev;
+        c.prev = c.next = null;
+        c.linked = false;
+        pending--;
+    }
+
+    /**
+     * One table's clock. It listens to the table like a view does, to see when the turn changes.
+     */
+    public final class Clock implements UnoView {
+        private final UnoModel model;
+        // Wheel links (guarded by the wheel's lock)
+        private Clock prev, next;
+        private long deadline;
+        private boolean linked;
+        private long version; // Counts restarts, so a timeout that lost the race to a move does nothing
+        private boolean stopped;
+        // The turn the clock is running for (only touched with the model's lock held)
+        private int player = -1;
+        private boolean mustPressNext;
+        private int round = -1;
+
+        private Clock(UnoModel model) {
+            this.model = model;
+        }
+
+        /**
+         * Restarts the clock if the turn changed. Called by the model, with its lock held.
+         */
+        @Override
+        public void handleUpdate(UnoEvent e) {
+            int p = model.getCurrentPlayerIndex();
+            boolean next = model.isMustPressNext();
+            int r = model.getRoundsPlayed();
+            if (model.isGameOver()) {
+                stop(this);
+            } else if (p != player || next != mustPressNext || r != round) {
+                player = p;
+                mustPressNext = next;
+                round = r;
+                restart(this);
+            }
+        }
+
+        // Plays the timeout move, unless the turn moved on since the clock ran out
+        private boolean expire(long expected) {
+            synchronized (model) {
+                synchronized (UnoTurnTimers.this) {
+                    if (version != expected || stopped) return false;
+                }
+                try {
+                    if (model.isGameOver()) return false;
+                    if (model.isMustPressNext()) {
+                        model.nextPlayer();
+                    } else if (model.getPlayer(model.getCurrentPlayerIndex()).isAI) {
+                        model.playAITurn();
+                    } else {
+                        model.draw();
+                        if (model.isMustPressNext()) model.nextPlayer();
+                    }
+                } catch (RuntimeException ex) {
+                    System.err.println("Turn timeout failed: " + ex.getMessage());
+                    restart(this); // Try again next turn length rather than leaving the table stuck
+                    return false;
+                }
+                timeouts.incrementAndGet();
+                // A move that doesn't change the turn (e.g. drawing with stacked cards) still gets a fresh clock
+                synchronized (UnoTurnTimers.this) {
+                    if (version == expected) restart(this);
+                }
+                return true;
+            }
+        }
+
+        @Override
+        public void handleEnd(String message) {
+            stop(this);
+        }
+
+        @Override
+        public void handleRoundEnd(String message) {
+        }
+
+        @Override
+        public UnoColor promptForWildColor() {
+            return UnoColor.NONE;
+        }
+
+        @Override
+        public void showInfo(String message) {
+        }
+    }
+}
@@ -0,0 +1,97 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Test class for the turn timers. Time is moved by hand with advance().
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoTurnTimersTest {
+
+    private static UnoModel table(long seed) {
+        return new UnoModel(2, Arrays.asList("Ann", "Bob"), Arrays.asList(false, false), UnoRules.standard(), seed);
+    }
+
+    /**
+     * An idle player draws and passes when their time is up, and any move restarts the clock.
+     */
+    @Test
+    public void testTimeoutAndRestart() {
+        UnoTurnTimers timers = new UnoTurnTimers(1000, 100, 64);
+        UnoModel m = table(4);
+        timers.watch(m);
+        assertEquals(1, timers.getPending());
+
+        assertEquals(0, timers.advance(900));
+        assertEquals(1, timers.advance(1000));
+        assertEquals("Ann drew a card", 8, m.getPlayer(0).hand.size());
+        assertEquals("and passed", 1, m.getCurrentPlayerIndex());
+        assertEquals(1, timers.getPending());
+
+        timers.advance(1500);
+        synchronized (m) {
+            m.draw(); // Bob moves halfway through his turn
+        }
+        assertEquals(0, timers.advance(2400));
+        assertEquals(1, m.getCurrentPlayerIndex());
+        assertEquals("Bob only has to press Next", 1, timers.advance(2500));
+        assertEquals(0, m.getCurrentPlayerIndex());
+        assertEquals(2, timers.getTimeouts());
+    }
+
+    /**
+     * Turns longer than one lap of the wheel wait the full time, and unwatched tables are left alone.
+     */
+    @Test
+    public void testLongTurnsAndUnwatch() {
+        UnoTurnTimers timers = new UnoTurnTimers(5000, 100, 8); // One lap is 800 ms
+        UnoModel a = table(1), b = table(2);
+        timers.watch(a);
+        UnoTurnTimers.Clock cb = timers.watch(b);
+        assertEquals(0, timers.advance(4900));
+        timers.unwatch(cb);
+        assertEquals(1, timers.getPending());
+        assertEquals(1, timers.advance(5000));
+        assertEquals(1, a.getCurrentPlayerIndex());
+        assertEquals(0, b.getCurrentPlayerIndex());
+        timers.advance(60000);
+        assertEquals("Never touched", 7, b.getPlayer(0).hand.size());
+    }
+
+    /**
+     * Thousands of tables share the wheel; each one times out once per turn length.
+     */
+    @Test
+    public void testManyTables() {
+        UnoTurnTimers timers = new UnoTurnTimers(30000);
+        List<UnoModel> tables = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            UnoModel m = table(i);
+            m.getHistory().setBudget(0);
+            timers.watch(m);
+            tables.add(m);
+        }
+        assertEquals(2000, timers.getPending());
+        assertEquals(2000, timers.advance(30000));
+        for (UnoModel m : tables) assertEquals(1, m.getCurrentPlayerIndex());
+        assertEquals(2000, timers.getPending());
+    }
+
+    /**
+     * With the background thread, a table moves on by itself.
+     */
+    @Test
+    public void testRealTime() throws InterruptedException {
+        try (UnoTurnTimers timers = new UnoTurnTimers(50, 10, 16)) {
+            UnoModel m = table(9);
+            timers.watch(m);
+            timers.start();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (timers.getTimeouts() < 2 && System.currentTimeMillis() < deadline) Thread.sleep(10);
+            assertTrue(timers.getTimeouts() >= 2);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Runs many UnoGym environments side by side and steps them all at once.
+ * The results are stored as one array per field instead of one object per game:
+ * all observations go into a single direct buffer (game i starts at float {@code i * OBS_SIZE}),
+ * and rewards, done flags and legal-action masks each get their own flat array.
+ * A game that finishes is reset right away with its next seed, so every slot always holds a live game.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public class UnoVectorGym {
+    private final UnoGym[] envs;
+    private final long[] nextSeed;
+    private final long seedStride;
+
+    private final ByteBuffer observationBytes;
+    private final FloatBuffer observations;
+    private final float[] rewards;
+    private final boolean[] dones;
+    private final float[] masks;
+
+    private final ExecutorService pool;
+    private final List<Callable<Void>> chunks = new ArrayList<>();
+    private int[] pendingActions;
+
+    /**
+     * Creates a batch of environments that all step on the calling thread.
+     * @param count      How many games.
+     * @param numPlayers Seats per game (2-4), the agent is seat 0.
+     * @param rules      The rule set.
+     */
+    public UnoVectorGym(int count, int numPlayers, UnoRules rules) {
+        this(count, numPlayers, rules, null, 1);
+    }
+
+    /**
+     * Creates a batch of environments whose steps are split across a thread pool.
+     * @param count      How many games.
+     * @param numPlayers Seats per game (2-4), the agent is seat 0.
+     * @param rules      The rule set.
+     * @param pool       The threads to use, or null to step on the calling thread.
+     * @param threads    How many pieces to split the batch into.
+     */
+    public UnoVectorGym(int count, int numPlayers, UnoRules rules, ExecutorService pool, int threads) {
+        envs = new UnoGym[count];
+        for (int i = 0; i < count; i++) envs[i] = new UnoGym(numPlayers, 0, rules);
+        nextSeed = new long[count];
+        seedStride = count;
+
+        observationBytes = ByteBuffer.allocateDirect(count * UnoGym.OBS_SIZE * Float.BYTES).order(ByteOrder.nativeOrder());
+        observations = observationBytes.asFloatBuffer();
+        rewards = new float[count];
+        dones = new boolean[count];
+        masks = new float[count * UnoGym.NUM_ACTIONS];
+
+        this.pool = pool;
+        if (pool != null) {
+            int per = (count + threads - 1) / threads;
+            for (int start = 0; start < count; start += per) {
+                int from = start;
+                int to = Math.min(count, start + per);
+                chunks.add(() -> { stepRange(from, to); return null; });
+            }
+        }
+    }
+
+    /**
+     * Resets every game. Game i uses seeds {@code baseSeed + i}, then {@code + count}, and so on.
+     * @param baseSeed The first seed.
+     */
+    public void reset(long baseSeed) {
+        for (int i = 0; i < envs.length; i++) {
+            nextSeed[i] = baseSeed + i;
+            resetOne(i);
+            rewards[i] = 0f;
+            dones[i] = false;
+        }
+    }
+
+    /**
+     * Does one action in every game.
+     * @param actions One action per game (must be legal, see {@link #masks()}).
+     */
+    public void step(int[] actions) {
+        if (actions.length != envs.length) throw new IllegalArgumentException("Need one action per game.");
+        pendingActions = actions;
+        if (pool == null) {
+            stepRange(0, envs.length);
+            return;
+        }
+        try {
+            for (Future<Void> f : pool.invokeAll(chunks)) f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while stepping.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A game failed to step.", e.getCause());
+        }
+    }
+
+    /**
+     * @return All observations, game after game (direct, native byte order).
+     */
+    public FloatBuffer observations() { return observations; }
+
+    /**
+     * @return The same observations as raw bytes, e.g. to pass to native code.
+     */
+    public ByteBuffer observationBytes() { return observationBytes; }
+
+    /**
+     * @return Rewards from the last step. A finished game's final reward is here even though it was reset.
+     */
+    public float[] rewards() { return rewards; }
+
+    /**
+     * @return Which games finished on the last step (they already hold a new episode).
+     */
+    public boolean[] dones() { return dones; }
+
+    /**
+     * @return Legal-action masks, {@code NUM_ACTIONS} floats per game.
+     */
+    public float[] masks() { return masks; }
+
+    public int size() { return envs.length; }
+
+    private void stepRange(int from, int to) {
+        int[] actions = pendingActions;
+        for (int i = from; i < to; i++) {
+            UnoGym env = envs[i];
+            rewards[i] = env.step(actions[i]);
+            dones[i] = env.isDone();
+            if (dones[i]) resetOne(i);
+            else publish(i);
+        }
+    }
+
+    private void resetOne(int i) {
+        // Very rarely the bots could finish a round before the agent moves, so keep going until it can act
+        do {
+            envs[i].reset(nextSeed[i]);
+            nextSeed[i] += seedStride;
+        } while (envs[i].isDone());
+        publish(i);
+    }
+
+    private void publish(int i) {
+        UnoGym env = envs[i];
+        env.writeObservation(observations, i * UnoGym.OBS_SIZE);
+        System.arraycopy(env.legalActionMask(), 0, masks, i * UnoGym.NUM_ACTIONS, UnoGym.NUM_ACTIONS);
+    }
+}
@@ -1,5 +1,3 @@
-import java.awt.Color;
-
 /**
  * The interface that any UI (like our GUI frame) must implement to talk to the Game Model.
  * This ensures the Model doesn't care exactly how the game is displayed, just that it can send updates.
@@ -40,9 +38,11 @@ public interface UnoView {
     void showInfo(String message);
 
     /**
-     * Helper to convert our internal UnoColors to actual Java AWT Colors for painting.
-     * @param c The internal UnoColor.
-     * @return The matching Java Color object.
+     * Shows what a background task (like saving or loading) is doing. Views that have a status line
+     * should show it there instead of a popup. The result still comes through showInfo.
+     * @param message The progress text, e.g. "Saving game1.ser...".
      */
-    Color mapCardColor(UnoColor c);
+    default void showProgress(String message) {
+        showInfo(message);
+    }
 }
\ No newline at end of file
@@ -1,5 +1,3 @@
-import java.awt.Color;
-
 /**
  * A stub implementation of UnoView for unit testing.
  * Captures events instead of displaying them.
@@ -40,9 +38,4 @@ public class UnoViewStub implements UnoView {
     public void showInfo(String message) {
         this.lastInfo = message;
     }
-
-    @Override
-    public Color mapCardColor(UnoColor c) {
-        return null; // Not needed for logic tests
-    }
 }
\ No newline at end of file
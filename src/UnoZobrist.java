@@ -0,0 +1,59 @@
+/**
+ * Keys for Zobrist hashing of game positions. Every part of a position (a card in a hand, the top card, the active
+ * color, whose turn it is, ...) gets its own random-looking 64-bit key, and a position's hash combines the keys of
+ * its parts. When one part changes, only its key has to be swapped, so the hash keeps up with the game in constant
+ * time (see {@link UnoHand#getHash()} and {@link UnoModel#getStateHash()}).
+ * <p>
+ * Instead of a table of random numbers, the keys are made by scrambling the part's number with a fixed mixing
+ * function. They're the same in every run, so hashes can be stored with replays and compared later.
+ *
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 4.0
+ */
+public final class UnoZobrist {
+    // Which part of the position a key is for
+    static final int CARD = 0, TOP = 1, COLOR = 2, DARK = 3, DIRECTION = 4, TURN = 5, NEXT = 6, PENDING = 7,
+            PENDING_RANK = 8, SEAT = 9;
+
+    private UnoZobrist() {
+    }
+
+    /**
+     * Scrambles a number so every bit of the result depends on every bit of the input (the SplitMix64 finisher).
+     * Different inputs always give different outputs.
+     * @param x The number.
+     * @return The scrambled number.
+     */
+    public static long mix(long x) {
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return x ^ (x >>> 31);
+    }
+
+    /**
+     * @param part  Which part of the position (CARD, TOP, ...).
+     * @param value The part's value, e.g. a card code or a seat.
+     * @return The key for that part having that value.
+     */
+    static long key(int part, int value) {
+        return mix(((long) part << 32 | (value & 0xFFFFFFFFL)) + 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * @param c A card.
+     * @return The card's key. Identical cards have the same key, even if they are different objects.
+     */
+    public static long card(UnoCard c) {
+        return key(CARD, c.toCode());
+    }
+
+    /**
+     * Combines a hand's hash with its seat, so swapping two hands gives a different position.
+     * @param seat     The seat.
+     * @param handHash The hand's {@link UnoHand#getHash()}.
+     * @return The key to XOR into the position hash.
+     */
+    static long seat(int seat, long handHash) {
+        return mix(handHash + key(SEAT, seat));
+    }
+}